@@ -15,17 +15,20 @@ import static org.junit.jupiter.api.AssertionUtils.nullSafeGet;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.time.Duration;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import org.junit.jupiter.api.function.Executable;
 import org.junit.jupiter.api.function.ThrowingSupplier;
 import org.junit.platform.commons.util.ExceptionUtils;
+import org.junit.platform.commons.util.ThreadContextPropagation;
 import org.opentest4j.AssertionFailedError;
 
 /**
@@ -124,36 +127,89 @@ class AssertTimeout {
 	private static <T> T assertTimeoutPreemptively(Duration timeout, ThrowingSupplier<T> supplier,
 			Object messageOrSupplier) {
 
-		ExecutorService executorService = Executors.newSingleThreadExecutor();
+		Future<T> future = TimeoutThreadPool.submit(() -> {
+			try {
+				return supplier.get();
+			}
+			catch (Throwable throwable) {
+				throw ExceptionUtils.throwAsUncheckedException(throwable);
+			}
+		});
 
+		long timeoutInMillis = timeout.toMillis();
 		try {
-			Future<T> future = executorService.submit(() -> {
+			return future.get(timeoutInMillis, TimeUnit.MILLISECONDS);
+		}
+		catch (TimeoutException ex) {
+			throw new AssertionFailedError(buildPrefix(nullSafeGet(messageOrSupplier)) + "execution timed out after "
+					+ timeoutInMillis + " ms");
+		}
+		catch (ExecutionException ex) {
+			throw ExceptionUtils.throwAsUncheckedException(ex.getCause());
+		}
+		catch (Throwable ex) {
+			throw ExceptionUtils.throwAsUncheckedException(ex);
+		}
+		finally {
+			future.cancel(true);
+		}
+	}
+
+	/**
+	 * Shared pool of daemon threads used to execute the code under test for
+	 * {@code assertTimeoutPreemptively()}.
+	 *
+	 * <p>The pool is created lazily, retains at most {@link #MAX_POOL_SIZE}
+	 * threads, and lets idle threads terminate after {@link #KEEP_ALIVE_SECONDS}
+	 * seconds. Threads executing code that does not respond to interruption are
+	 * never returned to the pool. If all pooled threads are busy, for example
+	 * because of such code or because assertions are invoked concurrently, the
+	 * code under test is executed in a new dedicated thread instead so that
+	 * invocations never wait for a free thread.
+	 *
+	 * <p>Since threads are reused, the code under test is executed with the
+	 * context class loader of the calling thread which is restored afterwards.
+	 * Thread-bound state registered with {@link ThreadContextPropagation}, for
+	 * example, the output capture of the current test, is transferred likewise.
+	 */
+	static class TimeoutThreadPool {
+
+		static final int MAX_POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+		static final long KEEP_ALIVE_SECONDS = 30;
+
+		private static final AtomicInteger threadNumber = new AtomicInteger(1);
+
+		private static final ThreadPoolExecutor executor = createExecutor();
+
+		private static ThreadPoolExecutor createExecutor() {
+			return new ThreadPoolExecutor(0, MAX_POOL_SIZE, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+				new SynchronousQueue<>(), runnable -> newThread(runnable, "junit-timeout-thread-"),
+				(runnable, pool) -> newThread(runnable, "junit-timeout-overflow-thread-").start());
+		}
+
+		private static Thread newThread(Runnable runnable, String namePrefix) {
+			Thread thread = new Thread(runnable, namePrefix + threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+
+		static <T> Future<T> submit(Callable<T> callable) {
+			ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+			Callable<T> task = ThreadContextPropagation.wrap(callable);
+			return executor.submit(() -> {
+				Thread thread = Thread.currentThread();
+				ClassLoader originalClassLoader = thread.getContextClassLoader();
+				thread.setContextClassLoader(contextClassLoader);
 				try {
-					return supplier.get();
+					return task.call();
 				}
-				catch (Throwable throwable) {
-					throw ExceptionUtils.throwAsUncheckedException(throwable);
+				finally {
+					thread.setContextClassLoader(originalClassLoader);
 				}
 			});
-
-			long timeoutInMillis = timeout.toMillis();
-			try {
-				return future.get(timeoutInMillis, TimeUnit.MILLISECONDS);
-			}
-			catch (TimeoutException ex) {
-				throw new AssertionFailedError(buildPrefix(nullSafeGet(messageOrSupplier))
-						+ "execution timed out after " + timeoutInMillis + " ms");
-			}
-			catch (ExecutionException ex) {
-				throw ExceptionUtils.throwAsUncheckedException(ex.getCause());
-			}
-			catch (Throwable ex) {
-				throw ExceptionUtils.throwAsUncheckedException(ex);
-			}
-		}
-		finally {
-			executorService.shutdownNow();
 		}
+
 	}
 
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.jupiter.api;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+import org.apiguardian.api.API;
+
+/**
+ * {@code @Timeout} is used to declare that the execution of a test method,
+ * test factory method, test template method, or lifecycle method should fail
+ * if it exceeds the supplied duration.
+ *
+ * <p>When the timeout expires, the thread executing the method is
+ * {@linkplain Thread#interrupt() interrupted} and the method is reported as
+ * failed with a {@link java.util.concurrent.TimeoutException} whose stack
+ * trace is the stack trace of the executing thread at the time the timeout
+ * expired. The method is executed in the same thread as usual; timeouts are
+ * enforced by a single watchdog thread that is shared by all tests.
+ *
+ * <p>Declaring {@code @Timeout} on a test class applies it to all test, test
+ * factory, and test template methods declared in that class, its subclasses,
+ * and its {@link Nested @Nested} classes unless they are annotated with
+ * {@code @Timeout} themselves. Lifecycle methods are not affected by a
+ * class-level declaration.
+ *
+ * <p>If no {@code @Timeout} is present, the default timeout configured via the
+ * {@code junit.jupiter.execution.timeout.default} configuration parameter
+ * applies, if any.
+ *
+ * @since 5.4
+ * @see Assertions#assertTimeoutPreemptively(java.time.Duration, org.junit.jupiter.api.function.Executable)
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@API(status = EXPERIMENTAL, since = "5.4")
+public @interface Timeout {
+
+	/**
+	 * The duration of this timeout; must be positive.
+	 *
+	 * @return timeout duration
+	 */
+	long value();
+
+	/**
+	 * The time unit of this timeout.
+	 *
+	 * @return time unit
+	 * @see TimeUnit
+	 */
+	TimeUnit unit() default TimeUnit.SECONDS;
+
+}
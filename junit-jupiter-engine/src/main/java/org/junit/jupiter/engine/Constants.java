@@ -12,15 +12,29 @@ package org.junit.jupiter.engine;
 
 import static org.apiguardian.api.API.Status.EXPERIMENTAL;
 import static org.apiguardian.api.API.Status.STABLE;
+import static org.junit.platform.engine.support.hierarchical.ContainerAdmissionControl.CONFIG_HEAP_THRESHOLD_PROPERTY_NAME;
+import static org.junit.platform.engine.support.hierarchical.ContainerAdmissionControl.CONFIG_MAX_OPEN_CONTAINERS_PROPERTY_NAME;
+import static org.junit.platform.engine.support.hierarchical.DefaultParallelExecutionConfigurationStrategy.CONFIG_ADAPTIVE_MAX_PARALLELISM_PROPERTY_NAME;
+import static org.junit.platform.engine.support.hierarchical.DefaultParallelExecutionConfigurationStrategy.CONFIG_ADAPTIVE_MIN_PARALLELISM_PROPERTY_NAME;
+import static org.junit.platform.engine.support.hierarchical.DefaultParallelExecutionConfigurationStrategy.CONFIG_ADAPTIVE_SAMPLE_INTERVAL_PROPERTY_NAME;
 import static org.junit.platform.engine.support.hierarchical.DefaultParallelExecutionConfigurationStrategy.CONFIG_CUSTOM_CLASS_PROPERTY_NAME;
 import static org.junit.platform.engine.support.hierarchical.DefaultParallelExecutionConfigurationStrategy.CONFIG_DYNAMIC_FACTOR_PROPERTY_NAME;
 import static org.junit.platform.engine.support.hierarchical.DefaultParallelExecutionConfigurationStrategy.CONFIG_FIXED_PARALLELISM_PROPERTY_NAME;
 import static org.junit.platform.engine.support.hierarchical.DefaultParallelExecutionConfigurationStrategy.CONFIG_STRATEGY_PROPERTY_NAME;
+import static org.junit.platform.engine.support.hierarchical.DynamicTestBackpressure.CONFIG_BACKPRESSURE_PROPERTY_NAME;
+import static org.junit.platform.engine.support.hierarchical.DynamicTestBackpressure.CONFIG_MAX_IN_FLIGHT_PROPERTY_NAME;
+import static org.junit.platform.engine.support.hierarchical.ExecutionDurationHistory.CONFIG_FILE_PROPERTY_NAME;
+import static org.junit.platform.engine.support.hierarchical.HierarchicalTestExecutorServiceFactory.CONFIG_EXECUTOR_SERVICE_PROPERTY_NAME;
+import static org.junit.platform.engine.support.hierarchical.ParallelExecutionMetrics.CONFIG_ENABLED_PROPERTY_NAME;
+import static org.junit.platform.engine.support.hierarchical.ResourceLockPlacement.CONFIG_LOCK_PLACEMENT_PROPERTY_NAME;
+import static org.junit.platform.engine.support.hierarchical.ThreadPerTaskHierarchicalTestExecutorService.CONFIG_VIRTUAL_THREADS_PROPERTY_NAME;
 
 import org.apiguardian.api.API;
 import org.junit.jupiter.engine.descriptor.TestInstanceLifecycleUtils;
+import org.junit.jupiter.engine.descriptor.TimeoutUtils;
 import org.junit.jupiter.engine.execution.ConditionEvaluator;
 import org.junit.jupiter.engine.extension.ExtensionRegistry;
+import org.junit.platform.engine.support.hierarchical.HierarchicalTestExecutorService;
 import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfigurationStrategy;
 
 /**
@@ -95,6 +109,26 @@ public final class Constants {
 	 */
 	public static final String DEFAULT_TEST_INSTANCE_LIFECYCLE_PROPERTY_NAME = TestInstanceLifecycleUtils.DEFAULT_TEST_INSTANCE_LIFECYCLE_PROPERTY_NAME;
 
+	/**
+	 * Property name used to set the default timeout of all testable and
+	 * lifecycle methods that are not annotated with
+	 * {@link org.junit.jupiter.api.Timeout @Timeout}: {@value}
+	 *
+	 * <h3>Supported Values</h3>
+	 *
+	 * <p>Supported values are positive durations of the form
+	 * {@code <number> [ns|μs|ms|s|m|h|d]}, ignoring case, for example
+	 * {@code 500 ms} or {@code 2m}. If the unit is omitted, seconds are used.
+	 *
+	 * <p>If not specified, methods that are not annotated with
+	 * {@code @Timeout} do not time out.
+	 *
+	 * @see org.junit.jupiter.api.Timeout
+	 * @since 5.4
+	 */
+	@API(status = EXPERIMENTAL, since = "5.4")
+	public static final String DEFAULT_TIMEOUT_PROPERTY_NAME = TimeoutUtils.DEFAULT_TIMEOUT_PROPERTY_NAME;
+
 	/**
 	 * Property name used to enable parallel test execution: {@value}
 	 *
@@ -111,8 +145,8 @@ public final class Constants {
 	 * Property name used to select the
 	 * {@link ParallelExecutionConfigurationStrategy}: {@value}
 	 *
-	 * <p>Potential values: {@code dynamic} (default), {@code fixed}, or
-	 * {@code custom}.
+	 * <p>Potential values: {@code dynamic} (default), {@code fixed},
+	 * {@code adaptive}, or {@code custom}.
 	 *
 	 * @since 5.3
 	 */
@@ -156,6 +190,178 @@ public final class Constants {
 	public static final String PARALLEL_CONFIG_CUSTOM_CLASS_PROPERTY_NAME = PARALLEL_CONFIG_PREFIX
 			+ CONFIG_CUSTOM_CLASS_PROPERTY_NAME;
 
+	/**
+	 * Property name used to set the lower bound of the parallelism for the
+	 * {@code adaptive} configuration strategy: {@value}
+	 *
+	 * <p>Value must be a positive integer; defaults to {@code 1}.
+	 *
+	 * @since 5.4
+	 */
+	@API(status = EXPERIMENTAL, since = "5.4")
+	public static final String PARALLEL_CONFIG_ADAPTIVE_MIN_PARALLELISM_PROPERTY_NAME = PARALLEL_CONFIG_PREFIX
+			+ CONFIG_ADAPTIVE_MIN_PARALLELISM_PROPERTY_NAME;
+
+	/**
+	 * Property name used to set the upper bound of the parallelism for the
+	 * {@code adaptive} configuration strategy: {@value}
+	 *
+	 * <p>Value must be a positive integer; defaults to four times the number
+	 * of available processors/cores.
+	 *
+	 * @since 5.4
+	 */
+	@API(status = EXPERIMENTAL, since = "5.4")
+	public static final String PARALLEL_CONFIG_ADAPTIVE_MAX_PARALLELISM_PROPERTY_NAME = PARALLEL_CONFIG_PREFIX
+			+ CONFIG_ADAPTIVE_MAX_PARALLELISM_PROPERTY_NAME;
+
+	/**
+	 * Property name used to set the interval in milliseconds at which the
+	 * {@code adaptive} configuration strategy adjusts the parallelism:
+	 * {@value}
+	 *
+	 * <p>Value must be a positive integer; defaults to {@code 500}.
+	 *
+	 * @since 5.4
+	 */
+	@API(status = EXPERIMENTAL, since = "5.4")
+	public static final String PARALLEL_CONFIG_ADAPTIVE_SAMPLE_INTERVAL_PROPERTY_NAME = PARALLEL_CONFIG_PREFIX
+			+ CONFIG_ADAPTIVE_SAMPLE_INTERVAL_PROPERTY_NAME;
+
+	/**
+	 * Property name used to select the {@link HierarchicalTestExecutorService}
+	 * used for parallel test execution: {@value}
+	 *
+	 * <p>Potential values: {@code fork_join_pool} (default),
+	 * {@code thread_per_task}, {@code same_thread}, or the fully qualified
+	 * class name of a custom {@link HierarchicalTestExecutorService}
+	 * implementation.
+	 *
+	 * @since 5.4
+	 */
+	@API(status = EXPERIMENTAL, since = "5.4")
+	public static final String PARALLEL_CONFIG_EXECUTOR_SERVICE_PROPERTY_NAME = PARALLEL_CONFIG_PREFIX
+			+ CONFIG_EXECUTOR_SERVICE_PROPERTY_NAME;
+
+	/**
+	 * Property name used to determine whether the {@code thread_per_task}
+	 * executor service should use virtual threads if the current Java runtime
+	 * supports them: {@value}
+	 *
+	 * <p>Value must be either {@code true} or {@code false}; defaults to
+	 * {@code true}.
+	 *
+	 * @since 5.4
+	 */
+	@API(status = EXPERIMENTAL, since = "5.4")
+	public static final String PARALLEL_CONFIG_THREAD_PER_TASK_VIRTUAL_THREADS_PROPERTY_NAME = PARALLEL_CONFIG_PREFIX
+			+ CONFIG_VIRTUAL_THREADS_PROPERTY_NAME;
+
+	/**
+	 * Property name used to specify the path of the file used to persist the
+	 * execution durations of tests and containers across runs: {@value}
+	 *
+	 * <p>If set, concurrently executed siblings are ordered by their recorded
+	 * durations, longest first, to reduce the total execution time.
+	 *
+	 * <p>No default value; if not set, siblings are executed in their
+	 * declaration order.
+	 *
+	 * @since 5.4
+	 */
+	@API(status = EXPERIMENTAL, since = "5.4")
+	public static final String PARALLEL_CONFIG_DURATION_HISTORY_FILE_PROPERTY_NAME = PARALLEL_CONFIG_PREFIX
+			+ CONFIG_FILE_PROPERTY_NAME;
+
+	/**
+	 * Property name used to select the placement of resource locks declared
+	 * via {@link org.junit.jupiter.api.parallel.ResourceLock @ResourceLock}:
+	 * {@value}
+	 *
+	 * <p>Potential values: {@code coarse_grained} (default) or
+	 * {@code fine_grained}.
+	 *
+	 * @since 5.4
+	 * @see org.junit.platform.engine.support.hierarchical.ResourceLockPlacement
+	 */
+	@API(status = EXPERIMENTAL, since = "5.4")
+	public static final String PARALLEL_CONFIG_LOCK_PLACEMENT_PROPERTY_NAME = PARALLEL_CONFIG_PREFIX
+			+ CONFIG_LOCK_PLACEMENT_PROPERTY_NAME;
+
+	/**
+	 * Property name used to enable recording of executor and resource lock
+	 * contention metrics during parallel execution: {@value}
+	 *
+	 * <p>If enabled, the metrics are published as a report entry of the
+	 * engine descriptor at the end of the run.
+	 *
+	 * <p>Value must be either {@code true} or {@code false}; defaults to
+	 * {@code false}.
+	 *
+	 * @since 5.4
+	 * @see org.junit.platform.engine.support.hierarchical.ParallelExecutionMetrics
+	 */
+	@API(status = EXPERIMENTAL, since = "5.4")
+	public static final String PARALLEL_CONFIG_METRICS_ENABLED_PROPERTY_NAME = PARALLEL_CONFIG_PREFIX
+			+ CONFIG_ENABLED_PROPERTY_NAME;
+
+	/**
+	 * Property name used to select the backpressure applied to dynamic tests
+	 * returned by {@link org.junit.jupiter.api.TestFactory @TestFactory}
+	 * methods when using the {@code fork_join_pool} executor service: {@value}
+	 *
+	 * <p>Potential values: {@code adaptive} (default), {@code per_factory}, or
+	 * {@code global}.
+	 *
+	 * @since 5.4
+	 * @see org.junit.platform.engine.support.hierarchical.DynamicTestBackpressure
+	 */
+	@API(status = EXPERIMENTAL, since = "5.4")
+	public static final String PARALLEL_CONFIG_DYNAMIC_TESTS_BACKPRESSURE_PROPERTY_NAME = PARALLEL_CONFIG_PREFIX
+			+ CONFIG_BACKPRESSURE_PROPERTY_NAME;
+
+	/**
+	 * Property name used to specify the maximum number of pending dynamic
+	 * tests for {@code per_factory} and {@code global} backpressure: {@value}
+	 *
+	 * <p>Value must be a positive integer; defaults to the parallelism.
+	 *
+	 * @since 5.4
+	 */
+	@API(status = EXPERIMENTAL, since = "5.4")
+	public static final String PARALLEL_CONFIG_DYNAMIC_TESTS_MAX_IN_FLIGHT_PROPERTY_NAME = PARALLEL_CONFIG_PREFIX
+			+ CONFIG_MAX_IN_FLIGHT_PROPERTY_NAME;
+
+	/**
+	 * Property name used to limit the number of top-level test classes that
+	 * may be executing at the same time during parallel execution: {@value}
+	 *
+	 * <p>Value must be a positive integer; no default value, i.e. the number of
+	 * concurrently executing classes is not limited.
+	 *
+	 * @since 5.4
+	 * @see org.junit.platform.engine.support.hierarchical.ContainerAdmissionControl
+	 */
+	@API(status = EXPERIMENTAL, since = "5.4")
+	public static final String PARALLEL_CONFIG_ADMISSION_MAX_OPEN_CONTAINERS_PROPERTY_NAME = PARALLEL_CONFIG_PREFIX
+			+ CONFIG_MAX_OPEN_CONTAINERS_PROPERTY_NAME;
+
+	/**
+	 * Property name used to specify the fraction of the maximum heap size the
+	 * used heap after garbage collection must not exceed for the execution of
+	 * further top-level test classes to be started during parallel execution:
+	 * {@value}
+	 *
+	 * <p>Value must be a decimal number greater than {@code 0} and less than
+	 * or equal to {@code 1}, e.g. {@code 0.8}; no default value.
+	 *
+	 * @since 5.4
+	 * @see org.junit.platform.engine.support.hierarchical.ContainerAdmissionControl
+	 */
+	@API(status = EXPERIMENTAL, since = "5.4")
+	public static final String PARALLEL_CONFIG_ADMISSION_HEAP_THRESHOLD_PROPERTY_NAME = PARALLEL_CONFIG_PREFIX
+			+ CONFIG_HEAP_THRESHOLD_PROPERTY_NAME;
+
 	private Constants() {
 		/* no-op */
 	}
@@ -25,9 +25,14 @@ import org.junit.platform.engine.ExecutionRequest;
 import org.junit.platform.engine.TestDescriptor;
 import org.junit.platform.engine.UniqueId;
 import org.junit.platform.engine.support.config.PrefixedConfigurationParameters;
-import org.junit.platform.engine.support.hierarchical.ForkJoinPoolHierarchicalTestExecutorService;
+import org.junit.platform.engine.support.discovery.DiscoveryCache;
+import org.junit.platform.engine.support.hierarchical.ContainerAdmissionControl;
+import org.junit.platform.engine.support.hierarchical.ExecutionDurationHistory;
 import org.junit.platform.engine.support.hierarchical.HierarchicalTestEngine;
 import org.junit.platform.engine.support.hierarchical.HierarchicalTestExecutorService;
+import org.junit.platform.engine.support.hierarchical.HierarchicalTestExecutorServiceFactory;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionMetrics;
+import org.junit.platform.engine.support.hierarchical.ResourceLockPlacement;
 import org.junit.platform.engine.support.hierarchical.ThrowableCollector;
 
 /**
@@ -62,7 +67,9 @@ public final class JupiterTestEngine extends HierarchicalTestEngine<JupiterEngin
 	@Override
 	public TestDescriptor discover(EngineDiscoveryRequest discoveryRequest, UniqueId uniqueId) {
 		JupiterEngineDescriptor engineDescriptor = new JupiterEngineDescriptor(uniqueId);
-		new DiscoverySelectorResolver().resolveSelectors(discoveryRequest, engineDescriptor);
+		DiscoveryCache discoveryCache = DiscoveryCache.fromConfigurationParameters(
+			discoveryRequest.getConfigurationParameters(), this).orElse(null);
+		new DiscoverySelectorResolver(discoveryCache).resolveSelectors(discoveryRequest, engineDescriptor);
 		return engineDescriptor;
 	}
 
@@ -70,12 +77,64 @@ public final class JupiterTestEngine extends HierarchicalTestEngine<JupiterEngin
 	protected HierarchicalTestExecutorService createExecutorService(ExecutionRequest request) {
 		ConfigurationParameters config = request.getConfigurationParameters();
 		if (config.getBoolean(Constants.PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME).orElse(false)) {
-			return new ForkJoinPoolHierarchicalTestExecutorService(
+			return HierarchicalTestExecutorServiceFactory.create(
 				new PrefixedConfigurationParameters(config, Constants.PARALLEL_CONFIG_PREFIX));
 		}
 		return super.createExecutorService(request);
 	}
 
+	/**
+	 * @since 5.4
+	 */
+	@Override
+	protected Optional<ExecutionDurationHistory> createExecutionDurationHistory(ExecutionRequest request) {
+		ConfigurationParameters config = request.getConfigurationParameters();
+		if (config.getBoolean(Constants.PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME).orElse(false)) {
+			return ExecutionDurationHistory.fromConfigurationParameters(
+				new PrefixedConfigurationParameters(config, Constants.PARALLEL_CONFIG_PREFIX));
+		}
+		return super.createExecutionDurationHistory(request);
+	}
+
+	/**
+	 * @since 5.4
+	 */
+	@Override
+	protected ResourceLockPlacement getResourceLockPlacement(ExecutionRequest request) {
+		ConfigurationParameters config = request.getConfigurationParameters();
+		if (config.getBoolean(Constants.PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME).orElse(false)) {
+			return ResourceLockPlacement.fromConfigurationParameters(
+				new PrefixedConfigurationParameters(config, Constants.PARALLEL_CONFIG_PREFIX));
+		}
+		return super.getResourceLockPlacement(request);
+	}
+
+	/**
+	 * @since 5.4
+	 */
+	@Override
+	protected Optional<ParallelExecutionMetrics> createParallelExecutionMetrics(ExecutionRequest request) {
+		ConfigurationParameters config = request.getConfigurationParameters();
+		if (config.getBoolean(Constants.PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME).orElse(false)) {
+			return ParallelExecutionMetrics.fromConfigurationParameters(
+				new PrefixedConfigurationParameters(config, Constants.PARALLEL_CONFIG_PREFIX));
+		}
+		return super.createParallelExecutionMetrics(request);
+	}
+
+	/**
+	 * @since 5.4
+	 */
+	@Override
+	protected Optional<ContainerAdmissionControl> createContainerAdmissionControl(ExecutionRequest request) {
+		ConfigurationParameters config = request.getConfigurationParameters();
+		if (config.getBoolean(Constants.PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME).orElse(false)) {
+			return ContainerAdmissionControl.fromConfigurationParameters(
+				new PrefixedConfigurationParameters(config, Constants.PARALLEL_CONFIG_PREFIX));
+		}
+		return super.createContainerAdmissionControl(request);
+	}
+
 	@Override
 	protected JupiterEngineExecutionContext createExecutionContext(ExecutionRequest request) {
 		return new JupiterEngineExecutionContext(request.getEngineExecutionListener(),
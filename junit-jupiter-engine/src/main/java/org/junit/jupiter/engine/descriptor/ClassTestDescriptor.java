@@ -362,8 +362,8 @@ public class ClassTestDescriptor extends JupiterTestDescriptor {
 		Object testInstance = extensionContext.getTestInstance().orElse(null);
 
 		for (Method method : this.beforeAllMethods) {
-			throwableCollector.execute(
-				() -> executableInvoker.invoke(method, testInstance, extensionContext, registry));
+			throwableCollector.execute(() -> TimeoutUtils.invokeWithTimeout(method, null, extensionContext,
+				() -> executableInvoker.invoke(method, testInstance, extensionContext, registry)));
 			if (throwableCollector.isNotEmpty()) {
 				break;
 			}
@@ -376,8 +376,9 @@ public class ClassTestDescriptor extends JupiterTestDescriptor {
 		ThrowableCollector throwableCollector = context.getThrowableCollector();
 		Object testInstance = extensionContext.getTestInstance().orElse(null);
 
-		this.afterAllMethods.forEach(method -> throwableCollector.execute(
-			() -> executableInvoker.invoke(method, testInstance, extensionContext, registry)));
+		this.afterAllMethods.forEach(
+			method -> throwableCollector.execute(() -> TimeoutUtils.invokeWithTimeout(method, null, extensionContext,
+				() -> executableInvoker.invoke(method, testInstance, extensionContext, registry))));
 	}
 
 	private void invokeAfterAllCallbacks(JupiterEngineExecutionContext context) {
@@ -421,12 +422,15 @@ public class ClassTestDescriptor extends JupiterTestDescriptor {
 		return (extensionContext, registry) -> invokeMethodInExtensionContext(method, extensionContext, registry);
 	}
 
-	private void invokeMethodInExtensionContext(Method method, ExtensionContext context, ExtensionRegistry registry) {
-		Object testInstance = context.getRequiredTestInstance();
-		testInstance = ReflectionUtils.getOutermostInstance(testInstance, method.getDeclaringClass()).orElseThrow(
-			() -> new JUnitException("Failed to find instance for method: " + method.toGenericString()));
+	private void invokeMethodInExtensionContext(Method method, ExtensionContext context, ExtensionRegistry registry)
+			throws Throwable {
 
-		executableInvoker.invoke(method, testInstance, context, registry);
+		Object testInstance = ReflectionUtils.getOutermostInstance(context.getRequiredTestInstance(),
+			method.getDeclaringClass()).orElseThrow(
+				() -> new JUnitException("Failed to find instance for method: " + method.toGenericString()));
+
+		TimeoutUtils.invokeWithTimeout(method, null, context,
+			() -> executableInvoker.invoke(method, testInstance, context, registry));
 	}
 
 }
@@ -83,8 +83,9 @@ public class TestFactoryTestDescriptor extends TestMethodTestDescriptor implemen
 
 		context.getThrowableCollector().execute(() -> {
 			Object instance = extensionContext.getRequiredTestInstance();
-			Object testFactoryMethodResult = executableInvoker.invoke(getTestMethod(), instance, extensionContext,
-				context.getExtensionRegistry());
+			Object testFactoryMethodResult = TimeoutUtils.invokeWithTimeout(getTestMethod(), getTestClass(),
+				extensionContext, () -> executableInvoker.invoke(getTestMethod(), instance, extensionContext,
+					context.getExtensionRegistry()));
 			TestSource defaultTestSource = getSource().orElseThrow(
 				() -> new JUnitException("Illegal state: TestSource must be present"));
 			try (Stream<DynamicNode> dynamicNodeStream = toDynamicNodeStream(testFactoryMethodResult)) {
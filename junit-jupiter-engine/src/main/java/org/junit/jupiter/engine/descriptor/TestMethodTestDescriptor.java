@@ -168,7 +168,9 @@ public class TestMethodTestDescriptor extends MethodBasedTestDescriptor {
 			try {
 				Method testMethod = getTestMethod();
 				Object instance = extensionContext.getRequiredTestInstance();
-				executableInvoker.invoke(testMethod, instance, extensionContext, context.getExtensionRegistry());
+				ExtensionRegistry registry = context.getExtensionRegistry();
+				TimeoutUtils.invokeWithTimeout(testMethod, getTestClass(), extensionContext,
+					() -> executableInvoker.invoke(testMethod, instance, extensionContext, registry));
 			}
 			catch (Throwable throwable) {
 				invokeTestExecutionExceptionHandlers(context.getExtensionRegistry(), extensionContext, throwable);
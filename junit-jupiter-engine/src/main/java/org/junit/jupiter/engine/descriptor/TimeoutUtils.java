@@ -0,0 +1,156 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.jupiter.engine.descriptor;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apiguardian.api.API;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+import org.junit.jupiter.engine.execution.TimeoutWatchdog;
+import org.junit.platform.commons.logging.Logger;
+import org.junit.platform.commons.logging.LoggerFactory;
+import org.junit.platform.commons.util.AnnotationUtils;
+import org.junit.platform.commons.util.ClassUtils;
+import org.junit.platform.commons.util.Preconditions;
+import org.junit.platform.commons.util.ReflectionUtils;
+
+/**
+ * Collection of utilities for resolving and enforcing {@link Timeout @Timeout}
+ * declarations and the default timeout.
+ *
+ * @since 5.4
+ * @see Timeout
+ * @see TimeoutWatchdog
+ */
+@API(status = INTERNAL, since = "5.4")
+public final class TimeoutUtils {
+
+	public static final String DEFAULT_TIMEOUT_PROPERTY_NAME = "junit.jupiter.execution.timeout.default";
+
+	private static final Logger logger = LoggerFactory.getLogger(TimeoutUtils.class);
+
+	private static final Pattern DURATION_PATTERN = Pattern.compile("([1-9]\\d*) ?(ns|μs|ms|s|m|h|d)?",
+		Pattern.CASE_INSENSITIVE);
+
+	private static final Map<String, Optional<Duration>> parsedDefaultTimeouts = new ConcurrentHashMap<>();
+
+	private TimeoutUtils() {
+		/* no-op */
+	}
+
+	/**
+	 * Invoke the supplied method while enforcing the timeout declared on it via
+	 * {@code @Timeout} or the default timeout, if any.
+	 *
+	 * @param testClass the test class to look up class-level {@code @Timeout}
+	 * declarations on for testable methods or {@code null} for lifecycle methods
+	 */
+	static <T> T invokeWithTimeout(Method method, Class<?> testClass, ExtensionContext extensionContext,
+			ThrowingSupplier<T> invocation) throws Throwable {
+
+		Optional<Duration> timeout = getTimeout(method, testClass, extensionContext);
+		if (!timeout.isPresent()) {
+			return invocation.get();
+		}
+		return TimeoutWatchdog.getSharedInstance().execute(timeout.get(),
+			() -> method.getName() + "(" + ClassUtils.nullSafeToString(method.getParameterTypes()) + ")", invocation);
+	}
+
+	static Optional<Duration> getTimeout(Method method, Class<?> testClass, ExtensionContext extensionContext) {
+		Optional<Duration> declaredTimeout = findDeclaredTimeout(method);
+		Class<?> clazz = testClass;
+		while (!declaredTimeout.isPresent() && clazz != null) {
+			declaredTimeout = findDeclaredTimeout(clazz);
+			clazz = ReflectionUtils.isInnerClass(clazz) ? clazz.getEnclosingClass() : null;
+		}
+		if (declaredTimeout.isPresent()) {
+			return declaredTimeout;
+		}
+		return extensionContext.getConfigurationParameter(DEFAULT_TIMEOUT_PROPERTY_NAME).flatMap(
+			value -> parsedDefaultTimeouts.computeIfAbsent(value, TimeoutUtils::parseDefaultTimeout));
+	}
+
+	private static Optional<Duration> findDeclaredTimeout(AnnotatedElement element) {
+		return AnnotationUtils.findAnnotation(element, Timeout.class).map(timeout -> {
+			Preconditions.condition(timeout.value() > 0,
+				() -> String.format("@Timeout on [%s] must declare a positive value", element));
+			return Duration.ofNanos(timeout.unit().toNanos(timeout.value()));
+		});
+	}
+
+	private static Optional<Duration> parseDefaultTimeout(String value) {
+		Optional<Duration> timeout = parseDuration(value);
+		if (timeout.isPresent()) {
+			logger.info(() -> String.format("Using default timeout '%s' set via the '%s' configuration parameter.",
+				value, DEFAULT_TIMEOUT_PROPERTY_NAME));
+		}
+		else {
+			logger.warn(() -> String.format(
+				"Invalid timeout '%s' set via the '%s' configuration parameter. Falling back to no default timeout.",
+				value, DEFAULT_TIMEOUT_PROPERTY_NAME));
+		}
+		return timeout;
+	}
+
+	/**
+	 * Parse a duration of the form {@code <number> [ns|μs|ms|s|m|h|d]}.
+	 *
+	 * <p>The unit is optional and defaults to seconds.
+	 */
+	static Optional<Duration> parseDuration(String value) {
+		Matcher matcher = DURATION_PATTERN.matcher(value.trim());
+		if (!matcher.matches()) {
+			return Optional.empty();
+		}
+		long amount;
+		try {
+			amount = Long.parseLong(matcher.group(1));
+		}
+		catch (NumberFormatException e) {
+			return Optional.empty();
+		}
+		String unit = matcher.group(2) == null ? "s" : matcher.group(2).toLowerCase(Locale.ROOT);
+		return Optional.of(Duration.of(amount, toChronoUnit(unit)));
+	}
+
+	private static ChronoUnit toChronoUnit(String unit) {
+		switch (unit) {
+			case "ns":
+				return ChronoUnit.NANOS;
+			case "μs":
+				return ChronoUnit.MICROS;
+			case "ms":
+				return ChronoUnit.MILLIS;
+			case "m":
+				return ChronoUnit.MINUTES;
+			case "h":
+				return ChronoUnit.HOURS;
+			case "d":
+				return ChronoUnit.DAYS;
+			default:
+				return ChronoUnit.SECONDS;
+		}
+	}
+
+}
@@ -10,13 +10,19 @@
 
 package org.junit.jupiter.engine.discovery;
 
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
 import static org.apiguardian.api.API.Status.INTERNAL;
 import static org.junit.platform.engine.support.filter.ClasspathScanningSupport.buildClassFilter;
 
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import org.apiguardian.api.API;
+import org.junit.jupiter.engine.descriptor.ClassTestDescriptor;
+import org.junit.jupiter.engine.discovery.predicates.IsPotentialTestContainer;
 import org.junit.jupiter.engine.discovery.predicates.IsTestClassWithTests;
 import org.junit.platform.commons.util.ClassFilter;
 import org.junit.platform.engine.ConfigurationParameters;
@@ -28,6 +34,7 @@ import org.junit.platform.engine.discovery.MethodSelector;
 import org.junit.platform.engine.discovery.ModuleSelector;
 import org.junit.platform.engine.discovery.PackageSelector;
 import org.junit.platform.engine.discovery.UniqueIdSelector;
+import org.junit.platform.engine.support.discovery.DiscoveryCache;
 
 /**
  * {@code DiscoverySelectorResolver} resolves {@link TestDescriptor TestDescriptors}
@@ -44,14 +51,75 @@ public class DiscoverySelectorResolver {
 
 	private static final IsTestClassWithTests isTestClassWithTests = new IsTestClassWithTests();
 
+	private static final IsPotentialTestContainer isPotentialTestContainer = new IsPotentialTestContainer();
+
+	private final DiscoveryCache discoveryCache;
+
+	public DiscoverySelectorResolver() {
+		this(null);
+	}
+
+	/**
+	 * Create a new {@code DiscoverySelectorResolver} that resolves unchanged
+	 * classes from and stores newly resolved classes in the supplied
+	 * {@link DiscoveryCache}.
+	 *
+	 * @param discoveryCache the discovery cache to use; may be {@code null}
+	 * if discovery results should not be cached
+	 * @since 5.4
+	 */
+	@API(status = INTERNAL, since = "5.4")
+	public DiscoverySelectorResolver(DiscoveryCache discoveryCache) {
+		this.discoveryCache = discoveryCache;
+	}
+
 	public void resolveSelectors(EngineDiscoveryRequest request, TestDescriptor engineDescriptor) {
-		ClassFilter classFilter = buildClassFilter(request, isTestClassWithTests);
-		resolve(request, engineDescriptor, classFilter);
+		ClassFilter classFilter = buildClassFilter(request, createTestClassPredicate());
+		JavaElementsResolver javaElementsResolver = resolve(request, engineDescriptor, classFilter);
+		if (this.discoveryCache != null) {
+			storeCompletelyResolvedClasses(javaElementsResolver, engineDescriptor);
+		}
 		filter(engineDescriptor, classFilter);
 		pruneTree(engineDescriptor);
 	}
 
-	private void resolve(EngineDiscoveryRequest request, TestDescriptor engineDescriptor, ClassFilter classFilter) {
+	private Predicate<Class<?>> createTestClassPredicate() {
+		if (this.discoveryCache == null) {
+			return isTestClassWithTests;
+		}
+		return testClass -> isPotentialTestContainer.test(testClass)
+				&& this.discoveryCache.lookup(testClass).map(snapshots -> !snapshots.isEmpty()).orElseGet(() -> {
+					boolean result = isTestClassWithTests.test(testClass);
+					if (!result) {
+						this.discoveryCache.store(testClass, emptyList());
+					}
+					return result;
+				});
+	}
+
+	/**
+	 * Store the descriptors of all completely resolved classes in the
+	 * discovery cache before they are filtered or pruned so that cached
+	 * entries do not depend on the filters of the current request.
+	 */
+	private void storeCompletelyResolvedClasses(JavaElementsResolver javaElementsResolver,
+			TestDescriptor engineDescriptor) {
+
+		for (Class<?> testClass : javaElementsResolver.getCompletelyResolvedClasses()) {
+			// @formatter:off
+			List<TestDescriptor> classDescriptors = engineDescriptor.getChildren().stream()
+					.filter(ClassTestDescriptor.class::isInstance)
+					.filter(descriptor -> ((ClassTestDescriptor) descriptor).getTestClass() == testClass)
+					.collect(toList());
+			// @formatter:on
+			this.discoveryCache.store(testClass, classDescriptors);
+		}
+		this.discoveryCache.save();
+	}
+
+	private JavaElementsResolver resolve(EngineDiscoveryRequest request, TestDescriptor engineDescriptor,
+			ClassFilter classFilter) {
+
 		JavaElementsResolver javaElementsResolver = createJavaElementsResolver(request.getConfigurationParameters(),
 			engineDescriptor, classFilter);
 
@@ -61,6 +129,7 @@ public class DiscoverySelectorResolver {
 		request.getSelectorsByType(ClassSelector.class).forEach(javaElementsResolver::resolveClass);
 		request.getSelectorsByType(MethodSelector.class).forEach(javaElementsResolver::resolveMethod);
 		request.getSelectorsByType(UniqueIdSelector.class).forEach(javaElementsResolver::resolveUniqueId);
+		return javaElementsResolver;
 	}
 
 	private void filter(TestDescriptor engineDescriptor, ClassFilter classFilter) {
@@ -79,7 +148,7 @@ public class DiscoverySelectorResolver {
 		resolvers.add(new TestMethodResolver());
 		resolvers.add(new TestFactoryMethodResolver());
 		resolvers.add(new TestTemplateMethodResolver());
-		return new JavaElementsResolver(engineDescriptor, classFilter, resolvers);
+		return new JavaElementsResolver(engineDescriptor, classFilter, resolvers, this.discoveryCache);
 	}
 
 }
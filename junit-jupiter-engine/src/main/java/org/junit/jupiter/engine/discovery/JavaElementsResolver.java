@@ -23,6 +23,7 @@ import static org.junit.platform.commons.util.ReflectionUtils.findNestedClasses;
 
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
@@ -37,6 +38,7 @@ import org.junit.jupiter.engine.descriptor.ClassTestDescriptor;
 import org.junit.jupiter.engine.descriptor.Filterable;
 import org.junit.jupiter.engine.descriptor.JupiterEngineDescriptor;
 import org.junit.jupiter.engine.discovery.predicates.IsInnerClass;
+import org.junit.platform.commons.JUnitException;
 import org.junit.platform.commons.logging.Logger;
 import org.junit.platform.commons.logging.LoggerFactory;
 import org.junit.platform.commons.util.ClassFilter;
@@ -50,6 +52,8 @@ import org.junit.platform.engine.discovery.MethodSelector;
 import org.junit.platform.engine.discovery.ModuleSelector;
 import org.junit.platform.engine.discovery.PackageSelector;
 import org.junit.platform.engine.discovery.UniqueIdSelector;
+import org.junit.platform.engine.support.discovery.DiscoveryCache;
+import org.junit.platform.engine.support.discovery.TestDescriptorSnapshot;
 
 /**
  * <h3>NOTES TO DEVELOPERS</h3>
@@ -76,11 +80,31 @@ class JavaElementsResolver {
 	private final TestDescriptor engineDescriptor;
 	private final ClassFilter classFilter;
 	private final Set<ElementResolver> resolvers;
+	private final DiscoveryCache discoveryCache;
+	private final Set<Class<?>> completelyResolvedClasses = new LinkedHashSet<>();
 
 	JavaElementsResolver(TestDescriptor engineDescriptor, ClassFilter classFilter, Set<ElementResolver> resolvers) {
+		this(engineDescriptor, classFilter, resolvers, null);
+	}
+
+	/**
+	 * @param discoveryCache the cache to resolve unchanged classes from; may
+	 * be {@code null} if discovery results should not be cached
+	 */
+	JavaElementsResolver(TestDescriptor engineDescriptor, ClassFilter classFilter, Set<ElementResolver> resolvers,
+			DiscoveryCache discoveryCache) {
 		this.engineDescriptor = engineDescriptor;
 		this.classFilter = classFilter;
 		this.resolvers = resolvers;
+		this.discoveryCache = discoveryCache;
+	}
+
+	/**
+	 * Get the top-level classes whose descriptors have been completely
+	 * resolved via reflection rather than from the discovery cache.
+	 */
+	Set<Class<?>> getCompletelyResolvedClasses() {
+		return this.completelyResolvedClasses;
 	}
 
 	void resolveClasspathRoot(ClasspathRootSelector selector) {
@@ -128,6 +152,12 @@ class JavaElementsResolver {
 	}
 
 	private void resolveClass(Class<?> testClass) {
+		if (this.discoveryCache != null && !isInnerClass.test(testClass)) {
+			if (resolveClassFromCache(testClass)) {
+				return;
+			}
+			this.completelyResolvedClasses.add(testClass);
+		}
 		try {
 			Set<TestDescriptor> resolvedDescriptors = resolveContainerWithParents(testClass);
 			resolvedDescriptors.forEach(this::resolveChildren);
@@ -142,6 +172,77 @@ class JavaElementsResolver {
 		}
 	}
 
+	/**
+	 * Attempt to resolve the supplied class from the discovery cache by
+	 * resolving the cached unique IDs segment by segment, which avoids
+	 * scanning the class hierarchy for test methods and nested classes.
+	 *
+	 * <p>The resolved descriptors are only attached to the test tree once all
+	 * cached unique IDs have been resolved so that a cache entry that can only
+	 * be resolved partially does not leave any descriptors behind.
+	 *
+	 * @return {@code true} if the class was resolved from the cache
+	 */
+	private boolean resolveClassFromCache(Class<?> testClass) {
+		Optional<List<TestDescriptorSnapshot>> snapshots = this.discoveryCache.lookup(testClass);
+		if (!snapshots.isPresent()) {
+			return false;
+		}
+		List<Runnable> attachments = new ArrayList<>();
+		try {
+			snapshots.get().forEach(snapshot -> resolveSnapshot(snapshot, this.engineDescriptor, attachments));
+		}
+		catch (Throwable t) {
+			rethrowIfBlacklisted(t);
+			logger.debug(t, () -> format("Class '%s' could not be resolved from discovery cache.",
+				nullSafeToString(testClass)));
+			return false;
+		}
+		attachments.forEach(Runnable::run);
+		return true;
+	}
+
+	/**
+	 * Resolve the supplied snapshot and its children below the supplied parent
+	 * and collect the modifications of the test tree required to attach them.
+	 */
+	private void resolveSnapshot(TestDescriptorSnapshot snapshot, TestDescriptor parent, List<Runnable> attachments) {
+		UniqueId uniqueId = snapshot.getUniqueId();
+		// @formatter:off
+		Optional<TestDescriptor> existingDescriptor = parent.getChildren().stream()
+				.filter(child -> child.getUniqueId().equals(uniqueId))
+				.map(TestDescriptor.class::cast)
+				.findFirst();
+		// @formatter:on
+		TestDescriptor descriptor;
+		if (existingDescriptor.isPresent()) {
+			descriptor = existingDescriptor.get();
+		}
+		else {
+			descriptor = resolveCachedUniqueId(uniqueId, parent);
+			attachments.add(() -> parent.addChild(descriptor));
+		}
+		if (descriptor instanceof Filterable) {
+			attachments.add(() -> ((Filterable) descriptor).getDynamicDescendantFilter().allowAll());
+		}
+		snapshot.getChildren().forEach(child -> resolveSnapshot(child, descriptor, attachments));
+	}
+
+	private TestDescriptor resolveCachedUniqueId(UniqueId uniqueId, TestDescriptor parent) {
+		List<Segment> segments = uniqueId.getSegments();
+		Segment segment = segments.get(segments.size() - 1);
+		// @formatter:off
+		return this.resolvers.stream()
+				.map(resolver -> resolver.resolveUniqueId(segment, parent))
+				.filter(Optional::isPresent)
+				.map(Optional::get)
+				.filter(resolved -> resolved.getUniqueId().equals(uniqueId))
+				.findFirst()
+				.orElseThrow(() -> new JUnitException(
+					format("Cached unique ID '%s' could not be resolved.", uniqueId)));
+		// @formatter:on
+	}
+
 	void resolveMethod(MethodSelector selector) {
 		try {
 			Class<?> testClass = selector.getJavaClass();
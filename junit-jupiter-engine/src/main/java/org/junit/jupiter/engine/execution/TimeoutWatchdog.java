@@ -0,0 +1,168 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.jupiter.engine.execution;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.apiguardian.api.API;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+import org.junit.platform.commons.util.Preconditions;
+
+/**
+ * {@code TimeoutWatchdog} enforces timeouts of method invocations that are
+ * executed in the calling thread.
+ *
+ * <p>All timeouts are scheduled on a single daemon thread that is shared by
+ * all invocations. When a timeout expires, the stack trace of the executing
+ * thread is captured and the thread is {@linkplain Thread#interrupt()
+ * interrupted}. Once the invocation returns, a {@link TimeoutException} is
+ * thrown whose stack trace is the one captured when the timeout expired.
+ *
+ * <p>The watchdog thread terminates when it has been idle for a while and is
+ * recreated on demand.
+ *
+ * @since 5.4
+ * @see org.junit.jupiter.api.Timeout
+ */
+@API(status = INTERNAL, since = "5.4")
+public final class TimeoutWatchdog {
+
+	private static final TimeoutWatchdog sharedInstance = new TimeoutWatchdog(createSharedExecutor());
+
+	private final ScheduledThreadPoolExecutor executor;
+
+	/**
+	 * Get the watchdog that is shared by all invocations.
+	 */
+	public static TimeoutWatchdog getSharedInstance() {
+		return sharedInstance;
+	}
+
+	private static ScheduledThreadPoolExecutor createSharedExecutor() {
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "junit-jupiter-timeout-watchdog");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.setKeepAliveTime(10, SECONDS);
+		executor.allowCoreThreadTimeOut(true);
+		executor.setRemoveOnCancelPolicy(true);
+		return executor;
+	}
+
+	TimeoutWatchdog(ScheduledThreadPoolExecutor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Execute the supplied {@link ThrowingSupplier} in the current thread and
+	 * fail with a {@link TimeoutException} if it does not complete within the
+	 * supplied timeout.
+	 *
+	 * <p>Exceptions thrown by the supplier are rethrown as is unless the
+	 * timeout expired; in that case, they are added as suppressed exceptions
+	 * to the {@code TimeoutException}.
+	 *
+	 * @param timeout the timeout; must be positive
+	 * @param descriptionSupplier supplier of the description of the invocation
+	 * used in the message of the {@code TimeoutException}
+	 * @param supplier the invocation to execute
+	 * @return the result of the supplier
+	 */
+	public <T> T execute(Duration timeout, Supplier<String> descriptionSupplier, ThrowingSupplier<T> supplier)
+			throws Throwable {
+
+		Preconditions.condition(!timeout.isNegative() && !timeout.isZero(), "timeout must be positive");
+		InterruptTask interruptTask = new InterruptTask(Thread.currentThread());
+		ScheduledFuture<?> future = this.executor.schedule(interruptTask, timeout.toNanos(), NANOSECONDS);
+		T result = null;
+		Throwable failure = null;
+		try {
+			result = supplier.get();
+		}
+		catch (Throwable t) {
+			failure = t;
+		}
+		finally {
+			future.cancel(false);
+		}
+		StackTraceElement[] stackTrace = interruptTask.complete();
+		if (stackTrace != null) {
+			TimeoutException exception = new TimeoutException(
+				String.format("%s timed out after %s", descriptionSupplier.get(), format(timeout)));
+			exception.setStackTrace(stackTrace);
+			if (failure != null) {
+				exception.addSuppressed(failure);
+			}
+			throw exception;
+		}
+		if (failure != null) {
+			throw failure;
+		}
+		return result;
+	}
+
+	static String format(Duration timeout) {
+		long nanos = timeout.toNanos();
+		if (nanos % 1_000_000 != 0) {
+			return nanos + " ns";
+		}
+		long millis = timeout.toMillis();
+		if (millis % 1_000 != 0) {
+			return millis + " ms";
+		}
+		return timeout.getSeconds() + " s";
+	}
+
+	private static class InterruptTask implements Runnable {
+
+		private final Thread thread;
+		private boolean completed;
+		private StackTraceElement[] stackTrace;
+
+		InterruptTask(Thread thread) {
+			this.thread = thread;
+		}
+
+		@Override
+		public synchronized void run() {
+			if (!this.completed) {
+				this.stackTrace = this.thread.getStackTrace();
+				this.thread.interrupt();
+			}
+		}
+
+		/**
+		 * Mark the invocation as completed and clear the interrupted status of
+		 * the current thread if the timeout has expired.
+		 *
+		 * @return the stack trace captured when the timeout expired or
+		 * {@code null} if it did not expire
+		 */
+		synchronized StackTraceElement[] complete() {
+			this.completed = true;
+			if (this.stackTrace != null) {
+				Thread.interrupted();
+			}
+			return this.stackTrace;
+		}
+
+	}
+
+}
@@ -15,12 +15,18 @@ import static org.junit.jupiter.api.AssertionTestUtils.assertMessageEquals;
 import static org.junit.jupiter.api.AssertionTestUtils.assertMessageStartsWith;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTimeout;
 import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.jupiter.api.function.Executable;
@@ -279,6 +285,62 @@ class AssertTimeoutAssertionsTests {
 		assertMessageEquals(error, "Tempus Fugit ==> execution timed out after 10 ms");
 	}
 
+	// --- thread pool ---------------------------------------------------------
+
+	@Test
+	void assertTimeoutPreemptivelyReusesPooledDaemonThreads() {
+		Set<Thread> threads = new HashSet<>();
+		for (int i = 0; i < 100; i++) {
+			threads.add(assertTimeoutPreemptively(ofMillis(500), Thread::currentThread));
+		}
+		assertTrue(threads.size() < 100, "should have reused threads");
+		threads.forEach(thread -> {
+			assertTrue(thread.isDaemon(), "should have used daemon thread");
+			assertTrue(thread.getName().startsWith("junit-timeout-"), thread.getName());
+		});
+	}
+
+	@Test
+	void assertTimeoutPreemptivelyUsesContextClassLoaderOfCallingThread() throws Exception {
+		Thread currentThread = Thread.currentThread();
+		ClassLoader originalClassLoader = currentThread.getContextClassLoader();
+		try (URLClassLoader customClassLoader = new URLClassLoader(new URL[0], originalClassLoader)) {
+			currentThread.setContextClassLoader(customClassLoader);
+			assertSame(customClassLoader,
+				assertTimeoutPreemptively(ofMillis(500), () -> Thread.currentThread().getContextClassLoader()));
+		}
+		finally {
+			currentThread.setContextClassLoader(originalClassLoader);
+		}
+		assertSame(originalClassLoader,
+			assertTimeoutPreemptively(ofMillis(500), () -> Thread.currentThread().getContextClassLoader()));
+	}
+
+	@Test
+	void assertTimeoutPreemptivelyDoesNotWaitForThreadsBlockedByNonInterruptibleCode() {
+		CountDownLatch latch = new CountDownLatch(1);
+		Executable nonInterruptible = () -> {
+			while (latch.getCount() > 0) {
+				try {
+					latch.await();
+				}
+				catch (InterruptedException ignore) {
+					// ignore interruption on purpose
+				}
+			}
+		};
+		try {
+			for (int i = 0; i <= AssertTimeout.TimeoutThreadPool.MAX_POOL_SIZE; i++) {
+				assertThrows(AssertionFailedError.class,
+					() -> assertTimeoutPreemptively(ofMillis(10), nonInterruptible));
+			}
+			assertEquals("Tempus Fugit", assertTimeoutPreemptively(ofMillis(500), () -> "Tempus Fugit"));
+		}
+		finally {
+			latch.countDown();
+		}
+	}
+
 	/**
 	 * Take a nap for 100 milliseconds.
 	 */
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.jupiter.engine;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.allOf;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+import static org.junit.platform.testkit.ExecutionEventConditions.assertRecordedExecutionEventsContainsExactly;
+import static org.junit.platform.testkit.ExecutionEventConditions.event;
+import static org.junit.platform.testkit.ExecutionEventConditions.finishedWithFailure;
+import static org.junit.platform.testkit.ExecutionEventConditions.test;
+import static org.junit.platform.testkit.TestExecutionResultConditions.isA;
+import static org.junit.platform.testkit.TestExecutionResultConditions.message;
+import static org.junit.platform.testkit.TestExecutionResultConditions.suppressed;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.testkit.ExecutionEvent;
+import org.junit.platform.testkit.ExecutionResults;
+
+/**
+ * Integration tests for {@link Timeout @Timeout} and the default timeout
+ * configured via {@link Constants#DEFAULT_TIMEOUT_PROPERTY_NAME}.
+ *
+ * @since 5.4
+ */
+class TimeoutIntegrationTests extends AbstractJupiterTestEngineTests {
+
+	@Test
+	void interruptsTestMethodThatExceedsDeclaredTimeoutAndReportsStackTraceOfStuckThread() {
+		ExecutionResults executionResults = executeTestsForClass(TimeoutTestCase.class).getExecutionResults();
+
+		assertEquals(3, executionResults.getTestStartedCount(), "# tests started");
+		assertEquals(2, executionResults.getTestFailedCount(), "# tests failed");
+		assertRecordedExecutionEventsContainsExactly(executionResults.getFailedTestFinishedEvents(), //
+			event(test("sleepingTest"),
+				finishedWithFailure(allOf(isA(TimeoutException.class),
+					message("sleepingTest() timed out after 10 ms"),
+					suppressed(0, isA(InterruptedException.class))))),
+			event(test("nestedSleepingTest"),
+				finishedWithFailure(allOf(isA(TimeoutException.class),
+					message("nestedSleepingTest() timed out after 20 ms")))));
+
+		Throwable throwable = getThrowable(executionResults.getFailedTestFinishedEvents().get(0));
+		assertThat(Arrays.stream(throwable.getStackTrace()).map(StackTraceElement::getMethodName)).contains(
+			"sleepingTest");
+		assertFalse(TimeoutTestCase.interruptedAfterEach, "interrupted status must be cleared");
+	}
+
+	@Test
+	void appliesDefaultTimeoutToLifecycleMethods() {
+		ExecutionResults executionResults = executeTests(request() //
+				.selectors(selectClass(DefaultTimeoutTestCase.class)) //
+				.configurationParameter(Constants.DEFAULT_TIMEOUT_PROPERTY_NAME, "10 ms") //
+				.build()).getExecutionResults();
+
+		assertEquals(1, executionResults.getTestFailedCount(), "# tests failed");
+		assertRecordedExecutionEventsContainsExactly(executionResults.getFailedTestFinishedEvents(), //
+			event(test("test"), finishedWithFailure(
+				allOf(isA(TimeoutException.class), message("sleepingBeforeEach() timed out after 10 ms")))));
+	}
+
+	@Test
+	void declaredTimeoutOverridesDefaultTimeout() {
+		ExecutionResults executionResults = executeTests(request() //
+				.selectors(selectClass(DefaultTimeoutOverriddenTestCase.class)) //
+				.configurationParameter(Constants.DEFAULT_TIMEOUT_PROPERTY_NAME, "10 ms") //
+				.build()).getExecutionResults();
+
+		assertEquals(1, executionResults.getTestSuccessfulCount(), "# tests succeeded");
+	}
+
+	private static Throwable getThrowable(ExecutionEvent event) {
+		return event.getPayload(TestExecutionResult.class).flatMap(TestExecutionResult::getThrowable).orElseThrow(
+			AssertionError::new);
+	}
+
+	// -------------------------------------------------------------------------
+
+	@Timeout(value = 20, unit = MILLISECONDS)
+	static class TimeoutTestCase {
+
+		static boolean interruptedAfterEach;
+
+		@AfterEach
+		void afterEach() {
+			interruptedAfterEach |= Thread.currentThread().isInterrupted();
+		}
+
+		@Test
+		@Timeout(value = 10, unit = MILLISECONDS)
+		void sleepingTest() throws Exception {
+			Thread.sleep(10_000);
+		}
+
+		@Test
+		@Timeout(value = 10, unit = SECONDS)
+		void succeedingTest() throws Exception {
+			Thread.sleep(50);
+		}
+
+		@Nested
+		class NestedTestCase {
+
+			@Test
+			void nestedSleepingTest() throws Exception {
+				Thread.sleep(10_000);
+			}
+
+		}
+
+	}
+
+	static class DefaultTimeoutTestCase {
+
+		@BeforeEach
+		void sleepingBeforeEach() throws Exception {
+			Thread.sleep(10_000);
+		}
+
+		@Test
+		void test() {
+		}
+
+	}
+
+	static class DefaultTimeoutOverriddenTestCase {
+
+		@Test
+		@Timeout(10)
+		void test() throws Exception {
+			Thread.sleep(50);
+		}
+
+	}
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.jupiter.engine.descriptor;
+
+import static java.time.Duration.ofMillis;
+import static java.time.Duration.ofMinutes;
+import static java.time.Duration.ofNanos;
+import static java.time.Duration.ofSeconds;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.engine.descriptor.TimeoutUtils.parseDuration;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link TimeoutUtils}.
+ *
+ * @since 5.4
+ */
+class TimeoutUtilsTests {
+
+	@Test
+	void parsesDurationsWithUnits() {
+		assertThat(parseDuration("42 ns")).contains(ofNanos(42));
+		assertThat(parseDuration("42μs")).contains(Duration.of(42, ChronoUnit.MICROS));
+		assertThat(parseDuration("42 MS")).contains(ofMillis(42));
+		assertThat(parseDuration("42 s")).contains(ofSeconds(42));
+		assertThat(parseDuration(" 42m ")).contains(ofMinutes(42));
+		assertThat(parseDuration("42 h")).contains(Duration.ofHours(42));
+		assertThat(parseDuration("42 d")).contains(Duration.ofDays(42));
+	}
+
+	@Test
+	void usesSecondsIfUnitIsOmitted() {
+		assertThat(parseDuration("42")).contains(ofSeconds(42));
+	}
+
+	@Test
+	void rejectsInvalidDurations() {
+		assertThat(parseDuration("")).isEmpty();
+		assertThat(parseDuration("0")).isEmpty();
+		assertThat(parseDuration("-1 s")).isEmpty();
+		assertThat(parseDuration("1.5 s")).isEmpty();
+		assertThat(parseDuration("42 weeks")).isEmpty();
+		assertThat(parseDuration("99999999999999999999")).isEmpty();
+	}
+
+}
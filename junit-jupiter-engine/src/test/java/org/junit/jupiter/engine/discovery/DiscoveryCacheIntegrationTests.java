@@ -0,0 +1,183 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+
+package org.junit.jupiter.engine.discovery;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.platform.commons.util.CollectionUtils.getOnlyElement;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.engine.AbstractJupiterTestEngineTests;
+import org.junit.jupiter.engine.JupiterTestEngine;
+import org.junit.jupiter.engine.descriptor.JupiterEngineDescriptor;
+import org.junit.platform.engine.DiscoverySelector;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.AbstractTestDescriptor;
+import org.junit.platform.engine.support.discovery.DiscoveryCache;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+
+/**
+ * Integration tests for the {@link DiscoveryCache} support of the
+ * {@link JupiterTestEngine}.
+ *
+ * @since 5.4
+ */
+class DiscoveryCacheIntegrationTests extends AbstractJupiterTestEngineTests {
+
+	private Path cacheDirectory;
+
+	@BeforeEach
+	void createCacheDirectory() throws IOException {
+		cacheDirectory = Files.createTempDirectory("discovery-cache");
+	}
+
+	@AfterEach
+	void deleteCacheDirectory() throws IOException {
+		try (Stream<Path> paths = Files.walk(cacheDirectory)) {
+			for (Path path : paths.sorted(Comparator.reverseOrder()).collect(toList())) {
+				Files.delete(path);
+			}
+		}
+	}
+
+	@Test
+	void resolvesSameTreeFromCache() {
+		List<String> uncached = describe(discoverTests(selectClass(CachedTestCase.class)));
+
+		List<String> cold = describe(discoverWithCache(selectClass(CachedTestCase.class)));
+		assertThat(cacheDirectory.resolve(JupiterEngineDescriptor.ENGINE_ID + ".cache")).isRegularFile();
+		List<String> warm = describe(discoverWithCache(selectClass(CachedTestCase.class)));
+
+		assertThat(uncached).hasSize(8);
+		assertThat(cold).isEqualTo(uncached);
+		assertThat(warm).isEqualTo(uncached);
+	}
+
+	@Test
+	void classesWithoutTestsAreCachedAsSuch() {
+		assertThat(discoverWithCache(selectClass(NoTestsTestCase.class)).getChildren()).isEmpty();
+		assertThat(discoverWithCache(selectClass(NoTestsTestCase.class)).getChildren()).isEmpty();
+	}
+
+	@Test
+	void partiallyResolvableCacheEntriesDoNotLeaveDescriptorsBehind() {
+		TestDescriptor otherClassDescriptor = getOnlyElement(
+			discoverTests(selectClass(OtherTestCase.class)).getChildren());
+		UniqueId unresolvableId = UniqueId.forEngine(JupiterEngineDescriptor.ENGINE_ID).append("method",
+			"doesNotExist()");
+		JupiterTestEngine engine = new JupiterTestEngine();
+		DiscoveryCache cache = DiscoveryCache.load(cacheDirectory.resolve(engine.getId() + ".cache"), engine.getId(),
+			engine.getVersion().orElse(""));
+		cache.store(CachedTestCase.class, asList(otherClassDescriptor, new AbstractTestDescriptor(unresolvableId,
+			"unresolvable") {
+
+			@Override
+			public Type getType() {
+				return Type.TEST;
+			}
+		}));
+		cache.save();
+
+		List<String> uncached = describe(discoverTests(selectClass(CachedTestCase.class)));
+		List<String> partiallyCached = describe(discoverWithCache(selectClass(CachedTestCase.class)));
+
+		assertThat(partiallyCached).isEqualTo(uncached);
+	}
+
+	private TestDescriptor discoverWithCache(DiscoverySelector selector) {
+		LauncherDiscoveryRequest request = request().selectors(selector).configurationParameter(
+			DiscoveryCache.CACHE_DIR_PROPERTY_NAME, cacheDirectory.toString()).build();
+		return discoverTests(request);
+	}
+
+	private static List<String> describe(TestDescriptor engineDescriptor) {
+		// @formatter:off
+		return engineDescriptor.getDescendants().stream()
+				.map(descriptor -> String.join(" ", descriptor.getUniqueId().toString(),
+						descriptor.getDisplayName(), descriptor.getTags().toString()))
+				.sorted()
+				.collect(toList());
+		// @formatter:on
+	}
+
+	@Tag("cached")
+	static class CachedTestCase {
+
+		@Test
+		void test() {
+		}
+
+		@Test
+		@DisplayName("custom name")
+		void testWithDisplayName() {
+		}
+
+		@TestFactory
+		Stream<DynamicTest> factory() {
+			return Stream.empty();
+		}
+
+		@Nested
+		class NestedTestCase {
+
+			@Test
+			@Tag("nested")
+			void nestedTest() {
+			}
+
+			@Nested
+			class DoubleNestedTestCase {
+
+				@Test
+				void doubleNestedTest() {
+				}
+
+			}
+
+		}
+
+	}
+
+	static class OtherTestCase {
+
+		@Test
+		void test() {
+		}
+
+	}
+
+	static class NoTestsTestCase {
+
+		void notATest() {
+		}
+
+	}
+
+}
@@ -0,0 +1,355 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.commons.util;
+
+import static java.lang.invoke.MethodType.methodType;
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apiguardian.api.API;
+import org.junit.platform.commons.logging.Logger;
+import org.junit.platform.commons.logging.LoggerFactory;
+
+/**
+ * Type of a custom Java Flight Recorder (JFR) event whose fields are all
+ * strings.
+ *
+ * <p>JFR is accessed reflectively so that this class can be used on any Java
+ * runtime. If the runtime does not support JFR or no recording has ever been
+ * started, {@link #begin()} returns a shared no-op {@link Event} and no JFR
+ * class is initialized. The event type is registered with JFR lazily, once
+ * the Flight Recorder has been initialized, so recordings started while tests
+ * are running pick up subsequent events.
+ *
+ * <p>Each event automatically carries its start time, duration and thread.
+ *
+ * <h3>DISCLAIMER</h3>
+ *
+ * <p>These utilities are intended solely for usage within the JUnit framework
+ * itself. <strong>Any usage by external parties is not supported.</strong>
+ * Use at your own risk!
+ *
+ * @since 1.4
+ */
+@API(status = INTERNAL, since = "1.4")
+public final class FlightRecorderEventType {
+
+	private static final Logger logger = LoggerFactory.getLogger(FlightRecorderEventType.class);
+
+	private static final String CATEGORY = "JUnit";
+
+	private static final Object UNAVAILABLE = new Object();
+
+	private final String name;
+	private final String label;
+	private final String description;
+	private final List<String> fieldNames;
+
+	private volatile Object eventFactory;
+	private volatile Object eventType;
+
+	/**
+	 * Create a new event type.
+	 *
+	 * @param name the unique name of the event type; never {@code null} or blank
+	 * @param label the human-readable label of the event type; never
+	 * {@code null} or blank
+	 * @param description the description of the event type; never
+	 * {@code null} or blank
+	 * @param fieldNames the names of the string fields of the event type in
+	 * the order their values are passed to {@link Event#commit}
+	 */
+	public static FlightRecorderEventType create(String name, String label, String description,
+			String... fieldNames) {
+		Preconditions.notBlank(name, "name must not be null or blank");
+		Preconditions.notBlank(label, "label must not be null or blank");
+		Preconditions.notBlank(description, "description must not be null or blank");
+		Preconditions.containsNoNullElements(fieldNames, "fieldNames must not contain null elements");
+		return new FlightRecorderEventType(name, label, description, Arrays.asList(fieldNames));
+	}
+
+	private FlightRecorderEventType(String name, String label, String description, List<String> fieldNames) {
+		this.name = name;
+		this.label = label;
+		this.description = description;
+		this.fieldNames = fieldNames;
+	}
+
+	/**
+	 * Determine whether events of this type are currently being recorded.
+	 */
+	public boolean isEnabled() {
+		if (!Jfr.AVAILABLE || !Jfr.isInitialized()) {
+			return false;
+		}
+		Object type = getEventType();
+		return type != UNAVAILABLE && Jfr.isEnabled(type);
+	}
+
+	/**
+	 * Begin a new event of this type.
+	 *
+	 * @return the started event or a no-op event if this type is currently
+	 * not {@linkplain #isEnabled() enabled}; never {@code null}
+	 */
+	public Event begin() {
+		if (!isEnabled()) {
+			return Event.DISABLED;
+		}
+		return new Event(Jfr.newEvent(this.eventFactory));
+	}
+
+	private Object getEventType() {
+		Object type = this.eventType;
+		if (type == null) {
+			synchronized (this) {
+				type = this.eventType;
+				if (type == null) {
+					type = register();
+					this.eventType = type;
+				}
+			}
+		}
+		return type;
+	}
+
+	private Object register() {
+		try {
+			this.eventFactory = Jfr.createEventFactory(name, label, description, fieldNames);
+			return Jfr.getEventType(this.eventFactory);
+		}
+		catch (Throwable t) {
+			BlacklistedExceptions.rethrowIfBlacklisted(t);
+			logger.warn(t, () -> "Failed to register Flight Recorder event type " + name);
+			return UNAVAILABLE;
+		}
+	}
+
+	/**
+	 * A single Flight Recorder event that has been begun.
+	 */
+	public static final class Event {
+
+		private static final Event DISABLED = new Event(null);
+
+		private final Object jfrEvent;
+
+		private Event(Object jfrEvent) {
+			this.jfrEvent = jfrEvent;
+		}
+
+		/**
+		 * End and commit this event with the supplied field value.
+		 *
+		 * <p>The value is converted to a string only if the event is
+		 * actually committed.
+		 */
+		public void commit(Object value) {
+			if (jfrEvent != null) {
+				Jfr.commit(jfrEvent, value);
+			}
+		}
+
+		/**
+		 * End and commit this event with the supplied field values.
+		 *
+		 * <p>The values are converted to strings only if the event is
+		 * actually committed.
+		 */
+		public void commit(Object value1, Object value2) {
+			if (jfrEvent != null) {
+				Jfr.commit(jfrEvent, value1, value2);
+			}
+		}
+
+	}
+
+	/**
+	 * Reflective access to the {@code jdk.jfr} API.
+	 */
+	private static class Jfr {
+
+		static final boolean AVAILABLE;
+
+		private static final MethodHandle IS_INITIALIZED;
+		private static final MethodHandle CREATE_EVENT_FACTORY;
+		private static final MethodHandle GET_EVENT_TYPE;
+		private static final MethodHandle NEW_EVENT;
+		private static final MethodHandle IS_ENABLED;
+		private static final MethodHandle BEGIN;
+		private static final MethodHandle END;
+		private static final MethodHandle SHOULD_COMMIT;
+		private static final MethodHandle SET;
+		private static final MethodHandle COMMIT;
+
+		private static final Constructor<?> ANNOTATION_ELEMENT;
+		private static final Constructor<?> VALUE_DESCRIPTOR;
+
+		private static final Class<? extends Annotation> NAME;
+		private static final Class<? extends Annotation> LABEL;
+		private static final Class<? extends Annotation> DESCRIPTION;
+		private static final Class<? extends Annotation> CATEGORY_ANNOTATION;
+		private static final Class<? extends Annotation> STACK_TRACE;
+
+		static {
+			boolean available = false;
+			MethodHandle isInitialized = null;
+			MethodHandle createEventFactory = null;
+			MethodHandle getEventType = null;
+			MethodHandle newEvent = null;
+			MethodHandle isEnabled = null;
+			MethodHandle begin = null;
+			MethodHandle end = null;
+			MethodHandle shouldCommit = null;
+			MethodHandle set = null;
+			MethodHandle commit = null;
+			Constructor<?> annotationElement = null;
+			Constructor<?> valueDescriptor = null;
+			Class<? extends Annotation> nameAnnotation = null;
+			Class<? extends Annotation> labelAnnotation = null;
+			Class<? extends Annotation> descriptionAnnotation = null;
+			Class<? extends Annotation> categoryAnnotation = null;
+			Class<? extends Annotation> stackTraceAnnotation = null;
+			try {
+				MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+				Class<?> flightRecorderClass = loadClass("jdk.jfr.FlightRecorder");
+				Class<?> eventFactoryClass = loadClass("jdk.jfr.EventFactory");
+				Class<?> eventTypeClass = loadClass("jdk.jfr.EventType");
+				Class<?> eventClass = loadClass("jdk.jfr.Event");
+				isInitialized = lookup.findStatic(flightRecorderClass, "isInitialized", methodType(boolean.class));
+				createEventFactory = lookup.findStatic(eventFactoryClass, "create",
+					methodType(eventFactoryClass, List.class, List.class));
+				getEventType = lookup.findVirtual(eventFactoryClass, "getEventType", methodType(eventTypeClass));
+				newEvent = lookup.findVirtual(eventFactoryClass, "newEvent", methodType(eventClass));
+				isEnabled = lookup.findVirtual(eventTypeClass, "isEnabled", methodType(boolean.class));
+				begin = lookup.findVirtual(eventClass, "begin", methodType(void.class));
+				end = lookup.findVirtual(eventClass, "end", methodType(void.class));
+				shouldCommit = lookup.findVirtual(eventClass, "shouldCommit", methodType(boolean.class));
+				set = lookup.findVirtual(eventClass, "set", methodType(void.class, int.class, Object.class));
+				commit = lookup.findVirtual(eventClass, "commit", methodType(void.class));
+				annotationElement = loadClass("jdk.jfr.AnnotationElement").getConstructor(Class.class,
+					Object.class);
+				valueDescriptor = loadClass("jdk.jfr.ValueDescriptor").getConstructor(Class.class, String.class,
+					List.class);
+				nameAnnotation = loadAnnotation("jdk.jfr.Name");
+				labelAnnotation = loadAnnotation("jdk.jfr.Label");
+				descriptionAnnotation = loadAnnotation("jdk.jfr.Description");
+				categoryAnnotation = loadAnnotation("jdk.jfr.Category");
+				stackTraceAnnotation = loadAnnotation("jdk.jfr.StackTrace");
+				available = true;
+			}
+			catch (Throwable t) {
+				BlacklistedExceptions.rethrowIfBlacklisted(t);
+				logger.config(() -> "Java Flight Recorder is not available on the current Java runtime");
+			}
+			AVAILABLE = available;
+			IS_INITIALIZED = isInitialized;
+			CREATE_EVENT_FACTORY = createEventFactory;
+			GET_EVENT_TYPE = getEventType;
+			NEW_EVENT = newEvent;
+			IS_ENABLED = isEnabled;
+			BEGIN = begin;
+			END = end;
+			SHOULD_COMMIT = shouldCommit;
+			SET = set;
+			COMMIT = commit;
+			ANNOTATION_ELEMENT = annotationElement;
+			VALUE_DESCRIPTOR = valueDescriptor;
+			NAME = nameAnnotation;
+			LABEL = labelAnnotation;
+			DESCRIPTION = descriptionAnnotation;
+			CATEGORY_ANNOTATION = categoryAnnotation;
+			STACK_TRACE = stackTraceAnnotation;
+		}
+
+		private static Class<?> loadClass(String className) throws ClassNotFoundException {
+			// Avoid initializing JFR classes before they are actually used
+			return Class.forName(className, false, FlightRecorderEventType.class.getClassLoader());
+		}
+
+		@SuppressWarnings("unchecked")
+		private static Class<? extends Annotation> loadAnnotation(String className) throws ClassNotFoundException {
+			return (Class<? extends Annotation>) loadClass(className);
+		}
+
+		static boolean isInitialized() {
+			try {
+				return (boolean) IS_INITIALIZED.invoke();
+			}
+			catch (Throwable t) {
+				throw ExceptionUtils.throwAsUncheckedException(t);
+			}
+		}
+
+		static Object createEventFactory(String name, String label, String description, List<String> fieldNames)
+				throws Throwable {
+			List<Object> annotations = new ArrayList<>();
+			annotations.add(ANNOTATION_ELEMENT.newInstance(NAME, name));
+			annotations.add(ANNOTATION_ELEMENT.newInstance(LABEL, label));
+			annotations.add(ANNOTATION_ELEMENT.newInstance(DESCRIPTION, description));
+			annotations.add(ANNOTATION_ELEMENT.newInstance(CATEGORY_ANNOTATION, new String[] { CATEGORY }));
+			annotations.add(ANNOTATION_ELEMENT.newInstance(STACK_TRACE, false));
+			List<Object> fields = new ArrayList<>();
+			for (String fieldName : fieldNames) {
+				fields.add(VALUE_DESCRIPTOR.newInstance(String.class, fieldName, new ArrayList<>()));
+			}
+			return CREATE_EVENT_FACTORY.invoke(annotations, fields);
+		}
+
+		static Object getEventType(Object eventFactory) throws Throwable {
+			return GET_EVENT_TYPE.invoke(eventFactory);
+		}
+
+		static boolean isEnabled(Object eventType) {
+			try {
+				return (boolean) IS_ENABLED.invoke(eventType);
+			}
+			catch (Throwable t) {
+				throw ExceptionUtils.throwAsUncheckedException(t);
+			}
+		}
+
+		static Object newEvent(Object eventFactory) {
+			try {
+				Object event = NEW_EVENT.invoke(eventFactory);
+				BEGIN.invoke(event);
+				return event;
+			}
+			catch (Throwable t) {
+				throw ExceptionUtils.throwAsUncheckedException(t);
+			}
+		}
+
+		static void commit(Object event, Object... values) {
+			try {
+				END.invoke(event);
+				if ((boolean) SHOULD_COMMIT.invoke(event)) {
+					for (int i = 0; i < values.length; i++) {
+						SET.invoke(event, i, values[i] == null ? null : values[i].toString());
+					}
+					COMMIT.invoke(event);
+				}
+			}
+			catch (Throwable t) {
+				throw ExceptionUtils.throwAsUncheckedException(t);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.commons.util;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apiguardian.api.API;
+
+/**
+ * Registry of {@link Propagator Propagators} that transfer thread-bound
+ * state, for example, the output capture of the currently executing test,
+ * from a thread that submits a task to the thread that executes it.
+ *
+ * <p>State that is kept in an {@link InheritableThreadLocal} is only
+ * inherited by threads when they are started. Executors that reuse their
+ * threads should therefore {@linkplain #wrap(Callable) wrap} submitted tasks.
+ *
+ * <h3>DISCLAIMER</h3>
+ *
+ * <p>These utilities are intended solely for usage within the JUnit framework
+ * itself. <strong>Any usage by external parties is not supported.</strong>
+ * Use at your own risk!
+ *
+ * @since 1.4
+ */
+@API(status = INTERNAL, since = "1.4")
+public final class ThreadContextPropagation {
+
+	private static final List<Propagator<?>> propagators = new CopyOnWriteArrayList<>();
+
+	private ThreadContextPropagation() {
+		/* no-op */
+	}
+
+	/**
+	 * Register the supplied propagator.
+	 *
+	 * @param propagator the propagator to register; never {@code null}
+	 */
+	public static void register(Propagator<?> propagator) {
+		Preconditions.notNull(propagator, "propagator must not be null");
+		propagators.add(propagator);
+	}
+
+	/**
+	 * Unregister the supplied propagator.
+	 *
+	 * @param propagator the propagator to unregister; never {@code null}
+	 */
+	public static void unregister(Propagator<?> propagator) {
+		Preconditions.notNull(propagator, "propagator must not be null");
+		propagators.remove(propagator);
+	}
+
+	/**
+	 * Wrap the supplied task so that it is executed with the state that all
+	 * registered propagators capture from the current thread.
+	 *
+	 * <p>The previous state of the executing thread is restored after the
+	 * task has been executed.
+	 *
+	 * @param callable the task to wrap; never {@code null}
+	 * @return the wrapped task; never {@code null}
+	 */
+	public static <T> Callable<T> wrap(Callable<T> callable) {
+		Preconditions.notNull(callable, "callable must not be null");
+		List<CapturedState<?>> capturedStates = new ArrayList<>(propagators.size());
+		for (Propagator<?> propagator : propagators) {
+			capturedStates.add(CapturedState.capture(propagator));
+		}
+		if (capturedStates.isEmpty()) {
+			return callable;
+		}
+		return () -> {
+			List<CapturedState<?>> previousStates = new ArrayList<>(capturedStates.size());
+			try {
+				for (CapturedState<?> capturedState : capturedStates) {
+					previousStates.add(capturedState.apply());
+				}
+				return callable.call();
+			}
+			finally {
+				for (int i = previousStates.size() - 1; i >= 0; i--) {
+					previousStates.get(i).apply();
+				}
+			}
+		};
+	}
+
+	/**
+	 * Transfers a piece of thread-bound state between threads.
+	 *
+	 * @param <S> the type of the state
+	 */
+	public interface Propagator<S> {
+
+		/**
+		 * Capture the state of the current thread.
+		 *
+		 * @return the state; may be {@code null}
+		 */
+		S capture();
+
+		/**
+		 * Replace the state of the current thread with the supplied one.
+		 *
+		 * @param state the state to apply; may be {@code null}
+		 * @return the state of the current thread before it was replaced;
+		 * may be {@code null}
+		 */
+		S apply(S state);
+
+	}
+
+	private static final class CapturedState<S> {
+
+		private final Propagator<S> propagator;
+		private final S state;
+
+		static <S> CapturedState<S> capture(Propagator<S> propagator) {
+			return new CapturedState<>(propagator, propagator.capture());
+		}
+
+		private CapturedState(Propagator<S> propagator, S state) {
+			this.propagator = propagator;
+			this.state = state;
+		}
+
+		CapturedState<S> apply() {
+			return new CapturedState<>(this.propagator, this.propagator.apply(this.state));
+		}
+
+	}
+
+}
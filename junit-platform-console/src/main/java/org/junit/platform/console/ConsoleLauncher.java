@@ -14,11 +14,13 @@ import static org.apiguardian.api.API.Status.INTERNAL;
 import static org.apiguardian.api.API.Status.MAINTAINED;
 
 import java.io.BufferedWriter;
+import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.charset.Charset;
+import java.util.Optional;
 
 import org.apiguardian.api.API;
 import org.junit.platform.commons.JUnitException;
@@ -26,6 +28,7 @@ import org.junit.platform.console.options.CommandLineOptions;
 import org.junit.platform.console.options.CommandLineOptionsParser;
 import org.junit.platform.console.options.PicocliCommandLineOptionsParser;
 import org.junit.platform.console.tasks.ConsoleTestExecutor;
+import org.junit.platform.console.tasks.LauncherEnvironmentCache;
 import org.junit.platform.launcher.listeners.TestExecutionSummary;
 
 /**
@@ -53,6 +56,7 @@ public class ConsoleLauncher {
 	private final PrintStream outStream;
 	private final PrintStream errStream;
 	private final Charset charset;
+	private final Optional<LauncherEnvironmentCache> daemonCache;
 
 	ConsoleLauncher(CommandLineOptionsParser commandLineOptionsParser, PrintStream out, PrintStream err) {
 		this(commandLineOptionsParser, out, err, Charset.defaultCharset());
@@ -60,10 +64,20 @@ public class ConsoleLauncher {
 
 	ConsoleLauncher(CommandLineOptionsParser commandLineOptionsParser, PrintStream out, PrintStream err,
 			Charset charset) {
+		this(commandLineOptionsParser, out, err, charset, Optional.empty());
+	}
+
+	/**
+	 * @param daemonCache the cache of the {@link ConsoleLauncherDaemon} that
+	 * executes the request, if any
+	 */
+	ConsoleLauncher(CommandLineOptionsParser commandLineOptionsParser, PrintStream out, PrintStream err,
+			Charset charset, Optional<LauncherEnvironmentCache> daemonCache) {
 		this.commandLineOptionsParser = commandLineOptionsParser;
 		this.outStream = out;
 		this.errStream = err;
 		this.charset = charset;
+		this.daemonCache = daemonCache;
 	}
 
 	ConsoleLauncherExecutionResult execute(String... args) {
@@ -84,6 +98,16 @@ public class ConsoleLauncher {
 				commandLineOptionsParser.printHelp(out);
 				return ConsoleLauncherExecutionResult.success();
 			}
+			if (options.isDaemon()) {
+				return runDaemon(options, out);
+			}
+			if (options.isUseDaemon() && !daemonCache.isPresent()) {
+				Optional<ConsoleLauncherExecutionResult> result = new ConsoleLauncherDaemonClient(
+					options.getDaemonFile()).execute(args, charset, outStream, errStream);
+				if (result.isPresent()) {
+					return result.get();
+				}
+			}
 			return executeTests(options, out);
 		}
 		finally {
@@ -94,7 +118,10 @@ public class ConsoleLauncher {
 
 	private ConsoleLauncherExecutionResult executeTests(CommandLineOptions options, PrintWriter out) {
 		try {
-			TestExecutionSummary testExecutionSummary = new ConsoleTestExecutor(options).execute(out);
+			ConsoleTestExecutor testExecutor = daemonCache.isPresent()
+					? new ConsoleTestExecutor(options, daemonCache.get())
+					: new ConsoleTestExecutor(options);
+			TestExecutionSummary testExecutionSummary = testExecutor.execute(out);
 			return ConsoleLauncherExecutionResult.forSummary(testExecutionSummary, options);
 		}
 		catch (Exception exception) {
@@ -105,4 +132,22 @@ public class ConsoleLauncher {
 		return ConsoleLauncherExecutionResult.failed();
 	}
 
+	private ConsoleLauncherExecutionResult runDaemon(CommandLineOptions options, PrintWriter out) {
+		if (daemonCache.isPresent()) {
+			errStream.println("A daemon cannot be started by a request executed by another daemon");
+			return ConsoleLauncherExecutionResult.failed();
+		}
+		try (LauncherEnvironmentCache cache = new LauncherEnvironmentCache(options.getAdditionalClasspathEntries());
+				ConsoleLauncherDaemon daemon = new ConsoleLauncherDaemon(options.getDaemonFile(), cache,
+					PicocliCommandLineOptionsParser::new, out)) {
+			Runtime.getRuntime().addShutdownHook(new Thread(daemon::close, "junit-console-launcher-daemon-shutdown"));
+			daemon.run();
+			return ConsoleLauncherExecutionResult.success();
+		}
+		catch (IOException exception) {
+			exception.printStackTrace(errStream);
+		}
+		return ConsoleLauncherExecutionResult.failed();
+	}
+
 }
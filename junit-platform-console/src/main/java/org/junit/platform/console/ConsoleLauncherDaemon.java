@@ -0,0 +1,307 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.console;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.function.Function;
+
+import org.junit.platform.console.options.CommandLineOptionsParser;
+import org.junit.platform.console.tasks.LauncherEnvironmentCache;
+
+/**
+ * Long-lived process that executes the requests of {@link ConsoleLauncher}
+ * clients started with {@code --use-daemon}.
+ *
+ * <p>The daemon listens on a loopback port and publishes it along with a
+ * random token and its working directory in the daemon file which is only
+ * readable by the current user. A client sends the token, its working
+ * directory, its charset, and its command-line arguments. The daemon executes
+ * the request in its own JVM and streams everything written to standard
+ * output and standard error back to the client, followed by the exit code.
+ *
+ * <p>Only the command-line arguments and the charset of a client are
+ * forwarded; relative paths in options are resolved against the client's
+ * working directory. The rest of the client's environment, e.g. its system
+ * properties such as {@code user.dir} or those passed via {@code -D}, its
+ * JVM options, and its environment variables, is not forwarded; tests see
+ * those of the daemon instead. Since tests commonly access files relative to
+ * the working directory, clients only use a daemon that has been started in
+ * the same working directory and execute tests themselves otherwise.
+ *
+ * <p>Requests are executed one after the other using the same
+ * {@link LauncherEnvironmentCache} so that test engines, the daemon's own
+ * additional classpath entries, and unchanged classpath entries of clients
+ * stay loaded between runs.
+ *
+ * @since 1.4
+ * @see ConsoleLauncherDaemonClient
+ */
+class ConsoleLauncherDaemon implements AutoCloseable {
+
+	static final String PORT_KEY = "port";
+	static final String TOKEN_KEY = "token";
+	static final String WORKING_DIRECTORY_KEY = "workingDirectory";
+
+	/**
+	 * Time a client has to send its token before the connection is closed so
+	 * that idle connections cannot block the daemon.
+	 */
+	static final int HANDSHAKE_TIMEOUT_MILLIS = 10_000;
+
+	// messages sent by the daemon
+	static final int ACCEPTED = 1;
+	static final int STDOUT = 2;
+	static final int STDERR = 3;
+	static final int EXIT = 4;
+
+	private final Path daemonFile;
+	private final LauncherEnvironmentCache cache;
+	private final Function<Path, CommandLineOptionsParser> parserFactory;
+	private final PrintWriter log;
+	private final ServerSocket serverSocket;
+	private final int handshakeTimeoutMillis;
+	private final String token = new BigInteger(130, new SecureRandom()).toString(32);
+
+	/**
+	 * @param parserFactory creates a parser that resolves relative paths
+	 * against the supplied working directory of a client
+	 */
+	ConsoleLauncherDaemon(Path daemonFile, LauncherEnvironmentCache cache,
+			Function<Path, CommandLineOptionsParser> parserFactory, PrintWriter log) throws IOException {
+		this(daemonFile, cache, parserFactory, log, HANDSHAKE_TIMEOUT_MILLIS);
+	}
+
+	ConsoleLauncherDaemon(Path daemonFile, LauncherEnvironmentCache cache,
+			Function<Path, CommandLineOptionsParser> parserFactory, PrintWriter log, int handshakeTimeoutMillis)
+			throws IOException {
+		this.daemonFile = daemonFile.toAbsolutePath();
+		this.cache = cache;
+		this.parserFactory = parserFactory;
+		this.log = log;
+		this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		this.handshakeTimeoutMillis = handshakeTimeoutMillis;
+	}
+
+	/**
+	 * Publish the address of this daemon in its daemon file and execute
+	 * requests until it is {@linkplain #close() closed}.
+	 */
+	void run() throws IOException {
+		writeDaemonFile();
+		log.printf("Console launcher daemon listening on port %d (daemon file: %s)%n", serverSocket.getLocalPort(),
+			daemonFile);
+		log.flush();
+		try {
+			while (!serverSocket.isClosed()) {
+				try (Socket socket = serverSocket.accept()) {
+					handle(socket);
+				}
+				catch (IOException | RuntimeException e) {
+					if (!serverSocket.isClosed()) {
+						log.println("Failed to handle request: " + e);
+						log.flush();
+					}
+				}
+			}
+		}
+		finally {
+			deleteDaemonFile();
+		}
+	}
+
+	private void writeDaemonFile() throws IOException {
+		Properties properties = new Properties();
+		properties.setProperty(PORT_KEY, String.valueOf(serverSocket.getLocalPort()));
+		properties.setProperty(TOKEN_KEY, token);
+		properties.setProperty(WORKING_DIRECTORY_KEY, Paths.get("").toAbsolutePath().toString());
+		Path directory = daemonFile.getParent();
+		Files.createDirectories(directory);
+		// temporary files are only readable by their owner on POSIX file systems
+		Path tempFile = Files.createTempFile(directory, daemonFile.getFileName().toString(), ".tmp");
+		try (OutputStream out = Files.newOutputStream(tempFile)) {
+			properties.store(out, "JUnit Platform console launcher daemon");
+		}
+		try {
+			Files.move(tempFile, daemonFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException e) {
+			Files.move(tempFile, daemonFile, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Delete the daemon file unless it has been replaced by another daemon.
+	 */
+	private void deleteDaemonFile() {
+		Optional<Properties> properties = readDaemonFile(daemonFile);
+		if (properties.isPresent() && token.equals(properties.get().getProperty(TOKEN_KEY))) {
+			try {
+				Files.deleteIfExists(daemonFile);
+			}
+			catch (IOException e) {
+				// ignore since clients fall back to executing tests themselves
+			}
+		}
+	}
+
+	static Optional<Properties> readDaemonFile(Path daemonFile) {
+		if (!Files.isRegularFile(daemonFile)) {
+			return Optional.empty();
+		}
+		try (InputStream in = Files.newInputStream(daemonFile)) {
+			Properties properties = new Properties();
+			properties.load(in);
+			return Optional.of(properties);
+		}
+		catch (IOException | IllegalArgumentException e) {
+			return Optional.empty();
+		}
+	}
+
+	private void handle(Socket socket) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+		socket.setSoTimeout(this.handshakeTimeoutMillis);
+		if (!MessageDigest.isEqual(token.getBytes(UTF_8), in.readUTF().getBytes(UTF_8))) {
+			log.println("Rejected request with invalid token from port " + socket.getPort());
+			log.flush();
+			return;
+		}
+		socket.setSoTimeout(0);
+		Path workingDirectory = Paths.get(in.readUTF());
+		Charset charset = Charset.forName(in.readUTF());
+		String[] args = new String[in.readInt()];
+		for (int i = 0; i < args.length; i++) {
+			args[i] = in.readUTF();
+		}
+		out.writeInt(ACCEPTED);
+		out.flush();
+		int exitCode = execute(workingDirectory, charset, args, out);
+		synchronized (out) {
+			out.writeInt(EXIT);
+			out.writeInt(exitCode);
+			out.flush();
+		}
+	}
+
+	/**
+	 * Execute the supplied request and redirect {@link System#out} and
+	 * {@link System#err} to the client while doing so in order to also stream
+	 * back output printed by tests.
+	 */
+	private int execute(Path workingDirectory, Charset charset, String[] args, DataOutputStream out)
+			throws UnsupportedEncodingException {
+		PrintStream stdout = new PrintStream(new BufferedOutputStream(new MessageOutputStream(STDOUT, out)), true,
+			charset.name());
+		PrintStream stderr = new PrintStream(new BufferedOutputStream(new MessageOutputStream(STDERR, out)), true,
+			charset.name());
+		PrintStream originalOut = System.out;
+		PrintStream originalErr = System.err;
+		System.setOut(stdout);
+		System.setErr(stderr);
+		try {
+			ConsoleLauncher consoleLauncher = new ConsoleLauncher(parserFactory.apply(workingDirectory), stdout, stderr,
+				charset, Optional.of(cache));
+			return consoleLauncher.execute(args).getExitCode();
+		}
+		finally {
+			System.setOut(originalOut);
+			System.setErr(originalErr);
+			stdout.flush();
+			stderr.flush();
+		}
+	}
+
+	/**
+	 * Stop accepting requests and delete the daemon file.
+	 */
+	@Override
+	public void close() {
+		try {
+			serverSocket.close();
+		}
+		catch (IOException e) {
+			// ignore
+		}
+		deleteDaemonFile();
+	}
+
+	/**
+	 * Writes everything to the client as messages of a single type.
+	 */
+	private static class MessageOutputStream extends OutputStream {
+
+		private final int type;
+		private final DataOutputStream out;
+
+		MessageOutputStream(int type, DataOutputStream out) {
+			this.type = type;
+			this.out = out;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			synchronized (out) {
+				out.writeInt(type);
+				out.writeInt(len);
+				out.write(b, off, len);
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			synchronized (out) {
+				out.flush();
+			}
+		}
+
+		/**
+		 * Only flush since the connection is closed once the request has been
+		 * executed.
+		 */
+		@Override
+		public void close() throws IOException {
+			flush();
+		}
+
+	}
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.console;
+
+import static org.junit.platform.console.ConsoleLauncherDaemon.ACCEPTED;
+import static org.junit.platform.console.ConsoleLauncherDaemon.EXIT;
+import static org.junit.platform.console.ConsoleLauncherDaemon.PORT_KEY;
+import static org.junit.platform.console.ConsoleLauncherDaemon.STDOUT;
+import static org.junit.platform.console.ConsoleLauncherDaemon.TOKEN_KEY;
+import static org.junit.platform.console.ConsoleLauncherDaemon.WORKING_DIRECTORY_KEY;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Client that lets a running {@link ConsoleLauncherDaemon} execute the tests
+ * requested via command-line arguments and prints the daemon's output.
+ *
+ * <p>The daemon is only used if it has been started in the same working
+ * directory as the client since the working directory of the daemon's JVM
+ * applies to the executed tests.
+ *
+ * @since 1.4
+ * @see ConsoleLauncherDaemon
+ */
+class ConsoleLauncherDaemonClient {
+
+	private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+
+	private final Path daemonFile;
+	private final Path workingDirectory;
+
+	ConsoleLauncherDaemonClient(Path daemonFile) {
+		this(daemonFile, Paths.get("").toAbsolutePath());
+	}
+
+	ConsoleLauncherDaemonClient(Path daemonFile, Path workingDirectory) {
+		this.daemonFile = daemonFile;
+		this.workingDirectory = workingDirectory;
+	}
+
+	/**
+	 * Send the supplied arguments to the daemon and copy its output to the
+	 * supplied streams until it has finished executing them.
+	 *
+	 * @return the result of the execution or {@code Optional.empty()} if no
+	 * daemon is running, it has been started in a different working directory,
+	 * or it did not accept the request
+	 */
+	Optional<ConsoleLauncherExecutionResult> execute(String[] args, Charset charset, PrintStream out,
+			PrintStream err) {
+		Optional<Properties> properties = ConsoleLauncherDaemon.readDaemonFile(daemonFile);
+		if (!properties.isPresent() || !isStartedInWorkingDirectory(properties.get())) {
+			return Optional.empty();
+		}
+		try (Socket socket = new Socket()) {
+			DataInputStream in;
+			try {
+				int port = Integer.parseInt(properties.get().getProperty(PORT_KEY, ""));
+				socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), CONNECT_TIMEOUT_MILLIS);
+				sendRequest(socket, properties.get().getProperty(TOKEN_KEY, ""), args, charset);
+				in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+				if (in.readInt() != ACCEPTED) {
+					return Optional.empty();
+				}
+			}
+			catch (IOException | NumberFormatException e) {
+				// the daemon is not running anymore or rejected the request
+				return Optional.empty();
+			}
+			int exitCode = copyOutput(in, out, err);
+			return Optional.of(ConsoleLauncherExecutionResult.forExitCode(exitCode));
+		}
+		catch (IOException e) {
+			err.println("Lost connection to console launcher daemon: " + e);
+			return Optional.of(ConsoleLauncherExecutionResult.failed());
+		}
+	}
+
+	private boolean isStartedInWorkingDirectory(Properties properties) {
+		String daemonWorkingDirectory = properties.getProperty(WORKING_DIRECTORY_KEY);
+		try {
+			return daemonWorkingDirectory != null && workingDirectory.equals(Paths.get(daemonWorkingDirectory));
+		}
+		catch (InvalidPathException e) {
+			return false;
+		}
+	}
+
+	private void sendRequest(Socket socket, String token, String[] args, Charset charset) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+		out.writeUTF(token);
+		out.writeUTF(workingDirectory.toString());
+		out.writeUTF(charset.name());
+		out.writeInt(args.length);
+		for (String arg : args) {
+			out.writeUTF(arg);
+		}
+		out.flush();
+	}
+
+	private static int copyOutput(DataInputStream in, PrintStream out, PrintStream err) throws IOException {
+		byte[] buffer = new byte[8192];
+		for (int message = in.readInt(); message != EXIT; message = in.readInt()) {
+			PrintStream target = message == STDOUT ? out : err;
+			for (int remaining = in.readInt(); remaining > 0;) {
+				int count = Math.min(remaining, buffer.length);
+				in.readFully(buffer, 0, count);
+				target.write(buffer, 0, count);
+				remaining -= count;
+			}
+			target.flush();
+		}
+		return in.readInt();
+	}
+
+}
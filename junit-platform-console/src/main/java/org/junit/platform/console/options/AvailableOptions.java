@@ -10,6 +10,8 @@
 
 package org.junit.platform.console.options;
 
+import static java.util.stream.Collectors.toList;
+
 import java.net.URI;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -76,6 +78,21 @@ class AvailableOptions {
 	@Option(names = "--fail-if-no-tests", description = "Fail and return exit status code 2 if no tests are found.")
 	private boolean failIfNoTests; // no single-dash equivelent: was introduced in 5.3-M1
 
+	// --- Daemon ----------------------------------------------------------
+
+	@Option(names = "--daemon", description = "EXPERIMENTAL: Start a long-lived daemon that executes the tests requested by " //
+			+ "clients started with --use-daemon. Test engines, additional classpath entries supplied to the daemon, " //
+			+ "and unchanged classpath entries supplied by clients stay loaded between runs.")
+	private boolean daemon; // no single-dash equivalent: was introduced in 1.4
+
+	@Option(names = "--use-daemon", description = "EXPERIMENTAL: Let a running daemon execute the tests and print its output. " //
+			+ "If no daemon is running, tests are executed by this process.")
+	private boolean useDaemon; // no single-dash equivalent: was introduced in 1.4
+
+	@Option(names = "--daemon-file", paramLabel = "FILE", description = "EXPERIMENTAL: File the daemon publishes its " //
+			+ "address in and clients read it from. Default: a user-specific file in the temporary directory.")
+	private Path daemonFile = CommandLineOptions.DEFAULT_DAEMON_FILE; // no single-dash equivalent: was introduced in 1.4
+
 	// --- Reports ---------------------------------------------------------
 
 	@Option(names = "--reports-dir", paramLabel = "DIR", description = "Enable report output into a specified local directory (will be created if it does not exist).")
@@ -229,6 +246,15 @@ class AvailableOptions {
 	@Option(names = { "--E", "-exclude-engine" }, arity = "1", hidden = true)
 	private List<String> excludedEngines2 = new ArrayList<>();
 
+	@Option(names = "--shard", paramLabel = "INDEX/COUNT", description = "EXPERIMENTAL: Only execute the tests of a single shard " //
+			+ "-- for example, 3/16 for the third of sixteen shards. Tests are assigned to shards by class.")
+	private String shard; // no single-dash equivalent: was introduced in 1.4
+
+	@Option(names = "--fail-fast", paramLabel = "N", description = "EXPERIMENTAL: Skip all tests that have not been started " //
+			+ "once N tests have failed -- for example, 1 to stop after the first failure. " //
+			+ "Tests that are already running are allowed to finish.")
+	private String failFast; // no single-dash equivalent: was introduced in 1.4
+
 	// --- Configuration Parameters ----------------------------------------
 
 	// Implementation note: the @Option annotation is on a setter method to allow validation.
@@ -237,7 +263,18 @@ class AvailableOptions {
 	@Spec
 	private CommandSpec spec;
 
+	private final Path workingDirectory;
+
 	AvailableOptions() {
+		this(null);
+	}
+
+	/**
+	 * Create {@code AvailableOptions} that resolve relative paths against the
+	 * supplied working directory instead of the one of the current process.
+	 */
+	AvailableOptions(Path workingDirectory) {
+		this.workingDirectory = workingDirectory;
 	}
 
 	/**
@@ -276,6 +313,9 @@ class AvailableOptions {
 		result.setUsageHelpWidth(90);
 		result.setCaseInsensitiveEnumValuesAllowed(true);
 		result.setAtFileCommentChar(null); // for --select-method com.acme.Foo#m()
+		if (this.workingDirectory != null) {
+			result.registerConverter(Path.class, value -> this.workingDirectory.resolve(value));
+		}
 		return result;
 	}
 
@@ -291,6 +331,11 @@ class AvailableOptions {
 		result.setAdditionalClasspathEntries(merge(this.additionalClasspathEntries, this.additionalClasspathEntries2));
 		result.setFailIfNoTests(this.failIfNoTests);
 
+		// Daemon
+		result.setDaemon(this.daemon);
+		result.setUseDaemon(this.useDaemon);
+		result.setDaemonFile(this.daemonFile);
+
 		// Reports
 		result.setReportsDir(choose(this.reportsDir, this.reportsDir2, null));
 
@@ -302,8 +347,8 @@ class AvailableOptions {
 		result.setScanClasspath(parseResult.hasMatchedOption("scan-class-path")); // flag was specified
 		result.setSelectedClasspathEntries(merge(this.selectedClasspathEntries, this.selectedClasspathEntries2));
 		result.setSelectedUris(merge(this.selectedUris, this.selectedUris2));
-		result.setSelectedFiles(merge(this.selectedFiles, this.selectedFiles2));
-		result.setSelectedDirectories(merge(this.selectedDirectories, this.selectedDirectories2));
+		result.setSelectedFiles(resolve(merge(this.selectedFiles, this.selectedFiles2)));
+		result.setSelectedDirectories(resolve(merge(this.selectedDirectories, this.selectedDirectories2)));
 		result.setSelectedPackages(merge(this.selectedPackages, this.selectedPackages2));
 		result.setSelectedClasses(merge(this.selectedClasses, this.selectedClasses2));
 		result.setSelectedMethods(merge(this.selectedMethods, this.selectedMethods2));
@@ -318,6 +363,8 @@ class AvailableOptions {
 		result.setExcludedTagExpressions(merge(this.excludedTags, this.excludedTags2));
 		result.setIncludedEngines(merge(this.includedEngines, this.includedEngines2));
 		result.setExcludedEngines(merge(this.excludedEngines, this.excludedEngines2));
+		result.setShard(this.shard);
+		result.setFailFast(this.failFast);
 
 		// Configuration Parameters
 		result.setConfigurationParameters(this.configurationParameters);
@@ -331,6 +378,13 @@ class AvailableOptions {
 		return result;
 	}
 
+	private List<String> resolve(List<String> paths) {
+		if (this.workingDirectory == null) {
+			return paths;
+		}
+		return paths.stream().map(path -> this.workingDirectory.resolve(path).toString()).collect(toList());
+	}
+
 	private static <T> T choose(T left, T right, T defaultValue) {
 		return left == right ? left : (left == defaultValue ? right : left);
 	}
@@ -20,6 +20,7 @@ import java.net.URI;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +37,8 @@ public class CommandLineOptions {
 
 	static final Details DEFAULT_DETAILS = Details.TREE;
 	static final Theme DEFAULT_THEME = Theme.valueOf(Charset.defaultCharset());
+	static final Path DEFAULT_DAEMON_FILE = Paths.get(System.getProperty("java.io.tmpdir"),
+		"junit-platform-console-daemon-" + System.getProperty("user.name"));
 
 	private boolean displayHelp;
 	private boolean ansiColorOutputDisabled;
@@ -44,6 +47,10 @@ public class CommandLineOptions {
 	private List<Path> additionalClasspathEntries = emptyList();
 	private boolean failIfNoTests;
 
+	private boolean daemon;
+	private boolean useDaemon;
+	private Path daemonFile = DEFAULT_DAEMON_FILE;
+
 	private boolean scanClasspath;
 	private List<Path> selectedClasspathEntries = emptyList();
 
@@ -66,6 +73,8 @@ public class CommandLineOptions {
 	private List<String> excludedEngines = emptyList();
 	private List<String> includedTagExpressions = emptyList();
 	private List<String> excludedTagExpressions = emptyList();
+	private String shard;
+	private String failFast;
 
 	private Path reportsDir;
 
@@ -87,6 +96,30 @@ public class CommandLineOptions {
 		this.ansiColorOutputDisabled = ansiColorOutputDisabled;
 	}
 
+	public boolean isDaemon() {
+		return this.daemon;
+	}
+
+	public void setDaemon(boolean daemon) {
+		this.daemon = daemon;
+	}
+
+	public boolean isUseDaemon() {
+		return this.useDaemon;
+	}
+
+	public void setUseDaemon(boolean useDaemon) {
+		this.useDaemon = useDaemon;
+	}
+
+	public Path getDaemonFile() {
+		return this.daemonFile;
+	}
+
+	public void setDaemonFile(Path daemonFile) {
+		this.daemonFile = daemonFile;
+	}
+
 	public boolean isScanModulepath() {
 		return this.scanModulepath;
 	}
@@ -278,6 +311,22 @@ public class CommandLineOptions {
 		this.excludedTagExpressions = excludedTags;
 	}
 
+	public Optional<String> getShard() {
+		return Optional.ofNullable(this.shard);
+	}
+
+	public void setShard(String shard) {
+		this.shard = shard;
+	}
+
+	public Optional<String> getFailFast() {
+		return Optional.ofNullable(this.failFast);
+	}
+
+	public void setFailFast(String failFast) {
+		this.failFast = failFast;
+	}
+
 	public Optional<Path> getReportsDir() {
 		return Optional.ofNullable(this.reportsDir);
 	}
@@ -14,6 +14,7 @@ import static org.apiguardian.api.API.Status.INTERNAL;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.nio.file.Path;
 
 import org.apiguardian.api.API;
 import org.junit.platform.commons.JUnitException;
@@ -27,6 +28,22 @@ import picocli.CommandLine.ParseResult;
 @API(status = INTERNAL, since = "1.0")
 public class PicocliCommandLineOptionsParser implements CommandLineOptionsParser {
 
+	private final Path workingDirectory;
+
+	public PicocliCommandLineOptionsParser() {
+		this(null);
+	}
+
+	/**
+	 * Create a parser that resolves relative paths against the supplied
+	 * working directory, e.g. the one of a client of a daemon.
+	 *
+	 * @since 1.4
+	 */
+	public PicocliCommandLineOptionsParser(Path workingDirectory) {
+		this.workingDirectory = workingDirectory;
+	}
+
 	@Override
 	public CommandLineOptions parse(String... arguments) {
 		AvailableOptions availableOptions = getAvailableOptions();
@@ -51,6 +68,6 @@ public class PicocliCommandLineOptionsParser implements CommandLineOptionsParser
 	}
 
 	private AvailableOptions getAvailableOptions() {
-		return new AvailableOptions();
+		return new AvailableOptions(this.workingDirectory);
 	}
 }
@@ -19,6 +19,9 @@ import java.nio.file.Path;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import org.apiguardian.api.API;
@@ -27,6 +30,7 @@ import org.junit.platform.commons.util.ClassLoaderUtils;
 import org.junit.platform.console.options.CommandLineOptions;
 import org.junit.platform.console.options.Details;
 import org.junit.platform.console.options.Theme;
+import org.junit.platform.engine.CancellationToken;
 import org.junit.platform.launcher.Launcher;
 import org.junit.platform.launcher.LauncherDiscoveryRequest;
 import org.junit.platform.launcher.TestExecutionListener;
@@ -40,21 +44,45 @@ import org.junit.platform.launcher.listeners.TestExecutionSummary;
 @API(status = INTERNAL, since = "1.0")
 public class ConsoleTestExecutor {
 
+	/**
+	 * Maximum time a shutdown of the JVM, e.g. due to {@code SIGTERM}, is
+	 * delayed to let running tests finish and print the summary.
+	 */
+	private static final long SHUTDOWN_GRACE_PERIOD_SECONDS = 30;
+
 	private final CommandLineOptions options;
 	private final Supplier<Launcher> launcherSupplier;
+	private final Function<List<Path>, Optional<ClassLoader>> classLoaderFactory;
 
 	public ConsoleTestExecutor(CommandLineOptions options) {
 		this(options, LauncherFactory::create);
 	}
 
+	/**
+	 * Create a {@code ConsoleTestExecutor} that reuses the class loaders and
+	 * test engines held by the supplied cache.
+	 *
+	 * @since 1.4
+	 */
+	public ConsoleTestExecutor(CommandLineOptions options, LauncherEnvironmentCache cache) {
+		this(options, cache::createLauncher, cache::getClassLoader);
+	}
+
 	// for tests only
 	ConsoleTestExecutor(CommandLineOptions options, Supplier<Launcher> launcherSupplier) {
+		this(options, launcherSupplier, ConsoleTestExecutor::createCustomClassLoader);
+	}
+
+	private ConsoleTestExecutor(CommandLineOptions options, Supplier<Launcher> launcherSupplier,
+			Function<List<Path>, Optional<ClassLoader>> classLoaderFactory) {
 		this.options = options;
 		this.launcherSupplier = launcherSupplier;
+		this.classLoaderFactory = classLoaderFactory;
 	}
 
 	public TestExecutionSummary execute(PrintWriter out) throws Exception {
-		return new CustomContextClassLoaderExecutor(createCustomClassLoader()).invoke(() -> executeTests(out));
+		Optional<ClassLoader> customClassLoader = classLoaderFactory.apply(options.getAdditionalClasspathEntries());
+		return new CustomContextClassLoaderExecutor(customClassLoader).invoke(() -> executeTests(out));
 	}
 
 	private TestExecutionSummary executeTests(PrintWriter out) {
@@ -62,20 +90,54 @@ public class ConsoleTestExecutor {
 		SummaryGeneratingListener summaryListener = registerListeners(out, launcher);
 
 		LauncherDiscoveryRequest discoveryRequest = new DiscoveryRequestCreator().toDiscoveryRequest(options);
-		launcher.execute(discoveryRequest);
+		CancellationToken cancellationToken = CancellationToken.create();
+		CountDownLatch executionFinished = new CountDownLatch(1);
+		Thread shutdownHook = new Thread(() -> cancelAndAwait(cancellationToken, executionFinished),
+			"junit-console-launcher-shutdown");
+		Runtime.getRuntime().addShutdownHook(shutdownHook);
+		try {
+			launcher.execute(discoveryRequest, cancellationToken);
+
+			TestExecutionSummary summary = summaryListener.getSummary();
+			if (summary.getTotalFailureCount() > 0 || options.getDetails() != Details.NONE) {
+				printSummary(summary, out);
+			}
 
-		TestExecutionSummary summary = summaryListener.getSummary();
-		if (summary.getTotalFailureCount() > 0 || options.getDetails() != Details.NONE) {
-			printSummary(summary, out);
+			return summary;
+		}
+		finally {
+			out.flush();
+			executionFinished.countDown();
+			removeShutdownHook(shutdownHook);
 		}
+	}
 
-		return summary;
+	/**
+	 * Cancel the execution when the JVM is shut down and wait for running
+	 * tests to finish so their results are still reported.
+	 */
+	private static void cancelAndAwait(CancellationToken cancellationToken, CountDownLatch executionFinished) {
+		cancellationToken.cancel();
+		try {
+			executionFinished.await(SHUTDOWN_GRACE_PERIOD_SECONDS, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
 	}
 
-	private Optional<ClassLoader> createCustomClassLoader() {
-		List<Path> additionalClasspathEntries = options.getAdditionalClasspathEntries();
+	private static void removeShutdownHook(Thread shutdownHook) {
+		try {
+			Runtime.getRuntime().removeShutdownHook(shutdownHook);
+		}
+		catch (IllegalStateException e) {
+			// JVM is already shutting down
+		}
+	}
+
+	private static Optional<ClassLoader> createCustomClassLoader(List<Path> additionalClasspathEntries) {
 		if (!additionalClasspathEntries.isEmpty()) {
-			URL[] urls = additionalClasspathEntries.stream().map(this::toURL).toArray(URL[]::new);
+			URL[] urls = toURLs(additionalClasspathEntries);
 			ClassLoader parentClassLoader = ClassLoaderUtils.getDefaultClassLoader();
 			ClassLoader customClassLoader = URLClassLoader.newInstance(urls, parentClassLoader);
 			return Optional.of(customClassLoader);
@@ -83,7 +145,11 @@ public class ConsoleTestExecutor {
 		return Optional.empty();
 	}
 
-	private URL toURL(Path path) {
+	static URL[] toURLs(List<Path> classpathEntries) {
+		return classpathEntries.stream().map(ConsoleTestExecutor::toURL).toArray(URL[]::new);
+	}
+
+	private static URL toURL(Path path) {
 		try {
 			return path.toUri().toURL();
 		}
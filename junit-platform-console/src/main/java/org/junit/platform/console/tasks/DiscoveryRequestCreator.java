@@ -18,6 +18,8 @@ import static org.junit.platform.engine.discovery.PackageNameFilter.excludePacka
 import static org.junit.platform.engine.discovery.PackageNameFilter.includePackageNames;
 import static org.junit.platform.launcher.EngineFilter.excludeEngines;
 import static org.junit.platform.launcher.EngineFilter.includeEngines;
+import static org.junit.platform.launcher.LauncherConstants.FAIL_FAST_MAX_FAILURES_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.SHARD_PROPERTY_NAME;
 import static org.junit.platform.launcher.TagFilter.excludeTags;
 import static org.junit.platform.launcher.TagFilter.includeTags;
 import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
@@ -48,6 +50,9 @@ class DiscoveryRequestCreator {
 		requestBuilder.selectors(createDiscoverySelectors(options));
 		addFilters(requestBuilder, options);
 		requestBuilder.configurationParameters(options.getConfigurationParameters());
+		options.getShard().ifPresent(shard -> requestBuilder.configurationParameter(SHARD_PROPERTY_NAME, shard));
+		options.getFailFast().ifPresent(
+			maxFailures -> requestBuilder.configurationParameter(FAIL_FAST_MAX_FAILURES_PROPERTY_NAME, maxFailures));
 		return requestBuilder.build();
 	}
 
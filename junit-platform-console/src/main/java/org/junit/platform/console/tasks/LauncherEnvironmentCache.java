@@ -0,0 +1,190 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.console.tasks;
+
+import static java.util.Collections.emptyList;
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.ServiceLoader;
+import java.util.stream.Stream;
+
+import org.apiguardian.api.API;
+import org.junit.platform.commons.logging.Logger;
+import org.junit.platform.commons.logging.LoggerFactory;
+import org.junit.platform.commons.util.ClassLoaderUtils;
+import org.junit.platform.engine.TestEngine;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+/**
+ * Cache of the class loader for additional classpath entries and of the
+ * {@linkplain TestEngine test engines} loaded via class loaders that is kept
+ * across executions of {@link ConsoleTestExecutor ConsoleTestExecutors}, e.g.
+ * by a console launcher daemon.
+ *
+ * <p>The class loader for additional classpath entries is reused as long as
+ * the same entries are requested and none of the files within them have
+ * changed since it was created. Otherwise, a fresh class loader is created so
+ * that changed classes are loaded again. Classes loaded by the parent class
+ * loader, including the JUnit Platform and test engines on its classpath,
+ * stay loaded in any case.
+ *
+ * <p>This class is intended to be used by one execution at a time.
+ *
+ * @since 1.4
+ */
+@API(status = INTERNAL, since = "1.4")
+public class LauncherEnvironmentCache implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(LauncherEnvironmentCache.class);
+
+	private final ClassLoader parentClassLoader;
+	private final Map<ClassLoader, List<TestEngine>> testEngines = new HashMap<>();
+
+	private List<Path> classpathEntries = emptyList();
+	private OptionalLong fingerprint = OptionalLong.empty();
+	private URLClassLoader classLoader;
+
+	/**
+	 * Create a {@code LauncherEnvironmentCache} whose parent class loader
+	 * loads the supplied classpath entries, if any, once.
+	 *
+	 * @param persistentClasspathEntries the classpath entries that stay
+	 * loaded even if they change; never {@code null}
+	 */
+	public LauncherEnvironmentCache(List<Path> persistentClasspathEntries) {
+		ClassLoader defaultClassLoader = ClassLoaderUtils.getDefaultClassLoader();
+		this.parentClassLoader = persistentClasspathEntries.isEmpty() ? defaultClassLoader
+				: URLClassLoader.newInstance(ConsoleTestExecutor.toURLs(persistentClasspathEntries),
+					defaultClassLoader);
+	}
+
+	/**
+	 * Get the class loader for the supplied additional classpath entries.
+	 *
+	 * @return the cached class loader if the supplied entries are the same as
+	 * the ones of the previous call and have not changed since; a new class
+	 * loader if they are not; or the parent class loader if there are no
+	 * entries
+	 */
+	synchronized Optional<ClassLoader> getClassLoader(List<Path> additionalClasspathEntries) {
+		if (additionalClasspathEntries.isEmpty()) {
+			return Optional.of(this.parentClassLoader);
+		}
+		OptionalLong currentFingerprint = fingerprint(additionalClasspathEntries);
+		if (this.classLoader == null || !this.classpathEntries.equals(additionalClasspathEntries)
+				|| !currentFingerprint.isPresent() || !currentFingerprint.equals(this.fingerprint)) {
+			closeClassLoader();
+			this.classLoader = URLClassLoader.newInstance(ConsoleTestExecutor.toURLs(additionalClasspathEntries),
+				this.parentClassLoader);
+			this.classpathEntries = new ArrayList<>(additionalClasspathEntries);
+			this.fingerprint = currentFingerprint;
+			logger.config(() -> "Created new class loader for additional classpath entries " + this.classpathEntries);
+		}
+		return Optional.of(this.classLoader);
+	}
+
+	/**
+	 * Create a {@link Launcher} for the test engines available via the
+	 * current thread's context class loader.
+	 *
+	 * <p>Test engines are only loaded once per class loader.
+	 */
+	synchronized Launcher createLauncher() {
+		List<TestEngine> engines = this.testEngines.computeIfAbsent(ClassLoaderUtils.getDefaultClassLoader(),
+			LauncherEnvironmentCache::loadTestEngines);
+		// @formatter:off
+		LauncherConfig config = LauncherConfig.builder()
+				.enableTestEngineAutoRegistration(false)
+				.addTestEngines(engines.toArray(new TestEngine[0]))
+				.build();
+		// @formatter:on
+		return LauncherFactory.create(config);
+	}
+
+	private static List<TestEngine> loadTestEngines(ClassLoader classLoader) {
+		List<TestEngine> engines = new ArrayList<>();
+		ServiceLoader.load(TestEngine.class, classLoader).forEach(engines::add);
+		return engines;
+	}
+
+	/**
+	 * Compute a fingerprint of the names, sizes, and modification times of
+	 * all files within the supplied classpath entries.
+	 *
+	 * @return the fingerprint or {@code OptionalLong.empty()} if the entries
+	 * could not be read
+	 */
+	private static OptionalLong fingerprint(List<Path> classpathEntries) {
+		long fingerprint = 0;
+		for (Path classpathEntry : classpathEntries) {
+			try (Stream<Path> files = Files.walk(classpathEntry)) {
+				// order-independent since the order of walked files is unspecified
+				long sum = files.mapToLong(LauncherEnvironmentCache::fingerprint).sum();
+				fingerprint = 31 * fingerprint + sum;
+			}
+			catch (IOException | UncheckedIOException e) {
+				logger.debug(e, () -> "Failed to read classpath entry " + classpathEntry);
+				return OptionalLong.empty();
+			}
+		}
+		return OptionalLong.of(fingerprint);
+	}
+
+	private static long fingerprint(Path file) {
+		try {
+			BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+			if (!attributes.isRegularFile()) {
+				return 0;
+			}
+			return 31 * (31 * file.hashCode() + attributes.lastModifiedTime().toMillis()) + attributes.size();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void closeClassLoader() {
+		if (this.classLoader != null) {
+			this.testEngines.remove(this.classLoader);
+			try {
+				this.classLoader.close();
+			}
+			catch (IOException e) {
+				logger.debug(e, () -> "Failed to close class loader for " + this.classpathEntries);
+			}
+			this.classLoader = null;
+		}
+	}
+
+	/**
+	 * Close the cached class loader and discard all cached test engines.
+	 */
+	@Override
+	public synchronized void close() {
+		closeClassLoader();
+		this.testEngines.clear();
+	}
+
+}
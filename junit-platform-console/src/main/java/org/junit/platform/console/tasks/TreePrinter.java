@@ -18,7 +18,9 @@ import static org.junit.platform.console.tasks.Color.NONE;
 import static org.junit.platform.console.tasks.Color.SKIPPED;
 import static org.junit.platform.console.tasks.Color.YELLOW;
 
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.Reader;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
@@ -27,6 +29,7 @@ import org.junit.platform.commons.util.StringUtils;
 import org.junit.platform.console.options.Theme;
 import org.junit.platform.engine.TestExecutionResult;
 import org.junit.platform.engine.TestExecutionResult.Status;
+import org.junit.platform.engine.reporting.FileRegion;
 import org.junit.platform.engine.reporting.ReportEntry;
 
 /**
@@ -138,23 +141,45 @@ class TreePrinter {
 		out.print(reportEntry.getTimestamp());
 		Set<Map.Entry<String, String>> entries = reportEntry.getKeyValuePairs().entrySet();
 		if (entries.size() == 1) {
-			printReportEntry(" ", getOnlyElement(entries));
+			printReportEntry(" ", reportEntry, getOnlyElement(entries));
 			return;
 		}
 		for (Map.Entry<String, String> entry : entries) {
 			out.println();
-			printReportEntry(indent + theme.blank(), entry);
+			printReportEntry(indent + theme.blank(), reportEntry, entry);
 		}
 	}
 
-	private void printReportEntry(String indent, Map.Entry<String, String> mapEntry) {
+	private void printReportEntry(String indent, ReportEntry reportEntry, Map.Entry<String, String> mapEntry) {
 		out.print(indent);
 		out.print(color(YELLOW, mapEntry.getKey()));
 		out.print(" = `");
-		out.print(color(GREEN, mapEntry.getValue()));
+		FileRegion fileRegion = reportEntry.getFileRegions().get(mapEntry.getKey());
+		if (fileRegion != null) {
+			printFileRegion(GREEN, fileRegion);
+		}
+		else {
+			out.print(color(GREEN, mapEntry.getValue()));
+		}
 		out.print("`");
 	}
 
+	/**
+	 * Print the value stored in the supplied file region without reading it
+	 * into memory at once.
+	 */
+	private void printFileRegion(Color color, FileRegion fileRegion) {
+		char[] buffer = new char[8192];
+		try (Reader reader = fileRegion.openReader()) {
+			for (int count = reader.read(buffer); count != -1; count = reader.read(buffer)) {
+				out.print(color(color, new String(buffer, 0, count)));
+			}
+		}
+		catch (IOException e) {
+			out.print(color(FAILED, "<failed to read " + fileRegion + ": " + e + ">"));
+		}
+	}
+
 	private void printMessage(Color color, String indent, String message) {
 		String[] lines = message.split("\\R");
 		out.print(" ");
@@ -20,6 +20,8 @@ import static org.junit.platform.engine.TestExecutionResult.Status.FAILED;
 import static org.junit.platform.launcher.LauncherConstants.STDERR_REPORT_ENTRY_KEY;
 import static org.junit.platform.launcher.LauncherConstants.STDOUT_REPORT_ENTRY_KEY;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.io.Writer;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
@@ -39,6 +41,7 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 
 import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.reporting.FileRegion;
 import org.junit.platform.engine.reporting.ReportEntry;
 import org.junit.platform.launcher.TestIdentifier;
 import org.junit.platform.launcher.listeners.LegacyReportingUtils;
@@ -154,10 +157,15 @@ class XmlReportWriter {
 
 		List<String> systemOutElements = new ArrayList<>();
 		List<String> systemErrElements = new ArrayList<>();
+		List<FileRegion> systemOutFileRegions = new ArrayList<>();
+		List<FileRegion> systemErrFileRegions = new ArrayList<>();
 		systemOutElements.add(formatNonStandardAttributesAsString(testIdentifier));
-		collectReportEntries(testIdentifier, systemOutElements, systemErrElements);
+		collectReportEntries(testIdentifier, systemOutElements, systemErrElements, systemOutFileRegions,
+			systemErrFileRegions);
 		writeOutputElements("system-out", systemOutElements, writer);
+		writeFileRegionOutputElements("system-out", systemOutFileRegions, writer);
 		writeOutputElements("system-err", systemErrElements, writer);
+		writeFileRegionOutputElements("system-err", systemErrFileRegions, writer);
 
 		writer.writeEndElement();
 		newLine(writer);
@@ -222,17 +230,29 @@ class XmlReportWriter {
 	}
 
 	private void collectReportEntries(TestIdentifier testIdentifier, List<String> systemOutElements,
-			List<String> systemErrElements) {
+			List<String> systemErrElements, List<FileRegion> systemOutFileRegions,
+			List<FileRegion> systemErrFileRegions) {
 		List<ReportEntry> entries = this.reportData.getReportEntries(testIdentifier);
 		if (!entries.isEmpty()) {
 			List<String> systemOutElementsForCapturedOutput = new ArrayList<>();
 			StringBuilder formattedReportEntries = new StringBuilder();
 			for (int i = 0; i < entries.size(); i++) {
 				ReportEntry reportEntry = entries.get(i);
-				Map<String, String> keyValuePairs = new LinkedHashMap<>(reportEntry.getKeyValuePairs());
+				Map<String, String> keyValuePairs = getInMemoryKeyValuePairs(reportEntry);
 				removeIfPresentAndAddAsSeparateElement(keyValuePairs, STDOUT_REPORT_ENTRY_KEY,
 					systemOutElementsForCapturedOutput);
 				removeIfPresentAndAddAsSeparateElement(keyValuePairs, STDERR_REPORT_ENTRY_KEY, systemErrElements);
+				reportEntry.getFileRegions().forEach((key, fileRegion) -> {
+					if (STDERR_REPORT_ENTRY_KEY.equals(key)) {
+						systemErrFileRegions.add(fileRegion);
+					}
+					else {
+						systemOutFileRegions.add(fileRegion);
+						if (!STDOUT_REPORT_ENTRY_KEY.equals(key)) {
+							keyValuePairs.put(key, "<written to separate system-out element>");
+						}
+					}
+				});
 				if (!keyValuePairs.isEmpty()) {
 					buildReportEntryDescription(reportEntry.getTimestamp(), keyValuePairs, i + 1,
 						formattedReportEntries);
@@ -243,6 +263,21 @@ class XmlReportWriter {
 		}
 	}
 
+	/**
+	 * Get the key-value pairs of the supplied entry whose values are not
+	 * stored in {@linkplain ReportEntry#getFileRegions() file regions}
+	 * without reading the latter.
+	 */
+	private Map<String, String> getInMemoryKeyValuePairs(ReportEntry reportEntry) {
+		Map<String, String> keyValuePairs = new LinkedHashMap<>();
+		for (Map.Entry<String, String> entry : reportEntry.getKeyValuePairs().entrySet()) {
+			if (!reportEntry.getFileRegions().containsKey(entry.getKey())) {
+				keyValuePairs.put(entry.getKey(), entry.getValue());
+			}
+		}
+		return keyValuePairs;
+	}
+
 	private void removeIfPresentAndAddAsSeparateElement(Map<String, String> keyValuePairs, String key,
 			List<String> elements) {
 		String value = keyValuePairs.remove(key);
@@ -295,6 +330,48 @@ class XmlReportWriter {
 		newLine(writer);
 	}
 
+	private void writeFileRegionOutputElements(String elementName, List<FileRegion> fileRegions,
+			XMLStreamWriter writer) throws XMLStreamException {
+		for (FileRegion fileRegion : fileRegions) {
+			writer.writeStartElement(elementName);
+			writeCDataSafely(writer, "\n");
+			writeFileRegionAsCData(fileRegion, writer);
+			writeCDataSafely(writer, "\n");
+			writer.writeEndElement();
+			newLine(writer);
+		}
+	}
+
+	/**
+	 * Write the value stored in the supplied file region as a sequence of
+	 * CDATA sections without reading it into memory at once.
+	 *
+	 * <p>A high surrogate at the end of a chunk is carried over to the next
+	 * one so that surrogate pairs are never split across sections.
+	 */
+	private void writeFileRegionAsCData(FileRegion fileRegion, XMLStreamWriter writer) throws XMLStreamException {
+		char[] buffer = new char[8192];
+		try (Reader reader = fileRegion.openReader()) {
+			int offset = 0;
+			int count;
+			while ((count = reader.read(buffer, offset, buffer.length - offset)) != -1) {
+				int length = offset + count;
+				int end = Character.isHighSurrogate(buffer[length - 1]) ? length - 1 : length;
+				writeCDataSafely(writer, new String(buffer, 0, end));
+				offset = length - end;
+				if (offset > 0) {
+					buffer[0] = buffer[end];
+				}
+			}
+			if (offset > 0) {
+				writeCDataSafely(writer, new String(buffer, 0, offset));
+			}
+		}
+		catch (IOException e) {
+			writeCDataSafely(writer, "<failed to read " + fileRegion + ": " + e + ">");
+		}
+	}
+
 	private void writeCDataSafely(XMLStreamWriter writer, String data) throws XMLStreamException {
 		writer.writeCData(data.replace(CDATA_END, "]]" + CDATA_END + CDATA_START + ">"));
 	}
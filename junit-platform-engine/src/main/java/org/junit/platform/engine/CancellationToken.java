@@ -0,0 +1,70 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.engine;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+import org.apiguardian.api.API;
+
+/**
+ * Token used to request the cooperative cancellation of test execution.
+ *
+ * <p>Once {@linkplain #cancel() cancellation} has been requested, engines
+ * should not start executing further tests and report them as
+ * {@linkplain EngineExecutionListener#executionSkipped skipped} instead.
+ * Tests that are already being executed are allowed to finish.
+ *
+ * <p>A token may be cancelled from any thread, for example, by a
+ * {@code TestExecutionListener} or a shutdown hook.
+ *
+ * @see ExecutionRequest#getCancellationToken()
+ * @since 1.4
+ */
+@API(status = EXPERIMENTAL, since = "1.4")
+public interface CancellationToken {
+
+	/**
+	 * Reason used to report tests as skipped that have not been executed
+	 * because cancellation has been requested.
+	 */
+	String SKIP_REASON = "Execution cancelled";
+
+	/**
+	 * Create a new, uncancelled token.
+	 *
+	 * @return the new token; never {@code null}
+	 */
+	static CancellationToken create() {
+		return new RegularCancellationToken();
+	}
+
+	/**
+	 * Get a token that cannot be cancelled.
+	 *
+	 * @return the disabled token; never {@code null}
+	 */
+	static CancellationToken disabled() {
+		return DisabledCancellationToken.INSTANCE;
+	}
+
+	/**
+	 * Determine whether cancellation has been requested for this token.
+	 */
+	boolean isCancellationRequested();
+
+	/**
+	 * Request cancellation of the execution this token is associated with.
+	 *
+	 * <p>Subsequent invocations have no effect.
+	 */
+	void cancel();
+
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.engine;
+
+/**
+ * @since 1.4
+ * @see CancellationToken#disabled()
+ */
+final class DisabledCancellationToken implements CancellationToken {
+
+	static final DisabledCancellationToken INSTANCE = new DisabledCancellationToken();
+
+	private DisabledCancellationToken() {
+	}
+
+	@Override
+	public boolean isCancellationRequested() {
+		return false;
+	}
+
+	@Override
+	public void cancel() {
+		// cannot be cancelled
+	}
+
+}
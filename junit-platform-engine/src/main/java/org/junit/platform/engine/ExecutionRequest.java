@@ -10,6 +10,7 @@
 
 package org.junit.platform.engine;
 
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
 import static org.apiguardian.api.API.Status.INTERNAL;
 import static org.apiguardian.api.API.Status.STABLE;
 
@@ -22,7 +23,9 @@ import org.apiguardian.api.API;
  * <p>A request contains an engine's root {@link TestDescriptor}, the
  * {@link EngineExecutionListener} to be notified of test execution events, and
  * {@link ConfigurationParameters} that the engine may use to influence test
- * execution.
+ * execution, a {@link CancellationToken} that signals whether the
+ * execution should be cancelled, and a {@link ResourceLockRegistry} that is
+ * shared with other engines.
  *
  * @see TestEngine
  * @since 1.0
@@ -36,12 +39,32 @@ public class ExecutionRequest {
 
 	private final ConfigurationParameters configurationParameters;
 
+	private final CancellationToken cancellationToken;
+
+	private final ResourceLockRegistry resourceLockRegistry;
+
 	@API(status = INTERNAL, since = "1.0")
 	public ExecutionRequest(TestDescriptor rootTestDescriptor, EngineExecutionListener engineExecutionListener,
 			ConfigurationParameters configurationParameters) {
+		this(rootTestDescriptor, engineExecutionListener, configurationParameters, CancellationToken.disabled());
+	}
+
+	@API(status = INTERNAL, since = "1.4")
+	public ExecutionRequest(TestDescriptor rootTestDescriptor, EngineExecutionListener engineExecutionListener,
+			ConfigurationParameters configurationParameters, CancellationToken cancellationToken) {
+		this(rootTestDescriptor, engineExecutionListener, configurationParameters, cancellationToken,
+			ResourceLockRegistry.create());
+	}
+
+	@API(status = INTERNAL, since = "1.4")
+	public ExecutionRequest(TestDescriptor rootTestDescriptor, EngineExecutionListener engineExecutionListener,
+			ConfigurationParameters configurationParameters, CancellationToken cancellationToken,
+			ResourceLockRegistry resourceLockRegistry) {
 		this.rootTestDescriptor = rootTestDescriptor;
 		this.engineExecutionListener = engineExecutionListener;
 		this.configurationParameters = configurationParameters;
+		this.cancellationToken = cancellationToken;
+		this.resourceLockRegistry = resourceLockRegistry;
 	}
 
 	/**
@@ -72,4 +95,29 @@ public class ExecutionRequest {
 		return this.configurationParameters;
 	}
 
+	/**
+	 * Get the {@link CancellationToken} that signals whether the engine should
+	 * stop starting the execution of further tests.
+	 *
+	 * @since 1.4
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	public CancellationToken getCancellationToken() {
+		return this.cancellationToken;
+	}
+
+	/**
+	 * Get the {@link ResourceLockRegistry} that the engine should use to
+	 * acquire locks for shared resources.
+	 *
+	 * <p>The {@code Launcher} passes the same registry to all engines so that
+	 * engines executed concurrently honor each other's locks.
+	 *
+	 * @since 1.4
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	public ResourceLockRegistry getResourceLockRegistry() {
+		return this.resourceLockRegistry;
+	}
+
 }
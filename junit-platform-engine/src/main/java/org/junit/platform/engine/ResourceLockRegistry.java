@@ -0,0 +1,113 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.engine;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apiguardian.api.API;
+import org.junit.platform.commons.util.Preconditions;
+
+/**
+ * Registry of the {@linkplain ReadWriteLock read-write locks} that guard
+ * shared resources identified by string keys, for example, system
+ * properties.
+ *
+ * <p>Every key is assigned an ID in the order in which keys are first
+ * registered. The IDs define the global order in which locks must be
+ * acquired to avoid deadlocks.
+ *
+ * <p>A registry that is shared by several test engines allows them to
+ * honor each other's locks when they are executed concurrently. Engines
+ * that do not acquire the locks of their resources from the registry
+ * must only be executed while holding the write lock of the
+ * {@linkplain #GLOBAL_KEY global key}; all other engines hold its read
+ * lock.
+ *
+ * @see ExecutionRequest#getResourceLockRegistry()
+ * @since 1.4
+ */
+@API(status = EXPERIMENTAL, since = "1.4")
+public final class ResourceLockRegistry {
+
+	/**
+	 * Key of the resource that stands for all resources.
+	 *
+	 * <p>It is registered when the registry is created and therefore has the
+	 * lowest ID.
+	 */
+	public static final String GLOBAL_KEY = "org.junit.platform.engine.ResourceLockRegistry.GLOBAL";
+
+	private final Map<String, Integer> keyIds = new ConcurrentHashMap<>();
+	private final List<String> keysByKeyId = new ArrayList<>();
+	private final List<ReadWriteLock> locksByKeyId = new ArrayList<>();
+
+	/**
+	 * Create a new, empty registry.
+	 *
+	 * @return the new registry; never {@code null}
+	 */
+	public static ResourceLockRegistry create() {
+		return new ResourceLockRegistry();
+	}
+
+	private ResourceLockRegistry() {
+		getKeyId(GLOBAL_KEY);
+	}
+
+	/**
+	 * Get the ID of the supplied resource key, registering the key if
+	 * necessary.
+	 *
+	 * <p>Locks of resources with lower IDs must be acquired before those
+	 * with higher IDs.
+	 *
+	 * @param key the resource key; never {@code null}
+	 * @return the ID of the key
+	 */
+	public int getKeyId(String key) {
+		Preconditions.notNull(key, "key must not be null");
+		return this.keyIds.computeIfAbsent(key, this::registerKey);
+	}
+
+	/**
+	 * Get the resource key with the supplied ID.
+	 *
+	 * @param keyId an ID previously returned by {@link #getKeyId(String)}
+	 * @return the resource key; never {@code null}
+	 */
+	public synchronized String getKey(int keyId) {
+		return this.keysByKeyId.get(keyId);
+	}
+
+	/**
+	 * Get the lock of the resource key with the supplied ID.
+	 *
+	 * @param keyId an ID previously returned by {@link #getKeyId(String)}
+	 * @return the lock; never {@code null}
+	 */
+	public synchronized ReadWriteLock getLock(int keyId) {
+		return this.locksByKeyId.get(keyId);
+	}
+
+	private synchronized int registerKey(String key) {
+		this.keysByKeyId.add(key);
+		this.locksByKeyId.add(new ReentrantReadWriteLock());
+		return this.locksByKeyId.size() - 1;
+	}
+
+}
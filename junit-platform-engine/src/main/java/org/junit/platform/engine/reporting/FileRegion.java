@@ -0,0 +1,220 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.engine.reporting;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+import org.apiguardian.api.API;
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.util.Preconditions;
+import org.junit.platform.commons.util.ToStringBuilder;
+
+/**
+ * {@code FileRegion} is a lightweight handle to a value of a
+ * {@link ReportEntry} that has been stored in a region of a file instead of
+ * being kept in memory.
+ *
+ * <p>Listeners that retain report entries or write them to reports should
+ * {@linkplain #openReader() stream} the value from the file instead of
+ * reading it into a {@code String}. The file is only guaranteed to exist
+ * until the execution that published the entry has finished.
+ *
+ * @since 1.4
+ * @see ReportEntry#getFileRegions()
+ */
+@API(status = EXPERIMENTAL, since = "1.4")
+public final class FileRegion {
+
+	private final Path path;
+	private final long offset;
+	private final long length;
+	private final Charset charset;
+
+	/**
+	 * Factory for creating a new {@code FileRegion}.
+	 *
+	 * @param path the file that contains the value; never {@code null}
+	 * @param offset the offset of the first byte of the value; must not be
+	 * negative
+	 * @param length the number of bytes of the value; must not be negative
+	 * @param charset the charset used to encode the value; never {@code null}
+	 */
+	public static FileRegion of(Path path, long offset, long length, Charset charset) {
+		Preconditions.notNull(path, "path must not be null");
+		Preconditions.condition(offset >= 0, "offset must not be negative");
+		Preconditions.condition(length >= 0, "length must not be negative");
+		Preconditions.notNull(charset, "charset must not be null");
+		return new FileRegion(path, offset, length, charset);
+	}
+
+	private FileRegion(Path path, long offset, long length, Charset charset) {
+		this.path = path;
+		this.offset = offset;
+		this.length = length;
+		this.charset = charset;
+	}
+
+	/**
+	 * Get the file that contains the value.
+	 */
+	public Path getPath() {
+		return this.path;
+	}
+
+	/**
+	 * Get the offset of the first byte of the value within the file.
+	 */
+	public long getOffset() {
+		return this.offset;
+	}
+
+	/**
+	 * Get the number of bytes of the value.
+	 */
+	public long getLength() {
+		return this.length;
+	}
+
+	/**
+	 * Get the charset used to encode the value.
+	 */
+	public Charset getCharset() {
+		return this.charset;
+	}
+
+	/**
+	 * Open a stream that reads the bytes of the value.
+	 *
+	 * <p>The caller is responsible for closing the returned stream.
+	 */
+	public InputStream openInputStream() throws IOException {
+		FileChannel channel = FileChannel.open(this.path, StandardOpenOption.READ);
+		return new RegionInputStream(channel, this.offset, this.length);
+	}
+
+	/**
+	 * Open a reader that decodes the value using its {@linkplain #getCharset()
+	 * charset}.
+	 *
+	 * <p>The caller is responsible for closing the returned reader.
+	 */
+	public Reader openReader() throws IOException {
+		return new InputStreamReader(openInputStream(), this.charset);
+	}
+
+	/**
+	 * Read the entire value into a {@code String}.
+	 *
+	 * <p>Since values are stored in files because they are large, this method
+	 * should be avoided in favor of {@link #openReader()}.
+	 *
+	 * @throws JUnitException if the value cannot be read
+	 */
+	public String readString() {
+		StringBuilder builder = new StringBuilder((int) Math.min(this.length, Integer.MAX_VALUE - 8));
+		char[] buffer = new char[8192];
+		try (Reader reader = openReader()) {
+			for (int count = reader.read(buffer); count != -1; count = reader.read(buffer)) {
+				builder.append(buffer, 0, count);
+			}
+		}
+		catch (IOException e) {
+			throw new JUnitException("Failed to read " + this, e);
+		}
+		return builder.toString();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		FileRegion that = (FileRegion) obj;
+		return this.offset == that.offset && this.length == that.length && this.path.equals(that.path)
+				&& this.charset.equals(that.charset);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.path, this.offset, this.length, this.charset);
+	}
+
+	@Override
+	public String toString() {
+		// @formatter:off
+		return new ToStringBuilder(this)
+				.append("path", this.path)
+				.append("offset", this.offset)
+				.append("length", this.length)
+				.append("charset", this.charset)
+				.toString();
+		// @formatter:on
+	}
+
+	private static class RegionInputStream extends InputStream {
+
+		private final FileChannel channel;
+		private long position;
+		private long remaining;
+
+		RegionInputStream(FileChannel channel, long offset, long length) {
+			this.channel = channel;
+			this.position = offset;
+			this.remaining = length;
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] buffer = new byte[1];
+			return read(buffer, 0, 1) == -1 ? -1 : buffer[0] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (this.remaining <= 0) {
+				return -1;
+			}
+			ByteBuffer buffer = ByteBuffer.wrap(b, off, (int) Math.min(len, this.remaining));
+			int count = this.channel.read(buffer, this.position);
+			if (count == -1) {
+				this.remaining = 0;
+				return -1;
+			}
+			this.position += count;
+			this.remaining -= count;
+			return count;
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.channel.close();
+		}
+
+	}
+
+}
@@ -10,14 +10,24 @@
 
 package org.junit.platform.engine.reporting;
 
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
 import static org.apiguardian.api.API.Status.STABLE;
 
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
 import java.time.LocalDateTime;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 import org.apiguardian.api.API;
+import org.junit.platform.commons.JUnitException;
 import org.junit.platform.commons.util.Preconditions;
 import org.junit.platform.commons.util.ToStringBuilder;
 
@@ -25,6 +35,9 @@ import org.junit.platform.commons.util.ToStringBuilder;
  * {@code ReportEntry} encapsulates a time-stamped map of {@code String}-based
  * key-value pairs to be published to the reporting infrastructure.
  *
+ * <p>Large values may be stored in {@linkplain #getFileRegions() file
+ * regions} instead of being kept in memory.
+ *
  * @since 1.0
  * @see #from(Map)
  * @see #from(String, String)
@@ -32,8 +45,10 @@ import org.junit.platform.commons.util.ToStringBuilder;
 @API(status = STABLE, since = "1.0")
 public final class ReportEntry {
 
-	private final LocalDateTime timestamp = LocalDateTime.now();
+	private final LocalDateTime timestamp;
 	private final Map<String, String> keyValuePairs = new LinkedHashMap<>();
+	private final Map<String, FileRegion> fileRegions = new LinkedHashMap<>();
+	private final Map<String, SoftReference<String>> valuesReadFromFileRegions = new ConcurrentHashMap<>();
 
 	/**
 	 * Factory for creating a new {@code ReportEntry} from a map of key-value pairs.
@@ -63,19 +78,90 @@ public final class ReportEntry {
 		return reportEntry;
 	}
 
+	private ReportEntry() {
+		this(LocalDateTime.now());
+	}
+
+	private ReportEntry(LocalDateTime timestamp) {
+		this.timestamp = timestamp;
+	}
+
 	private void add(String key, String value) {
 		Preconditions.notBlank(key, "key must not be null or blank");
 		Preconditions.notBlank(value, "value must not be null or blank");
 		this.keyValuePairs.put(key, value);
 	}
 
+	/**
+	 * Create a copy of this {@code ReportEntry} with the same timestamp in
+	 * which the values of the keys of the supplied map are stored in the
+	 * corresponding {@link FileRegion FileRegions}.
+	 *
+	 * @param fileRegions the map of keys to file regions; never {@code null};
+	 * keys must not be {@code null} or blank and values must not be
+	 * {@code null}
+	 * @return a new {@code ReportEntry} or this entry if the supplied map is
+	 * empty
+	 * @since 1.4
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	public ReportEntry withFileRegions(Map<String, FileRegion> fileRegions) {
+		Preconditions.notNull(fileRegions, "fileRegions must not be null");
+		if (fileRegions.isEmpty()) {
+			return this;
+		}
+		ReportEntry reportEntry = new ReportEntry(this.timestamp);
+		this.keyValuePairs.forEach((key, value) -> {
+			if (!fileRegions.containsKey(key)) {
+				reportEntry.keyValuePairs.put(key, value);
+			}
+		});
+		this.fileRegions.forEach((key, value) -> {
+			if (!fileRegions.containsKey(key)) {
+				reportEntry.fileRegions.put(key, value);
+			}
+		});
+		fileRegions.forEach((key, value) -> {
+			Preconditions.notBlank(key, "key must not be null or blank");
+			Preconditions.notNull(value, "file region must not be null");
+			reportEntry.fileRegions.put(key, value);
+		});
+		return reportEntry;
+	}
+
 	/**
 	 * Get an unmodifiable copy of the map of key-value pairs to be published.
 	 *
+	 * <p>Values stored in {@linkplain #getFileRegions() file regions} are
+	 * included as well. They are read from their files when they are accessed
+	 * and are only retained as long as memory permits, so they may be read
+	 * again on subsequent access. Once the files no longer exist, which is
+	 * the case after the execution that published this entry has finished,
+	 * such values are replaced by a placeholder that contains the
+	 * {@linkplain FileRegion#toString() description of their file region}.
+	 *
 	 * @return a copy of the map of key-value pairs; never {@code null}
 	 */
 	public final Map<String, String> getKeyValuePairs() {
-		return Collections.unmodifiableMap(this.keyValuePairs);
+		if (this.fileRegions.isEmpty()) {
+			return Collections.unmodifiableMap(this.keyValuePairs);
+		}
+		return new KeyValuePairs();
+	}
+
+	/**
+	 * Get an unmodifiable map of the keys whose values are stored in files to
+	 * the corresponding {@link FileRegion FileRegions}.
+	 *
+	 * <p>Listeners should prefer streaming these values from their file
+	 * regions over accessing them via {@link #getKeyValuePairs()}.
+	 *
+	 * @return the map of keys to file regions; never {@code null}
+	 * @since 1.4
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	public final Map<String, FileRegion> getFileRegions() {
+		return Collections.unmodifiableMap(this.fileRegions);
 	}
 
 	/**
@@ -89,12 +175,126 @@ public final class ReportEntry {
 		return this.timestamp;
 	}
 
+	private String readValue(String key) {
+		SoftReference<String> reference = this.valuesReadFromFileRegions.get(key);
+		String value = reference == null ? null : reference.get();
+		if (value == null) {
+			FileRegion fileRegion = this.fileRegions.get(key);
+			if (Files.notExists(fileRegion.getPath())) {
+				return placeholder(fileRegion);
+			}
+			try {
+				value = fileRegion.readString();
+			}
+			catch (JUnitException e) {
+				if (Files.notExists(fileRegion.getPath())) {
+					return placeholder(fileRegion);
+				}
+				throw e;
+			}
+			this.valuesReadFromFileRegions.put(key, new SoftReference<>(value));
+		}
+		return value;
+	}
+
+	private static String placeholder(FileRegion fileRegion) {
+		return "[file no longer exists: " + fileRegion + "]";
+	}
+
 	@Override
 	public String toString() {
 		ToStringBuilder builder = new ToStringBuilder(this);
 		builder.append("timestamp", this.timestamp);
 		this.keyValuePairs.forEach(builder::append);
+		this.fileRegions.forEach(builder::append);
 		return builder.toString();
 	}
 
+	/**
+	 * Read-only view of the key-value pairs that reads values stored in file
+	 * regions on access.
+	 */
+	private class KeyValuePairs extends AbstractMap<String, String> {
+
+		@Override
+		public String get(Object key) {
+			String value = keyValuePairs.get(key);
+			if (value != null) {
+				return value;
+			}
+			return fileRegions.containsKey(key) ? readValue((String) key) : null;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return keyValuePairs.containsKey(key) || fileRegions.containsKey(key);
+		}
+
+		@Override
+		public Set<Entry<String, String>> entrySet() {
+			return new AbstractSet<Entry<String, String>>() {
+
+				@Override
+				public Iterator<Entry<String, String>> iterator() {
+					// @formatter:off
+					return Stream.concat(
+							keyValuePairs.entrySet().stream().map(SimpleImmutableEntry::new),
+							fileRegions.keySet().stream().map(FileRegionEntry::new))
+						.iterator();
+					// @formatter:on
+				}
+
+				@Override
+				public int size() {
+					return keyValuePairs.size() + fileRegions.size();
+				}
+			};
+		}
+
+	}
+
+	private class FileRegionEntry implements Map.Entry<String, String> {
+
+		private final String key;
+
+		FileRegionEntry(String key) {
+			this.key = key;
+		}
+
+		@Override
+		public String getKey() {
+			return this.key;
+		}
+
+		@Override
+		public String getValue() {
+			return readValue(this.key);
+		}
+
+		@Override
+		public String setValue(String value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> that = (Map.Entry<?, ?>) obj;
+			return this.key.equals(that.getKey()) && getValue().equals(that.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return this.key.hashCode() ^ getValue().hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return this.key + "=" + fileRegions.get(this.key);
+		}
+
+	}
+
 }
@@ -0,0 +1,380 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.engine.support.discovery;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apiguardian.api.API;
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.logging.Logger;
+import org.junit.platform.commons.logging.LoggerFactory;
+import org.junit.platform.commons.util.Preconditions;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestEngine;
+
+/**
+ * On-disk cache of discovery results of a {@link TestEngine} keyed by the
+ * names of test classes.
+ *
+ * <p>Each entry stores {@linkplain TestDescriptorSnapshot snapshots} of the
+ * descriptors resolved for a class along with a fingerprint of the content of
+ * the class files of the class, its superclasses, its interfaces, its member
+ * classes, and the annotation types declared on them and their methods,
+ * including meta-annotations. An entry is only {@linkplain #lookup(Class)
+ * returned} if the fingerprint still matches so that the cache is invalidated
+ * per class as soon as any of these class files changes. All entries are discarded if the
+ * engine ID or version differs from the ones the cache was written with.
+ *
+ * <p>Engines use cached entries to skip reflective resolution of unchanged
+ * classes. An entry without snapshots records that a class does not contain
+ * any tests.
+ *
+ * <p>Since the cache directory may be shared, only the types of snapshots,
+ * {@link org.junit.platform.engine.TestSource TestSource} implementations, and
+ * JDK types such as strings and collections are deserialized when a cache is
+ * loaded. Caches containing other types are discarded.
+ *
+ * @see TestDescriptorSnapshot
+ * @since 1.4
+ */
+@API(status = EXPERIMENTAL, since = "1.4")
+public final class DiscoveryCache {
+
+	/**
+	 * Property name used to specify the directory in which discovery caches
+	 * are stored: {@value}
+	 *
+	 * <p>Each engine stores its cache in a file named after its ID. No default
+	 * value; if not set, discovery results are not cached.
+	 */
+	public static final String CACHE_DIR_PROPERTY_NAME = "junit.platform.discovery.cache.dir";
+
+	private static final Logger logger = LoggerFactory.getLogger(DiscoveryCache.class);
+
+	static final int FORMAT_VERSION = 2;
+
+	private static final String CLASS_FILE_SUFFIX = ".class";
+
+	private final Path file;
+	private final String engineId;
+	private final String engineVersion;
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	private final Map<Class<?>, Optional<byte[]>> fingerprints = new ConcurrentHashMap<>();
+	private final Map<Class<?>, Optional<byte[]>> classFileDigests = new ConcurrentHashMap<>();
+	private volatile boolean modified;
+
+	/**
+	 * Load the discovery cache of the supplied engine from the directory
+	 * specified via the {@value #CACHE_DIR_PROPERTY_NAME} configuration
+	 * parameter, if any.
+	 *
+	 * @param configurationParameters the configuration parameters to use;
+	 * never {@code null}
+	 * @param engine the engine whose cache should be loaded; never {@code null}
+	 * @return the loaded cache or {@code Optional.empty()} if the cache
+	 * directory has not been configured
+	 */
+	public static Optional<DiscoveryCache> fromConfigurationParameters(ConfigurationParameters configurationParameters,
+			TestEngine engine) {
+
+		Preconditions.notNull(configurationParameters, "configurationParameters must not be null");
+		Preconditions.notNull(engine, "engine must not be null");
+		// @formatter:off
+		return configurationParameters.get(CACHE_DIR_PROPERTY_NAME)
+				.map(String::trim)
+				.filter(dir -> !dir.isEmpty())
+				.map(dir -> load(Paths.get(dir).resolve(engine.getId() + ".cache"), engine.getId(),
+						engine.getVersion().orElse("")));
+		// @formatter:on
+	}
+
+	/**
+	 * Load the discovery cache stored in the supplied file.
+	 *
+	 * <p>If the file does not exist, cannot be read, or was written for a
+	 * different engine ID or version, the returned cache is empty.
+	 *
+	 * @param file the file to load the cache from; never {@code null}
+	 * @param engineId the ID of the engine using the cache; never blank
+	 * @param engineVersion the version of the engine using the cache; never
+	 * {@code null}
+	 * @return the loaded cache; never {@code null}
+	 */
+	public static DiscoveryCache load(Path file, String engineId, String engineVersion) {
+		Preconditions.notNull(file, "file must not be null");
+		Preconditions.notBlank(engineId, "engineId must not be blank");
+		Preconditions.notNull(engineVersion, "engineVersion must not be null");
+		DiscoveryCache cache = new DiscoveryCache(file, engineId, engineVersion);
+		cache.read();
+		return cache;
+	}
+
+	private DiscoveryCache(Path file, String engineId, String engineVersion) {
+		this.file = file;
+		this.engineId = engineId;
+		this.engineVersion = engineVersion;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void read() {
+		if (!Files.isRegularFile(this.file)) {
+			return;
+		}
+		try (ObjectInputStream in = new SnapshotObjectInputStream(
+			new BufferedInputStream(Files.newInputStream(this.file)))) {
+			if (in.readInt() != FORMAT_VERSION || !this.engineId.equals(in.readUTF())
+					|| !this.engineVersion.equals(in.readUTF())) {
+				logger.config(() -> "Discarding outdated discovery cache " + this.file);
+				return;
+			}
+			this.entries.putAll((Map<String, Entry>) in.readObject());
+			logger.config(() -> String.format("Loaded %d entries from discovery cache %s", this.entries.size(),
+				this.file));
+		}
+		catch (Exception e) {
+			this.entries.clear();
+			logger.warn(e, () -> "Failed to read discovery cache from " + this.file);
+		}
+	}
+
+	/**
+	 * Look up the snapshots cached for the supplied class.
+	 *
+	 * @param testClass the class to look up; never {@code null}
+	 * @return the cached snapshots, which may be empty if the class does not
+	 * contain any tests, or {@code Optional.empty()} if there is no entry for
+	 * the class or the class has changed since the entry was stored
+	 */
+	public Optional<List<TestDescriptorSnapshot>> lookup(Class<?> testClass) {
+		Preconditions.notNull(testClass, "testClass must not be null");
+		Entry entry = this.entries.get(testClass.getName());
+		if (entry == null) {
+			return Optional.empty();
+		}
+		Optional<byte[]> fingerprint = fingerprint(testClass);
+		if (!fingerprint.isPresent() || !MessageDigest.isEqual(entry.fingerprint, fingerprint.get())) {
+			return Optional.empty();
+		}
+		return Optional.of(entry.snapshots);
+	}
+
+	/**
+	 * Store the supplied descriptors resolved for the supplied class,
+	 * replacing any existing entry.
+	 *
+	 * <p>Classes whose class files cannot be located are not stored.
+	 *
+	 * @param testClass the class the descriptors were resolved for; never
+	 * {@code null}
+	 * @param testDescriptors the resolved descriptors; never {@code null} but
+	 * potentially empty if the class does not contain any tests
+	 */
+	public void store(Class<?> testClass, List<? extends TestDescriptor> testDescriptors) {
+		Preconditions.notNull(testClass, "testClass must not be null");
+		Preconditions.notNull(testDescriptors, "testDescriptors must not be null");
+		fingerprint(testClass).ifPresent(fingerprint -> {
+			List<TestDescriptorSnapshot> snapshots = emptyList();
+			if (!testDescriptors.isEmpty()) {
+				snapshots = new ArrayList<>(testDescriptors.size());
+				for (TestDescriptor testDescriptor : testDescriptors) {
+					snapshots.add(TestDescriptorSnapshot.from(testDescriptor));
+				}
+			}
+			this.entries.put(testClass.getName(), new Entry(fingerprint, snapshots));
+			this.modified = true;
+		});
+	}
+
+	/**
+	 * Write this cache back to the file it was loaded from if it has been
+	 * modified.
+	 *
+	 * <p>Failures are logged but not propagated since they must not affect
+	 * discovery.
+	 */
+	public void save() {
+		if (!this.modified) {
+			return;
+		}
+		try {
+			Path parent = this.file.toAbsolutePath().getParent();
+			if (parent != null) {
+				Files.createDirectories(parent);
+			}
+			Path tempFile = Files.createTempFile(parent, this.file.getFileName().toString(), ".tmp");
+			try (ObjectOutputStream out = new ObjectOutputStream(
+				new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+				out.writeInt(FORMAT_VERSION);
+				out.writeUTF(this.engineId);
+				out.writeUTF(this.engineVersion);
+				out.writeObject(new HashMap<>(this.entries));
+			}
+			try {
+				Files.move(tempFile, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile, this.file, StandardCopyOption.REPLACE_EXISTING);
+			}
+			this.modified = false;
+		}
+		catch (IOException e) {
+			logger.warn(e, () -> "Failed to write discovery cache to " + this.file);
+		}
+	}
+
+	/**
+	 * Compute the fingerprint of the supplied class based on the content of
+	 * the class files of its {@linkplain #collectRelevantClasses relevant
+	 * classes}.
+	 *
+	 * @return the fingerprint or {@code Optional.empty()} if the class has
+	 * been loaded by the bootstrap class loader or one of these class files
+	 * cannot be located
+	 */
+	private Optional<byte[]> fingerprint(Class<?> testClass) {
+		return this.fingerprints.computeIfAbsent(testClass, clazz -> {
+			Set<Class<?>> classes;
+			try {
+				classes = collectRelevantClasses(clazz);
+			}
+			catch (LinkageError e) {
+				logger.debug(e, () -> "Failed to collect classes relevant for discovery of " + clazz.getName());
+				return Optional.empty();
+			}
+			if (classes.isEmpty()) {
+				return Optional.empty();
+			}
+			MessageDigest digest = newMessageDigest();
+			for (Class<?> relevantClass : classes) {
+				Optional<byte[]> classFileDigest = this.classFileDigests.computeIfAbsent(relevantClass,
+					DiscoveryCache::digestClassFile);
+				if (!classFileDigest.isPresent()) {
+					return Optional.empty();
+				}
+				digest.update(relevantClass.getName().getBytes(UTF_8));
+				digest.update(classFileDigest.get());
+			}
+			return Optional.of(digest.digest());
+		});
+	}
+
+	/**
+	 * Collect the classes whose class files may affect the discovery results
+	 * for the supplied class: the class itself, its superclasses, its
+	 * interfaces, its member classes, and the annotation types declared on
+	 * them or their methods, recursively including meta-annotations.
+	 *
+	 * <p>Classes loaded by the bootstrap class loader are not included.
+	 */
+	static Set<Class<?>> collectRelevantClasses(Class<?> testClass) {
+		Set<Class<?>> classes = new LinkedHashSet<>();
+		collectRelevantClasses(testClass, classes);
+		return classes;
+	}
+
+	private static void collectRelevantClasses(Class<?> clazz, Set<Class<?>> classes) {
+		if (clazz == null || clazz.getClassLoader() == null || !classes.add(clazz)) {
+			return;
+		}
+		collectAnnotationTypes(clazz, classes);
+		if (clazz.isAnnotation()) {
+			return;
+		}
+		collectRelevantClasses(clazz.getSuperclass(), classes);
+		for (Class<?> interfaceClass : clazz.getInterfaces()) {
+			collectRelevantClasses(interfaceClass, classes);
+		}
+		for (Class<?> memberClass : clazz.getDeclaredClasses()) {
+			collectRelevantClasses(memberClass, classes);
+		}
+		for (Method method : clazz.getDeclaredMethods()) {
+			collectAnnotationTypes(method, classes);
+		}
+	}
+
+	private static void collectAnnotationTypes(AnnotatedElement element, Set<Class<?>> classes) {
+		for (Annotation annotation : element.getDeclaredAnnotations()) {
+			collectRelevantClasses(annotation.annotationType(), classes);
+		}
+	}
+
+	private static Optional<byte[]> digestClassFile(Class<?> clazz) {
+		String resourceName = clazz.getName().replace('.', '/') + CLASS_FILE_SUFFIX;
+		try (InputStream in = clazz.getClassLoader().getResourceAsStream(resourceName)) {
+			if (in == null) {
+				return Optional.empty();
+			}
+			MessageDigest digest = newMessageDigest();
+			byte[] buffer = new byte[8192];
+			for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+				digest.update(buffer, 0, read);
+			}
+			return Optional.of(digest.digest());
+		}
+		catch (IOException e) {
+			logger.debug(e, () -> "Failed to read class file of " + clazz.getName());
+			return Optional.empty();
+		}
+	}
+
+	private static MessageDigest newMessageDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new JUnitException("SHA-256 is not supported", e);
+		}
+	}
+
+	private static class Entry implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final byte[] fingerprint;
+		private final List<TestDescriptorSnapshot> snapshots;
+
+		Entry(byte[] fingerprint, List<TestDescriptorSnapshot> snapshots) {
+			this.fingerprint = fingerprint;
+			this.snapshots = snapshots;
+		}
+
+	}
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+
+package org.junit.platform.engine.support.discovery;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.net.URI;
+
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.TestTag;
+import org.junit.platform.engine.support.descriptor.FilePosition;
+
+/**
+ * {@link ObjectInputStream} that only deserializes
+ * {@linkplain #isAllowed allowed} classes since discovery caches and
+ * serialized snapshots may be read from locations shared with other users.
+ *
+ * @since 1.4
+ */
+class SnapshotObjectInputStream extends ObjectInputStream {
+
+	private static final String PACKAGE_NAME = "org.junit.platform.engine.support.discovery";
+
+	SnapshotObjectInputStream(InputStream in) throws IOException {
+		super(in);
+	}
+
+	/**
+	 * Determine whether instances of the supplied class may be deserialized.
+	 *
+	 * <p>Only the types of this package, the types referenced by
+	 * {@link TestDescriptorSnapshot}, {@link TestSource} implementations, and
+	 * types of the {@code java.lang} and {@code java.util} packages such as
+	 * strings and collections are allowed. In addition, classes that are not
+	 * {@link Serializable} are allowed since they can only be referenced as
+	 * {@link Class} objects, e.g. by a {@code ClassSource}, but cannot be
+	 * instantiated.
+	 */
+	static boolean isAllowed(Class<?> clazz) {
+		if (clazz.isArray()) {
+			return isAllowed(clazz.getComponentType());
+		}
+		if (clazz.isPrimitive() || !Serializable.class.isAssignableFrom(clazz)
+				|| TestSource.class.isAssignableFrom(clazz) || clazz == TestTag.class
+				|| clazz == TestDescriptor.Type.class || clazz == FilePosition.class || clazz == File.class
+				|| clazz == URI.class) {
+			return true;
+		}
+		String name = clazz.getName();
+		String packageName = name.substring(0, Math.max(0, name.lastIndexOf('.')));
+		return packageName.equals(PACKAGE_NAME) || packageName.equals("java.lang") || packageName.equals("java.util");
+	}
+
+	@Override
+	protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+		Class<?> clazz = super.resolveClass(desc);
+		if (!isAllowed(clazz)) {
+			throw new InvalidClassException(desc.getName(), "not allowed in test descriptor snapshots");
+		}
+		return clazz;
+	}
+
+	@Override
+	protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+		throw new InvalidClassException("Proxy classes are not allowed in test descriptor snapshots");
+	}
+
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.engine.support.discovery;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSet;
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.apiguardian.api.API;
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.util.Preconditions;
+import org.junit.platform.commons.util.ToStringBuilder;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.TestTag;
+import org.junit.platform.engine.UniqueId;
+
+/**
+ * Immutable, serializable snapshot of a {@link TestDescriptor} and its
+ * descendants that contains their unique IDs, display names, legacy reporting
+ * names, types, sources, and tags but no references to engine-specific
+ * objects such as classes or methods.
+ *
+ * <p>Snapshots are used to persist discovery results in a
+ * {@link DiscoveryCache} and may also be used to transfer discovered test
+ * trees to other processes via {@link #writeTo(OutputStream, List)} and
+ * {@link #readFrom(InputStream)}.
+ *
+ * @since 1.4
+ */
+@API(status = EXPERIMENTAL, since = "1.4")
+public final class TestDescriptorSnapshot implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String uniqueId;
+	private final String displayName;
+	private final String legacyReportingName;
+	private final TestDescriptor.Type type;
+	private final TestSource source;
+	private final Set<TestTag> tags;
+	private final List<TestDescriptorSnapshot> children;
+
+	/**
+	 * Create a snapshot of the supplied {@link TestDescriptor} and all of its
+	 * descendants.
+	 *
+	 * @param testDescriptor the descriptor to create a snapshot of; never
+	 * {@code null}
+	 * @return the snapshot; never {@code null}
+	 */
+	public static TestDescriptorSnapshot from(TestDescriptor testDescriptor) {
+		Preconditions.notNull(testDescriptor, "testDescriptor must not be null");
+		List<TestDescriptorSnapshot> children = new ArrayList<>(testDescriptor.getChildren().size());
+		for (TestDescriptor child : testDescriptor.getChildren()) {
+			children.add(from(child));
+		}
+		return new TestDescriptorSnapshot(testDescriptor.getUniqueId().toString(), testDescriptor.getDisplayName(),
+			testDescriptor.getLegacyReportingName(), testDescriptor.getType(),
+			testDescriptor.getSource().orElse(null), new LinkedHashSet<>(testDescriptor.getTags()), children);
+	}
+
+	/**
+	 * Write the supplied snapshots to the supplied stream.
+	 *
+	 * <p>The stream is not closed.
+	 *
+	 * @param out the stream to write to; never {@code null}
+	 * @param snapshots the snapshots to write; never {@code null}
+	 * @throws IOException if writing to the stream fails
+	 * @see #readFrom(InputStream)
+	 */
+	public static void writeTo(OutputStream out, List<TestDescriptorSnapshot> snapshots) throws IOException {
+		Preconditions.notNull(out, "out must not be null");
+		Preconditions.notNull(snapshots, "snapshots must not be null");
+		ObjectOutputStream objectOut = new ObjectOutputStream(out);
+		objectOut.writeObject(new ArrayList<>(snapshots));
+		objectOut.flush();
+	}
+
+	/**
+	 * Read snapshots previously written via
+	 * {@link #writeTo(OutputStream, List)} from the supplied stream.
+	 *
+	 * <p>The stream is not closed.
+	 *
+	 * @param in the stream to read from; never {@code null}
+	 * @return the snapshots; never {@code null}
+	 * @throws IOException if reading from the stream fails or it contains
+	 * objects of types other than those referenced by snapshots
+	 * @throws JUnitException if the stream does not contain snapshots
+	 */
+	@SuppressWarnings("unchecked")
+	public static List<TestDescriptorSnapshot> readFrom(InputStream in) throws IOException {
+		Preconditions.notNull(in, "in must not be null");
+		try {
+			Object object = new SnapshotObjectInputStream(in).readObject();
+			if (!(object instanceof List)) {
+				throw new JUnitException("Stream does not contain test descriptor snapshots");
+			}
+			return unmodifiableList((List<TestDescriptorSnapshot>) object);
+		}
+		catch (ClassNotFoundException e) {
+			throw new JUnitException("Failed to read test descriptor snapshots", e);
+		}
+	}
+
+	private TestDescriptorSnapshot(String uniqueId, String displayName, String legacyReportingName,
+			TestDescriptor.Type type, TestSource source, Set<TestTag> tags, List<TestDescriptorSnapshot> children) {
+		this.uniqueId = uniqueId;
+		this.displayName = displayName;
+		this.legacyReportingName = legacyReportingName;
+		this.type = type;
+		this.source = source;
+		this.tags = tags;
+		this.children = children;
+	}
+
+	/**
+	 * Get the unique ID of the represented descriptor.
+	 */
+	public UniqueId getUniqueId() {
+		return UniqueId.parse(this.uniqueId);
+	}
+
+	/**
+	 * Get the display name of the represented descriptor.
+	 */
+	public String getDisplayName() {
+		return this.displayName;
+	}
+
+	/**
+	 * Get the legacy reporting name of the represented descriptor.
+	 */
+	public String getLegacyReportingName() {
+		return this.legacyReportingName;
+	}
+
+	/**
+	 * Get the type of the represented descriptor.
+	 */
+	public TestDescriptor.Type getType() {
+		return this.type;
+	}
+
+	/**
+	 * Get the source of the represented descriptor, if available.
+	 */
+	public Optional<TestSource> getSource() {
+		return Optional.ofNullable(this.source);
+	}
+
+	/**
+	 * Get the tags of the represented descriptor.
+	 */
+	public Set<TestTag> getTags() {
+		return unmodifiableSet(this.tags);
+	}
+
+	/**
+	 * Get the snapshots of the children of the represented descriptor.
+	 */
+	public List<TestDescriptorSnapshot> getChildren() {
+		return unmodifiableList(this.children);
+	}
+
+	/**
+	 * Accept a visitor to this snapshot and all of its descendants in
+	 * depth-first order.
+	 */
+	public void accept(Consumer<? super TestDescriptorSnapshot> visitor) {
+		visitor.accept(this);
+		this.children.forEach(child -> child.accept(visitor));
+	}
+
+	@Override
+	public String toString() {
+		// @formatter:off
+		return new ToStringBuilder(this)
+				.append("uniqueId", this.uniqueId)
+				.append("displayName", this.displayName)
+				.append("type", this.type)
+				.append("children", this.children.size())
+				.toString();
+		// @formatter:on
+	}
+
+}
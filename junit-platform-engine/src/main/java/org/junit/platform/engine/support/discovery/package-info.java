@@ -0,0 +1,6 @@
+/**
+ * Discovery-related support classes intended to be used by test engine
+ * implementations.
+ */
+
+package org.junit.platform.engine.support.discovery;
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.engine.support.hierarchical;
+
+/**
+ * {@link ParallelExecutionConfiguration} created by the
+ * {@link DefaultParallelExecutionConfigurationStrategy#ADAPTIVE ADAPTIVE}
+ * strategy.
+ *
+ * <p>The {@linkplain #getParallelism() parallelism} is the upper bound of
+ * the effective parallelism that is adjusted at runtime by the
+ * {@link AdaptiveParallelismController}.
+ *
+ * @since 1.4
+ */
+class AdaptiveParallelExecutionConfiguration extends DefaultParallelExecutionConfiguration {
+
+	private final int minParallelism;
+	private final int initialParallelism;
+	private final int sampleIntervalMillis;
+
+	AdaptiveParallelExecutionConfiguration(int minParallelism, int maxParallelism, int initialParallelism,
+			int sampleIntervalMillis, int keepAliveSeconds) {
+		super(maxParallelism, maxParallelism, 256 + maxParallelism, maxParallelism, keepAliveSeconds);
+		this.minParallelism = minParallelism;
+		this.initialParallelism = initialParallelism;
+		this.sampleIntervalMillis = sampleIntervalMillis;
+	}
+
+	int getMinParallelism() {
+		return minParallelism;
+	}
+
+	int getMaxParallelism() {
+		return getParallelism();
+	}
+
+	int getInitialParallelism() {
+		return initialParallelism;
+	}
+
+	int getSampleIntervalMillis() {
+		return sampleIntervalMillis;
+	}
+
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.engine.support.hierarchical;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.junit.platform.commons.logging.Logger;
+import org.junit.platform.commons.logging.LoggerFactory;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.support.hierarchical.HierarchicalTestExecutorService.TestTask;
+
+/**
+ * Limits the number of tests that are executed concurrently by a
+ * {@link ForkJoinPoolHierarchicalTestExecutorService} and adjusts that limit
+ * at runtime for the {@link DefaultParallelExecutionConfigurationStrategy#ADAPTIVE
+ * ADAPTIVE} configuration strategy.
+ *
+ * <p>Only tasks of {@linkplain TestDescriptor.Type#TEST tests} acquire a
+ * permit, after they have acquired their resource locks. Since such tasks
+ * neither wait for other tasks nor for further locks while holding a permit,
+ * waiting for a permit cannot cause a deadlock.
+ *
+ * <p>The controller periodically measures the CPU load of the current process
+ * and the share of the running tests' time that was not spent on CPU, e.g.
+ * because they were blocked in I/O or on locks. If tests are waiting for a
+ * permit and the CPU is not busy, the limit is raised provided most running
+ * tests are blocked or there are idle processors. If the CPU is saturated,
+ * the limit is lowered towards the number of available processors. Each
+ * decision is logged and the limit is recorded in the
+ * {@link ParallelExecutionMetrics}, if enabled.
+ *
+ * @since 1.4
+ */
+class AdaptiveParallelismController implements AutoCloseable {
+
+	static final double HIGH_CPU_LOAD = 0.9;
+	static final double LOW_CPU_LOAD = 0.75;
+	static final double HIGH_BLOCKED_SHARE = 0.5;
+
+	private static final Logger logger = LoggerFactory.getLogger(AdaptiveParallelismController.class);
+
+	private final int minParallelism;
+	private final int maxParallelism;
+	private final int availableProcessors;
+	private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+	private final boolean threadCpuTimeEnabled;
+	private final LongSupplier processCpuTime;
+	private volatile ParallelExecutionMetrics metrics = ParallelExecutionMetrics.NONE;
+	private ScheduledExecutorService scheduler;
+
+	// guarded by this
+	private final Set<Permit> permits = new HashSet<>();
+	private int targetParallelism;
+	private int waitingTasks;
+	private long lastSampleNanos;
+	private long lastPermitChangeNanos;
+	private double runningTaskNanos;
+	private long workerCpuNanos;
+	private long lastProcessCpuNanos;
+
+	/**
+	 * Create a controller for the supplied configuration and start sampling
+	 * at the configured interval.
+	 */
+	static AdaptiveParallelismController start(AdaptiveParallelExecutionConfiguration configuration) {
+		AdaptiveParallelismController controller = new AdaptiveParallelismController(
+			configuration.getMinParallelism(), configuration.getMaxParallelism(),
+			configuration.getInitialParallelism(), Runtime.getRuntime().availableProcessors());
+		controller.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "junit-adaptive-parallelism");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long interval = configuration.getSampleIntervalMillis();
+		controller.scheduler.scheduleAtFixedRate(controller::sampleSafely, interval, interval, TimeUnit.MILLISECONDS);
+		return controller;
+	}
+
+	AdaptiveParallelismController(int minParallelism, int maxParallelism, int initialParallelism,
+			int availableProcessors) {
+		this.minParallelism = minParallelism;
+		this.maxParallelism = maxParallelism;
+		this.availableProcessors = availableProcessors;
+		this.targetParallelism = initialParallelism;
+		this.threadCpuTimeEnabled = isThreadCpuTimeEnabled(this.threadMXBean);
+		this.processCpuTime = createProcessCpuTimeSupplier();
+		this.lastSampleNanos = System.nanoTime();
+		this.lastPermitChangeNanos = this.lastSampleNanos;
+		this.lastProcessCpuNanos = this.processCpuTime.getAsLong();
+	}
+
+	/**
+	 * Determine whether the supplied task has to acquire a permit before it is
+	 * executed.
+	 */
+	static boolean requiresPermit(TestTask testTask) {
+		return testTask instanceof NodeTestTask
+				&& ((NodeTestTask<?>) testTask).getTestDescriptor().getType() == TestDescriptor.Type.TEST;
+	}
+
+	void setMetrics(ParallelExecutionMetrics metrics) {
+		this.metrics = metrics;
+		metrics.recordTargetParallelism(getTargetParallelism());
+	}
+
+	synchronized int getTargetParallelism() {
+		return targetParallelism;
+	}
+
+	/**
+	 * Acquire a permit to execute a test, waiting while the number of tests
+	 * being executed has reached the current target parallelism.
+	 */
+	Permit acquire() throws InterruptedException {
+		Permit permit = new Permit(Thread.currentThread().getId());
+		synchronized (this) {
+			if (permits.size() >= targetParallelism) {
+				waitingTasks++;
+				try {
+					while (permits.size() >= targetParallelism) {
+						wait();
+					}
+				}
+				finally {
+					waitingTasks--;
+				}
+			}
+			recordRunningTaskNanos(System.nanoTime());
+			permit.advance(currentThreadCpuTime());
+			permits.add(permit);
+		}
+		return permit;
+	}
+
+	synchronized void release(Permit permit) {
+		recordRunningTaskNanos(System.nanoTime());
+		workerCpuNanos += permit.advance(currentThreadCpuTime());
+		permits.remove(permit);
+		notify();
+	}
+
+	private void recordRunningTaskNanos(long now) {
+		runningTaskNanos += (double) permits.size() * (now - lastPermitChangeNanos);
+		lastPermitChangeNanos = now;
+	}
+
+	private void sampleSafely() {
+		try {
+			sample();
+		}
+		catch (RuntimeException e) {
+			logger.warn(e, () -> "Failed to adjust adaptive parallelism");
+		}
+	}
+
+	/**
+	 * Measure the load since the last sample and adjust the target
+	 * parallelism accordingly.
+	 */
+	void sample() {
+		long processCpuNanos = processCpuTime.getAsLong();
+		double cpuLoad;
+		double blockedShare;
+		boolean testsWaiting;
+		synchronized (this) {
+			long now = System.nanoTime();
+			recordRunningTaskNanos(now);
+			for (Permit permit : permits) {
+				workerCpuNanos += permit.advance(threadCpuTime(permit.threadId));
+			}
+			long elapsedNanos = Math.max(1, now - lastSampleNanos);
+			double processCpuDelta = processCpuNanos >= 0 && lastProcessCpuNanos >= 0
+					? processCpuNanos - lastProcessCpuNanos
+					: workerCpuNanos;
+			double busyNanos = threadCpuTimeEnabled ? workerCpuNanos : processCpuDelta;
+			cpuLoad = clamp(processCpuDelta / ((double) elapsedNanos * availableProcessors));
+			blockedShare = runningTaskNanos > 0 ? clamp(1 - busyNanos / runningTaskNanos) : 0;
+			testsWaiting = waitingTasks > 0;
+			lastSampleNanos = now;
+			lastProcessCpuNanos = processCpuNanos;
+			runningTaskNanos = 0;
+			workerCpuNanos = 0;
+		}
+		adjust(cpuLoad, blockedShare, testsWaiting);
+	}
+
+	/**
+	 * Adjust the target parallelism based on the supplied measurements.
+	 *
+	 * @param cpuLoad the CPU load of the current process relative to the
+	 * number of available processors between {@code 0} and {@code 1}
+	 * @param blockedShare the share of the running tests' time that was not
+	 * spent on CPU between {@code 0} and {@code 1}
+	 * @param testsWaiting whether tests were waiting for a permit
+	 * @return the new target parallelism
+	 */
+	synchronized int adjust(double cpuLoad, double blockedShare, boolean testsWaiting) {
+		int current = targetParallelism;
+		int step = Math.max(1, current / 4);
+		int lowerBound = Math.max(minParallelism, Math.min(availableProcessors, maxParallelism));
+		int target = current;
+		String reason = null;
+		if (cpuLoad >= HIGH_CPU_LOAD && current > lowerBound) {
+			target = Math.max(lowerBound, current - step);
+			reason = "the CPU is saturated";
+		}
+		else if (testsWaiting && cpuLoad < LOW_CPU_LOAD && current < maxParallelism) {
+			if (blockedShare >= HIGH_BLOCKED_SHARE) {
+				target = Math.min(maxParallelism, current + step);
+				reason = "most running tests are blocked";
+			}
+			else if (current < availableProcessors) {
+				target = Math.min(maxParallelism, current + step);
+				reason = "processors are idle";
+			}
+		}
+		String measurements = String.format(Locale.ROOT, "process CPU load: %.0f%%, blocked: %.0f%%, tests waiting: %s",
+			cpuLoad * 100, blockedShare * 100, testsWaiting);
+		if (target != current) {
+			int newTarget = target;
+			String newReason = reason;
+			logger.config(() -> String.format("%s target parallelism from %d to %d since %s (%s)",
+				newTarget > current ? "Increasing" : "Decreasing", current, newTarget, newReason, measurements));
+			targetParallelism = target;
+			notifyAll();
+			metrics.recordTargetParallelism(target);
+		}
+		else {
+			logger.trace(() -> String.format("Keeping target parallelism at %d (%s)", current, measurements));
+		}
+		return target;
+	}
+
+	@Override
+	public void close() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+	}
+
+	private long currentThreadCpuTime() {
+		return threadCpuTimeEnabled ? threadMXBean.getCurrentThreadCpuTime() : -1;
+	}
+
+	private long threadCpuTime(long threadId) {
+		return threadCpuTimeEnabled ? threadMXBean.getThreadCpuTime(threadId) : -1;
+	}
+
+	private static double clamp(double value) {
+		return Math.max(0, Math.min(1, value));
+	}
+
+	private static boolean isThreadCpuTimeEnabled(ThreadMXBean threadMXBean) {
+		try {
+			return threadMXBean.isThreadCpuTimeSupported() && threadMXBean.isThreadCpuTimeEnabled();
+		}
+		catch (UnsupportedOperationException e) {
+			return false;
+		}
+	}
+
+	private static LongSupplier createProcessCpuTimeSupplier() {
+		OperatingSystemMXBean operatingSystemMXBean = ManagementFactory.getOperatingSystemMXBean();
+		try {
+			// Available on HotSpot and OpenJ9
+			Class<?> type = Class.forName("com.sun.management.OperatingSystemMXBean");
+			if (type.isInstance(operatingSystemMXBean)) {
+				Method method = type.getMethod("getProcessCpuTime");
+				return () -> {
+					try {
+						return (long) method.invoke(operatingSystemMXBean);
+					}
+					catch (Exception e) {
+						return -1;
+					}
+				};
+			}
+		}
+		catch (Exception e) {
+			logger.debug(e, () -> "Process CPU time is not available; using CPU time of running tests instead");
+		}
+		return () -> -1;
+	}
+
+	/**
+	 * Permit to execute a single test that tracks the CPU time consumed by
+	 * its thread; guarded by the controller.
+	 */
+	static final class Permit {
+
+		private final long threadId;
+		private long lastCpuTime = -1;
+
+		Permit(long threadId) {
+			this.threadId = threadId;
+		}
+
+		/**
+		 * Record the supplied CPU time of this permit's thread and return the
+		 * CPU time consumed since the previous call.
+		 */
+		long advance(long cpuTime) {
+			long delta = lastCpuTime < 0 || cpuTime < 0 ? 0 : Math.max(0, cpuTime - lastCpuTime);
+			lastCpuTime = cpuTime;
+			return delta;
+		}
+
+	}
+
+}
@@ -37,6 +37,19 @@ class CompositeLock implements ResourceLock {
 		return this;
 	}
 
+	@Override
+	public boolean tryAcquire() {
+		List<Lock> acquiredLocks = new ArrayList<>(locks.size());
+		for (Lock lock : locks) {
+			if (!lock.tryLock()) {
+				release(acquiredLocks);
+				return false;
+			}
+			acquiredLocks.add(lock);
+		}
+		return true;
+	}
+
 	private void acquireAllLocks() throws InterruptedException {
 		List<Lock> acquiredLocks = new ArrayList<>(locks.size());
 		try {
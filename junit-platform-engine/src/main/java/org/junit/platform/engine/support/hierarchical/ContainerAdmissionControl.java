@@ -0,0 +1,278 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.engine.support.hierarchical;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.DoubleSupplier;
+
+import org.apiguardian.api.API;
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.util.Preconditions;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.TestDescriptor;
+
+/**
+ * Admission control for the top-level {@linkplain TestDescriptor#isContainer()
+ * containers} of a test tree, i.e. the containing children of the engine's
+ * root descriptor such as test classes.
+ *
+ * <p>When used by a {@link HierarchicalTestEngine}, the root node only forks
+ * a top-level container for execution once it has been admitted. While
+ * waiting for admission, the root node's worker thread executes other queued
+ * tasks so that open containers make progress even if the executor service
+ * only has a single worker thread.
+ *
+ * <p>An admitted container is considered <em>open</em> until its execution
+ * has finished, i.e. until after its {@link Node#after after()} and
+ * {@link Node#cleanUp cleanUp()} methods have been called. A new container is
+ * admitted as long as
+ *
+ * <ul>
+ * <li>fewer than {@value #CONFIG_MAX_OPEN_CONTAINERS_PROPERTY_NAME} containers
+ * are open, and</li>
+ * <li>the used heap after the most recent garbage collection does not exceed
+ * {@value #CONFIG_HEAP_THRESHOLD_PROPERTY_NAME} of the maximum heap size, if
+ * configured.</li>
+ * </ul>
+ *
+ * <p>If no container is open, the next one is always admitted so that
+ * execution makes progress even if the heap threshold is exceeded
+ * permanently. Tests and nested containers within open containers are not
+ * subject to admission control and are executed with the full parallelism of
+ * the {@linkplain HierarchicalTestExecutorService executor service}.
+ *
+ * @see HierarchicalTestEngine#createContainerAdmissionControl
+ * @since 1.4
+ */
+@API(status = EXPERIMENTAL, since = "1.4")
+public final class ContainerAdmissionControl {
+
+	/**
+	 * Property name used to specify the maximum number of top-level containers
+	 * that may be open at the same time.
+	 *
+	 * <p>Value must be a positive integer; no default value, i.e. the number of
+	 * open containers is not limited unless configured.
+	 */
+	public static final String CONFIG_MAX_OPEN_CONTAINERS_PROPERTY_NAME = "admission.max-open-containers";
+
+	/**
+	 * Property name used to specify the fraction of the maximum heap size
+	 * that the used heap after garbage collection must not exceed for new
+	 * top-level containers to be admitted.
+	 *
+	 * <p>Value must be a decimal number greater than {@code 0} and less than
+	 * or equal to {@code 1}, e.g. {@code 0.8}; no default value, i.e. heap usage
+	 * is not taken into account unless configured.
+	 */
+	public static final String CONFIG_HEAP_THRESHOLD_PROPERTY_NAME = "admission.heap-threshold";
+
+	static final ContainerAdmissionControl NONE = new ContainerAdmissionControl(Integer.MAX_VALUE, null,
+		() -> 0);
+
+	/**
+	 * Interval for rechecking the heap usage while waiting for admission since
+	 * the completion of a garbage collection is not signaled.
+	 */
+	private static final long HEAP_RECHECK_INTERVAL_MILLIS = 100;
+
+	private final int maxOpenContainers;
+	private final Double heapThreshold;
+	private final DoubleSupplier heapUsage;
+	private final Object monitor = new Object();
+
+	private int openContainers;
+
+	/**
+	 * Create the admission control configured by the
+	 * {@value #CONFIG_MAX_OPEN_CONTAINERS_PROPERTY_NAME} and
+	 * {@value #CONFIG_HEAP_THRESHOLD_PROPERTY_NAME} configuration parameters.
+	 *
+	 * @param configurationParameters the configuration parameters to use;
+	 * never {@code null}
+	 * @return the configured admission control or {@code Optional.empty()} if
+	 * neither parameter has been set
+	 */
+	public static Optional<ContainerAdmissionControl> fromConfigurationParameters(
+			ConfigurationParameters configurationParameters) {
+		Preconditions.notNull(configurationParameters, "configurationParameters must not be null");
+		Optional<String> maxOpenContainers = configurationParameters.get(CONFIG_MAX_OPEN_CONTAINERS_PROPERTY_NAME).map(
+			String::trim);
+		Optional<String> heapThreshold = configurationParameters.get(CONFIG_HEAP_THRESHOLD_PROPERTY_NAME).map(
+			String::trim);
+		if (!maxOpenContainers.isPresent() && !heapThreshold.isPresent()) {
+			return Optional.empty();
+		}
+		int max = maxOpenContainers.map(ContainerAdmissionControl::parseMaxOpenContainers).orElse(Integer.MAX_VALUE);
+		Double threshold = heapThreshold.map(ContainerAdmissionControl::parseHeapThreshold).orElse(null);
+		return Optional.of(new ContainerAdmissionControl(max, threshold, ContainerAdmissionControl::currentHeapUsage));
+	}
+
+	private static int parseMaxOpenContainers(String value) {
+		try {
+			int max = Integer.parseInt(value);
+			if (max > 0) {
+				return max;
+			}
+		}
+		catch (NumberFormatException e) {
+			// fall through
+		}
+		throw invalidValue(value, CONFIG_MAX_OPEN_CONTAINERS_PROPERTY_NAME);
+	}
+
+	private static double parseHeapThreshold(String value) {
+		try {
+			double threshold = Double.parseDouble(value);
+			if (threshold > 0 && threshold <= 1) {
+				return threshold;
+			}
+		}
+		catch (NumberFormatException e) {
+			// fall through
+		}
+		throw invalidValue(value, CONFIG_HEAP_THRESHOLD_PROPERTY_NAME);
+	}
+
+	private static JUnitException invalidValue(String value, String propertyName) {
+		return new JUnitException(
+			String.format("Invalid value '%s' specified via configuration parameter '%s'", value, propertyName));
+	}
+
+	/**
+	 * Compute the used heap after the most recent garbage collection as a
+	 * fraction of the maximum heap size.
+	 *
+	 * @return the current heap usage or {@code 0} if it cannot be determined
+	 */
+	static double currentHeapUsage() {
+		long maxMemory = Runtime.getRuntime().maxMemory();
+		if (maxMemory == Long.MAX_VALUE) {
+			return 0;
+		}
+		long used = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			MemoryUsage usage = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+			if (usage != null) {
+				used += usage.getUsed();
+			}
+		}
+		return (double) used / maxMemory;
+	}
+
+	ContainerAdmissionControl(int maxOpenContainers, Double heapThreshold, DoubleSupplier heapUsage) {
+		this.maxOpenContainers = maxOpenContainers;
+		this.heapThreshold = heapThreshold;
+		this.heapUsage = heapUsage;
+	}
+
+	/**
+	 * Get the maximum number of top-level containers that may be open at the
+	 * same time.
+	 *
+	 * @return the maximum number; {@link Integer#MAX_VALUE} if not limited
+	 */
+	public int getMaxOpenContainers() {
+		return maxOpenContainers;
+	}
+
+	/**
+	 * Get the fraction of the maximum heap size the used heap after garbage
+	 * collection must not exceed for new containers to be admitted.
+	 *
+	 * @return the heap threshold or {@code OptionalDouble.empty()} if heap
+	 * usage is not taken into account
+	 */
+	public OptionalDouble getHeapThreshold() {
+		return heapThreshold == null ? OptionalDouble.empty() : OptionalDouble.of(heapThreshold);
+	}
+
+	/**
+	 * Get the number of currently open containers.
+	 */
+	int getOpenContainers() {
+		synchronized (monitor) {
+			return openContainers;
+		}
+	}
+
+	/**
+	 * Admit a new container, blocking until it may be opened.
+	 *
+	 * <p>Worker threads of a {@link ForkJoinPool} should not call this method
+	 * but rather {@linkplain #tryAdmit(long) wait for a short time} and help
+	 * execute queued tasks in between since a blocked worker cannot execute
+	 * the open containers it is waiting for.
+	 */
+	void admit() throws InterruptedException {
+		synchronized (monitor) {
+			while (!tryAdmit()) {
+				monitor.wait(heapThreshold == null ? 0 : HEAP_RECHECK_INTERVAL_MILLIS);
+			}
+		}
+	}
+
+	/**
+	 * Admit a new container, waiting at most the supplied time for it to be
+	 * opened.
+	 *
+	 * @param timeoutMillis the maximum time to wait in milliseconds; must be
+	 * positive
+	 * @return whether the container has been admitted
+	 */
+	boolean tryAdmit(long timeoutMillis) throws InterruptedException {
+		synchronized (monitor) {
+			if (tryAdmit()) {
+				return true;
+			}
+			monitor.wait(heapThreshold == null ? timeoutMillis : Math.min(timeoutMillis, HEAP_RECHECK_INTERVAL_MILLIS));
+			return tryAdmit();
+		}
+	}
+
+	/**
+	 * Admit a new container if possible without blocking.
+	 *
+	 * @return whether the container has been admitted
+	 */
+	boolean tryAdmit() {
+		synchronized (monitor) {
+			if (openContainers == 0 || (openContainers < maxOpenContainers && !isHeapThresholdExceeded())) {
+				openContainers++;
+				return true;
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Release a previously admitted container and signal waiting threads.
+	 */
+	void release() {
+		synchronized (monitor) {
+			openContainers--;
+			monitor.notifyAll();
+		}
+	}
+
+	private boolean isHeapThresholdExceeded() {
+		return heapThreshold != null && heapUsage.getAsDouble() > heapThreshold;
+	}
+
+}
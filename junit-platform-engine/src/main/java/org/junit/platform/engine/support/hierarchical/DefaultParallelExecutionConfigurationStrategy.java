@@ -95,6 +95,50 @@ public enum DefaultParallelExecutionConfigurationStrategy implements ParallelExe
 
 			return strategy.createConfiguration(configurationParameters);
 		}
+	},
+
+	/**
+	 * Adjusts the effective parallelism at runtime between the
+	 * {@value CONFIG_ADAPTIVE_MIN_PARALLELISM_PROPERTY_NAME} and
+	 * {@value CONFIG_ADAPTIVE_MAX_PARALLELISM_PROPERTY_NAME} configuration
+	 * parameters based on the CPU load of the current process and the share
+	 * of running tests that are blocked, e.g. waiting for I/O or locks.
+	 *
+	 * <p>Execution starts with a parallelism equal to the number of available
+	 * processors/cores, bounded by the configured minimum and maximum. While
+	 * tests are waiting to be executed and most of the running tests are
+	 * blocked or there are idle processors/cores, the parallelism is raised.
+	 * When the CPU is saturated, it is lowered towards the number of available
+	 * processors/cores to avoid oversubscription.
+	 *
+	 * <p>This strategy is only supported by the
+	 * {@link ForkJoinPoolHierarchicalTestExecutorService}. It limits the number
+	 * of tests, i.e. leaves of the test tree, that are executed concurrently;
+	 * the underlying pool is created with the maximum parallelism.
+	 *
+	 * @since 1.4
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	ADAPTIVE {
+		@Override
+		public ParallelExecutionConfiguration createConfiguration(ConfigurationParameters configurationParameters) {
+			int availableProcessors = Runtime.getRuntime().availableProcessors();
+			int minParallelism = getPositiveInteger(configurationParameters,
+				CONFIG_ADAPTIVE_MIN_PARALLELISM_PROPERTY_NAME, 1);
+			int maxParallelism = getPositiveInteger(configurationParameters,
+				CONFIG_ADAPTIVE_MAX_PARALLELISM_PROPERTY_NAME, Math.max(minParallelism, 4 * availableProcessors));
+
+			Preconditions.condition(maxParallelism >= minParallelism,
+				() -> String.format("Configuration parameter '%s' must not be less than configuration parameter '%s'",
+					CONFIG_ADAPTIVE_MAX_PARALLELISM_PROPERTY_NAME, CONFIG_ADAPTIVE_MIN_PARALLELISM_PROPERTY_NAME));
+
+			int initialParallelism = Math.min(maxParallelism, Math.max(minParallelism, availableProcessors));
+			int sampleIntervalMillis = getPositiveInteger(configurationParameters,
+				CONFIG_ADAPTIVE_SAMPLE_INTERVAL_PROPERTY_NAME, 500);
+
+			return new AdaptiveParallelExecutionConfiguration(minParallelism, maxParallelism, initialParallelism,
+				sampleIntervalMillis, KEEP_ALIVE_SECONDS);
+		}
 	};
 
 	private static final int KEEP_ALIVE_SECONDS = 30;
@@ -102,8 +146,8 @@ public enum DefaultParallelExecutionConfigurationStrategy implements ParallelExe
 	/**
 	 * Property name used to determine the desired configuration strategy.
 	 *
-	 * <p>Value must be one of {@code dynamic}, {@code fixed}, or
-	 * {@code custom}.
+	 * <p>Value must be one of {@code dynamic}, {@code fixed},
+	 * {@code adaptive}, or {@code custom}.
 	 */
 	public static final String CONFIG_STRATEGY_PROPERTY_NAME = "strategy";
 
@@ -136,6 +180,53 @@ public enum DefaultParallelExecutionConfigurationStrategy implements ParallelExe
 	 */
 	public static final String CONFIG_CUSTOM_CLASS_PROPERTY_NAME = "custom.class";
 
+	/**
+	 * Property name used to specify the lower bound of the parallelism for the
+	 * {@link #ADAPTIVE} configuration strategy.
+	 *
+	 * <p>Value must be a positive integer; defaults to {@code 1}.
+	 *
+	 * @see #ADAPTIVE
+	 * @since 1.4
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	public static final String CONFIG_ADAPTIVE_MIN_PARALLELISM_PROPERTY_NAME = "adaptive.min-parallelism";
+
+	/**
+	 * Property name used to specify the upper bound of the parallelism for the
+	 * {@link #ADAPTIVE} configuration strategy.
+	 *
+	 * <p>Value must be a positive integer; defaults to four times the number
+	 * of available processors/cores.
+	 *
+	 * @see #ADAPTIVE
+	 * @since 1.4
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	public static final String CONFIG_ADAPTIVE_MAX_PARALLELISM_PROPERTY_NAME = "adaptive.max-parallelism";
+
+	/**
+	 * Property name used to specify the interval in milliseconds at which the
+	 * {@link #ADAPTIVE} configuration strategy samples the load and adjusts
+	 * the parallelism.
+	 *
+	 * <p>Value must be a positive integer; defaults to {@code 500}.
+	 *
+	 * @see #ADAPTIVE
+	 * @since 1.4
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	public static final String CONFIG_ADAPTIVE_SAMPLE_INTERVAL_PROPERTY_NAME = "adaptive.sample-interval";
+
+	private static int getPositiveInteger(ConfigurationParameters configurationParameters, String key,
+			int defaultValue) {
+		int value = configurationParameters.get(key, Integer::valueOf).orElse(defaultValue);
+		Preconditions.condition(value > 0,
+			() -> String.format("Value '%d' specified via configuration parameter '%s' must be greater than 0", value,
+				key));
+		return value;
+	}
+
 	static ParallelExecutionConfigurationStrategy getStrategy(ConfigurationParameters configurationParameters) {
 		return valueOf(configurationParameters.get(CONFIG_STRATEGY_PROPERTY_NAME).orElse("dynamic").toUpperCase());
 	}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.engine.support.hierarchical;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+import java.util.Locale;
+
+import org.apiguardian.api.API;
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.util.Preconditions;
+import org.junit.platform.engine.ConfigurationParameters;
+
+/**
+ * Strategies for limiting the number of
+ * {@linkplain HierarchicalTestExecutorService#submit submitted} dynamic tests
+ * that are executed asynchronously by the
+ * {@link ForkJoinPoolHierarchicalTestExecutorService}.
+ *
+ * <p>If a dynamic test cannot be executed asynchronously, it is executed in
+ * the thread that submitted it. Since that is the thread that consumes the
+ * stream of dynamic tests, consumption is paused until the test has finished.
+ *
+ * @see ForkJoinPoolHierarchicalTestExecutorService
+ * @since 1.4
+ */
+@API(status = EXPERIMENTAL, since = "1.4")
+public enum DynamicTestBackpressure {
+
+	/**
+	 * Execute dynamic tests asynchronously as long as the number of tasks
+	 * queued by the current worker thread is below the parallelism.
+	 *
+	 * <p>This is the default.
+	 */
+	ADAPTIVE,
+
+	/**
+	 * Execute dynamic tests asynchronously as long as fewer than the
+	 * {@linkplain #CONFIG_MAX_IN_FLIGHT_PROPERTY_NAME configured maximum}
+	 * number of dynamic tests submitted by the same factory, i.e. the same
+	 * parent, are pending.
+	 */
+	PER_FACTORY,
+
+	/**
+	 * Execute dynamic tests asynchronously as long as fewer than the
+	 * {@linkplain #CONFIG_MAX_IN_FLIGHT_PROPERTY_NAME configured maximum}
+	 * number of dynamic tests submitted by any factory are pending.
+	 */
+	GLOBAL;
+
+	/**
+	 * Property name used to select the {@link DynamicTestBackpressure}.
+	 *
+	 * <p>Value must be one of {@code adaptive} (default), {@code per_factory},
+	 * or {@code global}, ignoring case.
+	 */
+	public static final String CONFIG_BACKPRESSURE_PROPERTY_NAME = "dynamic-tests.backpressure";
+
+	/**
+	 * Property name used to specify the maximum number of pending dynamic
+	 * tests for {@link #PER_FACTORY} and {@link #GLOBAL} backpressure.
+	 *
+	 * <p>Value must be a positive integer; defaults to the parallelism of the
+	 * executor service.
+	 */
+	public static final String CONFIG_MAX_IN_FLIGHT_PROPERTY_NAME = "dynamic-tests.max-in-flight";
+
+	/**
+	 * Get the {@link DynamicTestBackpressure} selected by the
+	 * {@value #CONFIG_BACKPRESSURE_PROPERTY_NAME} configuration parameter.
+	 *
+	 * @param configurationParameters the configuration parameters to use;
+	 * never {@code null}
+	 * @return the selected backpressure; {@link #ADAPTIVE} if not configured
+	 */
+	public static DynamicTestBackpressure fromConfigurationParameters(ConfigurationParameters configurationParameters) {
+		Preconditions.notNull(configurationParameters, "configurationParameters must not be null");
+		String value = configurationParameters.get(CONFIG_BACKPRESSURE_PROPERTY_NAME).map(String::trim).orElse(
+			ADAPTIVE.name());
+		try {
+			return valueOf(value.toUpperCase(Locale.ROOT));
+		}
+		catch (IllegalArgumentException e) {
+			throw new JUnitException(String.format("Invalid value '%s' specified via configuration parameter '%s'",
+				value, CONFIG_BACKPRESSURE_PROPERTY_NAME), e);
+		}
+	}
+
+	/**
+	 * Get the maximum number of pending dynamic tests specified by the
+	 * {@value #CONFIG_MAX_IN_FLIGHT_PROPERTY_NAME} configuration parameter.
+	 *
+	 * @param configurationParameters the configuration parameters to use;
+	 * never {@code null}
+	 * @param defaultValue the value to use if the parameter is not set
+	 * @return the configured maximum or the supplied default value
+	 */
+	static int getMaxInFlight(ConfigurationParameters configurationParameters, int defaultValue) {
+		// @formatter:off
+		int maxInFlight = configurationParameters.get(CONFIG_MAX_IN_FLIGHT_PROPERTY_NAME)
+				.map(String::trim)
+				.map(DynamicTestBackpressure::parseMaxInFlight)
+				.orElse(defaultValue);
+		// @formatter:on
+		if (maxInFlight < 1) {
+			throw new JUnitException(String.format("Invalid value '%d' specified via configuration parameter '%s'",
+				maxInFlight, CONFIG_MAX_IN_FLIGHT_PROPERTY_NAME));
+		}
+		return maxInFlight;
+	}
+
+	private static int parseMaxInFlight(String value) {
+		try {
+			return Integer.parseInt(value);
+		}
+		catch (NumberFormatException e) {
+			throw new JUnitException(String.format("Invalid value '%s' specified via configuration parameter '%s'",
+				value, CONFIG_MAX_IN_FLIGHT_PROPERTY_NAME), e);
+		}
+	}
+
+}
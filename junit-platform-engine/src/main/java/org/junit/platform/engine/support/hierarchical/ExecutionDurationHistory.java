@@ -0,0 +1,326 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.engine.support.hierarchical;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Comparator.comparingLong;
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+import static org.junit.platform.engine.support.hierarchical.Node.ExecutionMode.CONCURRENT;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apiguardian.api.API;
+import org.junit.platform.commons.logging.Logger;
+import org.junit.platform.commons.logging.LoggerFactory;
+import org.junit.platform.commons.util.Preconditions;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.TestDescriptor;
+
+/**
+ * History of execution durations of {@linkplain TestDescriptor test
+ * descriptors} keyed by their {@linkplain TestDescriptor#getUniqueId() unique
+ * IDs} that is persisted in a local file across runs.
+ *
+ * <p>When used by a {@link HierarchicalTestEngine}, the history is used to
+ * order {@linkplain Node.ExecutionMode#CONCURRENT concurrent} siblings
+ * <em>longest processing time first</em> before they are passed to the
+ * {@link HierarchicalTestExecutorService}. This reduces the total execution
+ * time of parallel runs since long-running tests no longer start last.
+ *
+ * <p>The duration of tests without history is estimated based on the
+ * recorded duration of their closest ancestor divided by the number of that
+ * ancestor's children.
+ *
+ * <p>When the history is {@linkplain #store() stored}, the durations recorded
+ * during the current run are merged into the content of the file so that
+ * runs of a subset of all tests do not affect the history of the other ones.
+ * Entries whose durations have not been recorded for {@value #MAX_AGE_IN_DAYS}
+ * days are dropped.
+ *
+ * @see HierarchicalTestEngine#createExecutionDurationHistory
+ * @since 1.4
+ */
+@API(status = EXPERIMENTAL, since = "1.4")
+public final class ExecutionDurationHistory {
+
+	/**
+	 * Property name used to specify the path of the file used to persist
+	 * execution durations across runs.
+	 *
+	 * <p>No default value; if not set, no history is used.
+	 */
+	public static final String CONFIG_FILE_PROPERTY_NAME = "duration-history.file";
+
+	/**
+	 * Number of days after which the entries of tests whose durations have
+	 * not been recorded since are dropped from the history.
+	 */
+	public static final int MAX_AGE_IN_DAYS = 30;
+
+	static final ExecutionDurationHistory NONE = new ExecutionDurationHistory(null);
+
+	private static final Logger logger = LoggerFactory.getLogger(ExecutionDurationHistory.class);
+
+	private static final char SEPARATOR = ' ';
+
+	private final Path file;
+	private final Map<String, Long> durationsInMillis = new ConcurrentHashMap<>();
+	private final Map<String, Long> lastRecordedEpochDays = new ConcurrentHashMap<>();
+	private final Set<String> recordedUniqueIds = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Load the execution duration history from the file specified via the
+	 * {@value #CONFIG_FILE_PROPERTY_NAME} configuration parameter, if any.
+	 *
+	 * @param configurationParameters the configuration parameters to use;
+	 * never {@code null}
+	 * @return the loaded history or {@code Optional.empty()} if the file
+	 * has not been configured
+	 */
+	public static Optional<ExecutionDurationHistory> fromConfigurationParameters(
+			ConfigurationParameters configurationParameters) {
+		Preconditions.notNull(configurationParameters, "configurationParameters must not be null");
+		// @formatter:off
+		return configurationParameters.get(CONFIG_FILE_PROPERTY_NAME)
+				.map(String::trim)
+				.filter(path -> !path.isEmpty())
+				.map(path -> load(Paths.get(path)));
+		// @formatter:on
+	}
+
+	/**
+	 * Load the execution duration history from the supplied file.
+	 *
+	 * <p>If the file does not exist, the returned history is empty. Recorded
+	 * durations are written back to the same file after execution.
+	 *
+	 * @param file the file to load the history from; never {@code null}
+	 * @return the loaded history; never {@code null}
+	 */
+	public static ExecutionDurationHistory load(Path file) {
+		Preconditions.notNull(file, "file must not be null");
+		ExecutionDurationHistory history = new ExecutionDurationHistory(file);
+		history.read();
+		return history;
+	}
+
+	private ExecutionDurationHistory(Path file) {
+		this.file = file;
+	}
+
+	/**
+	 * Read the entries of the file.
+	 *
+	 * <p>Each line consists of the duration in milliseconds, optionally the
+	 * {@linkplain LocalDate#toEpochDay() epoch day} on which it was last
+	 * recorded, and the unique ID, separated by spaces. Entries without epoch
+	 * day are treated as if they had been recorded today.
+	 */
+	private void read() {
+		if (!Files.isRegularFile(file)) {
+			return;
+		}
+		long today = today();
+		try (BufferedReader reader = Files.newBufferedReader(file, UTF_8)) {
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				String currentLine = line;
+				int separatorIndex = line.indexOf(SEPARATOR);
+				if (separatorIndex > 0) {
+					try {
+						long millis = Long.parseLong(line.substring(0, separatorIndex));
+						long epochDay = today;
+						String uniqueId = line.substring(separatorIndex + 1);
+						int secondSeparatorIndex = uniqueId.indexOf(SEPARATOR);
+						// unique IDs start with '[' and therefore never with the epoch day
+						if (secondSeparatorIndex > 0 && Character.isDigit(uniqueId.charAt(0))) {
+							epochDay = Long.parseLong(uniqueId.substring(0, secondSeparatorIndex));
+							uniqueId = uniqueId.substring(secondSeparatorIndex + 1);
+						}
+						durationsInMillis.put(uniqueId, millis);
+						lastRecordedEpochDays.put(uniqueId, epochDay);
+					}
+					catch (NumberFormatException e) {
+						logger.warn(() -> "Ignoring malformed line in execution duration history: " + currentLine);
+					}
+				}
+			}
+		}
+		catch (IOException e) {
+			logger.warn(e, () -> "Failed to read execution duration history from " + file);
+		}
+	}
+
+	private static long today() {
+		return LocalDate.now().toEpochDay();
+	}
+
+	/**
+	 * Record the duration of the latest execution of the supplied descriptor.
+	 *
+	 * <p>The recorded duration is the mean of the previously recorded and the
+	 * supplied one so that outliers do not affect scheduling too much.
+	 */
+	void record(TestDescriptor testDescriptor, long durationInNanos) {
+		if (this == NONE) {
+			return;
+		}
+		long millis = TimeUnit.NANOSECONDS.toMillis(durationInNanos);
+		String uniqueId = testDescriptor.getUniqueId().toString();
+		durationsInMillis.merge(uniqueId, millis, (previous, latest) -> (previous + latest) / 2);
+		lastRecordedEpochDays.put(uniqueId, today());
+		recordedUniqueIds.add(uniqueId);
+	}
+
+	/**
+	 * Estimate the execution duration of the supplied descriptor based on
+	 * this history.
+	 *
+	 * <p>If no duration has been recorded for the descriptor itself, its
+	 * duration is estimated based on the recorded duration of its closest
+	 * ancestor divided by the number of that ancestor's children.
+	 *
+	 * @param testDescriptor the descriptor to estimate the duration of; never
+	 * {@code null}
+	 * @return the estimated duration or {@code Optional.empty()} if there is no
+	 * history for the descriptor or any of its ancestors
+	 */
+	public Optional<Duration> estimateDuration(TestDescriptor testDescriptor) {
+		Preconditions.notNull(testDescriptor, "testDescriptor must not be null");
+		long millis = estimate(testDescriptor);
+		return millis < 0 ? Optional.empty() : Optional.of(Duration.ofMillis(millis));
+	}
+
+	/**
+	 * Estimate the duration of the supplied descriptor in milliseconds.
+	 *
+	 * @return the estimated duration or {@code -1} if there is no history
+	 * for the descriptor or any of its ancestors
+	 */
+	long estimate(TestDescriptor testDescriptor) {
+		Long millis = durationsInMillis.get(testDescriptor.getUniqueId().toString());
+		if (millis != null) {
+			return millis;
+		}
+		Optional<TestDescriptor> parent = testDescriptor.getParent();
+		if (!parent.isPresent()) {
+			return -1;
+		}
+		long parentEstimate = estimate(parent.get());
+		int siblings = parent.get().getChildren().size();
+		return parentEstimate < 0 || siblings == 0 ? parentEstimate : parentEstimate / siblings;
+	}
+
+	/**
+	 * Order the {@linkplain Node.ExecutionMode#CONCURRENT concurrent} tasks in
+	 * the supplied list by their estimated duration in descending order.
+	 *
+	 * <p>Tasks that are not executed concurrently keep their positions in the
+	 * list and the relative order of concurrent tasks with equal estimates is
+	 * retained.
+	 */
+	<T extends NodeTestTask<?>> void orderLongestFirst(List<T> tasks) {
+		if (this == NONE || durationsInMillis.isEmpty() || tasks.size() < 2) {
+			return;
+		}
+		List<Integer> positions = new ArrayList<>();
+		List<T> concurrentTasks = new ArrayList<>();
+		for (int i = 0; i < tasks.size(); i++) {
+			T task = tasks.get(i);
+			if (task.getExecutionMode() == CONCURRENT) {
+				positions.add(i);
+				concurrentTasks.add(task);
+			}
+		}
+		if (concurrentTasks.size() < 2) {
+			return;
+		}
+		Map<T, Long> estimates = new IdentityHashMap<>();
+		concurrentTasks.forEach(task -> estimates.put(task, estimate(task.getTestDescriptor())));
+		concurrentTasks.sort(comparingLong((T task) -> estimates.get(task)).reversed());
+		for (int i = 0; i < positions.size(); i++) {
+			tasks.set(positions.get(i), concurrentTasks.get(i));
+		}
+	}
+
+	/**
+	 * Merge the durations recorded since this history was loaded into the
+	 * current content of the file it was loaded from and write the result
+	 * back to the file.
+	 *
+	 * <p>Entries of other tests are retained unless their durations have not
+	 * been recorded for {@value #MAX_AGE_IN_DAYS} days so that the history of
+	 * tests that no longer exist does not accumulate.
+	 *
+	 * <p>Failures are logged but not propagated since they must not affect
+	 * the outcome of test execution.
+	 */
+	void store() {
+		if (this == NONE) {
+			return;
+		}
+		ExecutionDurationHistory current = load(file);
+		for (String uniqueId : recordedUniqueIds) {
+			current.durationsInMillis.put(uniqueId, durationsInMillis.get(uniqueId));
+			current.lastRecordedEpochDays.put(uniqueId, lastRecordedEpochDays.get(uniqueId));
+		}
+		long oldestEpochDay = today() - MAX_AGE_IN_DAYS;
+		current.lastRecordedEpochDays.values().removeIf(epochDay -> epochDay < oldestEpochDay);
+		current.durationsInMillis.keySet().retainAll(current.lastRecordedEpochDays.keySet());
+		current.write();
+	}
+
+	private void write() {
+		try {
+			Path parent = file.toAbsolutePath().getParent();
+			if (parent != null) {
+				Files.createDirectories(parent);
+			}
+			Path tempFile = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+			try (BufferedWriter writer = Files.newBufferedWriter(tempFile, UTF_8)) {
+				for (Map.Entry<String, Long> entry : durationsInMillis.entrySet()) {
+					writer.write(String.valueOf(entry.getValue()));
+					writer.write(SEPARATOR);
+					writer.write(String.valueOf(lastRecordedEpochDays.get(entry.getKey())));
+					writer.write(SEPARATOR);
+					writer.write(entry.getKey());
+					writer.newLine();
+				}
+			}
+			try {
+				Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		catch (IOException e) {
+			logger.warn(e, () -> "Failed to write execution duration history to " + file);
+		}
+	}
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.engine.support.hierarchical;
+
+import org.junit.platform.commons.util.FlightRecorderEventType;
+import org.junit.platform.engine.support.hierarchical.HierarchicalTestExecutorService.TestTask;
+
+/**
+ * Java Flight Recorder event types emitted during hierarchical test
+ * execution.
+ *
+ * @since 1.4
+ */
+final class FlightRecorderEvents {
+
+	static final FlightRecorderEventType NODE_EXECUTION_PHASE = FlightRecorderEventType.create(
+		"org.junit.platform.engine.NodeExecutionPhase", "Node Execution Phase",
+		"Execution of a single lifecycle phase of a node in the test tree", "uniqueId", "phase");
+
+	static final FlightRecorderEventType RESOURCE_LOCK_ACQUISITION = FlightRecorderEventType.create(
+		"org.junit.platform.engine.ResourceLockAcquisition", "Resource Lock Acquisition",
+		"Acquisition of the resource lock of a node in the test tree", "uniqueId");
+
+	private FlightRecorderEvents() {
+		/* no-op */
+	}
+
+	/**
+	 * Get the value identifying the supplied task in events: the unique ID of
+	 * its test descriptor, if available.
+	 */
+	static Object identify(TestTask testTask) {
+		if (testTask instanceof NodeTestTask) {
+			return ((NodeTestTask<?>) testTask).getTestDescriptor().getUniqueId();
+		}
+		return testTask;
+	}
+
+}
@@ -13,6 +13,7 @@ package org.junit.platform.engine.support.hierarchical;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static java.util.concurrent.ForkJoinPool.defaultForkJoinWorkerThreadFactory;
 import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+import static org.junit.platform.engine.support.hierarchical.FlightRecorderEvents.RESOURCE_LOCK_ACQUISITION;
 import static org.junit.platform.engine.support.hierarchical.Node.ExecutionMode.CONCURRENT;
 
 import java.lang.Thread.UncaughtExceptionHandler;
@@ -26,11 +27,13 @@ import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.Future;
 import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
 import org.apiguardian.api.API;
 import org.junit.platform.commons.logging.LoggerFactory;
 import org.junit.platform.commons.util.ExceptionUtils;
+import org.junit.platform.commons.util.FlightRecorderEventType;
 import org.junit.platform.engine.ConfigurationParameters;
 
 /**
@@ -38,7 +41,19 @@ import org.junit.platform.engine.ConfigurationParameters;
  * {@linkplain HierarchicalTestExecutorService executor service} that executes
  * {@linkplain TestTask test tasks} with the configured parallelism.
  *
+ * <p>The number of {@linkplain #submit submitted} dynamic tests that are
+ * executed asynchronously is limited according to the
+ * {@link DynamicTestBackpressure} selected via the
+ * {@value DynamicTestBackpressure#CONFIG_BACKPRESSURE_PROPERTY_NAME}
+ * configuration parameter.
+ *
+ * <p>When using the {@link DefaultParallelExecutionConfigurationStrategy#ADAPTIVE
+ * ADAPTIVE} configuration strategy, the pool is created with the maximum
+ * parallelism and the number of tests executed concurrently is adjusted at
+ * runtime within the configured bounds.
+ *
  * @see ForkJoinPool
+ * @see DynamicTestBackpressure
  * @see DefaultParallelExecutionConfigurationStrategy
  * @since 1.3
  */
@@ -47,6 +62,11 @@ public class ForkJoinPoolHierarchicalTestExecutorService implements Hierarchical
 
 	private final ForkJoinPool forkJoinPool;
 	private final int parallelism;
+	private final DynamicTestBackpressure backpressure;
+	private final int maxInFlightDynamicTests;
+	private final AtomicInteger inFlightDynamicTests = new AtomicInteger();
+	private final AdaptiveParallelismController adaptiveParallelism;
+	private volatile ParallelExecutionMetrics metrics = ParallelExecutionMetrics.NONE;
 
 	/**
 	 * Create a new {@code ForkJoinPoolHierarchicalTestExecutorService} based on
@@ -55,15 +75,28 @@ public class ForkJoinPoolHierarchicalTestExecutorService implements Hierarchical
 	 * @see DefaultParallelExecutionConfigurationStrategy
 	 */
 	public ForkJoinPoolHierarchicalTestExecutorService(ConfigurationParameters configurationParameters) {
-		forkJoinPool = createForkJoinPool(configurationParameters);
-		parallelism = forkJoinPool.getParallelism();
-		LoggerFactory.getLogger(getClass()).config(() -> "Using ForkJoinPool with parallelism of " + parallelism);
-	}
-
-	private ForkJoinPool createForkJoinPool(ConfigurationParameters configurationParameters) {
 		ParallelExecutionConfigurationStrategy strategy = DefaultParallelExecutionConfigurationStrategy.getStrategy(
 			configurationParameters);
 		ParallelExecutionConfiguration configuration = strategy.createConfiguration(configurationParameters);
+		forkJoinPool = createForkJoinPool(configuration);
+		parallelism = forkJoinPool.getParallelism();
+		backpressure = DynamicTestBackpressure.fromConfigurationParameters(configurationParameters);
+		maxInFlightDynamicTests = DynamicTestBackpressure.getMaxInFlight(configurationParameters, parallelism);
+		if (configuration instanceof AdaptiveParallelExecutionConfiguration) {
+			AdaptiveParallelExecutionConfiguration adaptive = (AdaptiveParallelExecutionConfiguration) configuration;
+			adaptiveParallelism = AdaptiveParallelismController.start(adaptive);
+			LoggerFactory.getLogger(getClass()).config(() -> String.format(
+				"Using ForkJoinPool with adaptive parallelism between %d and %d and %s backpressure for dynamic tests",
+				adaptive.getMinParallelism(), adaptive.getMaxParallelism(), backpressure));
+		}
+		else {
+			adaptiveParallelism = null;
+			LoggerFactory.getLogger(getClass()).config(() -> "Using ForkJoinPool with parallelism of " + parallelism
+					+ " and " + backpressure + " backpressure for dynamic tests");
+		}
+	}
+
+	private ForkJoinPool createForkJoinPool(ParallelExecutionConfiguration configuration) {
 		try {
 			// Try to use constructor available in Java >= 9
 			Constructor<ForkJoinPool> constructor = ForkJoinPool.class.getDeclaredConstructor(Integer.TYPE,
@@ -79,14 +112,60 @@ public class ForkJoinPoolHierarchicalTestExecutorService implements Hierarchical
 		}
 	}
 
+	ForkJoinPool getForkJoinPool() {
+		return forkJoinPool;
+	}
+
+	void setMetrics(ParallelExecutionMetrics metrics) {
+		this.metrics = metrics;
+		if (adaptiveParallelism != null) {
+			adaptiveParallelism.setMetrics(metrics);
+		}
+	}
+
+	private ExclusiveTask createTask(TestTask testTask) {
+		return new ExclusiveTask(testTask, metrics, adaptiveParallelism);
+	}
+
 	@Override
 	public Future<Void> submit(TestTask testTask) {
-		ExclusiveTask exclusiveTask = new ExclusiveTask(testTask);
+		ExclusiveTask exclusiveTask = createTask(testTask);
 		if (!isAlreadyRunningInForkJoinPool()) {
 			// ensure we're running inside the ForkJoinPool so we
 			// can use ForkJoinTask API in invokeAll etc.
+			metrics.recordForkedTask();
 			return forkJoinPool.submit(exclusiveTask);
 		}
+		if (testTask.getExecutionMode() == CONCURRENT && reserveInFlightSlot(exclusiveTask)) {
+			metrics.recordForkedTask();
+			return exclusiveTask.fork();
+		}
+		metrics.recordInlineTask();
+		exclusiveTask.compute();
+		return completedFuture(null);
+	}
+
+	/**
+	 * Determine whether the supplied dynamic test may be forked according to
+	 * the configured {@link DynamicTestBackpressure} and, if so, reserve a slot
+	 * that is freed once the task has been executed.
+	 */
+	private boolean reserveInFlightSlot(ExclusiveTask exclusiveTask) {
+		switch (backpressure) {
+			case PER_FACTORY:
+				ExclusiveTask factoryTask = ExclusiveTask.workerStates.get().currentTask;
+				if (factoryTask == null) {
+					return isQueueBelowParallelism();
+				}
+				return exclusiveTask.reserveSlot(factoryTask.inFlightDynamicTests, maxInFlightDynamicTests);
+			case GLOBAL:
+				return exclusiveTask.reserveSlot(inFlightDynamicTests, maxInFlightDynamicTests);
+			default:
+				return isQueueBelowParallelism();
+		}
+	}
+
+	private boolean isQueueBelowParallelism() {
 		// Limit the amount of queued work so we don't consume dynamic tests too eagerly
 		// by forking only if the current worker thread's queue length is below the
 		// desired parallelism. This optimistically assumes that the already queued tasks
@@ -96,11 +175,7 @@ public class ForkJoinPoolHierarchicalTestExecutorService implements Hierarchical
 		// can be stolen by otherwise idle workers and the new task takes significantly
 		// longer, parallelism will drop. However, that only happens if the enclosing test
 		// task is the only one remaining which should rarely be the case.
-		if (testTask.getExecutionMode() == CONCURRENT && ForkJoinTask.getSurplusQueuedTaskCount() < parallelism) {
-			return exclusiveTask.fork();
-		}
-		exclusiveTask.compute();
-		return completedFuture(null);
+		return ForkJoinTask.getSurplusQueuedTaskCount() < parallelism;
 	}
 
 	private boolean isAlreadyRunningInForkJoinPool() {
@@ -110,7 +185,8 @@ public class ForkJoinPoolHierarchicalTestExecutorService implements Hierarchical
 	@Override
 	public void invokeAll(List<? extends TestTask> tasks) {
 		if (tasks.size() == 1) {
-			new ExclusiveTask(tasks.get(0)).compute();
+			metrics.recordInlineTask();
+			createTask(tasks.get(0)).compute();
 			return;
 		}
 		Deque<ExclusiveTask> nonConcurrentTasks = new LinkedList<>();
@@ -120,11 +196,51 @@ public class ForkJoinPoolHierarchicalTestExecutorService implements Hierarchical
 		joinConcurrentTasksInReverseOrderToEnableWorkStealing(concurrentTasksInReverseOrder);
 	}
 
+	/**
+	 * Execute the supplied tasks like {@link #invokeAll(List)} but only start
+	 * each task that requires admission once it has been admitted by the
+	 * supplied {@link ContainerAdmissionControl}.
+	 *
+	 * <p>Admitted concurrent tasks are forked directly, i.e. they are not
+	 * subject to the backpressure for dynamic tests. While waiting for
+	 * admission, the current worker thread executes other queued tasks instead
+	 * of blocking so that open containers make progress even if the pool only
+	 * has a single worker thread.
+	 */
+	void invokeAll(List<? extends TestTask> tasks, Predicate<? super TestTask> requiresAdmission,
+			ContainerAdmissionControl admissionControl) throws InterruptedException {
+		Deque<ExclusiveTask> nonConcurrentTasks = new LinkedList<>();
+		Deque<ExclusiveTask> concurrentTasksInReverseOrder = new LinkedList<>();
+		for (TestTask testTask : tasks) {
+			ExclusiveTask exclusiveTask = createTask(testTask);
+			if (testTask.getExecutionMode() == CONCURRENT) {
+				if (requiresAdmission.test(testTask)) {
+					ExclusiveTask.awaitAdmission(admissionControl);
+				}
+				metrics.recordForkedTask();
+				exclusiveTask.fork();
+				concurrentTasksInReverseOrder.addFirst(exclusiveTask);
+			}
+			else {
+				nonConcurrentTasks.add(exclusiveTask);
+			}
+		}
+		for (ExclusiveTask task : nonConcurrentTasks) {
+			if (requiresAdmission.test(task.testTask)) {
+				ExclusiveTask.awaitAdmission(admissionControl);
+			}
+			metrics.recordInlineTask();
+			task.compute();
+		}
+		joinConcurrentTasksInReverseOrderToEnableWorkStealing(concurrentTasksInReverseOrder);
+	}
+
 	private void forkConcurrentTasks(List<? extends TestTask> tasks, Deque<ExclusiveTask> nonConcurrentTasks,
 			Deque<ExclusiveTask> concurrentTasksInReverseOrder) {
 		for (TestTask testTask : tasks) {
-			ExclusiveTask exclusiveTask = new ExclusiveTask(testTask);
+			ExclusiveTask exclusiveTask = createTask(testTask);
 			if (testTask.getExecutionMode() == CONCURRENT) {
+				metrics.recordForkedTask();
 				exclusiveTask.fork();
 				concurrentTasksInReverseOrder.addFirst(exclusiveTask);
 			}
@@ -136,6 +252,7 @@ public class ForkJoinPoolHierarchicalTestExecutorService implements Hierarchical
 
 	private void executeNonConcurrentTasks(Deque<ExclusiveTask> nonConcurrentTasks) {
 		for (ExclusiveTask task : nonConcurrentTasks) {
+			metrics.recordInlineTask();
 			task.compute();
 		}
 	}
@@ -150,29 +267,203 @@ public class ForkJoinPoolHierarchicalTestExecutorService implements Hierarchical
 	@Override
 	public void close() {
 		forkJoinPool.shutdownNow();
+		if (adaptiveParallelism != null) {
+			adaptiveParallelism.close();
+		}
 	}
 
 	// this class cannot not be serialized because TestTask is not Serializable
 	@SuppressWarnings("serial")
 	static class ExclusiveTask extends RecursiveAction {
 
+		/**
+		 * Maximum number of tasks a single worker thread may defer at the same
+		 * time before falling back to blocking lock acquisition.
+		 */
+		private static final int MAX_NESTED_DEFERRALS = 8;
+
+		/**
+		 * Maximum time a worker thread waiting for admission of a container
+		 * waits before looking for other queued tasks again.
+		 */
+		private static final long ADMISSION_RECHECK_INTERVAL_MILLIS = 10;
+
+		private static final ThreadLocal<WorkerState> workerStates = ThreadLocal.withInitial(WorkerState::new);
+
 		private final TestTask testTask;
+		private final ParallelExecutionMetrics metrics;
+		private final AdaptiveParallelismController adaptiveParallelism;
+		private final AtomicInteger inFlightDynamicTests = new AtomicInteger();
+		private AtomicInteger reservedSlots;
 
-		ExclusiveTask(TestTask testTask) {
+		ExclusiveTask(TestTask testTask, ParallelExecutionMetrics metrics,
+				AdaptiveParallelismController adaptiveParallelism) {
 			this.testTask = testTask;
+			this.metrics = metrics;
+			this.adaptiveParallelism = adaptiveParallelism;
 		}
 
-		@SuppressWarnings("try")
 		@Override
 		public void compute() {
-			try (ResourceLock lock = testTask.getResourceLock().acquire()) {
+			metrics.sampleWorkers();
+			WorkerState workerState = workerStates.get();
+			ExclusiveTask previousTask = workerState.currentTask;
+			workerState.currentTask = this;
+			try {
+				computeExclusively();
+			}
+			finally {
+				workerState.currentTask = previousTask;
+				if (reservedSlots != null) {
+					reservedSlots.decrementAndGet();
+				}
+				metrics.sampleWorkers();
+			}
+		}
+
+		/**
+		 * Reserve a slot in the supplied counter of pending tasks unless it has
+		 * already reached the supplied maximum.
+		 *
+		 * <p>The slot is freed once this task has been executed.
+		 */
+		boolean reserveSlot(AtomicInteger slots, int maxSlots) {
+			int current;
+			do {
+				current = slots.get();
+				if (current >= maxSlots) {
+					return false;
+				}
+			} while (!slots.compareAndSet(current, current + 1));
+			reservedSlots = slots;
+			return true;
+		}
+
+		private void computeExclusively() {
+			WorkerState workerState = workerStates.get();
+			ResourceLock resourceLock = testTask.getResourceLock();
+			boolean locked = resourceLock != NopLock.INSTANCE;
+			FlightRecorderEventType.Event event = RESOURCE_LOCK_ACQUISITION.begin();
+			try {
+				acquire(resourceLock, workerState);
+			}
+			catch (InterruptedException e) {
+				throw ExceptionUtils.throwAsUncheckedException(e);
+			}
+			if (locked) {
+				event.commit(FlightRecorderEvents.identify(testTask));
+				workerState.heldLocks++;
+			}
+			try {
+				executeWithinTargetParallelism();
+			}
+			finally {
+				if (locked) {
+					workerState.heldLocks--;
+				}
+				resourceLock.release();
+			}
+		}
+
+		/**
+		 * Execute the test task after acquiring a permit of the
+		 * {@link AdaptiveParallelismController}, if used and required.
+		 */
+		private void executeWithinTargetParallelism() {
+			if (adaptiveParallelism == null || !AdaptiveParallelismController.requiresPermit(testTask)) {
 				testTask.execute();
+				return;
+			}
+			AdaptiveParallelismController.Permit permit;
+			try {
+				permit = adaptiveParallelism.acquire();
 			}
 			catch (InterruptedException e) {
-				ExceptionUtils.throwAsUncheckedException(e);
+				throw ExceptionUtils.throwAsUncheckedException(e);
+			}
+			try {
+				testTask.execute();
+			}
+			finally {
+				adaptiveParallelism.release(permit);
+			}
+		}
+
+		/**
+		 * Acquire the supplied lock without parking the current worker thread
+		 * if possible.
+		 *
+		 * <p>If the lock is currently unavailable, acquisition of a concurrent
+		 * task's lock is deferred and the worker executes other queued tasks in
+		 * the meantime, retrying after each of them. Only if there is no other
+		 * work, the worker blocks via {@link ForkJoinPool#managedBlock} so the
+		 * pool may activate a compensation thread.
+		 *
+		 * <p>Acquisition is never deferred while the current thread holds
+		 * another resource lock since the tasks executed in the meantime would
+		 * otherwise run while holding that lock.
+		 */
+		private void acquire(ResourceLock resourceLock, WorkerState workerState) throws InterruptedException {
+			if (resourceLock.tryAcquire()) {
+				return;
+			}
+			if (isDeferrable(workerState)) {
+				workerState.deferringTasks++;
+				try {
+					ForkJoinTask<?> otherTask;
+					while ((otherTask = pollTask()) != null) {
+						otherTask.quietlyInvoke();
+						if (resourceLock.tryAcquire()) {
+							return;
+						}
+					}
+				}
+				finally {
+					workerState.deferringTasks--;
+				}
+			}
+			resourceLock.acquire();
+		}
+
+		/**
+		 * Wait until the supplied admission control admits a new container.
+		 *
+		 * <p>In the meantime, the current worker thread executes other queued
+		 * tasks, e.g. those of already open containers, instead of blocking.
+		 * Only if there is no other work, it waits for a short time for an
+		 * open container to be released before looking for work again.
+		 */
+		static void awaitAdmission(ContainerAdmissionControl admissionControl) throws InterruptedException {
+			if (!inForkJoinPool()) {
+				admissionControl.admit();
+				return;
+			}
+			while (!admissionControl.tryAdmit()) {
+				ForkJoinTask<?> otherTask = pollTask();
+				if (otherTask != null) {
+					otherTask.quietlyInvoke();
+				}
+				else if (admissionControl.tryAdmit(ADMISSION_RECHECK_INTERVAL_MILLIS)) {
+					return;
+				}
 			}
 		}
 
+		private boolean isDeferrable(WorkerState workerState) {
+			return testTask.getExecutionMode() == CONCURRENT && inForkJoinPool() && workerState.heldLocks == 0
+					&& workerState.deferringTasks < MAX_NESTED_DEFERRALS;
+		}
+
+	}
+
+	private static class WorkerState {
+
+		ExclusiveTask currentTask;
+
+		int heldLocks;
+
+		int deferringTasks;
+
 	}
 
 }
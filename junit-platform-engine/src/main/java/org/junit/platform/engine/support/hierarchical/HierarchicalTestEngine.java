@@ -13,6 +13,8 @@ package org.junit.platform.engine.support.hierarchical;
 import static org.apiguardian.api.API.Status.EXPERIMENTAL;
 import static org.apiguardian.api.API.Status.MAINTAINED;
 
+import java.util.Optional;
+
 import org.apiguardian.api.API;
 import org.junit.platform.commons.JUnitException;
 import org.junit.platform.engine.ExecutionRequest;
@@ -47,8 +49,20 @@ public abstract class HierarchicalTestEngine<C extends EngineExecutionContext> i
 		try (HierarchicalTestExecutorService executorService = createExecutorService(request)) {
 			C executionContext = createExecutionContext(request);
 			ThrowableCollector.Factory throwableCollectorFactory = createThrowableCollectorFactory(request);
-			new HierarchicalTestExecutor<>(request, executionContext, executorService,
-				throwableCollectorFactory).execute().get();
+			ExecutionDurationHistory durationHistory = createExecutionDurationHistory(request).orElse(
+				ExecutionDurationHistory.NONE);
+			ResourceLockPlacement lockPlacement = getResourceLockPlacement(request);
+			ParallelExecutionMetrics metrics = createParallelExecutionMetrics(request).orElse(
+				ParallelExecutionMetrics.NONE);
+			ContainerAdmissionControl admissionControl = createContainerAdmissionControl(request).orElse(
+				ContainerAdmissionControl.NONE);
+			try {
+				new HierarchicalTestExecutor<>(request, executionContext, executorService, throwableCollectorFactory,
+					durationHistory, lockPlacement, metrics, admissionControl).execute().get();
+			}
+			finally {
+				durationHistory.store();
+			}
 		}
 		catch (Exception exception) {
 			throw new JUnitException("Error executing tests for engine " + getId(), exception);
@@ -100,6 +114,103 @@ public abstract class HierarchicalTestEngine<C extends EngineExecutionContext> i
 		return OpenTest4JAwareThrowableCollector::new;
 	}
 
+	/**
+	 * Create the {@linkplain ExecutionDurationHistory execution duration
+	 * history} to use for ordering concurrently executed siblings while
+	 * executing the supplied {@linkplain ExecutionRequest request}.
+	 *
+	 * <p>An engine may use the information in the supplied <em>request</em>
+	 * such as the contained
+	 * {@linkplain ExecutionRequest#getConfigurationParameters() configuration parameters}
+	 * to decide whether to use a history and where to load it from.
+	 *
+	 * <p>If a history is returned, concurrent siblings are ordered by their
+	 * recorded durations, longest first, before they are submitted to the
+	 * {@linkplain #createExecutorService executor service}, and the durations
+	 * of the current run are written back to the history afterwards.
+	 *
+	 * <p>By default, this method returns {@link Optional#empty()} which means
+	 * that siblings are executed in their declaration order.
+	 *
+	 * @param request the request about to be executed
+	 * @see ExecutionDurationHistory#fromConfigurationParameters
+	 * @since 1.4
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	protected Optional<ExecutionDurationHistory> createExecutionDurationHistory(ExecutionRequest request) {
+		return Optional.empty();
+	}
+
+	/**
+	 * Get the {@linkplain ResourceLockPlacement placement strategy} for the
+	 * resource locks of {@linkplain Node#getExclusiveResources() exclusive
+	 * resources} to use for executing the supplied
+	 * {@linkplain ExecutionRequest request}.
+	 *
+	 * <p>An engine may use the information in the supplied <em>request</em>
+	 * such as the contained
+	 * {@linkplain ExecutionRequest#getConfigurationParameters() configuration parameters}
+	 * to decide which placement to use.
+	 *
+	 * <p>By default, this method returns
+	 * {@link ResourceLockPlacement#COARSE_GRAINED}.
+	 *
+	 * @param request the request about to be executed
+	 * @see ResourceLockPlacement#fromConfigurationParameters
+	 * @since 1.4
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	protected ResourceLockPlacement getResourceLockPlacement(ExecutionRequest request) {
+		return ResourceLockPlacement.COARSE_GRAINED;
+	}
+
+	/**
+	 * Create the {@linkplain ParallelExecutionMetrics metrics} to record while
+	 * executing the supplied {@linkplain ExecutionRequest request}.
+	 *
+	 * <p>An engine may use the information in the supplied <em>request</em>
+	 * such as the contained
+	 * {@linkplain ExecutionRequest#getConfigurationParameters() configuration parameters}
+	 * to decide whether to record metrics.
+	 *
+	 * <p>If metrics are returned, they are published as a
+	 * {@linkplain org.junit.platform.engine.reporting.ReportEntry report entry}
+	 * of the root descriptor right before its execution finishes.
+	 *
+	 * <p>By default, this method returns {@link Optional#empty()} which means
+	 * that no metrics are recorded.
+	 *
+	 * @param request the request about to be executed
+	 * @see ParallelExecutionMetrics#fromConfigurationParameters
+	 * @since 1.4
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	protected Optional<ParallelExecutionMetrics> createParallelExecutionMetrics(ExecutionRequest request) {
+		return Optional.empty();
+	}
+
+	/**
+	 * Create the {@linkplain ContainerAdmissionControl admission control} for
+	 * top-level containers to use for executing the supplied
+	 * {@linkplain ExecutionRequest request}.
+	 *
+	 * <p>An engine may use the information in the supplied <em>request</em>
+	 * such as the contained
+	 * {@linkplain ExecutionRequest#getConfigurationParameters() configuration parameters}
+	 * to decide whether and how to limit the number of open containers.
+	 *
+	 * <p>By default, this method returns {@link Optional#empty()} which means
+	 * that all top-level containers are submitted for execution at once.
+	 *
+	 * @param request the request about to be executed
+	 * @see ContainerAdmissionControl#fromConfigurationParameters
+	 * @since 1.4
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	protected Optional<ContainerAdmissionControl> createContainerAdmissionControl(ExecutionRequest request) {
+		return Optional.empty();
+	}
+
 	/**
 	 * Create the initial execution context for executing the supplied
 	 * {@linkplain ExecutionRequest request}.
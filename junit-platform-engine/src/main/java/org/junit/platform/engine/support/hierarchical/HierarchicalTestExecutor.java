@@ -37,21 +37,40 @@ class HierarchicalTestExecutor<C extends EngineExecutionContext> {
 	private final C rootContext;
 	private final HierarchicalTestExecutorService executorService;
 	private final ThrowableCollector.Factory throwableCollectorFactory;
+	private final ExecutionDurationHistory durationHistory;
+	private final ResourceLockPlacement lockPlacement;
+	private final ParallelExecutionMetrics metrics;
+	private final ContainerAdmissionControl admissionControl;
 
 	HierarchicalTestExecutor(ExecutionRequest request, C rootContext, HierarchicalTestExecutorService executorService,
 			ThrowableCollector.Factory throwableCollectorFactory) {
+		this(request, rootContext, executorService, throwableCollectorFactory, ExecutionDurationHistory.NONE,
+			ResourceLockPlacement.COARSE_GRAINED, ParallelExecutionMetrics.NONE, ContainerAdmissionControl.NONE);
+	}
+
+	HierarchicalTestExecutor(ExecutionRequest request, C rootContext, HierarchicalTestExecutorService executorService,
+			ThrowableCollector.Factory throwableCollectorFactory, ExecutionDurationHistory durationHistory,
+			ResourceLockPlacement lockPlacement, ParallelExecutionMetrics metrics,
+			ContainerAdmissionControl admissionControl) {
 		this.request = request;
 		this.rootContext = rootContext;
 		this.executorService = executorService;
 		this.throwableCollectorFactory = throwableCollectorFactory;
+		this.durationHistory = durationHistory;
+		this.lockPlacement = lockPlacement;
+		this.metrics = metrics;
+		this.admissionControl = admissionControl;
 	}
 
 	Future<Void> execute() {
 		TestDescriptor rootTestDescriptor = this.request.getRootTestDescriptor();
 		EngineExecutionListener executionListener = this.request.getEngineExecutionListener();
-		NodeExecutionAdvisor executionAdvisor = new NodeTreeWalker().walk(rootTestDescriptor);
+		NodeExecutionAdvisor executionAdvisor = new NodeTreeWalker(this.lockPlacement, this.metrics,
+			this.request.getResourceLockRegistry()).walk(rootTestDescriptor);
+		this.metrics.attachTo(this.executorService);
 		NodeTestTaskContext taskContext = new NodeTestTaskContext(executionListener, this.executorService,
-			this.throwableCollectorFactory, executionAdvisor);
+			this.throwableCollectorFactory, executionAdvisor, this.durationHistory, this.metrics, this.admissionControl,
+			this.request.getCancellationToken());
 		NodeTestTask<C> rootTestTask = new NodeTestTask<>(taskContext, rootTestDescriptor);
 		rootTestTask.setParentContext(this.rootContext);
 		return this.executorService.submit(rootTestTask);
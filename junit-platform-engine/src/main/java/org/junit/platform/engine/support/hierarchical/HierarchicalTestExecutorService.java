@@ -25,6 +25,7 @@ import org.junit.platform.engine.support.hierarchical.Node.ExecutionMode;
  * @see HierarchicalTestEngine#createExecutorService(ExecutionRequest)
  * @see SameThreadHierarchicalTestExecutorService
  * @see ForkJoinPoolHierarchicalTestExecutorService
+ * @see ThreadPerTaskHierarchicalTestExecutorService
  * @since 1.3
  */
 @API(status = EXPERIMENTAL, since = "1.3")
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.engine.support.hierarchical;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+import java.lang.reflect.Constructor;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.apiguardian.api.API;
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.util.Preconditions;
+import org.junit.platform.commons.util.ReflectionUtils;
+import org.junit.platform.engine.ConfigurationParameters;
+
+/**
+ * Factory for {@link HierarchicalTestExecutorService} instances used for
+ * parallel test execution.
+ *
+ * <p>The implementation is selected via the
+ * {@value #CONFIG_EXECUTOR_SERVICE_PROPERTY_NAME} configuration parameter
+ * which may either contain one of the names of the built-in implementations
+ * or the fully qualified class name of a custom implementation.
+ *
+ * @see ForkJoinPoolHierarchicalTestExecutorService
+ * @see ThreadPerTaskHierarchicalTestExecutorService
+ * @see SameThreadHierarchicalTestExecutorService
+ * @since 1.4
+ */
+@API(status = EXPERIMENTAL, since = "1.4")
+public final class HierarchicalTestExecutorServiceFactory {
+
+	/**
+	 * Property name used to select the {@link HierarchicalTestExecutorService}
+	 * implementation.
+	 *
+	 * <p>Value must be one of {@value #FORK_JOIN_POOL} (default),
+	 * {@value #THREAD_PER_TASK}, or {@value #SAME_THREAD}, ignoring case, or
+	 * the fully qualified class name of a custom implementation. A custom
+	 * implementation must declare either a constructor that accepts
+	 * {@link ConfigurationParameters} or a no-args constructor.
+	 */
+	public static final String CONFIG_EXECUTOR_SERVICE_PROPERTY_NAME = "executor-service";
+
+	/**
+	 * Name of the {@link ForkJoinPoolHierarchicalTestExecutorService}.
+	 */
+	public static final String FORK_JOIN_POOL = "fork_join_pool";
+
+	/**
+	 * Name of the {@link ThreadPerTaskHierarchicalTestExecutorService}.
+	 */
+	public static final String THREAD_PER_TASK = "thread_per_task";
+
+	/**
+	 * Name of the {@link SameThreadHierarchicalTestExecutorService}.
+	 */
+	public static final String SAME_THREAD = "same_thread";
+
+	private HierarchicalTestExecutorServiceFactory() {
+		/* no-op */
+	}
+
+	/**
+	 * Create the {@link HierarchicalTestExecutorService} selected by the
+	 * {@value #CONFIG_EXECUTOR_SERVICE_PROPERTY_NAME} configuration parameter.
+	 *
+	 * @param configurationParameters the configuration parameters used to
+	 * select and configure the executor service; never {@code null}
+	 * @return the new executor service; never {@code null}
+	 */
+	public static HierarchicalTestExecutorService create(ConfigurationParameters configurationParameters) {
+		Preconditions.notNull(configurationParameters, "configurationParameters must not be null");
+		String value = configurationParameters.get(CONFIG_EXECUTOR_SERVICE_PROPERTY_NAME).map(String::trim).orElse(
+			FORK_JOIN_POOL);
+		switch (value.toLowerCase(Locale.ROOT)) {
+			case FORK_JOIN_POOL:
+				return new ForkJoinPoolHierarchicalTestExecutorService(configurationParameters);
+			case THREAD_PER_TASK:
+				return new ThreadPerTaskHierarchicalTestExecutorService(configurationParameters);
+			case SAME_THREAD:
+				return new SameThreadHierarchicalTestExecutorService();
+			default:
+				return createCustomExecutorService(value, configurationParameters);
+		}
+	}
+
+	private static HierarchicalTestExecutorService createCustomExecutorService(String className,
+			ConfigurationParameters configurationParameters) {
+
+		Class<?> executorServiceClass = ReflectionUtils.loadClass(className).orElseThrow(() -> new JUnitException(
+			String.format("Could not load class '%s' specified via configuration parameter '%s'", className,
+				CONFIG_EXECUTOR_SERVICE_PROPERTY_NAME)));
+
+		Preconditions.condition(HierarchicalTestExecutorService.class.isAssignableFrom(executorServiceClass),
+			() -> String.format("Class '%s' specified via configuration parameter '%s' does not implement %s",
+				executorServiceClass.getName(), CONFIG_EXECUTOR_SERVICE_PROPERTY_NAME,
+				HierarchicalTestExecutorService.class.getName()));
+
+		Optional<Constructor<?>> configurableConstructor = findConstructor(executorServiceClass,
+			ConfigurationParameters.class);
+		if (configurableConstructor.isPresent()) {
+			return (HierarchicalTestExecutorService) ReflectionUtils.newInstance(configurableConstructor.get(),
+				configurationParameters);
+		}
+		Constructor<?> defaultConstructor = findConstructor(executorServiceClass).orElseThrow(
+			() -> new JUnitException(String.format(
+				"Class '%s' specified via configuration parameter '%s' must declare a constructor that accepts %s or a no-args constructor",
+				executorServiceClass.getName(), CONFIG_EXECUTOR_SERVICE_PROPERTY_NAME,
+				ConfigurationParameters.class.getName())));
+		return (HierarchicalTestExecutorService) ReflectionUtils.newInstance(defaultConstructor);
+	}
+
+	private static Optional<Constructor<?>> findConstructor(Class<?> clazz, Class<?>... parameterTypes) {
+		try {
+			return Optional.of(clazz.getDeclaredConstructor(parameterTypes));
+		}
+		catch (NoSuchMethodException e) {
+			return Optional.empty();
+		}
+	}
+
+}
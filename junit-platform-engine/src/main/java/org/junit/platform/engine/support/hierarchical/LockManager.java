@@ -10,63 +10,152 @@
 
 package org.junit.platform.engine.support.hierarchical;
 
-import static java.util.Comparator.comparing;
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.toList;
 import static org.junit.platform.engine.support.hierarchical.ExclusiveResource.LockMode.READ;
+import static org.junit.platform.engine.support.hierarchical.ExclusiveResource.LockMode.READ_WRITE;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Comparator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.junit.platform.engine.ResourceLockRegistry;
+import org.junit.platform.engine.support.hierarchical.ExclusiveResource.LockMode;
 
 /**
+ * Resolves {@linkplain ExclusiveResource exclusive resources} to
+ * {@linkplain ResourceLock resource locks}.
+ *
+ * <p>Resource keys are interned to integer IDs by a {@link ResourceLockRegistry}
+ * in the order in which they are first encountered. The IDs define the global
+ * order in which locks are acquired. Resolved locks are cached per distinct
+ * set of resources so that nodes declaring the same resources share the same
+ * {@link ResourceLock}.
+ *
  * @since 1.3
  */
 class LockManager {
 
-	private static final Comparator<ExclusiveResource> COMPARATOR = comparing(ExclusiveResource::getKey).thenComparing(
-		ExclusiveResource::getLockMode);
+	private final Map<LockSet, ResourceLock> resourceLocks = new ConcurrentHashMap<>();
+	private final ParallelExecutionMetrics metrics;
+	private final ResourceLockRegistry registry;
 
-	private final Map<String, ReadWriteLock> locksByKey = new ConcurrentHashMap<>();
+	LockManager() {
+		this(ParallelExecutionMetrics.NONE);
+	}
 
-	ResourceLock getLockForResources(Collection<ExclusiveResource> resources) {
-		List<Lock> locks = getDistinctSortedLocks(resources);
-		return toResourceLock(locks);
+	LockManager(ParallelExecutionMetrics metrics) {
+		this(metrics, ResourceLockRegistry.create());
 	}
 
-	private List<Lock> getDistinctSortedLocks(Collection<ExclusiveResource> resources) {
-		// @formatter:off
-		Map<String, List<ExclusiveResource>> resourcesByKey = resources.stream()
-				.distinct()
-				.sorted(COMPARATOR)
-				.collect(groupingBy(ExclusiveResource::getKey, LinkedHashMap::new, toList()));
-
-		return resourcesByKey.values().stream()
-				.map(resourcesWithSameKey -> resourcesWithSameKey.get(0))
-				.map(resource -> {
-					ReadWriteLock lock = this.locksByKey.computeIfAbsent(resource.getKey(),
-							key -> new ReentrantReadWriteLock());
-					return resource.getLockMode() == READ ? lock.readLock() : lock.writeLock();
-				})
-				.collect(toList());
-		// @formatter:on
+	LockManager(ParallelExecutionMetrics metrics, ResourceLockRegistry registry) {
+		this.metrics = metrics;
+		this.registry = registry;
 	}
 
-	private ResourceLock toResourceLock(List<Lock> locks) {
-		int size = locks.size();
-		if (size == 0) {
+	ResourceLock getLockForResources(Collection<ExclusiveResource> resources) {
+		if (resources.isEmpty()) {
 			return NopLock.INSTANCE;
 		}
-		if (size == 1) {
-			return new SingleLock(locks.get(0));
+		LockSet lockSet = toLockSet(resources);
+		return resourceLocks.computeIfAbsent(lockSet, this::toResourceLock);
+	}
+
+	/**
+	 * Get the interned ID of the supplied resource key.
+	 *
+	 * <p>Locks of resources with lower IDs are always acquired before those
+	 * with higher IDs.
+	 */
+	int getKeyId(String key) {
+		return registry.getKeyId(key);
+	}
+
+	private LockSet toLockSet(Collection<ExclusiveResource> resources) {
+		int[] codes = new int[resources.size()];
+		int size = 0;
+		for (ExclusiveResource resource : resources) {
+			codes[size++] = encode(getKeyId(resource.getKey()), resource.getLockMode());
+		}
+		Arrays.sort(codes);
+		// Keep only the first, i.e. strongest, lock mode for each key
+		int distinct = 0;
+		for (int i = 0; i < size; i++) {
+			if (distinct == 0 || keyId(codes[i]) != keyId(codes[distinct - 1])) {
+				codes[distinct++] = codes[i];
+			}
+		}
+		return new LockSet(distinct == size ? codes : Arrays.copyOf(codes, distinct));
+	}
+
+	private ResourceLock toResourceLock(LockSet lockSet) {
+		int[] codes = lockSet.codes;
+		List<String> keys = new ArrayList<>(codes.length);
+		for (int code : codes) {
+			keys.add(registry.getKey(keyId(code)));
+		}
+		return metrics.instrument(createResourceLock(codes), keys);
+	}
+
+	private ResourceLock createResourceLock(int[] codes) {
+		if (codes.length == 1) {
+			return new SingleLock(toLock(codes[0]));
+		}
+		List<Lock> locks = new ArrayList<>(codes.length);
+		for (int code : codes) {
+			locks.add(toLock(code));
 		}
 		return new CompositeLock(locks);
 	}
 
+	private Lock toLock(int code) {
+		ReadWriteLock lock = registry.getLock(keyId(code));
+		return lockMode(code) == READ ? lock.readLock() : lock.writeLock();
+	}
+
+	/**
+	 * Encode key ID and lock mode into a single {@code int} whose natural
+	 * order sorts by key ID first and puts the stronger lock mode first.
+	 */
+	private static int encode(int keyId, LockMode lockMode) {
+		return keyId << 1 | lockMode.ordinal();
+	}
+
+	private static int keyId(int code) {
+		return code >>> 1;
+	}
+
+	private static LockMode lockMode(int code) {
+		return (code & 1) == 0 ? READ_WRITE : READ;
+	}
+
+	/**
+	 * Canonical representation of a set of resources: encoded locks sorted
+	 * in acquisition order with at most one entry per key.
+	 */
+	private static final class LockSet {
+
+		private final int[] codes;
+		private final int hash;
+
+		LockSet(int[] codes) {
+			this.codes = codes;
+			this.hash = Arrays.hashCode(codes);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof LockSet && Arrays.equals(codes, ((LockSet) obj).codes);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+	}
+
 }
@@ -12,13 +12,18 @@ package org.junit.platform.engine.support.hierarchical;
 
 import static java.util.stream.Collectors.toCollection;
 import static org.junit.platform.engine.TestExecutionResult.failed;
+import static org.junit.platform.engine.support.hierarchical.FlightRecorderEvents.NODE_EXECUTION_PHASE;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
 import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.util.ExceptionUtils;
+import org.junit.platform.commons.util.FlightRecorderEventType;
+import org.junit.platform.engine.CancellationToken;
 import org.junit.platform.engine.TestDescriptor;
 import org.junit.platform.engine.support.hierarchical.HierarchicalTestExecutorService.TestTask;
 import org.junit.platform.engine.support.hierarchical.Node.ExecutionMode;
@@ -38,6 +43,7 @@ class NodeTestTask<C extends EngineExecutionContext> implements TestTask {
 
 	private SkipResult skipResult;
 	private boolean started;
+	private boolean admitted;
 	private ThrowableCollector throwableCollector;
 
 	NodeTestTask(NodeTestTaskContext taskContext, TestDescriptor testDescriptor) {
@@ -56,28 +62,55 @@ class NodeTestTask<C extends EngineExecutionContext> implements TestTask {
 		return taskContext.getExecutionAdvisor().getForcedExecutionMode(testDescriptor).orElse(node.getExecutionMode());
 	}
 
+	TestDescriptor getTestDescriptor() {
+		return testDescriptor;
+	}
+
 	void setParentContext(C parentContext) {
 		this.parentContext = parentContext;
 	}
 
 	@Override
 	public void execute() {
-		throwableCollector = taskContext.getThrowableCollectorFactory().create();
-		prepare();
-		if (throwableCollector.isEmpty()) {
-			checkWhetherSkipped();
+		long startTime = System.nanoTime();
+		try {
+			throwableCollector = taskContext.getThrowableCollectorFactory().create();
+			if (isCancellationRequested()) {
+				// Don't start nodes once cancellation has been requested
+				skipResult = SkipResult.skip(CancellationToken.SKIP_REASON);
+			}
+			else {
+				prepare();
+				if (throwableCollector.isEmpty()) {
+					checkWhetherSkipped();
+				}
+			}
+			if (throwableCollector.isEmpty() && !skipResult.isSkipped()) {
+				executeRecursively();
+			}
+			if (context != null) {
+				cleanUp();
+			}
 		}
-		if (throwableCollector.isEmpty() && !skipResult.isSkipped()) {
-			executeRecursively();
+		finally {
+			if (admitted) {
+				taskContext.getAdmissionControl().release();
+			}
 		}
-		if (context != null) {
-			cleanUp();
+		if (!isCancellationRequested()) {
+			taskContext.getDurationHistory().record(testDescriptor, System.nanoTime() - startTime);
 		}
 		reportCompletion();
 	}
 
+	private boolean isCancellationRequested() {
+		return taskContext.getCancellationToken().isCancellationRequested();
+	}
+
 	private void prepare() {
+		FlightRecorderEventType.Event event = NODE_EXECUTION_PHASE.begin();
 		throwableCollector.execute(() -> context = node.prepare(parentContext));
+		event.commit(testDescriptor.getUniqueId(), "prepare");
 
 		// Clear reference to parent context to allow it to be garbage collected.
 		// See https://github.com/junit-team/junit5/issues/1578
@@ -85,7 +118,9 @@ class NodeTestTask<C extends EngineExecutionContext> implements TestTask {
 	}
 
 	private void checkWhetherSkipped() {
+		FlightRecorderEventType.Event event = NODE_EXECUTION_PHASE.begin();
 		throwableCollector.execute(() -> skipResult = node.shouldBeSkipped(context));
+		event.commit(testDescriptor.getUniqueId(), "shouldBeSkipped");
 	}
 
 	private void executeRecursively() {
@@ -99,27 +134,76 @@ class NodeTestTask<C extends EngineExecutionContext> implements TestTask {
 					.collect(toCollection(ArrayList::new));
 			// @formatter:on
 
-			context = node.before(context);
+			FlightRecorderEventType.Event beforeEvent = NODE_EXECUTION_PHASE.begin();
+			try {
+				context = node.before(context);
+			}
+			finally {
+				beforeEvent.commit(testDescriptor.getUniqueId(), "before");
+			}
 
-			List<Future<?>> futures = new ArrayList<>();
-			context = node.execute(context,
-				dynamicTestDescriptor -> executeDynamicTest(dynamicTestDescriptor, futures));
+			FlightRecorderEventType.Event executeEvent = NODE_EXECUTION_PHASE.begin();
+			try {
+				DynamicTestFutures futures = new DynamicTestFutures();
+				context = node.execute(context,
+					dynamicTestDescriptor -> executeDynamicTest(dynamicTestDescriptor, futures));
 
-			if (!children.isEmpty()) {
-				children.forEach(child -> child.setParentContext(context));
-				taskContext.getExecutorService().invokeAll(children);
-			}
+				if (!children.isEmpty()) {
+					children.forEach(child -> child.setParentContext(context));
+					taskContext.getDurationHistory().orderLongestFirst(children);
+					invokeAll(children);
+				}
 
-			// using a for loop for the sake for ForkJoinPool's work stealing
-			for (Future<?> future : futures) {
-				future.get();
+				futures.awaitAll();
+			}
+			finally {
+				executeEvent.commit(testDescriptor.getUniqueId(), "execute");
 			}
 		});
 
+		FlightRecorderEventType.Event afterEvent = NODE_EXECUTION_PHASE.begin();
 		throwableCollector.execute(() -> node.after(context));
+		afterEvent.commit(testDescriptor.getUniqueId(), "after");
+	}
+
+	private void invokeAll(List<NodeTestTask<C>> children) throws InterruptedException {
+		ContainerAdmissionControl admissionControl = taskContext.getAdmissionControl();
+		if (admissionControl == ContainerAdmissionControl.NONE || testDescriptor.getParent().isPresent()) {
+			taskContext.getExecutorService().invokeAll(children);
+			return;
+		}
+		children.forEach(child -> child.admitted = child.testDescriptor.isContainer());
+		HierarchicalTestExecutorService executorService = taskContext.getExecutorService();
+		if (executorService instanceof ForkJoinPoolHierarchicalTestExecutorService) {
+			((ForkJoinPoolHierarchicalTestExecutorService) executorService).invokeAll(children,
+				task -> ((NodeTestTask<?>) task).admitted, admissionControl);
+			return;
+		}
+		// Submit children one by one so top-level containers are only opened once admitted
+		// while retaining the order of invokeAll(), i.e. concurrent children first
+		List<Future<?>> futures = new ArrayList<>();
+		for (NodeTestTask<C> child : children) {
+			if (child.getExecutionMode() == ExecutionMode.CONCURRENT) {
+				admitAndSubmit(child, admissionControl, futures);
+			}
+		}
+		for (NodeTestTask<C> child : children) {
+			if (child.getExecutionMode() != ExecutionMode.CONCURRENT) {
+				admitAndSubmit(child, admissionControl, futures);
+			}
+		}
+		futures.forEach(DynamicTestFutures::awaitCompletion);
 	}
 
-	private void executeDynamicTest(TestDescriptor dynamicTestDescriptor, List<Future<?>> futures) {
+	private void admitAndSubmit(NodeTestTask<C> child, ContainerAdmissionControl admissionControl,
+			List<Future<?>> futures) throws InterruptedException {
+		if (child.admitted) {
+			admissionControl.admit();
+		}
+		futures.add(taskContext.getExecutorService().submit(child));
+	}
+
+	private void executeDynamicTest(TestDescriptor dynamicTestDescriptor, DynamicTestFutures futures) {
 		taskContext.getListener().dynamicTestRegistered(dynamicTestDescriptor);
 		Set<ExclusiveResource> exclusiveResources = NodeUtils.asNode(dynamicTestDescriptor).getExclusiveResources();
 		if (!exclusiveResources.isEmpty()) {
@@ -135,7 +219,9 @@ class NodeTestTask<C extends EngineExecutionContext> implements TestTask {
 	}
 
 	private void cleanUp() {
+		FlightRecorderEventType.Event event = NODE_EXECUTION_PHASE.begin();
 		throwableCollector.execute(() -> node.cleanUp(context));
+		event.commit(testDescriptor.getUniqueId(), "cleanUp");
 
 		// Clear reference to context to allow it to be garbage collected.
 		// See https://github.com/junit-team/junit5/issues/1578
@@ -151,8 +237,68 @@ class NodeTestTask<C extends EngineExecutionContext> implements TestTask {
 			// Call executionStarted first to comply with the contract of EngineExecutionListener.
 			taskContext.getListener().executionStarted(testDescriptor);
 		}
+		if (!testDescriptor.getParent().isPresent()) {
+			taskContext.getMetrics().publish(testDescriptor, taskContext.getListener());
+		}
 		taskContext.getListener().executionFinished(testDescriptor, throwableCollector.toTestExecutionResult());
 		throwableCollector = null;
 	}
 
+	/**
+	 * Futures of the dynamic tests submitted by a single node.
+	 *
+	 * <p>Completed futures are released periodically so that factories that
+	 * register a large number of dynamic tests don't accumulate them until the
+	 * end of their execution. Pruning happens whenever the number of pending
+	 * futures has doubled since the last time which keeps the amortized cost
+	 * of adding a future constant.
+	 */
+	private static class DynamicTestFutures {
+
+		private static final int MIN_PRUNE_THRESHOLD = 64;
+
+		private final List<Future<?>> pendingFutures = new ArrayList<>();
+		private int pruneThreshold = MIN_PRUNE_THRESHOLD;
+
+		void add(Future<?> future) {
+			if (future.isDone()) {
+				awaitCompletion(future);
+				return;
+			}
+			pendingFutures.add(future);
+			if (pendingFutures.size() >= pruneThreshold) {
+				releaseCompletedFutures();
+				pruneThreshold = Math.max(MIN_PRUNE_THRESHOLD, 2 * pendingFutures.size());
+			}
+		}
+
+		private void releaseCompletedFutures() {
+			pendingFutures.removeIf(future -> {
+				if (future.isDone()) {
+					awaitCompletion(future);
+					return true;
+				}
+				return false;
+			});
+		}
+
+		void awaitAll() {
+			// using a for loop for the sake for ForkJoinPool's work stealing
+			for (Future<?> future : pendingFutures) {
+				awaitCompletion(future);
+			}
+			pendingFutures.clear();
+		}
+
+		private static void awaitCompletion(Future<?> future) {
+			try {
+				future.get();
+			}
+			catch (ExecutionException | InterruptedException e) {
+				throw ExceptionUtils.throwAsUncheckedException(e);
+			}
+		}
+
+	}
+
 }
@@ -10,6 +10,7 @@
 
 package org.junit.platform.engine.support.hierarchical;
 
+import org.junit.platform.engine.CancellationToken;
 import org.junit.platform.engine.EngineExecutionListener;
 
 /**
@@ -21,13 +22,30 @@ class NodeTestTaskContext {
 	private final HierarchicalTestExecutorService executorService;
 	private final ThrowableCollector.Factory throwableCollectorFactory;
 	private final NodeExecutionAdvisor executionAdvisor;
+	private final ExecutionDurationHistory durationHistory;
+	private final ParallelExecutionMetrics metrics;
+	private final ContainerAdmissionControl admissionControl;
+	private final CancellationToken cancellationToken;
 
 	public NodeTestTaskContext(EngineExecutionListener listener, HierarchicalTestExecutorService executorService,
-			ThrowableCollector.Factory throwableCollectorFactory, NodeExecutionAdvisor executionAdvisor) {
+			ThrowableCollector.Factory throwableCollectorFactory, NodeExecutionAdvisor executionAdvisor,
+			ExecutionDurationHistory durationHistory, ParallelExecutionMetrics metrics) {
+		this(listener, executorService, throwableCollectorFactory, executionAdvisor, durationHistory, metrics,
+			ContainerAdmissionControl.NONE, CancellationToken.disabled());
+	}
+
+	public NodeTestTaskContext(EngineExecutionListener listener, HierarchicalTestExecutorService executorService,
+			ThrowableCollector.Factory throwableCollectorFactory, NodeExecutionAdvisor executionAdvisor,
+			ExecutionDurationHistory durationHistory, ParallelExecutionMetrics metrics,
+			ContainerAdmissionControl admissionControl, CancellationToken cancellationToken) {
 		this.listener = listener;
 		this.executorService = executorService;
 		this.throwableCollectorFactory = throwableCollectorFactory;
 		this.executionAdvisor = executionAdvisor;
+		this.durationHistory = durationHistory;
+		this.metrics = metrics;
+		this.admissionControl = admissionControl;
+		this.cancellationToken = cancellationToken;
 	}
 
 	EngineExecutionListener getListener() {
@@ -45,4 +63,20 @@ class NodeTestTaskContext {
 	NodeExecutionAdvisor getExecutionAdvisor() {
 		return executionAdvisor;
 	}
+
+	ExecutionDurationHistory getDurationHistory() {
+		return durationHistory;
+	}
+
+	ParallelExecutionMetrics getMetrics() {
+		return metrics;
+	}
+
+	ContainerAdmissionControl getAdmissionControl() {
+		return admissionControl;
+	}
+
+	CancellationToken getCancellationToken() {
+		return cancellationToken;
+	}
 }
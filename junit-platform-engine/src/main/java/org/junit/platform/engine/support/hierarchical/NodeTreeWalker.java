@@ -10,20 +10,49 @@
 
 package org.junit.platform.engine.support.hierarchical;
 
+import static org.junit.platform.engine.support.hierarchical.ExclusiveResource.LockMode.READ;
+import static org.junit.platform.engine.support.hierarchical.ExclusiveResource.LockMode.READ_WRITE;
 import static org.junit.platform.engine.support.hierarchical.Node.ExecutionMode.SAME_THREAD;
+import static org.junit.platform.engine.support.hierarchical.ResourceLockPlacement.FINE_GRAINED;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.function.Consumer;
 
+import org.junit.platform.engine.ResourceLockRegistry;
 import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.support.hierarchical.ExclusiveResource.LockMode;
 
 /**
  * @since 1.3
  */
 class NodeTreeWalker {
 
-	private final LockManager lockManager = new LockManager();
+	private final LockManager lockManager;
+	private final ResourceLockPlacement lockPlacement;
+
+	NodeTreeWalker() {
+		this(ResourceLockPlacement.COARSE_GRAINED);
+	}
+
+	NodeTreeWalker(ResourceLockPlacement lockPlacement) {
+		this(lockPlacement, ParallelExecutionMetrics.NONE);
+	}
+
+	NodeTreeWalker(ResourceLockPlacement lockPlacement, ParallelExecutionMetrics metrics) {
+		this(lockPlacement, metrics, ResourceLockRegistry.create());
+	}
+
+	NodeTreeWalker(ResourceLockPlacement lockPlacement, ParallelExecutionMetrics metrics,
+			ResourceLockRegistry registry) {
+		this.lockManager = new LockManager(metrics, registry);
+		this.lockPlacement = lockPlacement;
+	}
 
 	NodeExecutionAdvisor walk(TestDescriptor testDescriptor) {
 		NodeExecutionAdvisor advisor = new NodeExecutionAdvisor();
@@ -36,16 +65,38 @@ class NodeTreeWalker {
 		if (exclusiveResources.isEmpty()) {
 			testDescriptor.getChildren().forEach(child -> walk(child, advisor));
 		}
-		else {
-			Set<ExclusiveResource> allResources = new HashSet<>(exclusiveResources);
-			doForChildrenRecursively(testDescriptor, child -> {
-				allResources.addAll(getExclusiveResources(child));
-				advisor.forceExecutionMode(child, SAME_THREAD);
-			});
-			advisor.useResourceLock(testDescriptor, lockManager.getLockForResources(allResources));
+		else if (lockPlacement != FINE_GRAINED || !placeLocksAtDeclaredLevels(testDescriptor, advisor)) {
+			placeLocksAtTopmostLevel(testDescriptor, advisor);
 		}
 	}
 
+	private void placeLocksAtTopmostLevel(TestDescriptor testDescriptor, NodeExecutionAdvisor advisor) {
+		Set<ExclusiveResource> allResources = collectResourcesOfSubtree(testDescriptor);
+		forceSameThreadExecutionOfDescendants(testDescriptor, advisor);
+		advisor.useResourceLock(testDescriptor, lockManager.getLockForResources(allResources));
+	}
+
+	private boolean placeLocksAtDeclaredLevels(TestDescriptor testDescriptor, NodeExecutionAdvisor advisor) {
+		LockPlacementPlan plan = new LockPlacementPlan();
+		if (!plan.place(testDescriptor, new TreeMap<>())) {
+			return false;
+		}
+		plan.resourcesByTestDescriptor.forEach(
+			(descriptor, resources) -> advisor.useResourceLock(descriptor, lockManager.getLockForResources(resources)));
+		plan.sameThreadSubtrees.forEach(descriptor -> forceSameThreadExecutionOfDescendants(descriptor, advisor));
+		return true;
+	}
+
+	private Set<ExclusiveResource> collectResourcesOfSubtree(TestDescriptor testDescriptor) {
+		Set<ExclusiveResource> allResources = new HashSet<>(getExclusiveResources(testDescriptor));
+		doForChildrenRecursively(testDescriptor, child -> allResources.addAll(getExclusiveResources(child)));
+		return allResources;
+	}
+
+	private void forceSameThreadExecutionOfDescendants(TestDescriptor testDescriptor, NodeExecutionAdvisor advisor) {
+		doForChildrenRecursively(testDescriptor, child -> advisor.forceExecutionMode(child, SAME_THREAD));
+	}
+
 	private Set<ExclusiveResource> getExclusiveResources(TestDescriptor testDescriptor) {
 		return NodeUtils.asNode(testDescriptor).getExclusiveResources();
 	}
@@ -57,4 +108,84 @@ class NodeTreeWalker {
 		});
 	}
 
+	/**
+	 * Tentative placement of locks at the levels where they are declared
+	 * which is only applied if the whole subtree can be placed that way.
+	 */
+	private class LockPlacementPlan {
+
+		private final Map<TestDescriptor, Set<ExclusiveResource>> resourcesByTestDescriptor = new LinkedHashMap<>();
+		private final List<TestDescriptor> sameThreadSubtrees = new ArrayList<>();
+
+		/**
+		 * @param heldResources lock modes of the resources held by ancestors
+		 * sorted by their {@linkplain LockManager#getKeyId key IDs}
+		 * @return {@code true} if the locks of the supplied descriptor and its
+		 * descendants could be placed
+		 */
+		boolean place(TestDescriptor testDescriptor, TreeMap<Integer, LockMode> heldResources) {
+			Set<ExclusiveResource> ownResources = getExclusiveResources(testDescriptor);
+			if (ownResources.stream().anyMatch(resource -> resource.getLockMode() == READ_WRITE)) {
+				return placeAtThisLevelForSubtree(testDescriptor, heldResources);
+			}
+			Set<ExclusiveResource> resourcesToAcquire = new HashSet<>();
+			if (!collectResourcesToAcquire(ownResources, heldResources, resourcesToAcquire)) {
+				return false;
+			}
+			TreeMap<Integer, LockMode> resourcesHeldByChildren = heldResources;
+			if (!resourcesToAcquire.isEmpty()) {
+				resourcesByTestDescriptor.put(testDescriptor, resourcesToAcquire);
+				resourcesHeldByChildren = new TreeMap<>(heldResources);
+				for (ExclusiveResource resource : resourcesToAcquire) {
+					resourcesHeldByChildren.put(lockManager.getKeyId(resource.getKey()), READ);
+				}
+			}
+			for (TestDescriptor child : testDescriptor.getChildren()) {
+				if (!place(child, resourcesHeldByChildren)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private boolean placeAtThisLevelForSubtree(TestDescriptor testDescriptor,
+				TreeMap<Integer, LockMode> heldResources) {
+			Set<ExclusiveResource> resourcesToAcquire = new HashSet<>();
+			if (!collectResourcesToAcquire(collectResourcesOfSubtree(testDescriptor), heldResources,
+				resourcesToAcquire)) {
+				return false;
+			}
+			resourcesByTestDescriptor.put(testDescriptor, resourcesToAcquire);
+			sameThreadSubtrees.add(testDescriptor);
+			return true;
+		}
+
+		/**
+		 * Collect the resources that are not already covered by locks held by
+		 * ancestors.
+		 *
+		 * @return {@code false} if a resource conflicts with a held lock or
+		 * acquiring the resources would violate the global lock order
+		 */
+		private boolean collectResourcesToAcquire(Set<ExclusiveResource> resources,
+				TreeMap<Integer, LockMode> heldResources, Set<ExclusiveResource> resourcesToAcquire) {
+			for (ExclusiveResource resource : resources) {
+				LockMode heldMode = heldResources.get(lockManager.getKeyId(resource.getKey()));
+				if (heldMode == null) {
+					resourcesToAcquire.add(resource);
+				}
+				else if (heldMode != READ || resource.getLockMode() != READ) {
+					return false;
+				}
+			}
+			if (heldResources.isEmpty()) {
+				return true;
+			}
+			int lastHeldKeyId = heldResources.lastKey();
+			return resourcesToAcquire.stream().allMatch(
+				resource -> lockManager.getKeyId(resource.getKey()) > lastHeldKeyId);
+		}
+
+	}
+
 }
@@ -0,0 +1,621 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.engine.support.hierarchical;
+
+import static java.util.Comparator.comparing;
+import static java.util.stream.Collectors.toList;
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apiguardian.api.API;
+import org.junit.platform.commons.util.Preconditions;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.EngineExecutionListener;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.reporting.ReportEntry;
+
+/**
+ * Metrics about the utilization of the
+ * {@linkplain HierarchicalTestExecutorService executor service} and the
+ * contention of {@linkplain ResourceLock resource locks} during parallel test
+ * execution.
+ *
+ * <p>When used by a {@link HierarchicalTestEngine}, the metrics are published
+ * as a single {@link ReportEntry} for the engine's root descriptor right
+ * before its execution finishes. They can thus be consumed by any
+ * {@code TestExecutionListener} registered with the {@code Launcher}. The
+ * report entry uses the keys declared as constants in this class; in
+ * addition, the wait and hold times of each resource key are published using
+ * {@value #LOCK_WAIT_TIME_KEY_PREFIX}<em>key</em> and
+ * {@value #LOCK_HOLD_TIME_KEY_PREFIX}<em>key</em>.
+ *
+ * <p>Executor metrics are currently only recorded by the
+ * {@link ForkJoinPoolHierarchicalTestExecutorService}; resource lock metrics
+ * are recorded regardless of the executor service in use.
+ *
+ * @see HierarchicalTestEngine#createParallelExecutionMetrics
+ * @since 1.4
+ */
+@API(status = EXPERIMENTAL, since = "1.4")
+public final class ParallelExecutionMetrics {
+
+	/**
+	 * Property name used to enable recording and publishing of metrics.
+	 *
+	 * <p>Value must be either {@code true} or {@code false}; defaults to
+	 * {@code false}.
+	 */
+	public static final String CONFIG_ENABLED_PROPERTY_NAME = "metrics.enabled";
+
+	/**
+	 * Report entry key of the number of tasks that were forked, i.e. made
+	 * available for execution by other workers.
+	 */
+	public static final String FORKED_TASKS_KEY = "parallel.executor.forkedTasks";
+
+	/**
+	 * Report entry key of the number of tasks that were executed directly by
+	 * the worker that submitted them.
+	 */
+	public static final String INLINE_TASKS_KEY = "parallel.executor.inlineTasks";
+
+	/**
+	 * Report entry key of the number of tasks stolen by workers from the
+	 * queues of other workers.
+	 */
+	public static final String STEALS_KEY = "parallel.executor.steals";
+
+	/**
+	 * Report entry key of the time-weighted average number of active workers.
+	 */
+	public static final String AVERAGE_ACTIVE_WORKERS_KEY = "parallel.executor.activeWorkers.average";
+
+	/**
+	 * Report entry key of the maximum number of active workers.
+	 */
+	public static final String MAX_ACTIVE_WORKERS_KEY = "parallel.executor.activeWorkers.max";
+
+	/**
+	 * Report entry key of the time-weighted average number of idle workers.
+	 */
+	public static final String AVERAGE_IDLE_WORKERS_KEY = "parallel.executor.idleWorkers.average";
+
+	/**
+	 * Report entry key of the time-weighted average number of queued tasks.
+	 */
+	public static final String AVERAGE_QUEUE_DEPTH_KEY = "parallel.executor.queueDepth.average";
+
+	/**
+	 * Report entry key of the maximum number of queued tasks.
+	 */
+	public static final String MAX_QUEUE_DEPTH_KEY = "parallel.executor.queueDepth.max";
+
+	/**
+	 * Report entry key of the target parallelism at the end of execution when
+	 * using the {@link DefaultParallelExecutionConfigurationStrategy#ADAPTIVE
+	 * ADAPTIVE} configuration strategy.
+	 */
+	public static final String TARGET_PARALLELISM_KEY = "parallel.executor.targetParallelism";
+
+	/**
+	 * Report entry key of the minimum target parallelism when using the
+	 * {@link DefaultParallelExecutionConfigurationStrategy#ADAPTIVE ADAPTIVE}
+	 * configuration strategy.
+	 */
+	public static final String MIN_TARGET_PARALLELISM_KEY = "parallel.executor.targetParallelism.min";
+
+	/**
+	 * Report entry key of the maximum target parallelism when using the
+	 * {@link DefaultParallelExecutionConfigurationStrategy#ADAPTIVE ADAPTIVE}
+	 * configuration strategy.
+	 */
+	public static final String MAX_TARGET_PARALLELISM_KEY = "parallel.executor.targetParallelism.max";
+
+	/**
+	 * Report entry key of the number of times the target parallelism was
+	 * adjusted when using the {@link DefaultParallelExecutionConfigurationStrategy#ADAPTIVE
+	 * ADAPTIVE} configuration strategy.
+	 */
+	public static final String TARGET_PARALLELISM_ADJUSTMENTS_KEY = "parallel.executor.targetParallelism.adjustments";
+
+	/**
+	 * Prefix of the report entry keys of the total time in milliseconds tasks
+	 * waited for the lock of a resource key.
+	 */
+	public static final String LOCK_WAIT_TIME_KEY_PREFIX = "parallel.lock.waitMillis.";
+
+	/**
+	 * Prefix of the report entry keys of the total time in milliseconds the
+	 * lock of a resource key was held.
+	 */
+	public static final String LOCK_HOLD_TIME_KEY_PREFIX = "parallel.lock.holdMillis.";
+
+	/**
+	 * Report entry key of the human-readable contention report.
+	 *
+	 * @see #createContentionReport()
+	 */
+	public static final String CONTENTION_REPORT_KEY = "parallel.lock.contentionReport";
+
+	static final ParallelExecutionMetrics NONE = new ParallelExecutionMetrics();
+
+	private static final Comparator<ResourceKeyStatistics> MOST_SERIALIZING_FIRST = comparing(
+		ResourceKeyStatistics::getTotalWaitTime).thenComparing(ResourceKeyStatistics::getTotalHoldTime).reversed();
+
+	private final Map<String, ResourceKeyStatistics> statisticsByKey = new ConcurrentHashMap<>();
+	private final LongAdder forkedTasks = new LongAdder();
+	private final LongAdder inlineTasks = new LongAdder();
+	private volatile ForkJoinPool forkJoinPool;
+
+	private long lastSampleNanos;
+	private int lastActiveWorkers;
+	private int lastIdleWorkers;
+	private long lastQueueDepth;
+	private long sampledNanos;
+	private double activeWorkerNanos;
+	private double idleWorkerNanos;
+	private double queueDepthNanos;
+	private int maxActiveWorkers;
+	private long maxQueueDepth;
+	private int targetParallelism;
+	private int minTargetParallelism;
+	private int maxTargetParallelism;
+	private int targetParallelismAdjustments;
+
+	/**
+	 * Create new metrics if they are enabled via the
+	 * {@value #CONFIG_ENABLED_PROPERTY_NAME} configuration parameter.
+	 *
+	 * @param configurationParameters the configuration parameters to use;
+	 * never {@code null}
+	 * @return new metrics or {@code Optional.empty()} if they are not enabled
+	 */
+	public static Optional<ParallelExecutionMetrics> fromConfigurationParameters(
+			ConfigurationParameters configurationParameters) {
+		Preconditions.notNull(configurationParameters, "configurationParameters must not be null");
+		boolean enabled = configurationParameters.getBoolean(CONFIG_ENABLED_PROPERTY_NAME).orElse(false);
+		return enabled ? Optional.of(new ParallelExecutionMetrics()) : Optional.empty();
+	}
+
+	/**
+	 * Create new, empty metrics.
+	 */
+	public ParallelExecutionMetrics() {
+	}
+
+	/**
+	 * Get the number of tasks that were forked.
+	 */
+	public long getForkedTaskCount() {
+		return forkedTasks.sum();
+	}
+
+	/**
+	 * Get the number of tasks that were executed directly by the worker that
+	 * submitted them.
+	 */
+	public long getInlineTaskCount() {
+		return inlineTasks.sum();
+	}
+
+	/**
+	 * Get the number of tasks stolen from the queues of other workers.
+	 *
+	 * @return the steal count or {@code 0} if the executor service does not
+	 * use work stealing
+	 */
+	public long getStealCount() {
+		ForkJoinPool pool = this.forkJoinPool;
+		return pool == null ? 0 : pool.getStealCount();
+	}
+
+	/**
+	 * Get the time-weighted average number of active workers.
+	 */
+	public synchronized double getAverageActiveWorkers() {
+		return sampledNanos == 0 ? lastActiveWorkers : activeWorkerNanos / sampledNanos;
+	}
+
+	/**
+	 * Get the maximum number of active workers.
+	 */
+	public synchronized int getMaxActiveWorkers() {
+		return maxActiveWorkers;
+	}
+
+	/**
+	 * Get the time-weighted average number of idle workers.
+	 */
+	public synchronized double getAverageIdleWorkers() {
+		return sampledNanos == 0 ? lastIdleWorkers : idleWorkerNanos / sampledNanos;
+	}
+
+	/**
+	 * Get the time-weighted average number of queued tasks.
+	 */
+	public synchronized double getAverageQueueDepth() {
+		return sampledNanos == 0 ? lastQueueDepth : queueDepthNanos / sampledNanos;
+	}
+
+	/**
+	 * Get the maximum number of queued tasks.
+	 */
+	public synchronized long getMaxQueueDepth() {
+		return maxQueueDepth;
+	}
+
+	/**
+	 * Get the current target parallelism of the
+	 * {@link DefaultParallelExecutionConfigurationStrategy#ADAPTIVE ADAPTIVE}
+	 * configuration strategy.
+	 *
+	 * @return the target parallelism or {@code 0} if a different strategy is
+	 * used
+	 */
+	public synchronized int getTargetParallelism() {
+		return targetParallelism;
+	}
+
+	/**
+	 * Get the minimum target parallelism of the
+	 * {@link DefaultParallelExecutionConfigurationStrategy#ADAPTIVE ADAPTIVE}
+	 * configuration strategy.
+	 *
+	 * @return the minimum target parallelism or {@code 0} if a different
+	 * strategy is used
+	 */
+	public synchronized int getMinTargetParallelism() {
+		return minTargetParallelism;
+	}
+
+	/**
+	 * Get the maximum target parallelism of the
+	 * {@link DefaultParallelExecutionConfigurationStrategy#ADAPTIVE ADAPTIVE}
+	 * configuration strategy.
+	 *
+	 * @return the maximum target parallelism or {@code 0} if a different
+	 * strategy is used
+	 */
+	public synchronized int getMaxTargetParallelism() {
+		return maxTargetParallelism;
+	}
+
+	/**
+	 * Get the number of times the
+	 * {@link DefaultParallelExecutionConfigurationStrategy#ADAPTIVE ADAPTIVE}
+	 * configuration strategy adjusted the target parallelism.
+	 */
+	public synchronized int getTargetParallelismAdjustmentCount() {
+		return targetParallelismAdjustments;
+	}
+
+	/**
+	 * Get the statistics of all resource keys whose locks have been acquired,
+	 * sorted by the amount of work they serialized, i.e. the total time tasks
+	 * waited to acquire them, in descending order.
+	 */
+	public List<ResourceKeyStatistics> getResourceKeyStatistics() {
+		return statisticsByKey.values().stream().sorted(MOST_SERIALIZING_FIRST).collect(toList());
+	}
+
+	/**
+	 * Create a human-readable report that ranks the resource keys by the
+	 * amount of work they serialized.
+	 *
+	 * @return the report; never {@code null} but potentially empty if no
+	 * locks have been acquired
+	 */
+	public String createContentionReport() {
+		List<ResourceKeyStatistics> statistics = getResourceKeyStatistics();
+		if (statistics.isEmpty()) {
+			return "";
+		}
+		StringBuilder report = new StringBuilder("Resource lock contention (most serializing first):");
+		int rank = 1;
+		for (ResourceKeyStatistics keyStatistics : statistics) {
+			report.append(String.format(
+				"%n%3d. %s: waited %d ms in total (max %d ms), held %d ms in total, %d of %d acquisitions contended",
+				rank++, keyStatistics.getKey(), keyStatistics.getTotalWaitTime().toMillis(),
+				keyStatistics.getMaxWaitTime().toMillis(), keyStatistics.getTotalHoldTime().toMillis(),
+				keyStatistics.getContendedAcquisitionCount(), keyStatistics.getAcquisitionCount()));
+		}
+		return report.toString();
+	}
+
+	/**
+	 * Convert these metrics to a {@link ReportEntry}.
+	 */
+	public ReportEntry toReportEntry() {
+		Map<String, String> values = new LinkedHashMap<>();
+		if (forkJoinPool != null) {
+			values.put(FORKED_TASKS_KEY, String.valueOf(getForkedTaskCount()));
+			values.put(INLINE_TASKS_KEY, String.valueOf(getInlineTaskCount()));
+			values.put(STEALS_KEY, String.valueOf(getStealCount()));
+			values.put(AVERAGE_ACTIVE_WORKERS_KEY, String.format(Locale.ROOT, "%.2f", getAverageActiveWorkers()));
+			values.put(MAX_ACTIVE_WORKERS_KEY, String.valueOf(getMaxActiveWorkers()));
+			values.put(AVERAGE_IDLE_WORKERS_KEY, String.format(Locale.ROOT, "%.2f", getAverageIdleWorkers()));
+			values.put(AVERAGE_QUEUE_DEPTH_KEY, String.format(Locale.ROOT, "%.2f", getAverageQueueDepth()));
+			values.put(MAX_QUEUE_DEPTH_KEY, String.valueOf(getMaxQueueDepth()));
+		}
+		synchronized (this) {
+			if (targetParallelism > 0) {
+				values.put(TARGET_PARALLELISM_KEY, String.valueOf(targetParallelism));
+				values.put(MIN_TARGET_PARALLELISM_KEY, String.valueOf(minTargetParallelism));
+				values.put(MAX_TARGET_PARALLELISM_KEY, String.valueOf(maxTargetParallelism));
+				values.put(TARGET_PARALLELISM_ADJUSTMENTS_KEY, String.valueOf(targetParallelismAdjustments));
+			}
+		}
+		List<ResourceKeyStatistics> statistics = getResourceKeyStatistics();
+		for (ResourceKeyStatistics keyStatistics : statistics) {
+			values.put(LOCK_WAIT_TIME_KEY_PREFIX + keyStatistics.getKey(),
+				String.valueOf(keyStatistics.getTotalWaitTime().toMillis()));
+			values.put(LOCK_HOLD_TIME_KEY_PREFIX + keyStatistics.getKey(),
+				String.valueOf(keyStatistics.getTotalHoldTime().toMillis()));
+		}
+		if (!statistics.isEmpty()) {
+			values.put(CONTENTION_REPORT_KEY, createContentionReport());
+		}
+		return ReportEntry.from(values);
+	}
+
+	void publish(TestDescriptor rootDescriptor, EngineExecutionListener listener) {
+		if (this == NONE) {
+			return;
+		}
+		ReportEntry reportEntry = toReportEntry();
+		if (!reportEntry.getKeyValuePairs().isEmpty()) {
+			listener.reportingEntryPublished(rootDescriptor, reportEntry);
+		}
+	}
+
+	/**
+	 * Start recording metrics of the supplied executor service, if supported.
+	 */
+	void attachTo(HierarchicalTestExecutorService executorService) {
+		if (this != NONE && executorService instanceof ForkJoinPoolHierarchicalTestExecutorService) {
+			ForkJoinPoolHierarchicalTestExecutorService service = (ForkJoinPoolHierarchicalTestExecutorService) executorService;
+			this.forkJoinPool = service.getForkJoinPool();
+			service.setMetrics(this);
+		}
+	}
+
+	void recordForkedTask() {
+		forkedTasks.increment();
+	}
+
+	void recordInlineTask() {
+		inlineTasks.increment();
+	}
+
+	/**
+	 * Record the initial or an adjusted target parallelism.
+	 */
+	synchronized void recordTargetParallelism(int parallelism) {
+		if (this == NONE) {
+			return;
+		}
+		if (targetParallelism == 0) {
+			minTargetParallelism = parallelism;
+			maxTargetParallelism = parallelism;
+		}
+		else if (parallelism != targetParallelism) {
+			targetParallelismAdjustments++;
+			minTargetParallelism = Math.min(minTargetParallelism, parallelism);
+			maxTargetParallelism = Math.max(maxTargetParallelism, parallelism);
+		}
+		targetParallelism = parallelism;
+	}
+
+	/**
+	 * Sample the state of the workers of the attached pool; called whenever a
+	 * task starts or finishes.
+	 */
+	void sampleWorkers() {
+		ForkJoinPool pool = this.forkJoinPool;
+		if (pool == null) {
+			return;
+		}
+		int activeWorkers = pool.getActiveThreadCount();
+		int idleWorkers = Math.max(0, pool.getPoolSize() - activeWorkers);
+		long queueDepth = pool.getQueuedTaskCount() + pool.getQueuedSubmissionCount();
+		synchronized (this) {
+			long now = System.nanoTime();
+			if (lastSampleNanos != 0) {
+				long elapsed = now - lastSampleNanos;
+				sampledNanos += elapsed;
+				activeWorkerNanos += (double) lastActiveWorkers * elapsed;
+				idleWorkerNanos += (double) lastIdleWorkers * elapsed;
+				queueDepthNanos += (double) lastQueueDepth * elapsed;
+			}
+			lastSampleNanos = now;
+			lastActiveWorkers = activeWorkers;
+			lastIdleWorkers = idleWorkers;
+			lastQueueDepth = queueDepth;
+			maxActiveWorkers = Math.max(maxActiveWorkers, activeWorkers);
+			maxQueueDepth = Math.max(maxQueueDepth, queueDepth);
+		}
+	}
+
+	/**
+	 * Wrap the supplied lock so that its wait and hold times are recorded for
+	 * the supplied resource keys.
+	 */
+	ResourceLock instrument(ResourceLock resourceLock, List<String> keys) {
+		if (this == NONE || resourceLock == NopLock.INSTANCE) {
+			return resourceLock;
+		}
+		List<ResourceKeyStatistics> statistics = new ArrayList<>(keys.size());
+		for (String key : keys) {
+			statistics.add(statisticsByKey.computeIfAbsent(key, ResourceKeyStatistics::new));
+		}
+		return new MeasuringResourceLock(resourceLock, statistics);
+	}
+
+	/**
+	 * Lock statistics of a single resource key.
+	 *
+	 * @since 1.4
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	public static final class ResourceKeyStatistics {
+
+		private final String key;
+		private final LongAdder acquisitions = new LongAdder();
+		private final LongAdder contendedAcquisitions = new LongAdder();
+		private final LongAdder waitNanos = new LongAdder();
+		private final AtomicLong maxWaitNanos = new AtomicLong();
+		private final LongAdder holdNanos = new LongAdder();
+
+		ResourceKeyStatistics(String key) {
+			this.key = key;
+		}
+
+		/**
+		 * Get the resource key.
+		 */
+		public String getKey() {
+			return key;
+		}
+
+		/**
+		 * Get the number of times the lock of the resource key was acquired.
+		 */
+		public long getAcquisitionCount() {
+			return acquisitions.sum();
+		}
+
+		/**
+		 * Get the number of times the lock of the resource key could not be
+		 * acquired immediately.
+		 */
+		public long getContendedAcquisitionCount() {
+			return contendedAcquisitions.sum();
+		}
+
+		/**
+		 * Get the total time tasks waited to acquire the lock of the resource
+		 * key.
+		 */
+		public Duration getTotalWaitTime() {
+			return Duration.ofNanos(waitNanos.sum());
+		}
+
+		/**
+		 * Get the longest time a single task waited to acquire the lock of the
+		 * resource key.
+		 */
+		public Duration getMaxWaitTime() {
+			return Duration.ofNanos(maxWaitNanos.get());
+		}
+
+		/**
+		 * Get the total time the lock of the resource key was held.
+		 */
+		public Duration getTotalHoldTime() {
+			return Duration.ofNanos(holdNanos.sum());
+		}
+
+		void recordAcquisition(long waitedNanos, boolean contended) {
+			acquisitions.increment();
+			if (contended) {
+				contendedAcquisitions.increment();
+				waitNanos.add(waitedNanos);
+				maxWaitNanos.accumulateAndGet(waitedNanos, Math::max);
+			}
+		}
+
+		void recordRelease(long heldNanos) {
+			holdNanos.add(heldNanos);
+		}
+
+	}
+
+	/**
+	 * {@link ResourceLock} decorator that records wait and hold times.
+	 *
+	 * <p>Relies on locks being released by the thread that acquired them,
+	 * which all executor services guarantee.
+	 */
+	private static class MeasuringResourceLock implements ResourceLock {
+
+		private final ResourceLock delegate;
+		private final List<ResourceKeyStatistics> statistics;
+		private final ThreadLocal<Long> waitingSince = new ThreadLocal<>();
+		private final ThreadLocal<Long> acquiredAt = new ThreadLocal<>();
+
+		MeasuringResourceLock(ResourceLock delegate, List<ResourceKeyStatistics> statistics) {
+			this.delegate = delegate;
+			this.statistics = statistics;
+		}
+
+		@Override
+		public ResourceLock acquire() throws InterruptedException {
+			Long since = waitingSince.get();
+			long start = since == null ? System.nanoTime() : since;
+			boolean contended = since != null;
+			if (!delegate.tryAcquire()) {
+				contended = true;
+				delegate.acquire();
+			}
+			acquired(start, contended);
+			return this;
+		}
+
+		@Override
+		public boolean tryAcquire() {
+			Long since = waitingSince.get();
+			if (delegate.tryAcquire()) {
+				acquired(since == null ? System.nanoTime() : since, since != null);
+				return true;
+			}
+			if (since == null) {
+				waitingSince.set(System.nanoTime());
+			}
+			return false;
+		}
+
+		private void acquired(long start, boolean contended) {
+			long now = System.nanoTime();
+			waitingSince.remove();
+			acquiredAt.set(now);
+			for (ResourceKeyStatistics keyStatistics : statistics) {
+				keyStatistics.recordAcquisition(now - start, contended);
+			}
+		}
+
+		@Override
+		public void release() {
+			Long start = acquiredAt.get();
+			acquiredAt.remove();
+			delegate.release();
+			if (start != null) {
+				long heldNanos = System.nanoTime() - start;
+				for (ResourceKeyStatistics keyStatistics : statistics) {
+					keyStatistics.recordRelease(heldNanos);
+				}
+			}
+		}
+
+	}
+
+}
@@ -34,6 +34,22 @@ public interface ResourceLock extends AutoCloseable {
 	 */
 	ResourceLock acquire() throws InterruptedException;
 
+	/**
+	 * Try to acquire this resource lock without blocking.
+	 *
+	 * <p>If this method returns {@code true}, the lock has been acquired and
+	 * must be {@linkplain #release() released} by the caller. The default
+	 * implementation always returns {@code false} which indicates that the
+	 * lock can only be acquired by calling {@link #acquire()}.
+	 *
+	 * @return {@code true} if this lock was acquired; {@code false} otherwise
+	 * @since 1.4
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	default boolean tryAcquire() {
+		return false;
+	}
+
 	/**
 	 * Release this resource lock.
 	 */
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.engine.support.hierarchical;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+import java.util.Locale;
+
+import org.apiguardian.api.API;
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.engine.ConfigurationParameters;
+
+/**
+ * Strategies for placing the {@linkplain ResourceLock resource locks} of
+ * {@linkplain Node#getExclusiveResources() exclusive resources} in the test
+ * tree.
+ *
+ * @see HierarchicalTestEngine#getResourceLockPlacement
+ * @since 1.4
+ */
+@API(status = EXPERIMENTAL, since = "1.4")
+public enum ResourceLockPlacement {
+
+	/**
+	 * Acquire the resources declared by a node and all of its descendants at
+	 * the topmost node that declares any exclusive resource and execute all of
+	 * its descendants in the same thread.
+	 *
+	 * <p>This is the default.
+	 */
+	COARSE_GRAINED,
+
+	/**
+	 * Acquire resources at the level where they are declared and allow
+	 * descendants to be executed concurrently as long as the locks held by
+	 * their ancestors are compatible with them.
+	 *
+	 * <p>Nodes that declare {@link ExclusiveResource.LockMode#READ READ}
+	 * access only do not force their descendants to be executed in the same
+	 * thread. Descendants that require the same resources in {@code READ}
+	 * mode are covered by their ancestor's lock. Nodes that declare
+	 * {@link ExclusiveResource.LockMode#READ_WRITE READ_WRITE} access acquire
+	 * the resources of their subtree and execute it in the same thread just
+	 * like {@link #COARSE_GRAINED}.
+	 *
+	 * <p>To avoid deadlocks, nested locks are only acquired if they come after
+	 * all locks held by ancestors in the global lock order. If that is not the
+	 * case or a descendant requires {@code READ_WRITE} access to a resource an
+	 * ancestor holds in {@code READ} mode, the subtree falls back to
+	 * {@link #COARSE_GRAINED} placement.
+	 */
+	FINE_GRAINED;
+
+	/**
+	 * Property name used to select the {@link ResourceLockPlacement}.
+	 *
+	 * <p>Value must be one of {@code coarse_grained} (default) or
+	 * {@code fine_grained}, ignoring case.
+	 */
+	public static final String CONFIG_LOCK_PLACEMENT_PROPERTY_NAME = "lock-placement";
+
+	/**
+	 * Get the {@link ResourceLockPlacement} selected by the
+	 * {@value #CONFIG_LOCK_PLACEMENT_PROPERTY_NAME} configuration parameter.
+	 *
+	 * @param configurationParameters the configuration parameters to use;
+	 * never {@code null}
+	 * @return the selected placement; {@link #COARSE_GRAINED} if not configured
+	 */
+	public static ResourceLockPlacement fromConfigurationParameters(ConfigurationParameters configurationParameters) {
+		String value = configurationParameters.get(CONFIG_LOCK_PLACEMENT_PROPERTY_NAME).map(String::trim).orElse(
+			COARSE_GRAINED.name());
+		try {
+			return valueOf(value.toUpperCase(Locale.ROOT));
+		}
+		catch (IllegalArgumentException e) {
+			throw new JUnitException(String.format("Invalid value '%s' specified via configuration parameter '%s'",
+				value, CONFIG_LOCK_PLACEMENT_PROPERTY_NAME), e);
+		}
+	}
+
+}
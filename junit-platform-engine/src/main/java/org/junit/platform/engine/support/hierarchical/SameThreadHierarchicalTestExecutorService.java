@@ -12,16 +12,24 @@ package org.junit.platform.engine.support.hierarchical;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+import static org.junit.platform.engine.support.hierarchical.FlightRecorderEvents.RESOURCE_LOCK_ACQUISITION;
 
 import java.util.List;
 import java.util.concurrent.Future;
 
 import org.apiguardian.api.API;
+import org.junit.platform.commons.util.ExceptionUtils;
+import org.junit.platform.commons.util.FlightRecorderEventType;
 
 /**
  * A simple {@linkplain HierarchicalTestExecutorService executor service} that
  * executes all {@linkplain TestTask test tasks} in the caller's thread.
  *
+ * <p>Although tasks are never executed concurrently by this service, it
+ * acquires their {@linkplain TestTask#getResourceLock() resource locks} so
+ * that other engines sharing the same
+ * {@link org.junit.platform.engine.ResourceLockRegistry} honor them.
+ *
  * @since 1.3
  */
 @API(status = EXPERIMENTAL, since = "1.3")
@@ -29,13 +37,30 @@ public class SameThreadHierarchicalTestExecutorService implements HierarchicalTe
 
 	@Override
 	public Future<Void> submit(TestTask testTask) {
-		testTask.execute();
+		execute(testTask);
 		return completedFuture(null);
 	}
 
 	@Override
 	public void invokeAll(List<? extends TestTask> tasks) {
-		tasks.forEach(TestTask::execute);
+		tasks.forEach(SameThreadHierarchicalTestExecutorService::execute);
+	}
+
+	@SuppressWarnings("try")
+	private static void execute(TestTask testTask) {
+		ResourceLock resourceLock = testTask.getResourceLock();
+		if (resourceLock == NopLock.INSTANCE) {
+			testTask.execute();
+			return;
+		}
+		FlightRecorderEventType.Event event = RESOURCE_LOCK_ACQUISITION.begin();
+		try (ResourceLock lock = resourceLock.acquire()) {
+			event.commit(FlightRecorderEvents.identify(testTask));
+			testTask.execute();
+		}
+		catch (InterruptedException e) {
+			ExceptionUtils.throwAsUncheckedException(e);
+		}
 	}
 
 	@Override
@@ -35,6 +35,11 @@ class SingleLock implements ResourceLock {
 		return this;
 	}
 
+	@Override
+	public boolean tryAcquire() {
+		return lock.tryLock();
+	}
+
 	@Override
 	public void release() {
 		lock.unlock();
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.engine.support.hierarchical;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+import static org.junit.platform.engine.support.hierarchical.FlightRecorderEvents.RESOURCE_LOCK_ACQUISITION;
+import static org.junit.platform.engine.support.hierarchical.Node.ExecutionMode.CONCURRENT;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apiguardian.api.API;
+import org.junit.platform.commons.logging.Logger;
+import org.junit.platform.commons.logging.LoggerFactory;
+import org.junit.platform.commons.util.ExceptionUtils;
+import org.junit.platform.commons.util.FlightRecorderEventType;
+import org.junit.platform.commons.util.ReflectionUtils;
+import org.junit.platform.engine.ConfigurationParameters;
+
+/**
+ * A thread-per-task {@linkplain HierarchicalTestExecutorService executor
+ * service} that executes each {@linkplain TestTask test task} whose
+ * {@linkplain TestTask#getExecutionMode() execution mode} is
+ * {@linkplain Node.ExecutionMode#CONCURRENT concurrent} in a thread of its own.
+ *
+ * <p>On Java runtimes that support virtual threads, tasks are executed in
+ * virtual threads by default; otherwise, or if the
+ * {@value #CONFIG_VIRTUAL_THREADS_PROPERTY_NAME} configuration parameter is set
+ * to {@code false}, a new platform daemon thread is created (or an idle one
+ * reused) for each task.
+ *
+ * <p>In contrast to {@link ForkJoinPoolHierarchicalTestExecutorService}, the
+ * parallelism of this service is not capped. It is therefore well suited for
+ * test suites that spend most of their time blocked on I/O.
+ *
+ * @see ForkJoinPoolHierarchicalTestExecutorService
+ * @see HierarchicalTestExecutorServiceFactory
+ * @since 1.4
+ */
+@API(status = EXPERIMENTAL, since = "1.4")
+public class ThreadPerTaskHierarchicalTestExecutorService implements HierarchicalTestExecutorService {
+
+	/**
+	 * Property name used to determine whether virtual threads should be used
+	 * if the current Java runtime supports them.
+	 *
+	 * <p>Value must be either {@code true} or {@code false}; defaults to
+	 * {@code true}.
+	 */
+	public static final String CONFIG_VIRTUAL_THREADS_PROPERTY_NAME = "thread-per-task.virtual-threads";
+
+	private static final Logger logger = LoggerFactory.getLogger(ThreadPerTaskHierarchicalTestExecutorService.class);
+
+	private final ExecutorService executorService;
+
+	/**
+	 * Create a new {@code ThreadPerTaskHierarchicalTestExecutorService} based
+	 * on the supplied {@link ConfigurationParameters}.
+	 */
+	public ThreadPerTaskHierarchicalTestExecutorService(ConfigurationParameters configurationParameters) {
+		boolean virtualThreads = configurationParameters.getBoolean(CONFIG_VIRTUAL_THREADS_PROPERTY_NAME).orElse(true);
+		this.executorService = createExecutorService(virtualThreads);
+	}
+
+	private static ExecutorService createExecutorService(boolean virtualThreads) {
+		if (virtualThreads) {
+			try {
+				// Try to use factory method available in Java >= 21
+				Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+				ExecutorService executorService = (ExecutorService) ReflectionUtils.invokeMethod(method, null);
+				logger.config(() -> "Using virtual thread-per-task executor");
+				return executorService;
+			}
+			catch (Exception e) {
+				logger.config(() -> "Virtual threads are not supported by the current Java runtime; "
+						+ "falling back to platform threads");
+			}
+		}
+		logger.config(() -> "Using platform thread-per-task executor");
+		return Executors.newCachedThreadPool(new WorkerThreadFactory());
+	}
+
+	@Override
+	public Future<Void> submit(TestTask testTask) {
+		ExclusiveTask exclusiveTask = new ExclusiveTask(testTask);
+		if (testTask.getExecutionMode() == CONCURRENT) {
+			return executorService.submit(exclusiveTask, null);
+		}
+		exclusiveTask.run();
+		return completedFuture(null);
+	}
+
+	@Override
+	public void invokeAll(List<? extends TestTask> tasks) {
+		if (tasks.size() == 1) {
+			new ExclusiveTask(tasks.get(0)).run();
+			return;
+		}
+		List<ExclusiveTask> nonConcurrentTasks = new ArrayList<>();
+		List<Future<?>> concurrentTasks = new ArrayList<>();
+		for (TestTask testTask : tasks) {
+			ExclusiveTask exclusiveTask = new ExclusiveTask(testTask);
+			if (testTask.getExecutionMode() == CONCURRENT) {
+				concurrentTasks.add(executorService.submit(exclusiveTask));
+			}
+			else {
+				nonConcurrentTasks.add(exclusiveTask);
+			}
+		}
+		nonConcurrentTasks.forEach(ExclusiveTask::run);
+		awaitCompletion(concurrentTasks);
+	}
+
+	private void awaitCompletion(List<Future<?>> futures) {
+		for (Future<?> future : futures) {
+			try {
+				future.get();
+			}
+			catch (ExecutionException e) {
+				ExceptionUtils.throwAsUncheckedException(e.getCause());
+			}
+			catch (InterruptedException e) {
+				ExceptionUtils.throwAsUncheckedException(e);
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		executorService.shutdownNow();
+	}
+
+	static class ExclusiveTask implements Runnable {
+
+		private final TestTask testTask;
+
+		ExclusiveTask(TestTask testTask) {
+			this.testTask = testTask;
+		}
+
+		@SuppressWarnings("try")
+		@Override
+		public void run() {
+			ResourceLock resourceLock = testTask.getResourceLock();
+			FlightRecorderEventType.Event event = RESOURCE_LOCK_ACQUISITION.begin();
+			try (ResourceLock lock = resourceLock.acquire()) {
+				if (resourceLock != NopLock.INSTANCE) {
+					event.commit(FlightRecorderEvents.identify(testTask));
+				}
+				testTask.execute();
+			}
+			catch (InterruptedException e) {
+				ExceptionUtils.throwAsUncheckedException(e);
+			}
+		}
+
+	}
+
+	private static class WorkerThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "junit-thread-per-task-worker-" + threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
+}
@@ -10,9 +10,13 @@
 
 package org.junit.platform.launcher;
 
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
 import static org.apiguardian.api.API.Status.STABLE;
 
+import java.util.Collection;
+
 import org.apiguardian.api.API;
+import org.junit.platform.engine.CancellationToken;
 
 /**
  * The {@code Launcher} API is the main entry point for client code that
@@ -34,7 +38,9 @@ import org.apiguardian.api.API;
  *
  * <p>Clients of this interface may optionally call {@link #discover} prior to
  * {@link #execute} in order to inspect the {@link TestPlan} before executing
- * it.
+ * it. The returned {@code TestPlan} may then be
+ * {@linkplain #execute(TestPlan, TestExecutionListener...) executed} without
+ * discovering its tests again.
  *
  * <p>Prior to executing tests, clients of this interface should
  * {@linkplain #registerTestExecutionListeners register} one or more
@@ -89,4 +95,107 @@ public interface Launcher {
 	 */
 	void execute(LauncherDiscoveryRequest launcherDiscoveryRequest, TestExecutionListener... listeners);
 
+	/**
+	 * Execute a {@link TestPlan} which is built according to the supplied
+	 * {@link LauncherDiscoveryRequest} like {@link #execute(LauncherDiscoveryRequest, TestExecutionListener...)}
+	 * but stop starting the execution of further tests once the supplied
+	 * {@link CancellationToken} has been {@linkplain CancellationToken#cancel()
+	 * cancelled}.
+	 *
+	 * <p>Tests that have not been started when cancellation is requested are
+	 * reported as skipped, provided their engine supports cancellation; tests
+	 * that are already being executed are allowed to finish. The token may be
+	 * cancelled from any thread, for example, by one of the listeners or by a
+	 * shutdown hook.
+	 *
+	 * <p>The default implementation delegates to
+	 * {@link #execute(LauncherDiscoveryRequest, TestExecutionListener...)} if
+	 * the supplied token is {@linkplain CancellationToken#disabled() disabled}
+	 * and throws an {@link UnsupportedOperationException} otherwise.
+	 * Implementations should override this method to support cancellation.
+	 *
+	 * @param launcherDiscoveryRequest the launcher discovery request; never {@code null}
+	 * @param cancellationToken the token used to cancel the execution; never {@code null}
+	 * @param listeners additional test execution listeners; never {@code null}
+	 * @since 1.4
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	default void execute(LauncherDiscoveryRequest launcherDiscoveryRequest, CancellationToken cancellationToken,
+			TestExecutionListener... listeners) {
+		if (cancellationToken != CancellationToken.disabled()) {
+			throw new UnsupportedOperationException(
+				getClass().getName() + " does not support cancellation of test execution");
+		}
+		execute(launcherDiscoveryRequest, listeners);
+	}
+
+	/**
+	 * Execute the supplied {@link TestPlan} previously returned by
+	 * {@link #discover(LauncherDiscoveryRequest)} without discovering its
+	 * tests again, and notify {@linkplain #registerTestExecutionListeners
+	 * registered listeners} about the progress and results of the execution.
+	 *
+	 * <p>The test plan is executed with the configuration parameters of the
+	 * {@link LauncherDiscoveryRequest} it was discovered for. Supplied test
+	 * execution listeners are registered in addition to already registered
+	 * listeners but only for the execution of the supplied test plan.
+	 *
+	 * <p>A test plan may only be executed once since engines may modify the
+	 * discovered tests during execution, e.g. by registering dynamic tests.
+	 * To execute the same tests again, discover a new test plan.
+	 *
+	 * <p>The default implementation throws an
+	 * {@link UnsupportedOperationException}. Implementations should override
+	 * this method to support executing discovered test plans.
+	 *
+	 * @param testPlan the test plan to execute; never {@code null}
+	 * @param listeners additional test execution listeners; never {@code null}
+	 * @throws org.junit.platform.commons.util.PreconditionViolationException
+	 * if the test plan was not returned by {@code discover()} or has already
+	 * been executed
+	 * @since 1.4
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	default void execute(TestPlan testPlan, TestExecutionListener... listeners) {
+		throw new UnsupportedOperationException(
+			getClass().getName() + " does not support executing a discovered TestPlan");
+	}
+
+	/**
+	 * Execute the supplied subset of the {@link TestIdentifier TestIdentifiers}
+	 * of a {@link TestPlan} previously returned by
+	 * {@link #discover(LauncherDiscoveryRequest)} like
+	 * {@link #execute(TestPlan, TestExecutionListener...)} but stop starting
+	 * the execution of further tests once the supplied
+	 * {@link CancellationToken} has been {@linkplain CancellationToken#cancel()
+	 * cancelled}.
+	 *
+	 * <p>The supplied identifiers are executed along with all of their
+	 * descendants and the containers they belong to; all other tests are
+	 * excluded. The {@code TestPlan} reported to listeners only contains the
+	 * executed identifiers. Since the excluded tests are removed from the
+	 * discovered tests, the supplied test plan counts as executed afterwards.
+	 *
+	 * <p>The default implementation throws an
+	 * {@link UnsupportedOperationException}. Implementations should override
+	 * this method to support executing discovered test plans.
+	 *
+	 * @param testPlan the test plan to execute; never {@code null}
+	 * @param testIdentifiers the identifiers of {@code testPlan} to execute;
+	 * never {@code null}
+	 * @param cancellationToken the token used to cancel the execution; never {@code null}
+	 * @param listeners additional test execution listeners; never {@code null}
+	 * @throws org.junit.platform.commons.util.PreconditionViolationException
+	 * if the test plan was not returned by {@code discover()}, has already
+	 * been executed, or does not contain one of the supplied identifiers
+	 * @since 1.4
+	 * @see #execute(TestPlan, TestExecutionListener...)
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	default void execute(TestPlan testPlan, Collection<TestIdentifier> testIdentifiers,
+			CancellationToken cancellationToken, TestExecutionListener... listeners) {
+		throw new UnsupportedOperationException(
+			getClass().getName() + " does not support executing a discovered TestPlan");
+	}
+
 }
@@ -60,23 +60,95 @@ public class LauncherConstants {
 
 	/**
 	 * Property name used to configure the maximum number of bytes for buffering
-	 * to use per thread and output type if output capturing is enabled:
-	 * {@value}
+	 * to use per test or container and output type if output capturing is
+	 * enabled: {@value}
+	 *
+	 * <p>Output exceeding this limit is discarded and replaced by a marker
+	 * stating the number of discarded bytes.
 	 *
 	 * <p>Value must be an integer; defaults to {@value CAPTURE_MAX_BUFFER_DEFAULT}.
 	 *
 	 * @see #CAPTURE_MAX_BUFFER_DEFAULT
+	 * @see #CAPTURE_MAX_TOTAL_BUFFER_PROPERTY_NAME
 	 */
 	public static final String CAPTURE_MAX_BUFFER_PROPERTY_NAME = "junit.platform.output.capture.maxBuffer";
 
 	/**
-	 * Default maximum number of bytes for buffering to use per thread and
-	 * output type if output capturing is enabled.
+	 * Default maximum number of bytes for buffering to use per test or
+	 * container and output type if output capturing is enabled.
 	 *
 	 * @see #CAPTURE_MAX_BUFFER_PROPERTY_NAME
 	 */
 	public static final int CAPTURE_MAX_BUFFER_DEFAULT = 4 * 1024 * 1024;
 
+	/**
+	 * Property name used to configure the maximum number of bytes for buffering
+	 * to use for all tests and containers that are being executed at the same
+	 * time if output capturing is enabled: {@value}
+	 *
+	 * <p>Once this limit has been reached, further output is discarded until
+	 * buffered output has been published and is replaced by a marker stating
+	 * the number of discarded bytes.
+	 *
+	 * <p>Value must be a positive integer; defaults to
+	 * {@value CAPTURE_MAX_TOTAL_BUFFER_DEFAULT}.
+	 *
+	 * @since 1.4
+	 * @see #CAPTURE_MAX_TOTAL_BUFFER_DEFAULT
+	 * @see #CAPTURE_MAX_BUFFER_PROPERTY_NAME
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	public static final String CAPTURE_MAX_TOTAL_BUFFER_PROPERTY_NAME = "junit.platform.output.capture.maxTotalBuffer";
+
+	/**
+	 * Default maximum number of bytes for buffering to use for all tests and
+	 * containers that are being executed at the same time if output capturing
+	 * is enabled.
+	 *
+	 * @since 1.4
+	 * @see #CAPTURE_MAX_TOTAL_BUFFER_PROPERTY_NAME
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	public static final long CAPTURE_MAX_TOTAL_BUFFER_DEFAULT = 64 * 1024 * 1024;
+
+	/**
+	 * Property name used to enable storing large captured output and values
+	 * of {@link ReportEntry ReportEntries} in temporary files instead of
+	 * keeping them in memory: {@value}
+	 *
+	 * <p>Captured output is written to a memory-mapped temporary file once it
+	 * exceeds the configured number of bytes; the maximum number of bytes per
+	 * test or container configured via {@value #CAPTURE_MAX_BUFFER_PROPERTY_NAME}
+	 * still applies. Values of report entries that are longer than the
+	 * configured number of characters are stored in temporary files before
+	 * the entries are published. In both cases, listeners can stream the
+	 * values via {@link ReportEntry#getFileRegions()}. The files are deleted
+	 * once the execution has finished.
+	 *
+	 * <p>Value must be a positive integer; by default, nothing is stored in
+	 * temporary files.
+	 *
+	 * @since 1.4
+	 * @see #OUTPUT_SPILL_DIR_PROPERTY_NAME
+	 * @see org.junit.platform.engine.reporting.FileRegion
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	public static final String OUTPUT_SPILL_THRESHOLD_PROPERTY_NAME = "junit.platform.output.spill.threshold";
+
+	/**
+	 * Property name used to specify the directory in which temporary files
+	 * are created when {@linkplain #OUTPUT_SPILL_THRESHOLD_PROPERTY_NAME
+	 * storing large output in files}: {@value}
+	 *
+	 * <p>Defaults to the directory specified via the {@code java.io.tmpdir}
+	 * system property.
+	 *
+	 * @since 1.4
+	 * @see #OUTPUT_SPILL_THRESHOLD_PROPERTY_NAME
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	public static final String OUTPUT_SPILL_DIR_PROPERTY_NAME = "junit.platform.output.spill.dir";
+
 	/**
 	 * Key used to publish captured output to {@link System#out} as part of a
 	 * {@link ReportEntry}: {@value}
@@ -89,6 +161,195 @@ public class LauncherConstants {
 	 */
 	public static final String STDERR_REPORT_ENTRY_KEY = "stderr";
 
+	/**
+	 * Property name used to only execute a single shard of the discovered
+	 * tests: {@value}
+	 *
+	 * <p>Value must be of the form {@code <index>/<count>}, e.g. {@code 3/16}
+	 * for the third of sixteen shards. The index is 1-based.
+	 *
+	 * <p>By default, all discovered tests are executed.
+	 *
+	 * @since 1.4
+	 * @see ShardFilter
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	public static final String SHARD_PROPERTY_NAME = "junit.platform.shard";
+
+	/**
+	 * Property name used to specify the path of a file containing the
+	 * recorded execution durations of tests used to balance
+	 * {@linkplain #SHARD_PROPERTY_NAME shards}: {@value}
+	 *
+	 * <p>The file must be in the format written by
+	 * {@link org.junit.platform.engine.support.hierarchical.ExecutionDurationHistory}
+	 * and must have the same content for all shards.
+	 *
+	 * <p>By default, classes are assigned to shards based on a hash of their
+	 * unique IDs.
+	 *
+	 * @since 1.4
+	 * @see ShardFilter
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	public static final String SHARD_DURATION_HISTORY_FILE_PROPERTY_NAME = "junit.platform.shard.duration-history.file";
+
+	/**
+	 * Property name used to execute tests in a pool of forked JVMs: {@value}
+	 *
+	 * <p>Value must be a non-negative integer that specifies the number of
+	 * child JVMs. If greater than zero, tests are discovered once in the
+	 * current JVM and then distributed at class granularity to the child JVMs
+	 * which report their execution events back to the registered
+	 * {@link TestExecutionListener TestExecutionListeners}. Each child JVM
+	 * executes one class at a time and requests the next one once it has
+	 * finished.
+	 *
+	 * <p>Child JVMs use the class path of the current JVM and receive the
+	 * explicitly supplied configuration parameters as well as all system
+	 * properties whose names start with {@code junit.}.
+	 *
+	 * <p>Defaults to {@code 0} which means that tests are executed in the
+	 * current JVM.
+	 *
+	 * @since 1.4
+	 * @see #FORKED_JVM_ARGS_PROPERTY_NAME
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	public static final String FORKED_WORKERS_PROPERTY_NAME = "junit.platform.execution.forked.workers";
+
+	/**
+	 * Property name used to specify additional arguments for the JVMs forked
+	 * when {@linkplain #FORKED_WORKERS_PROPERTY_NAME executing tests in forked
+	 * JVMs}: {@value}
+	 *
+	 * <p>Value is split into individual arguments at whitespace characters;
+	 * for example, {@code -Xmx512m -Dfoo=bar}.
+	 *
+	 * @since 1.4
+	 * @see #FORKED_WORKERS_PROPERTY_NAME
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	public static final String FORKED_JVM_ARGS_PROPERTY_NAME = "junit.platform.execution.forked.jvm-args";
+
+	/**
+	 * Property name used to cancel the execution once a number of tests have
+	 * failed: {@value}
+	 *
+	 * <p>Value must be a positive integer that specifies the number of failed
+	 * tests after which tests that have not been started yet are skipped.
+	 * Tests that are already being executed are allowed to finish.
+	 *
+	 * <p>By default, all tests are executed regardless of the number of
+	 * failures.
+	 *
+	 * @since 1.4
+	 * @see org.junit.platform.engine.CancellationToken
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	public static final String FAIL_FAST_MAX_FAILURES_PROPERTY_NAME = "junit.platform.execution.fail-fast.max-failures";
+
+	/**
+	 * Property name used to enable discovering the tests of multiple test
+	 * engines in parallel: {@value}
+	 *
+	 * <p>If enabled, each engine discovers its tests in a thread of its own
+	 * and post-discovery filters are applied and the resulting trees pruned
+	 * in the same thread. Registered
+	 * {@link PostDiscoveryFilter PostDiscoveryFilters} must therefore be
+	 * thread-safe. The order of engines in the resulting {@link TestPlan} is
+	 * not affected.
+	 *
+	 * <p>Value must be either {@code true} or {@code false}; defaults to
+	 * {@code false}.
+	 *
+	 * @since 1.4
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	public static final String PARALLEL_DISCOVERY_ENABLED_PROPERTY_NAME = "junit.platform.discovery.parallel.enabled";
+
+	/**
+	 * Property name used to enable executing the tests of multiple test
+	 * engines in parallel: {@value}
+	 *
+	 * <p>If enabled, each engine is executed in a thread of its own. All
+	 * engines share the same
+	 * {@link org.junit.platform.engine.ResourceLockRegistry} so that engines
+	 * that acquire locks for shared resources, such as system properties, via
+	 * the registry honor each other's locks. Events are delivered to
+	 * registered {@link TestExecutionListener TestExecutionListeners} one at
+	 * a time.
+	 *
+	 * <p>Value must be either {@code true} or {@code false}; defaults to
+	 * {@code false}.
+	 *
+	 * @since 1.4
+	 * @see org.junit.platform.engine.ExecutionRequest#getResourceLockRegistry()
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	public static final String PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME = "junit.platform.execution.parallel.enabled";
+
+	/**
+	 * Property name used to specify the IDs of test engines that do not
+	 * acquire locks via the shared
+	 * {@link org.junit.platform.engine.ResourceLockRegistry} but may
+	 * nevertheless be executed at the same time as other engines: {@value}
+	 *
+	 * <p>When {@linkplain #PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME executing
+	 * engines in parallel}, engines that are not based on
+	 * {@link org.junit.platform.engine.support.hierarchical.HierarchicalTestEngine}
+	 * cannot honor the locks of other engines and are therefore executed
+	 * exclusively unless they are listed here. A typical use case is listing
+	 * {@code junit-vintage} if the JUnit 4 tests do not share any resources with
+	 * the tests of other engines.
+	 *
+	 * <p>Value must be a comma-separated list of engine IDs; defaults to none.
+	 *
+	 * @since 1.4
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	public static final String PARALLEL_EXECUTION_CONCURRENT_ENGINES_PROPERTY_NAME = "junit.platform.execution."
+			+ "parallel.concurrent-engines";
+
+	/**
+	 * Property name used to enable notifying registered
+	 * {@link TestExecutionListener TestExecutionListeners} asynchronously:
+	 * {@value}
+	 *
+	 * <p>If enabled, events are stored in a bounded buffer and delivered to
+	 * listeners by a dedicated thread in the order in which they have been
+	 * reported so that slow listeners no longer hold up the threads executing
+	 * tests. When the buffer is full, the reporting thread waits until the
+	 * dispatcher thread has caught up. Once all tests have been executed,
+	 * {@link TestExecutionListener#testPlanExecutionFinished} is only
+	 * returned from after all events have been delivered. Exceptions thrown
+	 * by listeners are logged instead of being propagated.
+	 *
+	 * <p>Value must be either {@code true} or {@code false}; defaults to
+	 * {@code false}.
+	 *
+	 * @since 1.4
+	 * @see #ASYNC_LISTENER_NOTIFICATION_BUFFER_SIZE_PROPERTY_NAME
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	public static final String ASYNC_LISTENER_NOTIFICATION_ENABLED_PROPERTY_NAME = //
+			"junit.platform.execution.listeners.async.enabled";
+
+	/**
+	 * Property name used to specify the number of events that may be buffered
+	 * when {@linkplain #ASYNC_LISTENER_NOTIFICATION_ENABLED_PROPERTY_NAME
+	 * notifying listeners asynchronously}: {@value}
+	 *
+	 * <p>Value must be a positive integer; it is rounded up to the next power
+	 * of two. Defaults to {@code 1024}.
+	 *
+	 * @since 1.4
+	 * @see #ASYNC_LISTENER_NOTIFICATION_ENABLED_PROPERTY_NAME
+	 */
+	@API(status = EXPERIMENTAL, since = "1.4")
+	public static final String ASYNC_LISTENER_NOTIFICATION_BUFFER_SIZE_PROPERTY_NAME = //
+			"junit.platform.execution.listeners.async.buffer-size";
+
 	private LauncherConstants() {
 		/* no-op */
 	}
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.launcher;
+
+import static java.util.Comparator.comparing;
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+import static org.junit.platform.engine.FilterResult.includedIf;
+import static org.junit.platform.launcher.LauncherConstants.SHARD_DURATION_HISTORY_FILE_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.SHARD_PROPERTY_NAME;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apiguardian.api.API;
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.util.Preconditions;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.hierarchical.ExecutionDurationHistory;
+
+/**
+ * {@link PostDiscoveryFilter} that only includes the tests of a single shard
+ * so that a test plan can be split across multiple JVMs or machines.
+ *
+ * <p>Tests are partitioned at class granularity: all tests that belong to the
+ * same top-level class (i.e. the outermost ancestor with a
+ * {@link ClassSource}) are assigned to the same shard. Tests without such an
+ * ancestor are assigned individually. Since every class is assigned to exactly
+ * one shard, running all shards with the same discovery request executes every
+ * test exactly once, regardless of the number of engines involved.
+ *
+ * <p>By default, classes are assigned based on a stable hash of their
+ * {@linkplain UniqueId unique IDs}. If an {@link ExecutionDurationHistory} is
+ * supplied, classes are instead distributed such that the estimated total
+ * duration of all shards is balanced. In that case, all shards must use a
+ * history with the same content.
+ *
+ * @since 1.4
+ * @see LauncherConstants#SHARD_PROPERTY_NAME
+ * @see LauncherConstants#SHARD_DURATION_HISTORY_FILE_PROPERTY_NAME
+ */
+@API(status = EXPERIMENTAL, since = "1.4")
+public final class ShardFilter implements PostDiscoveryFilter {
+
+	private final int shardIndex;
+	private final int shardCount;
+	private final ExecutionDurationHistory durationHistory;
+	private final Map<UniqueId, Map<UniqueId, Integer>> balancedShardsByEngine = new ConcurrentHashMap<>();
+
+	/**
+	 * Create a filter that includes the tests of the supplied shard based on
+	 * a stable hash of the unique IDs of their classes.
+	 *
+	 * @param shardIndex the 1-based index of the shard to include; must be
+	 * between 1 and {@code shardCount}
+	 * @param shardCount the total number of shards; must be positive
+	 */
+	public static ShardFilter shard(int shardIndex, int shardCount) {
+		return new ShardFilter(shardIndex, shardCount, null);
+	}
+
+	/**
+	 * Create a filter that includes the tests of the supplied shard based on
+	 * the durations recorded in the supplied history.
+	 *
+	 * @param shardIndex the 1-based index of the shard to include; must be
+	 * between 1 and {@code shardCount}
+	 * @param shardCount the total number of shards; must be positive
+	 * @param durationHistory the history used to balance the shards; never
+	 * {@code null}
+	 */
+	public static ShardFilter shard(int shardIndex, int shardCount, ExecutionDurationHistory durationHistory) {
+		Preconditions.notNull(durationHistory, "durationHistory must not be null");
+		return new ShardFilter(shardIndex, shardCount, durationHistory);
+	}
+
+	/**
+	 * Create the filter configured via the {@value LauncherConstants#SHARD_PROPERTY_NAME}
+	 * and {@value LauncherConstants#SHARD_DURATION_HISTORY_FILE_PROPERTY_NAME}
+	 * configuration parameters, if any.
+	 *
+	 * @param configurationParameters the configuration parameters to use;
+	 * never {@code null}
+	 * @return the configured filter or {@code Optional.empty()} if sharding
+	 * has not been configured
+	 */
+	public static Optional<ShardFilter> fromConfigurationParameters(ConfigurationParameters configurationParameters) {
+		Preconditions.notNull(configurationParameters, "configurationParameters must not be null");
+		// @formatter:off
+		Optional<String> shard = configurationParameters.get(SHARD_PROPERTY_NAME)
+				.map(String::trim)
+				.filter(value -> !value.isEmpty());
+		// @formatter:on
+		if (!shard.isPresent()) {
+			return Optional.empty();
+		}
+		String value = shard.get();
+		int separatorIndex = value.indexOf('/');
+		try {
+			Preconditions.condition(separatorIndex > 0, "missing separator");
+			int shardIndex = Integer.parseInt(value.substring(0, separatorIndex).trim());
+			int shardCount = Integer.parseInt(value.substring(separatorIndex + 1).trim());
+			// @formatter:off
+			Optional<ExecutionDurationHistory> durationHistory = configurationParameters.get(SHARD_DURATION_HISTORY_FILE_PROPERTY_NAME)
+					.map(String::trim)
+					.filter(path -> !path.isEmpty())
+					.map(path -> ExecutionDurationHistory.load(Paths.get(path)));
+			// @formatter:on
+			return Optional.of(new ShardFilter(shardIndex, shardCount, durationHistory.orElse(null)));
+		}
+		catch (RuntimeException e) {
+			throw new JUnitException(String.format(
+				"Invalid value '%s' specified via configuration parameter '%s'; expected <index>/<count>", value,
+				SHARD_PROPERTY_NAME), e);
+		}
+	}
+
+	private ShardFilter(int shardIndex, int shardCount, ExecutionDurationHistory durationHistory) {
+		Preconditions.condition(shardCount > 0, "shardCount must be greater than 0");
+		Preconditions.condition(shardIndex > 0 && shardIndex <= shardCount,
+			() -> String.format("shardIndex must be between 1 and %d", shardCount));
+		this.shardIndex = shardIndex;
+		this.shardCount = shardCount;
+		this.durationHistory = durationHistory;
+	}
+
+	@Override
+	public FilterResult apply(TestDescriptor descriptor) {
+		if (descriptor.isRoot()) {
+			return FilterResult.included("Engine descriptors are included in all shards");
+		}
+		TestDescriptor unit = findShardingUnit(descriptor);
+		int shard = durationHistory == null ? hashShard(unit) : balancedShard(unit);
+		return includedIf(shard == shardIndex, //
+			() -> String.format("%s is assigned to shard %d/%d", unit.getUniqueId(), shard, shardCount), //
+			() -> String.format("%s is assigned to shard %d/%d instead of %d/%d", unit.getUniqueId(), shard,
+				shardCount, shardIndex, shardCount));
+	}
+
+	/**
+	 * Find the outermost non-root ancestor of the supplied descriptor, or the
+	 * descriptor itself, that has a {@link ClassSource}.
+	 *
+	 * @return the found ancestor or the supplied descriptor if there is none
+	 */
+	private static TestDescriptor findShardingUnit(TestDescriptor descriptor) {
+		TestDescriptor unit = descriptor;
+		for (TestDescriptor current = descriptor; !current.isRoot(); current = current.getParent().get()) {
+			if (current.getSource().filter(ClassSource.class::isInstance).isPresent()) {
+				unit = current;
+			}
+		}
+		return unit;
+	}
+
+	private int hashShard(TestDescriptor unit) {
+		int hash = unit.getUniqueId().toString().hashCode();
+		// spread similar hash codes of similar class names
+		hash ^= (hash >>> 16);
+		hash *= 0x85ebca6b;
+		hash ^= (hash >>> 13);
+		return Math.floorMod(hash, shardCount) + 1;
+	}
+
+	private int balancedShard(TestDescriptor unit) {
+		TestDescriptor engineDescriptor = unit;
+		while (engineDescriptor.getParent().isPresent()) {
+			engineDescriptor = engineDescriptor.getParent().get();
+		}
+		TestDescriptor root = engineDescriptor;
+		Map<UniqueId, Integer> shards = balancedShardsByEngine.computeIfAbsent(root.getUniqueId(),
+			key -> assignBalancedShards(root));
+		return shards.getOrDefault(unit.getUniqueId(), hashShard(unit));
+	}
+
+	/**
+	 * Assign all sharding units of the supplied engine to shards using the
+	 * <em>longest processing time first</em> heuristic.
+	 *
+	 * <p>Units without recorded durations are weighted by their number of
+	 * tests multiplied by the average duration per test of all units with
+	 * recorded durations.
+	 */
+	private Map<UniqueId, Integer> assignBalancedShards(TestDescriptor engineDescriptor) {
+		Map<UniqueId, Unit> units = new LinkedHashMap<>();
+		for (TestDescriptor descriptor : engineDescriptor.getDescendants()) {
+			if (descriptor.getChildren().isEmpty()) {
+				TestDescriptor unitDescriptor = findShardingUnit(descriptor);
+				units.computeIfAbsent(unitDescriptor.getUniqueId(), key -> new Unit(unitDescriptor)).testCount++;
+			}
+		}
+		long knownMillis = 0;
+		long knownTestCount = 0;
+		for (Unit unit : units.values()) {
+			Optional<Duration> duration = durationHistory.estimateDuration(unit.descriptor);
+			if (duration.isPresent()) {
+				unit.weight = duration.get().toMillis();
+				knownMillis += unit.weight;
+				knownTestCount += unit.testCount;
+			}
+		}
+		double millisPerTest = knownTestCount == 0 ? 1 : Math.max(1, (double) knownMillis / knownTestCount);
+		List<Unit> sortedUnits = new ArrayList<>(units.values());
+		for (Unit unit : sortedUnits) {
+			if (unit.weight < 0) {
+				unit.weight = (long) Math.ceil(unit.testCount * millisPerTest);
+			}
+		}
+		sortedUnits.sort(comparing((Unit unit) -> unit.weight).reversed().thenComparing(
+			unit -> unit.descriptor.getUniqueId().toString()));
+
+		long[] loads = new long[shardCount];
+		Map<UniqueId, Integer> shards = new LinkedHashMap<>();
+		for (Unit unit : sortedUnits) {
+			int leastLoaded = 0;
+			for (int i = 1; i < shardCount; i++) {
+				if (loads[i] < loads[leastLoaded]) {
+					leastLoaded = i;
+				}
+			}
+			loads[leastLoaded] += unit.weight;
+			shards.put(unit.descriptor.getUniqueId(), leastLoaded + 1);
+		}
+		return shards;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s that includes shard %d/%d based on %s", getClass().getSimpleName(), shardIndex,
+			shardCount, durationHistory == null ? "unique ID hashes" : "recorded durations");
+	}
+
+	private static class Unit {
+
+		final TestDescriptor descriptor;
+		int testCount;
+		long weight = -1;
+
+		Unit(TestDescriptor descriptor) {
+			this.descriptor = descriptor;
+		}
+
+	}
+
+}
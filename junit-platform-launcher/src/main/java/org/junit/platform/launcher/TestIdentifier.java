@@ -10,6 +10,7 @@
 
 package org.junit.platform.launcher;
 
+import static java.util.Collections.emptySet;
 import static java.util.Collections.unmodifiableSet;
 import static org.apiguardian.api.API.Status.INTERNAL;
 import static org.apiguardian.api.API.Status.STABLE;
@@ -72,9 +73,42 @@ public final class TestIdentifier implements Serializable {
 		this.parentId = parentId;
 		this.displayName = displayName;
 		this.source = source;
-		this.tags = unmodifiableSet(new LinkedHashSet<>(tags));
+		this.tags = copyOf(tags);
 		this.type = type;
-		this.legacyReportingName = legacyReportingName;
+		// share the display name instead of keeping an equal copy
+		this.legacyReportingName = Objects.equals(displayName, legacyReportingName) ? displayName
+				: legacyReportingName;
+	}
+
+	private TestIdentifier(TestIdentifier original, String parentId, Set<TestTag> tags) {
+		this.uniqueId = original.uniqueId;
+		this.parentId = parentId;
+		this.displayName = original.displayName;
+		this.source = original.source;
+		this.tags = tags;
+		this.type = original.type;
+		this.legacyReportingName = original.legacyReportingName;
+	}
+
+	private static Set<TestTag> copyOf(Set<TestTag> tags) {
+		return tags.isEmpty() ? emptySet() : unmodifiableSet(new LinkedHashSet<>(tags));
+	}
+
+	/**
+	 * Get an identifier equal to this one that uses the supplied instances of
+	 * its parent's unique ID and its tags.
+	 *
+	 * <p>Used by {@link TestPlan} to share these values among all of its
+	 * identifiers instead of keeping a copy per identifier.
+	 *
+	 * @return this identifier if it already uses the supplied instances;
+	 * otherwise, a new identifier
+	 */
+	TestIdentifier withSharedValues(String parentId, Set<TestTag> tags) {
+		if (this.parentId == parentId && this.tags == tags) {
+			return this;
+		}
+		return new TestIdentifier(this, parentId, tags);
 	}
 
 	/**
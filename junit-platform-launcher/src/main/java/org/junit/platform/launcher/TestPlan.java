@@ -11,14 +11,17 @@
 package org.junit.platform.launcher;
 
 import static java.util.Collections.emptySet;
-import static java.util.Collections.unmodifiableSet;
 import static org.apiguardian.api.API.Status.INTERNAL;
 import static org.apiguardian.api.API.Status.STABLE;
 
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.LinkedHashSet;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -29,6 +32,7 @@ import org.junit.platform.commons.util.PreconditionViolationException;
 import org.junit.platform.commons.util.Preconditions;
 import org.junit.platform.engine.TestDescriptor;
 import org.junit.platform.engine.TestDescriptor.Visitor;
+import org.junit.platform.engine.TestTag;
 
 /**
  * {@code TestPlan} describes the tree of tests and containers as discovered
@@ -47,21 +51,72 @@ import org.junit.platform.engine.TestDescriptor.Visitor;
  * test is registered at runtime, it is added to the original test plan and
  * reported to {@link TestExecutionListener} implementations.
  *
+ * <p>In order to keep test plans with millions of identifiers small, each
+ * identifier is assigned an ordinal that is used to store the children of its
+ * parent in an array, and the unique IDs of parents and sets of tags are
+ * shared among all identifiers. The sets returned by {@link #getRoots()},
+ * {@link #getChildren(TestIdentifier)}, and
+ * {@link #getDescendants(TestIdentifier)} are unmodifiable views of the
+ * identifiers present at the time of the invocation.
+ *
+ * <p>Moreover, each identifier is assigned an interval of pre-order and
+ * post-order labels that encloses the intervals of all of its descendants,
+ * and the number of its descendants is maintained when identifiers are added.
+ * Hence, creating the set of descendants and determining its size or whether
+ * it contains an identifier take constant time, and iterating over it takes
+ * time proportional to the number of descendants.
+ *
  * @since 1.0
  * @see Launcher
  * @see TestExecutionListener
  */
 @API(status = STABLE, since = "1.0")
-public final class TestPlan {
+public class TestPlan {
 
-	private final Set<TestIdentifier> roots = Collections.synchronizedSet(new LinkedHashSet<>(4));
+	private static final int INITIAL_CAPACITY = 32;
 
-	private final Map<String, Set<TestIdentifier>> children = new ConcurrentHashMap<>(32);
+	private static final int NO_PARENT = -1;
 
-	private final Map<String, TestIdentifier> allIdentifiers = new ConcurrentHashMap<>(32);
+	private static final int ABSENT_PARENT = -2;
+
+	/**
+	 * Fraction of the free labels of its parent that are reserved for the
+	 * descendants of an added identifier.
+	 */
+	private static final int RESERVED_LABELS_DIVISOR = 256;
 
 	private final boolean containsTests;
 
+	private final Object lock = new Object();
+
+	private final Map<String, Integer> ordinals = new ConcurrentHashMap<>(INITIAL_CAPACITY);
+
+	private volatile TestIdentifier[] identifiers = new TestIdentifier[INITIAL_CAPACITY];
+
+	// the following fields are guarded by the lock
+
+	private int size;
+
+	private OrdinalList[] children = new OrdinalList[INITIAL_CAPACITY];
+
+	private int[] parents = new int[INITIAL_CAPACITY];
+
+	private int[] descendantCounts = new int[INITIAL_CAPACITY];
+
+	private long[] preOrderLabels = new long[INITIAL_CAPACITY];
+
+	private long[] postOrderLabels = new long[INITIAL_CAPACITY];
+
+	private long lastTopLevelPostOrderLabel;
+
+	private boolean labelsStale;
+
+	private final OrdinalList roots = new OrdinalList(4);
+
+	private final Map<String, OrdinalList> childrenOfAbsentParents = new HashMap<>();
+
+	private final Map<Set<TestTag>, Set<TestTag>> sharedTags = new HashMap<>();
+
 	/**
 	 * Construct a new {@code TestPlan} from the supplied collection of
 	 * {@link TestDescriptor TestDescriptors}.
@@ -82,36 +137,217 @@ public final class TestPlan {
 		return testPlan;
 	}
 
-	private TestPlan(boolean containsTests) {
+	/**
+	 * Construct a new, empty {@code TestPlan}.
+	 *
+	 * @param containsTests whether the test plan contains tests
+	 * @since 1.4
+	 */
+	@API(status = INTERNAL, since = "1.4")
+	protected TestPlan(boolean containsTests) {
 		this.containsTests = containsTests;
 	}
 
 	/**
 	 * Add the supplied {@link TestIdentifier} to this test plan.
 	 *
+	 * <p>The identifier stored in this test plan is equal to the supplied
+	 * one but may be a different instance that shares the unique ID of its
+	 * parent and its tags with other identifiers.
+	 *
+	 * <p>Adding an identifier with the unique ID of an identifier that has
+	 * already been added replaces the latter, provided both have the same
+	 * parent ID.
+	 *
 	 * @param testIdentifier the identifier to add; never {@code null}
+	 * @throws PreconditionViolationException if an identifier with the same
+	 * unique ID but a different parent ID has already been added
 	 */
 	public void add(TestIdentifier testIdentifier) {
 		Preconditions.notNull(testIdentifier, "testIdentifier must not be null");
-		allIdentifiers.put(testIdentifier.getUniqueId(), testIdentifier);
-		if (testIdentifier.getParentId().isPresent()) {
-			String parentId = testIdentifier.getParentId().get();
-			Set<TestIdentifier> directChildren = children.computeIfAbsent(parentId,
-				key -> Collections.synchronizedSet(new LinkedHashSet<>(16)));
-			directChildren.add(testIdentifier);
+		synchronized (this.lock) {
+			String parentId = testIdentifier.getParentId().orElse(null);
+			Integer parentOrdinal = parentId == null ? null : this.ordinals.get(parentId);
+			if (parentOrdinal != null) {
+				parentId = this.identifiers[parentOrdinal].getUniqueId();
+			}
+			TestIdentifier identifier = testIdentifier.withSharedValues(parentId, share(testIdentifier.getTags()));
+			String uniqueId = identifier.getUniqueId();
+			Integer existingOrdinal = this.ordinals.get(uniqueId);
+			if (existingOrdinal != null) {
+				String existingParentId = this.identifiers[existingOrdinal].getParentId().orElse(null);
+				String newParentId = parentId;
+				Preconditions.condition(Objects.equals(existingParentId, newParentId),
+					() -> String.format("TestIdentifier with unique ID [%s] has already been added with parent ID [%s] "
+							+ "and must not be added again with parent ID [%s]",
+						uniqueId, existingParentId, newParentId));
+				this.identifiers[existingOrdinal] = identifier;
+				this.ordinals.put(uniqueId, existingOrdinal);
+				return;
+			}
+			int ordinal = this.size++;
+			ensureCapacity(this.size);
+			this.identifiers[ordinal] = identifier;
+			if (parentId == null) {
+				this.parents[ordinal] = NO_PARENT;
+				this.roots.add(ordinal);
+			}
+			else if (parentOrdinal != null) {
+				this.parents[ordinal] = parentOrdinal;
+				if (this.children[parentOrdinal] == null) {
+					this.children[parentOrdinal] = new OrdinalList(4);
+				}
+				this.children[parentOrdinal].add(ordinal);
+			}
+			else {
+				this.parents[ordinal] = ABSENT_PARENT;
+				this.childrenOfAbsentParents.computeIfAbsent(parentId, key -> new OrdinalList(4)).add(ordinal);
+			}
+			OrdinalList adoptedChildren = this.childrenOfAbsentParents.remove(uniqueId);
+			if (adoptedChildren == null) {
+				incrementDescendantCounts(ordinal, 1);
+				assignLabels(ordinal);
+			}
+			else {
+				adopt(ordinal, adoptedChildren);
+			}
+			// publishes the identifier to unsynchronized readers
+			this.ordinals.put(uniqueId, ordinal);
+		}
+	}
+
+	private Set<TestTag> share(Set<TestTag> tags) {
+		return tags.isEmpty() ? emptySet() : this.sharedTags.computeIfAbsent(tags, key -> key);
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > this.children.length) {
+			int newCapacity = Math.max(capacity, this.children.length * 2);
+			this.children = Arrays.copyOf(this.children, newCapacity);
+			this.parents = Arrays.copyOf(this.parents, newCapacity);
+			this.descendantCounts = Arrays.copyOf(this.descendantCounts, newCapacity);
+			this.preOrderLabels = Arrays.copyOf(this.preOrderLabels, newCapacity);
+			this.postOrderLabels = Arrays.copyOf(this.postOrderLabels, newCapacity);
+			this.identifiers = Arrays.copyOf(this.identifiers, newCapacity);
+		}
+	}
+
+	private void incrementDescendantCounts(int ordinal, int increment) {
+		for (int ancestor = this.parents[ordinal]; ancestor >= 0; ancestor = this.parents[ancestor]) {
+			this.descendantCounts[ancestor] += increment;
+		}
+	}
+
+	/**
+	 * Make the identifiers that have been added before their parent with the
+	 * supplied ordinal its children.
+	 *
+	 * <p>Since they have been labeled like roots, all labels are assigned
+	 * again the next time they are needed.
+	 */
+	private void adopt(int ordinal, OrdinalList adoptedChildren) {
+		this.children[ordinal] = adoptedChildren;
+		int descendantCount = 0;
+		for (int i = 0; i < adoptedChildren.size; i++) {
+			int child = adoptedChildren.values[i];
+			this.parents[child] = ordinal;
+			descendantCount += 1 + this.descendantCounts[child];
+		}
+		this.descendantCounts[ordinal] = descendantCount;
+		incrementDescendantCounts(ordinal, 1 + descendantCount);
+		this.labelsStale = true;
+	}
+
+	/**
+	 * Assign pre-order and post-order labels to the newly added identifier
+	 * with the supplied ordinal that lie between the labels of its preceding
+	 * sibling and the post-order label of its parent.
+	 *
+	 * <p>A fraction of the free labels is reserved for descendants added
+	 * later on, e.g. dynamic tests. If there are no free labels left, all
+	 * labels are assigned again the next time they are needed.
+	 */
+	private void assignLabels(int ordinal) {
+		if (this.labelsStale) {
+			return;
+		}
+		int parent = this.parents[ordinal];
+		long lowerBound;
+		long upperBound;
+		if (parent >= 0) {
+			OrdinalList siblings = this.children[parent];
+			lowerBound = siblings.size > 1 ? this.postOrderLabels[siblings.values[siblings.size - 2]]
+					: this.preOrderLabels[parent];
+			upperBound = this.postOrderLabels[parent];
 		}
 		else {
-			roots.add(testIdentifier);
+			lowerBound = this.lastTopLevelPostOrderLabel;
+			upperBound = Long.MAX_VALUE;
+		}
+		long freeLabels = upperBound - lowerBound - 1;
+		if (freeLabels < 2) {
+			this.labelsStale = true;
+			return;
+		}
+		this.preOrderLabels[ordinal] = lowerBound + 1;
+		this.postOrderLabels[ordinal] = lowerBound + 1 + Math.max(1, (freeLabels - 1) / RESERVED_LABELS_DIVISOR);
+		if (parent < 0) {
+			this.lastTopLevelPostOrderLabel = this.postOrderLabels[ordinal];
 		}
 	}
 
+	/**
+	 * Assign evenly spaced labels to all identifiers if they have become
+	 * stale, using half of all labels so that the other half remains
+	 * available for roots added later on.
+	 */
+	private void ensureLabelsAssigned() {
+		if (!this.labelsStale) {
+			return;
+		}
+		long spacing = Math.max(1, Long.MAX_VALUE / 2 / (2L * this.size + 2));
+		long label = 0;
+		for (int i = 0; i < this.roots.size; i++) {
+			label = assignLabels(this.roots.values[i], label, spacing);
+		}
+		for (OrdinalList absentParentChildren : this.childrenOfAbsentParents.values()) {
+			for (int i = 0; i < absentParentChildren.size; i++) {
+				label = assignLabels(absentParentChildren.values[i], label, spacing);
+			}
+		}
+		this.lastTopLevelPostOrderLabel = label;
+		this.labelsStale = false;
+	}
+
+	private long assignLabels(int ordinal, long previousLabel, long spacing) {
+		long label = previousLabel + spacing;
+		this.preOrderLabels[ordinal] = label;
+		OrdinalList directChildren = this.children[ordinal];
+		if (directChildren != null) {
+			for (int i = 0; i < directChildren.size; i++) {
+				label = assignLabels(directChildren.values[i], label, spacing);
+			}
+		}
+		label += spacing;
+		this.postOrderLabels[ordinal] = label;
+		return label;
+	}
+
+	private boolean isDescendant(int ordinal, int ancestor) {
+		ensureLabelsAssigned();
+		return this.preOrderLabels[ancestor] < this.preOrderLabels[ordinal]
+				&& this.postOrderLabels[ordinal] < this.postOrderLabels[ancestor];
+	}
+
 	/**
 	 * Get the root {@link TestIdentifier TestIdentifiers} for this test plan.
 	 *
 	 * @return an unmodifiable set of the root identifiers
 	 */
 	public Set<TestIdentifier> getRoots() {
-		return unmodifiableSet(roots);
+		synchronized (this.lock) {
+			return new IdentifierSet(this.roots, NO_PARENT);
+		}
 	}
 
 	/**
@@ -147,7 +383,15 @@ public final class TestPlan {
 	 */
 	public Set<TestIdentifier> getChildren(String parentId) {
 		Preconditions.notBlank(parentId, "parent ID must not be null or blank");
-		return children.containsKey(parentId) ? unmodifiableSet(children.get(parentId)) : emptySet();
+		synchronized (this.lock) {
+			Integer parentOrdinal = this.ordinals.get(parentId);
+			if (parentOrdinal == null) {
+				OrdinalList directChildren = this.childrenOfAbsentParents.get(parentId);
+				return directChildren == null ? emptySet() : new IdentifierSet(directChildren, ABSENT_PARENT);
+			}
+			OrdinalList directChildren = this.children[parentOrdinal];
+			return directChildren == null ? emptySet() : new IdentifierSet(directChildren, parentOrdinal);
+		}
 	}
 
 	/**
@@ -161,9 +405,10 @@ public final class TestPlan {
 	 */
 	public TestIdentifier getTestIdentifier(String uniqueId) throws PreconditionViolationException {
 		Preconditions.notBlank(uniqueId, "unique ID must not be null or blank");
-		Preconditions.condition(allIdentifiers.containsKey(uniqueId),
+		Integer ordinal = this.ordinals.get(uniqueId);
+		Preconditions.condition(ordinal != null,
 			() -> "No TestIdentifier with unique ID [" + uniqueId + "] has been added to this TestPlan.");
-		return allIdentifiers.get(uniqueId);
+		return this.identifiers[ordinal];
 	}
 
 	/**
@@ -176,28 +421,272 @@ public final class TestPlan {
 	 */
 	public long countTestIdentifiers(Predicate<? super TestIdentifier> predicate) {
 		Preconditions.notNull(predicate, "Predicate must not be null");
-		return allIdentifiers.values().stream().filter(predicate).count();
+		TestIdentifier[] allIdentifiers;
+		int count;
+		synchronized (this.lock) {
+			allIdentifiers = this.identifiers;
+			count = this.size;
+		}
+		return Arrays.stream(allIdentifiers, 0, count).filter(predicate).count();
 	}
 
 	/**
 	 * Get all descendants of the supplied {@link TestIdentifier} (i.e.,
 	 * all of its children and their children, recursively).
 	 *
+	 * <p>The returned set is a view that is created in constant time. Its
+	 * {@link Set#size() size} is known in advance and checking whether it
+	 * {@linkplain Set#contains contains} an identifier does not require
+	 * iterating over it. Iterating over it, e.g. by
+	 * {@linkplain Set#stream() streaming} it, visits the children of the
+	 * supplied identifier first, followed by the descendants of each child.
+	 *
 	 * @param parent the identifier to look up the descendants for; never {@code null}
 	 * @return an unmodifiable set of the parent's descendants, potentially empty
 	 */
 	public Set<TestIdentifier> getDescendants(TestIdentifier parent) {
 		Preconditions.notNull(parent, "parent must not be null");
-		Set<TestIdentifier> result = new LinkedHashSet<>(16);
-		Set<TestIdentifier> children = getChildren(parent);
-		result.addAll(children);
-		for (TestIdentifier child : children) {
-			result.addAll(getDescendants(child));
+		synchronized (this.lock) {
+			Integer parentOrdinal = this.ordinals.get(parent.getUniqueId());
+			if (parentOrdinal == null) {
+				OrdinalList directChildren = this.childrenOfAbsentParents.get(parent.getUniqueId());
+				if (directChildren == null) {
+					return emptySet();
+				}
+				int descendantCount = 0;
+				for (int i = 0; i < directChildren.size; i++) {
+					descendantCount += 1 + this.descendantCounts[directChildren.values[i]];
+				}
+				return new DescendantSet(directChildren, ABSENT_PARENT, descendantCount);
+			}
+			int descendantCount = this.descendantCounts[parentOrdinal];
+			if (descendantCount == 0) {
+				return emptySet();
+			}
+			return new DescendantSet(this.children[parentOrdinal], parentOrdinal, descendantCount);
 		}
-		return unmodifiableSet(result);
 	}
 
 	public boolean containsTests() {
 		return containsTests;
 	}
+
+	/**
+	 * Growable list of ordinals.
+	 *
+	 * <p>Ordinals are only ever appended and the backing array is replaced
+	 * when it needs to grow. Since ordinals are assigned in ascending order,
+	 * all ordinals appended after the creation of a view are greater than or
+	 * equal to the {@link #size} of the test plan at the time of its creation.
+	 */
+	private static final class OrdinalList {
+
+		private int[] values;
+		private int size;
+
+		OrdinalList(int initialCapacity) {
+			this.values = new int[initialCapacity];
+		}
+
+		void add(int ordinal) {
+			if (this.size == this.values.length) {
+				this.values = Arrays.copyOf(this.values, this.size * 2);
+			}
+			this.values[this.size++] = ordinal;
+		}
+
+		void clear() {
+			this.size = 0;
+		}
+
+	}
+
+	/**
+	 * Unmodifiable view of the identifiers whose ordinals are contained in an
+	 * {@link OrdinalList} at the time of its creation that looks up the
+	 * identifiers lazily.
+	 */
+	private final class IdentifierSet extends AbstractSet<TestIdentifier> {
+
+		private final int[] members;
+		private final int size;
+		private final int parentOrdinal;
+
+		IdentifierSet(OrdinalList ordinals, int parentOrdinal) {
+			this.members = ordinals.values;
+			this.size = ordinals.size;
+			this.parentOrdinal = parentOrdinal;
+		}
+
+		@Override
+		public Iterator<TestIdentifier> iterator() {
+			TestIdentifier[] allIdentifiers = TestPlan.this.identifiers;
+			return new Iterator<TestIdentifier>() {
+
+				private int index;
+
+				@Override
+				public boolean hasNext() {
+					return this.index < size;
+				}
+
+				@Override
+				public TestIdentifier next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					return allIdentifiers[members[this.index++]];
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return this.size;
+		}
+
+		@Override
+		public boolean contains(Object object) {
+			if (!(object instanceof TestIdentifier)) {
+				return false;
+			}
+			Integer ordinal = TestPlan.this.ordinals.get(((TestIdentifier) object).getUniqueId());
+			if (ordinal == null) {
+				return false;
+			}
+			if (this.parentOrdinal != ABSENT_PARENT) {
+				synchronized (TestPlan.this.lock) {
+					return TestPlan.this.parents[ordinal] == this.parentOrdinal && isMember(ordinal);
+				}
+			}
+			for (int i = 0; i < this.size; i++) {
+				if (this.members[i] == ordinal) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private boolean isMember(int ordinal) {
+			// members are appended in ascending order of their ordinals
+			return this.size > 0 && ordinal <= this.members[this.size - 1];
+		}
+
+	}
+
+	/**
+	 * Unmodifiable view of the descendants of an identifier at the time of
+	 * its creation that traverses them lazily.
+	 */
+	private final class DescendantSet extends AbstractSet<TestIdentifier> {
+
+		private final OrdinalList directChildren;
+		private final int parentOrdinal;
+		private final int size;
+		private final int ordinalLimit;
+
+		DescendantSet(OrdinalList directChildren, int parentOrdinal, int size) {
+			this.directChildren = directChildren;
+			this.parentOrdinal = parentOrdinal;
+			this.size = size;
+			this.ordinalLimit = TestPlan.this.size;
+		}
+
+		@Override
+		public Iterator<TestIdentifier> iterator() {
+			return new DescendantIterator(this.directChildren, this.ordinalLimit);
+		}
+
+		@Override
+		public int size() {
+			return this.size;
+		}
+
+		@Override
+		public boolean contains(Object object) {
+			if (!(object instanceof TestIdentifier)) {
+				return false;
+			}
+			Integer ordinal = TestPlan.this.ordinals.get(((TestIdentifier) object).getUniqueId());
+			if (ordinal == null || ordinal >= this.ordinalLimit) {
+				return false;
+			}
+			synchronized (TestPlan.this.lock) {
+				if (this.parentOrdinal >= 0) {
+					return isDescendant(ordinal, this.parentOrdinal);
+				}
+				for (int i = 0; i < this.directChildren.size; i++) {
+					int child = this.directChildren.values[i];
+					if (child < this.ordinalLimit && (child == ordinal || isDescendant(ordinal, child))) {
+						return true;
+					}
+				}
+				return false;
+			}
+		}
+
+	}
+
+	/**
+	 * Iterator over the descendants with ordinals less than the supplied
+	 * limit that visits all children of an identifier before the descendants
+	 * of each of its children.
+	 */
+	private final class DescendantIterator implements Iterator<TestIdentifier> {
+
+		private final int ordinalLimit;
+		private final OrdinalList identifiersToExpand = new OrdinalList(16);
+		private final OrdinalList visitedSiblings = new OrdinalList(16);
+		private int[] siblings;
+		private int siblingCount;
+		private int index;
+
+		DescendantIterator(OrdinalList directChildren, int ordinalLimit) {
+			this.ordinalLimit = ordinalLimit;
+			synchronized (TestPlan.this.lock) {
+				visit(directChildren);
+			}
+		}
+
+		private void visit(OrdinalList siblings) {
+			this.siblings = siblings == null ? new int[0] : siblings.values;
+			this.siblingCount = siblings == null ? 0 : siblings.size;
+			this.index = 0;
+		}
+
+		@Override
+		public boolean hasNext() {
+			synchronized (TestPlan.this.lock) {
+				return advance();
+			}
+		}
+
+		@Override
+		public TestIdentifier next() {
+			synchronized (TestPlan.this.lock) {
+				if (!advance()) {
+					throw new NoSuchElementException();
+				}
+				int ordinal = this.siblings[this.index++];
+				this.visitedSiblings.add(ordinal);
+				return TestPlan.this.identifiers[ordinal];
+			}
+		}
+
+		private boolean advance() {
+			while (this.index >= this.siblingCount || this.siblings[this.index] >= this.ordinalLimit) {
+				for (int i = this.visitedSiblings.size - 1; i >= 0; i--) {
+					this.identifiersToExpand.add(this.visitedSiblings.values[i]);
+				}
+				this.visitedSiblings.clear();
+				if (this.identifiersToExpand.size == 0) {
+					return false;
+				}
+				visit(TestPlan.this.children[this.identifiersToExpand.values[--this.identifiersToExpand.size]]);
+			}
+			return true;
+		}
+
+	}
+
 }
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import static org.junit.platform.launcher.LauncherConstants.ASYNC_LISTENER_NOTIFICATION_BUFFER_SIZE_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.ASYNC_LISTENER_NOTIFICATION_ENABLED_PROPERTY_NAME;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.logging.Logger;
+import org.junit.platform.commons.logging.LoggerFactory;
+import org.junit.platform.commons.util.BlacklistedExceptions;
+import org.junit.platform.commons.util.ExceptionUtils;
+import org.junit.platform.engine.ConfigurationParameters;
+
+/**
+ * Executes listener notifications in a dedicated daemon thread in the order
+ * in which they have been submitted.
+ *
+ * <p>Notifications are stored in a bounded ring buffer. Submitting threads
+ * claim a slot by incrementing a shared sequence and publish the notification
+ * without taking a lock; if the buffer is full, they wait until the dispatcher
+ * thread has caught up. The dispatcher thread drains all published
+ * notifications in one batch before it parks until the next one arrives.
+ *
+ * <p>Exceptions thrown by notifications are logged and do not affect
+ * subsequent ones. {@linkplain BlacklistedExceptions Blacklisted} exceptions
+ * are rethrown to the next caller of {@link #flush()}.
+ *
+ * @since 1.4
+ * @see org.junit.platform.launcher.LauncherConstants#ASYNC_LISTENER_NOTIFICATION_ENABLED_PROPERTY_NAME
+ */
+class AsyncNotificationDispatcher implements Executor, AutoCloseable {
+
+	static final int DEFAULT_BUFFER_SIZE = 1024;
+
+	private static final Logger logger = LoggerFactory.getLogger(AsyncNotificationDispatcher.class);
+
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final long FULL_BUFFER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+	private final AtomicReferenceArray<Runnable> buffer;
+	private final int mask;
+	private final AtomicLong tail = new AtomicLong();
+	private final AtomicLong head = new AtomicLong();
+	private final Thread thread;
+
+	private volatile boolean idle;
+	private volatile boolean stopped;
+	private volatile Throwable blacklistedException;
+
+	/**
+	 * Create an {@code AsyncNotificationDispatcher} if it has been enabled via
+	 * the {@value org.junit.platform.launcher.LauncherConstants#ASYNC_LISTENER_NOTIFICATION_ENABLED_PROPERTY_NAME}
+	 * configuration parameter.
+	 */
+	static Optional<AsyncNotificationDispatcher> create(ConfigurationParameters configurationParameters) {
+		if (!configurationParameters.getBoolean(ASYNC_LISTENER_NOTIFICATION_ENABLED_PROPERTY_NAME).orElse(false)) {
+			return Optional.empty();
+		}
+		// @formatter:off
+		int bufferSize = configurationParameters.get(ASYNC_LISTENER_NOTIFICATION_BUFFER_SIZE_PROPERTY_NAME)
+				.map(String::trim)
+				.filter(value -> !value.isEmpty())
+				.map(AsyncNotificationDispatcher::parseBufferSize)
+				.orElse(DEFAULT_BUFFER_SIZE);
+		// @formatter:on
+		return Optional.of(new AsyncNotificationDispatcher(bufferSize));
+	}
+
+	private static int parseBufferSize(String value) {
+		try {
+			int bufferSize = Integer.parseInt(value);
+			if (bufferSize > 0) {
+				return bufferSize;
+			}
+		}
+		catch (NumberFormatException e) {
+			// fall through
+		}
+		throw new JUnitException(String.format("Invalid value '%s' specified via configuration parameter '%s'",
+			value, ASYNC_LISTENER_NOTIFICATION_BUFFER_SIZE_PROPERTY_NAME));
+	}
+
+	/**
+	 * Create a new dispatcher and start its thread.
+	 *
+	 * @param bufferSize the minimum number of notifications that can be
+	 * buffered; rounded up to the next power of two
+	 */
+	AsyncNotificationDispatcher(int bufferSize) {
+		int capacity = bufferSize <= 1 ? 1 : Integer.highestOneBit(Math.min(bufferSize, 1 << 30) - 1) << 1;
+		this.buffer = new AtomicReferenceArray<>(capacity);
+		this.mask = capacity - 1;
+		this.thread = new Thread(this::dispatchLoop, "junit-listener-notification-dispatcher");
+		this.thread.setContextClassLoader(Thread.currentThread().getContextClassLoader());
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	int getCapacity() {
+		return this.buffer.length();
+	}
+
+	/**
+	 * Submit the supplied notification for execution in the dispatcher thread.
+	 *
+	 * <p>If called from the dispatcher thread itself, for example by a
+	 * listener, the notification is executed immediately to avoid waiting
+	 * for a slot that can only be freed by the calling thread.
+	 */
+	@Override
+	public void execute(Runnable notification) {
+		if (Thread.currentThread() == this.thread) {
+			run(notification);
+			return;
+		}
+		if (this.stopped) {
+			throw new JUnitException("AsyncNotificationDispatcher has already been closed");
+		}
+		long sequence = this.tail.getAndIncrement();
+		while (sequence - this.head.get() >= this.buffer.length()) {
+			LockSupport.parkNanos(FULL_BUFFER_PARK_NANOS);
+		}
+		this.buffer.set((int) sequence & this.mask, notification);
+		if (this.idle) {
+			LockSupport.unpark(this.thread);
+		}
+	}
+
+	/**
+	 * Wait until all notifications that have been submitted before this
+	 * method was called have been executed.
+	 */
+	void flush() {
+		if (Thread.currentThread() == this.thread) {
+			return;
+		}
+		CountDownLatch latch = new CountDownLatch(1);
+		execute(latch::countDown);
+		try {
+			latch.await();
+		}
+		catch (InterruptedException e) {
+			ExceptionUtils.throwAsUncheckedException(e);
+		}
+		Throwable throwable = this.blacklistedException;
+		if (throwable != null) {
+			this.blacklistedException = null;
+			ExceptionUtils.throwAsUncheckedException(throwable);
+		}
+	}
+
+	/**
+	 * {@linkplain #flush() Flush} all pending notifications and stop the
+	 * dispatcher thread.
+	 */
+	@Override
+	public void close() {
+		if (this.stopped) {
+			return;
+		}
+		try {
+			flush();
+		}
+		finally {
+			execute(() -> this.stopped = true);
+			try {
+				this.thread.join();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private void dispatchLoop() {
+		long sequence = this.head.get();
+		while (!this.stopped) {
+			int index = (int) sequence & this.mask;
+			Runnable notification = this.buffer.get(index);
+			if (notification == null) {
+				awaitNotification(index);
+				continue;
+			}
+			this.buffer.lazySet(index, null);
+			this.head.lazySet(++sequence);
+			run(notification);
+		}
+	}
+
+	private void awaitNotification(int index) {
+		this.idle = true;
+		if (this.buffer.get(index) == null) {
+			LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+		}
+		this.idle = false;
+	}
+
+	private void run(Runnable notification) {
+		try {
+			notification.run();
+		}
+		catch (Throwable t) {
+			if (isBlacklisted(t)) {
+				if (this.blacklistedException == null) {
+					this.blacklistedException = t;
+				}
+			}
+			else {
+				logger.warn(t, () -> "Failed to notify TestExecutionListener");
+			}
+		}
+	}
+
+	private static boolean isBlacklisted(Throwable throwable) {
+		try {
+			BlacklistedExceptions.rethrowIfBlacklisted(throwable);
+			return false;
+		}
+		catch (Throwable t) {
+			return true;
+		}
+	}
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+
+/**
+ * Pool of reusable fixed-size chunks used by {@link StreamInterceptor} to
+ * buffer captured output.
+ *
+ * <p>The pool enforces two limits: the maximum number of bytes captured per
+ * capture and the maximum number of bytes held by all captures that use
+ * this pool at the same time. Chunks are only allocated when output is
+ * written and are returned to the pool once a capture has been consumed.
+ *
+ * <p>If a {@link SpillStorage} is configured, captures that exceed its
+ * threshold or cannot acquire further chunks continue in a file instead.
+ *
+ * @since 1.4
+ */
+class CaptureBufferPool {
+
+	static final int DEFAULT_CHUNK_SIZE = 8 * 1024;
+
+	private static final int MAX_IDLE_CHUNKS = 64;
+
+	private final int chunkSize;
+	private final int maxBytesPerCapture;
+	private final long maxTotalBytes;
+	private final Optional<SpillStorage> spillStorage;
+	private final Deque<byte[]> idleChunks = new ArrayDeque<>();
+
+	private long bytesInUse;
+
+	CaptureBufferPool(int maxBytesPerCapture, long maxTotalBytes) {
+		this(maxBytesPerCapture, maxTotalBytes, Optional.empty());
+	}
+
+	CaptureBufferPool(int maxBytesPerCapture, long maxTotalBytes, Optional<SpillStorage> spillStorage) {
+		this.chunkSize = Math.max(1, Math.min(DEFAULT_CHUNK_SIZE, maxBytesPerCapture));
+		this.maxBytesPerCapture = Math.max(0, maxBytesPerCapture);
+		this.maxTotalBytes = maxTotalBytes;
+		this.spillStorage = spillStorage;
+	}
+
+	int getMaxBytesPerCapture() {
+		return this.maxBytesPerCapture;
+	}
+
+	Optional<SpillStorage> getSpillStorage() {
+		return this.spillStorage;
+	}
+
+	/**
+	 * Acquire a chunk from this pool.
+	 *
+	 * @return a chunk or {@code null} if acquiring it would exceed the
+	 * maximum number of bytes held by all captures
+	 */
+	synchronized byte[] acquire() {
+		if (this.bytesInUse + this.chunkSize > this.maxTotalBytes) {
+			return null;
+		}
+		this.bytesInUse += this.chunkSize;
+		byte[] chunk = this.idleChunks.pollFirst();
+		return chunk != null ? chunk : new byte[this.chunkSize];
+	}
+
+	synchronized void release(byte[] chunk) {
+		this.bytesInUse -= chunk.length;
+		if (this.idleChunks.size() < MAX_IDLE_CHUNKS) {
+			this.idleChunks.addFirst(chunk);
+		}
+	}
+
+	synchronized long getBytesInUse() {
+		return this.bytesInUse;
+	}
+
+}
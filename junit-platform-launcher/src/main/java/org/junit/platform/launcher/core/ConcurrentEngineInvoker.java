@@ -0,0 +1,107 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+
+package org.junit.platform.launcher.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.platform.commons.util.ExceptionUtils;
+
+/**
+ * Invokes actions for multiple test engines concurrently.
+ *
+ * <p>All actions but the first are executed in worker threads that inherit
+ * the context class loader of the calling thread while the calling thread
+ * executes the first one. Exceptions thrown by the actions are rethrown to
+ * the caller once all preceding actions have completed.
+ *
+ * @since 1.4
+ */
+class ConcurrentEngineInvoker {
+
+	private final String threadNamePrefix;
+
+	ConcurrentEngineInvoker(String threadNamePrefix) {
+		this.threadNamePrefix = threadNamePrefix;
+	}
+
+	/**
+	 * Invoke the supplied actions concurrently and wait for all of them to
+	 * complete.
+	 *
+	 * @return the results of the actions in the order of the supplied list
+	 */
+	<T> List<T> invokeAll(List<Supplier<T>> actions) {
+		List<T> results = new ArrayList<>(actions.size());
+		if (actions.size() < 2) {
+			actions.forEach(action -> results.add(action.get()));
+			return results;
+		}
+		ExecutorService executorService = Executors.newFixedThreadPool(actions.size() - 1,
+			new WorkerThreadFactory(this.threadNamePrefix, Thread.currentThread().getContextClassLoader()));
+		try {
+			List<Future<T>> futures = new ArrayList<>(actions.size() - 1);
+			for (Supplier<T> action : actions.subList(1, actions.size())) {
+				futures.add(executorService.submit(action::get));
+			}
+			results.add(actions.get(0).get());
+			for (Future<T> future : futures) {
+				results.add(await(future));
+			}
+			return results;
+		}
+		finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	private static <T> T await(Future<T> future) {
+		try {
+			return future.get();
+		}
+		catch (ExecutionException e) {
+			throw ExceptionUtils.throwAsUncheckedException(e.getCause());
+		}
+		catch (InterruptedException e) {
+			throw ExceptionUtils.throwAsUncheckedException(e);
+		}
+	}
+
+	private static class WorkerThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+		private final String threadNamePrefix;
+		private final ClassLoader contextClassLoader;
+
+		WorkerThreadFactory(String threadNamePrefix, ClassLoader contextClassLoader) {
+			this.threadNamePrefix = threadNamePrefix;
+			this.contextClassLoader = contextClassLoader;
+		}
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, this.threadNamePrefix + threadNumber.getAndIncrement());
+			thread.setContextClassLoader(this.contextClassLoader);
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
+}
@@ -10,25 +10,44 @@
 
 package org.junit.platform.launcher.core;
 
+import static java.util.Collections.emptySet;
+import static java.util.stream.Collectors.toSet;
+import static org.junit.platform.engine.Filter.composeFilters;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import org.junit.platform.commons.JUnitException;
 import org.junit.platform.commons.logging.Logger;
 import org.junit.platform.commons.logging.LoggerFactory;
 import org.junit.platform.commons.util.BlacklistedExceptions;
+import org.junit.platform.commons.util.FlightRecorderEventType;
 import org.junit.platform.commons.util.Preconditions;
+import org.junit.platform.engine.CancellationToken;
 import org.junit.platform.engine.ConfigurationParameters;
 import org.junit.platform.engine.ExecutionRequest;
+import org.junit.platform.engine.Filter;
 import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.ResourceLockRegistry;
 import org.junit.platform.engine.TestDescriptor;
 import org.junit.platform.engine.TestEngine;
 import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.hierarchical.HierarchicalTestEngine;
 import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherConstants;
 import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.ShardFilter;
 import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
 import org.junit.platform.launcher.TestPlan;
 
 /**
@@ -45,8 +64,13 @@ class DefaultLauncher implements Launcher {
 
 	private static final Logger logger = LoggerFactory.getLogger(DefaultLauncher.class);
 
+	private static final FlightRecorderEventType ENGINE_DISCOVERY_EVENT_TYPE = FlightRecorderEventType.create(
+		"org.junit.platform.launcher.EngineDiscovery", "Engine Discovery", "Test discovery of a single test engine",
+		"uniqueId");
+
 	private final TestExecutionListenerRegistry listenerRegistry = new TestExecutionListenerRegistry();
 	private final EngineDiscoveryResultValidator discoveryResultValidator = new EngineDiscoveryResultValidator();
+	private final ResourceLockRegistry resourceLockRegistry = ResourceLockRegistry.create();
 	private final Iterable<TestEngine> testEngines;
 
 	/**
@@ -117,7 +141,8 @@ class DefaultLauncher implements Launcher {
 	@Override
 	public TestPlan discover(LauncherDiscoveryRequest discoveryRequest) {
 		Preconditions.notNull(discoveryRequest, "LauncherDiscoveryRequest must not be null");
-		return TestPlan.from(discoverRoot(discoveryRequest, "discovery").getEngineDescriptors());
+		return InternalTestPlan.from(discoverRoot(discoveryRequest, "discovery"),
+			discoveryRequest.getConfigurationParameters());
 	}
 
 	@Override
@@ -125,7 +150,44 @@ class DefaultLauncher implements Launcher {
 		Preconditions.notNull(discoveryRequest, "LauncherDiscoveryRequest must not be null");
 		Preconditions.notNull(listeners, "TestExecutionListener array must not be null");
 		Preconditions.containsNoNullElements(listeners, "individual listeners must not be null");
-		execute(discoverRoot(discoveryRequest, "execution"), discoveryRequest.getConfigurationParameters(), listeners);
+		execute(InternalTestPlan.from(discoverRoot(discoveryRequest, "execution"),
+			discoveryRequest.getConfigurationParameters()), CancellationToken.create(), listeners);
+	}
+
+	@Override
+	public void execute(LauncherDiscoveryRequest discoveryRequest, CancellationToken cancellationToken,
+			TestExecutionListener... listeners) {
+		Preconditions.notNull(discoveryRequest, "LauncherDiscoveryRequest must not be null");
+		Preconditions.notNull(cancellationToken, "CancellationToken must not be null");
+		Preconditions.notNull(listeners, "TestExecutionListener array must not be null");
+		Preconditions.containsNoNullElements(listeners, "individual listeners must not be null");
+		execute(InternalTestPlan.from(discoverRoot(discoveryRequest, "execution"),
+			discoveryRequest.getConfigurationParameters()), cancellationToken, listeners);
+	}
+
+	@Override
+	public void execute(TestPlan testPlan, TestExecutionListener... listeners) {
+		Preconditions.notNull(listeners, "TestExecutionListener array must not be null");
+		Preconditions.containsNoNullElements(listeners, "individual listeners must not be null");
+		execute(toInternalTestPlan(testPlan), CancellationToken.create(), listeners);
+	}
+
+	@Override
+	public void execute(TestPlan testPlan, Collection<TestIdentifier> testIdentifiers,
+			CancellationToken cancellationToken, TestExecutionListener... listeners) {
+		Preconditions.notNull(testIdentifiers, "TestIdentifier collection must not be null");
+		Preconditions.containsNoNullElements(testIdentifiers, "individual test identifiers must not be null");
+		Preconditions.notNull(cancellationToken, "CancellationToken must not be null");
+		Preconditions.notNull(listeners, "TestExecutionListener array must not be null");
+		Preconditions.containsNoNullElements(listeners, "individual listeners must not be null");
+		execute(toInternalTestPlan(testPlan).restrictTo(testIdentifiers), cancellationToken, listeners);
+	}
+
+	private static InternalTestPlan toInternalTestPlan(TestPlan testPlan) {
+		Preconditions.notNull(testPlan, "TestPlan must not be null");
+		Preconditions.condition(testPlan instanceof InternalTestPlan,
+			"TestPlan must have been returned by Launcher.discover()");
+		return (InternalTestPlan) testPlan;
 	}
 
 	TestExecutionListenerRegistry getTestExecutionListenerRegistry() {
@@ -133,7 +195,7 @@ class DefaultLauncher implements Launcher {
 	}
 
 	private Root discoverRoot(LauncherDiscoveryRequest discoveryRequest, String phase) {
-		Root root = new Root();
+		List<TestEngine> includedTestEngines = new ArrayList<>();
 
 		for (TestEngine testEngine : this.testEngines) {
 			// @formatter:off
@@ -149,21 +211,82 @@ class DefaultLauncher implements Launcher {
 				continue;
 			}
 
-			logger.debug(() -> String.format("Discovering tests during Launcher %s phase in engine '%s'.", phase,
-				testEngine.getId()));
+			includedTestEngines.add(testEngine);
+		}
 
-			Optional<TestDescriptor> engineRoot = discoverEngineRoot(testEngine, discoveryRequest);
-			engineRoot.ifPresent(rootDescriptor -> root.add(testEngine, rootDescriptor));
+		List<Optional<TestDescriptor>> engineRoots = discoverEngineRoots(includedTestEngines, discoveryRequest, phase);
+		Root root = new Root();
+		for (int i = 0; i < includedTestEngines.size(); i++) {
+			TestEngine testEngine = includedTestEngines.get(i);
+			engineRoots.get(i).ifPresent(rootDescriptor -> root.add(testEngine, rootDescriptor));
 		}
-		root.applyPostDiscoveryFilters(discoveryRequest);
-		root.prune();
+		applyConfiguredShardFilter(root, discoveryRequest);
 		return root;
 	}
 
+	/**
+	 * Discover, filter, and prune the tests of the supplied engines.
+	 *
+	 * <p>If {@linkplain LauncherConstants#PARALLEL_DISCOVERY_ENABLED_PROPERTY_NAME
+	 * parallel discovery} is enabled, all engines but the first are discovered
+	 * in worker threads while the current thread discovers the first one.
+	 *
+	 * @return the filtered and pruned root descriptors in the order of the
+	 * supplied engines
+	 */
+	private List<Optional<TestDescriptor>> discoverEngineRoots(List<TestEngine> testEngines,
+			LauncherDiscoveryRequest discoveryRequest, String phase) {
+
+		Filter<TestDescriptor> postDiscoveryFilter = composeFilters(discoveryRequest.getPostDiscoveryFilters());
+		boolean parallel = testEngines.size() > 1 && discoveryRequest.getConfigurationParameters().getBoolean(
+			LauncherConstants.PARALLEL_DISCOVERY_ENABLED_PROPERTY_NAME).orElse(false);
+		if (!parallel) {
+			List<Optional<TestDescriptor>> engineRoots = new ArrayList<>(testEngines.size());
+			for (TestEngine testEngine : testEngines) {
+				engineRoots.add(discoverAndFilterEngineRoot(testEngine, discoveryRequest, postDiscoveryFilter, phase));
+			}
+			return engineRoots;
+		}
+		List<Supplier<Optional<TestDescriptor>>> actions = new ArrayList<>(testEngines.size());
+		for (TestEngine testEngine : testEngines) {
+			actions.add(() -> discoverAndFilterEngineRoot(testEngine, discoveryRequest, postDiscoveryFilter, phase));
+		}
+		return new ConcurrentEngineInvoker("junit-discovery-worker-").invokeAll(actions);
+	}
+
+	private Optional<TestDescriptor> discoverAndFilterEngineRoot(TestEngine testEngine,
+			LauncherDiscoveryRequest discoveryRequest, Filter<TestDescriptor> postDiscoveryFilter, String phase) {
+
+		logger.debug(() -> String.format("Discovering tests during Launcher %s phase in engine '%s'.", phase,
+			testEngine.getId()));
+
+		Optional<TestDescriptor> engineRoot = discoverEngineRoot(testEngine, discoveryRequest);
+		engineRoot.ifPresent(rootDescriptor -> {
+			Root.applyPostDiscoveryFilter(rootDescriptor, postDiscoveryFilter);
+			Root.prune(rootDescriptor);
+		});
+		return engineRoot;
+	}
+
+	/**
+	 * Apply the {@link ShardFilter} configured via configuration parameters, if
+	 * any, after all other filters so that the shards partition the tests that
+	 * would otherwise be executed.
+	 */
+	private void applyConfiguredShardFilter(Root root, LauncherDiscoveryRequest discoveryRequest) {
+		ShardFilter.fromConfigurationParameters(discoveryRequest.getConfigurationParameters()).ifPresent(
+			shardFilter -> {
+				logger.config(() -> "Applying " + shardFilter);
+				root.applyPostDiscoveryFilter(shardFilter);
+				root.prune();
+			});
+	}
+
 	private Optional<TestDescriptor> discoverEngineRoot(TestEngine testEngine,
 			LauncherDiscoveryRequest discoveryRequest) {
 
 		UniqueId uniqueEngineId = UniqueId.forEngine(testEngine.getId());
+		FlightRecorderEventType.Event event = ENGINE_DISCOVERY_EVENT_TYPE.begin();
 		try {
 			TestDescriptor engineRoot = testEngine.discover(discoveryRequest, uniqueEngineId);
 			discoveryResultValidator.validate(testEngine, engineRoot);
@@ -173,39 +296,143 @@ class DefaultLauncher implements Launcher {
 			handleThrowable(testEngine, "discover", throwable);
 			return Optional.empty();
 		}
+		finally {
+			event.commit(uniqueEngineId);
+		}
 	}
 
-	private void execute(Root root, ConfigurationParameters configurationParameters,
+	private void execute(InternalTestPlan testPlan, CancellationToken cancellationToken,
 			TestExecutionListener... listeners) {
-		TestExecutionListenerRegistry listenerRegistry = buildListenerRegistryForExecution(listeners);
+		Root root = testPlan.markStarted();
+		ConfigurationParameters configurationParameters = testPlan.getConfigurationParameters();
+		TestExecutionListenerRegistry listenerRegistry = buildListenerRegistryForExecution(
+			withFailFastListener(configurationParameters, cancellationToken, listeners));
 		withInterceptedStreams(configurationParameters, listenerRegistry, testExecutionListener -> {
-			TestPlan testPlan = TestPlan.from(root.getEngineDescriptors());
 			testExecutionListener.testPlanExecutionStarted(testPlan);
-			ExecutionListenerAdapter engineExecutionListener = new ExecutionListenerAdapter(testPlan,
-				testExecutionListener);
-			for (TestEngine testEngine : root.getTestEngines()) {
-				TestDescriptor testDescriptor = root.getTestDescriptorFor(testEngine);
-				execute(testEngine,
-					new ExecutionRequest(testDescriptor, engineExecutionListener, configurationParameters));
+			Optional<ForkedJvmExecutor> forkedJvmExecutor = ForkedJvmExecutor.create(configurationParameters);
+			if (forkedJvmExecutor.isPresent()) {
+				forkedJvmExecutor.get().execute(testPlan, testExecutionListener, cancellationToken);
+			}
+			else {
+				executeEngines(root, testPlan, testExecutionListener, configurationParameters, cancellationToken);
 			}
 			testExecutionListener.testPlanExecutionFinished(testPlan);
 		});
 	}
 
+	/**
+	 * Execute the engines of the supplied {@link Root} in the current JVM.
+	 *
+	 * <p>If {@linkplain LauncherConstants#PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME
+	 * parallel execution} is enabled, the engines are executed concurrently
+	 * and events are delivered to the {@link TestExecutionListener} one at a
+	 * time. Engines that do not acquire the locks of their resources from the
+	 * shared {@link ResourceLockRegistry}, i.e. all engines that are not
+	 * {@link HierarchicalTestEngine HierarchicalTestEngines}, are executed
+	 * while holding the write lock of its {@linkplain ResourceLockRegistry#GLOBAL_KEY
+	 * global key} unless they are listed in the
+	 * {@value LauncherConstants#PARALLEL_EXECUTION_CONCURRENT_ENGINES_PROPERTY_NAME}
+	 * configuration parameter; all others hold its read lock.
+	 */
+	private void executeEngines(Root root, TestPlan testPlan, TestExecutionListener testExecutionListener,
+			ConfigurationParameters configurationParameters, CancellationToken cancellationToken) {
+
+		List<TestEngine> testEngines = new ArrayList<>();
+		root.getTestEngines().forEach(testEngines::add);
+		boolean parallel = testEngines.size() > 1 && configurationParameters.getBoolean(
+			LauncherConstants.PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME).orElse(false);
+		ExecutionListenerAdapter engineExecutionListener = parallel
+				? ExecutionListenerAdapter.serialized(testPlan, testExecutionListener)
+				: new ExecutionListenerAdapter(testPlan, testExecutionListener);
+		if (!parallel) {
+			for (TestEngine testEngine : testEngines) {
+				execute(testEngine, root.getTestDescriptorFor(testEngine), engineExecutionListener,
+					configurationParameters, cancellationToken);
+			}
+			return;
+		}
+		ReadWriteLock globalLock = this.resourceLockRegistry.getLock(
+			this.resourceLockRegistry.getKeyId(ResourceLockRegistry.GLOBAL_KEY));
+		Set<String> concurrentEngineIds = getConcurrentEngineIds(configurationParameters);
+		List<Supplier<Void>> actions = new ArrayList<>(testEngines.size());
+		for (TestEngine testEngine : testEngines) {
+			boolean concurrent = testEngine instanceof HierarchicalTestEngine
+					|| concurrentEngineIds.contains(testEngine.getId());
+			Lock lock = concurrent ? globalLock.readLock() : globalLock.writeLock();
+			actions.add(() -> {
+				lock.lock();
+				try {
+					execute(testEngine, root.getTestDescriptorFor(testEngine), engineExecutionListener,
+						configurationParameters, cancellationToken);
+				}
+				finally {
+					lock.unlock();
+				}
+				return null;
+			});
+		}
+		new ConcurrentEngineInvoker("junit-engine-execution-worker-").invokeAll(actions);
+	}
+
+	private static Set<String> getConcurrentEngineIds(ConfigurationParameters configurationParameters) {
+		// @formatter:off
+		return configurationParameters.get(LauncherConstants.PARALLEL_EXECUTION_CONCURRENT_ENGINES_PROPERTY_NAME)
+				.map(value -> Arrays.stream(value.split(","))
+						.map(String::trim)
+						.filter(engineId -> !engineId.isEmpty())
+						.collect(toSet()))
+				.orElse(emptySet());
+		// @formatter:on
+	}
+
+	private void execute(TestEngine testEngine, TestDescriptor testDescriptor,
+			ExecutionListenerAdapter engineExecutionListener, ConfigurationParameters configurationParameters,
+			CancellationToken cancellationToken) {
+
+		if (cancellationToken.isCancellationRequested()) {
+			engineExecutionListener.executionSkipped(testDescriptor, CancellationToken.SKIP_REASON);
+			return;
+		}
+		execute(testEngine, new ExecutionRequest(testDescriptor, engineExecutionListener, configurationParameters,
+			cancellationToken, this.resourceLockRegistry));
+	}
+
 	private void withInterceptedStreams(ConfigurationParameters configurationParameters,
 			TestExecutionListenerRegistry listenerRegistry, Consumer<TestExecutionListener> action) {
-		TestExecutionListener testExecutionListener = listenerRegistry.getCompositeTestExecutionListener();
+		Optional<SpillStorage> spillStorage = SpillStorage.create(configurationParameters);
+		Optional<AsyncNotificationDispatcher> dispatcher = AsyncNotificationDispatcher.create(configurationParameters);
+		TestExecutionListener compositeTestExecutionListener = dispatcher.isPresent()
+				? listenerRegistry.getCompositeTestExecutionListener(dispatcher.get())
+				: listenerRegistry.getCompositeTestExecutionListener();
+		TestExecutionListener testExecutionListener = spillStorage.isPresent()
+				? new SpillingTestExecutionListener(compositeTestExecutionListener, spillStorage.get())
+				: compositeTestExecutionListener;
 		Optional<StreamInterceptingTestExecutionListener> streamInterceptingTestExecutionListener = StreamInterceptingTestExecutionListener.create(
-			configurationParameters, testExecutionListener::reportingEntryPublished);
+			configurationParameters, spillStorage, testExecutionListener::reportingEntryPublished);
 		streamInterceptingTestExecutionListener.ifPresent(listenerRegistry::registerListeners);
 		try {
 			action.accept(testExecutionListener);
 		}
 		finally {
 			streamInterceptingTestExecutionListener.ifPresent(StreamInterceptingTestExecutionListener::unregister);
+			try {
+				dispatcher.ifPresent(AsyncNotificationDispatcher::close);
+			}
+			finally {
+				spillStorage.ifPresent(SpillStorage::close);
+			}
 		}
 	}
 
+	private static TestExecutionListener[] withFailFastListener(ConfigurationParameters configurationParameters,
+			CancellationToken cancellationToken, TestExecutionListener... listeners) {
+		return FailFastTestExecutionListener.create(configurationParameters, cancellationToken).map(listener -> {
+			TestExecutionListener[] result = Arrays.copyOf(listeners, listeners.length + 1);
+			result[listeners.length] = listener;
+			return result;
+		}).orElse(listeners);
+	}
+
 	private TestExecutionListenerRegistry buildListenerRegistryForExecution(TestExecutionListener... listeners) {
 		if (listeners.length == 0) {
 			return this.listenerRegistry;
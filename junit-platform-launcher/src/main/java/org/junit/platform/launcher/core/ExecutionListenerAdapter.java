@@ -28,37 +28,72 @@ class ExecutionListenerAdapter implements EngineExecutionListener {
 
 	private final TestPlan testPlan;
 	private final TestExecutionListener testExecutionListener;
+	private final Object deliveryLock;
 
 	ExecutionListenerAdapter(TestPlan testPlan, TestExecutionListener testExecutionListener) {
+		this(testPlan, testExecutionListener, null);
+	}
+
+	private ExecutionListenerAdapter(TestPlan testPlan, TestExecutionListener testExecutionListener,
+			Object deliveryLock) {
 		this.testPlan = testPlan;
 		this.testExecutionListener = testExecutionListener;
+		this.deliveryLock = deliveryLock;
+	}
+
+	/**
+	 * Create an {@code ExecutionListenerAdapter} that delivers events to the
+	 * supplied {@link TestExecutionListener} one at a time, regardless of the
+	 * number of threads reporting them.
+	 *
+	 * <p>Used when several engines are executed concurrently since listeners
+	 * cannot be expected to handle events of multiple engines at once.
+	 */
+	static ExecutionListenerAdapter serialized(TestPlan testPlan, TestExecutionListener testExecutionListener) {
+		return new ExecutionListenerAdapter(testPlan, testExecutionListener, new Object());
 	}
 
 	@Override
 	public void dynamicTestRegistered(TestDescriptor testDescriptor) {
 		TestIdentifier testIdentifier = TestIdentifier.from(testDescriptor);
-		this.testPlan.add(testIdentifier);
-		this.testExecutionListener.dynamicTestRegistered(testIdentifier);
+		deliver(() -> {
+			this.testPlan.add(testIdentifier);
+			this.testExecutionListener.dynamicTestRegistered(getTestIdentifier(testDescriptor));
+		});
 	}
 
 	@Override
 	public void executionStarted(TestDescriptor testDescriptor) {
-		this.testExecutionListener.executionStarted(getTestIdentifier(testDescriptor));
+		TestIdentifier testIdentifier = getTestIdentifier(testDescriptor);
+		deliver(() -> this.testExecutionListener.executionStarted(testIdentifier));
 	}
 
 	@Override
 	public void executionSkipped(TestDescriptor testDescriptor, String reason) {
-		this.testExecutionListener.executionSkipped(getTestIdentifier(testDescriptor), reason);
+		TestIdentifier testIdentifier = getTestIdentifier(testDescriptor);
+		deliver(() -> this.testExecutionListener.executionSkipped(testIdentifier, reason));
 	}
 
 	@Override
 	public void executionFinished(TestDescriptor testDescriptor, TestExecutionResult testExecutionResult) {
-		this.testExecutionListener.executionFinished(getTestIdentifier(testDescriptor), testExecutionResult);
+		TestIdentifier testIdentifier = getTestIdentifier(testDescriptor);
+		deliver(() -> this.testExecutionListener.executionFinished(testIdentifier, testExecutionResult));
 	}
 
 	@Override
 	public void reportingEntryPublished(TestDescriptor testDescriptor, ReportEntry entry) {
-		this.testExecutionListener.reportingEntryPublished(getTestIdentifier(testDescriptor), entry);
+		TestIdentifier testIdentifier = getTestIdentifier(testDescriptor);
+		deliver(() -> this.testExecutionListener.reportingEntryPublished(testIdentifier, entry));
+	}
+
+	private void deliver(Runnable event) {
+		if (this.deliveryLock == null) {
+			event.run();
+			return;
+		}
+		synchronized (this.deliveryLock) {
+			event.run();
+		}
 	}
 
 	private TestIdentifier getTestIdentifier(TestDescriptor testDescriptor) {
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import static org.junit.platform.launcher.LauncherConstants.FAIL_FAST_MAX_FAILURES_PROPERTY_NAME;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.logging.Logger;
+import org.junit.platform.commons.logging.LoggerFactory;
+import org.junit.platform.engine.CancellationToken;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.core.TestExecutionListenerRegistry.EagerTestExecutionListener;
+
+/**
+ * {@link TestExecutionListener} that cancels the execution once the
+ * configured number of tests have failed.
+ *
+ * <p>Failures are counted as soon as they are reported so that cancellation
+ * is not delayed if listeners are notified asynchronously.
+ *
+ * @since 1.4
+ * @see org.junit.platform.launcher.LauncherConstants#FAIL_FAST_MAX_FAILURES_PROPERTY_NAME
+ */
+class FailFastTestExecutionListener implements EagerTestExecutionListener {
+
+	private static final Logger logger = LoggerFactory.getLogger(FailFastTestExecutionListener.class);
+
+	private final int maxFailures;
+	private final CancellationToken cancellationToken;
+	private final AtomicInteger failures = new AtomicInteger();
+
+	/**
+	 * Create a {@code FailFastTestExecutionListener} if it has been enabled
+	 * via the {@value org.junit.platform.launcher.LauncherConstants#FAIL_FAST_MAX_FAILURES_PROPERTY_NAME}
+	 * configuration parameter.
+	 */
+	static Optional<TestExecutionListener> create(ConfigurationParameters configurationParameters,
+			CancellationToken cancellationToken) {
+		// @formatter:off
+		return configurationParameters.get(FAIL_FAST_MAX_FAILURES_PROPERTY_NAME)
+				.map(String::trim)
+				.filter(value -> !value.isEmpty())
+				.map(value -> new FailFastTestExecutionListener(parseMaxFailures(value), cancellationToken));
+		// @formatter:on
+	}
+
+	private static int parseMaxFailures(String value) {
+		try {
+			int maxFailures = Integer.parseInt(value);
+			if (maxFailures > 0) {
+				return maxFailures;
+			}
+		}
+		catch (NumberFormatException e) {
+			// fall through
+		}
+		throw new JUnitException(String.format("Invalid value '%s' specified via configuration parameter '%s'",
+			value, FAIL_FAST_MAX_FAILURES_PROPERTY_NAME));
+	}
+
+	FailFastTestExecutionListener(int maxFailures, CancellationToken cancellationToken) {
+		this.maxFailures = maxFailures;
+		this.cancellationToken = cancellationToken;
+	}
+
+	@Override
+	public void executionJustFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+		if (testIdentifier.isTest() && testExecutionResult.getStatus() == TestExecutionResult.Status.FAILED
+				&& failures.incrementAndGet() == maxFailures) {
+			logger.info(() -> String.format("Cancelling execution after %d failed test(s)", maxFailures));
+			cancellationToken.cancel();
+		}
+	}
+
+}
@@ -0,0 +1,584 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import static java.lang.ProcessBuilder.Redirect.INHERIT;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.platform.launcher.LauncherConstants.FAIL_FAST_MAX_FAILURES_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.FORKED_JVM_ARGS_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.FORKED_WORKERS_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.SHARD_PROPERTY_NAME;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.logging.Logger;
+import org.junit.platform.commons.logging.LoggerFactory;
+import org.junit.platform.commons.util.ClassLoaderUtils;
+import org.junit.platform.engine.CancellationToken;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestExecutionResult.Status;
+import org.junit.platform.engine.reporting.ReportEntry;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * Executes a discovered {@link TestPlan} in a pool of forked JVMs.
+ *
+ * <p>The test plan is split into units of work at class granularity: each
+ * unit is either an outermost identifier with a {@link ClassSource} or a leaf
+ * without such an ancestor. Each worker JVM pulls the next unit from a shared
+ * queue once it has finished the previous one, so that workers that execute
+ * short classes take over the remaining work of the others.
+ *
+ * <p>Workers stream their execution events back to this JVM where they are
+ * translated to the identifiers of the test plan and forwarded to the
+ * {@link TestExecutionListener}. Identifiers that contain multiple units,
+ * such as engine descriptors, are reported as started once and as finished
+ * after all units have been executed.
+ *
+ * <p>Workers connect to a loopback port of this JVM. Since other local
+ * processes may connect to it as well, a worker has to present a random
+ * token it receives via its standard input before any object is
+ * deserialized, and only the types of the exchanged events and exceptions
+ * thrown by tests may be deserialized.
+ *
+ * <p>Once cancellation has been requested, units that have not been sent to
+ * a worker yet are reported as skipped while units that are already being
+ * executed are allowed to finish.
+ *
+ * @since 1.4
+ * @see org.junit.platform.launcher.LauncherConstants#FORKED_WORKERS_PROPERTY_NAME
+ * @see ForkedJvmWorker
+ */
+class ForkedJvmExecutor {
+
+	private static final Logger logger = LoggerFactory.getLogger(ForkedJvmExecutor.class);
+
+	private static final int CONNECT_TIMEOUT_MILLIS = (int) TimeUnit.SECONDS.toMillis(60);
+
+	private static final int HANDSHAKE_TIMEOUT_MILLIS = (int) TimeUnit.SECONDS.toMillis(10);
+
+	private final int workers;
+	private final List<String> jvmArgs;
+	private final Map<String, String> workerConfigurationParameters;
+
+	/**
+	 * Create a {@code ForkedJvmExecutor} if execution in forked JVMs has been
+	 * enabled via the {@value org.junit.platform.launcher.LauncherConstants#FORKED_WORKERS_PROPERTY_NAME}
+	 * configuration parameter.
+	 */
+	static Optional<ForkedJvmExecutor> create(ConfigurationParameters configurationParameters) {
+		int workers = configurationParameters.get(FORKED_WORKERS_PROPERTY_NAME).map(String::trim).map(value -> {
+			try {
+				return Integer.parseInt(value);
+			}
+			catch (NumberFormatException e) {
+				throw new JUnitException(String.format("Invalid value '%s' specified via configuration parameter '%s'",
+					value, FORKED_WORKERS_PROPERTY_NAME), e);
+			}
+		}).orElse(0);
+		if (workers <= 0) {
+			return Optional.empty();
+		}
+		// @formatter:off
+		List<String> jvmArgs = configurationParameters.get(FORKED_JVM_ARGS_PROPERTY_NAME)
+				.map(String::trim)
+				.filter(value -> !value.isEmpty())
+				.map(value -> Arrays.asList(value.split("\\s+")))
+				.orElse(Collections.emptyList());
+		// @formatter:on
+		return Optional.of(new ForkedJvmExecutor(workers, jvmArgs, createWorkerConfigurationParameters(
+			configurationParameters)));
+	}
+
+	private static Map<String, String> createWorkerConfigurationParameters(
+			ConfigurationParameters configurationParameters) {
+		Map<String, String> result = new HashMap<>();
+		System.getProperties().stringPropertyNames().stream().filter(key -> key.startsWith("junit.")).forEach(
+			key -> result.put(key, System.getProperty(key)));
+		if (configurationParameters instanceof LauncherConfigurationParameters) {
+			result.putAll(((LauncherConfigurationParameters) configurationParameters).getExplicitConfigParams());
+		}
+		// Workers must neither fork nor shard again
+		result.put(FORKED_WORKERS_PROPERTY_NAME, "0");
+		result.put(SHARD_PROPERTY_NAME, "");
+		// Failures are counted across all workers by this JVM
+		result.put(FAIL_FAST_MAX_FAILURES_PROPERTY_NAME, "");
+		return result;
+	}
+
+	ForkedJvmExecutor(int workers, List<String> jvmArgs, Map<String, String> workerConfigurationParameters) {
+		this.workers = workers;
+		this.jvmArgs = jvmArgs;
+		this.workerConfigurationParameters = workerConfigurationParameters;
+	}
+
+	void execute(TestPlan testPlan, TestExecutionListener listener, CancellationToken cancellationToken) {
+		EventDispatcher dispatcher = new EventDispatcher(testPlan, listener);
+		Queue<TestIdentifier> units = new ConcurrentLinkedQueue<>(dispatcher.getUnits());
+		int workerCount = Math.min(workers, units.size());
+		logger.config(() -> String.format("Executing %d units in %d forked JVMs", units.size(), workerCount));
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < workerCount; i++) {
+			Thread thread = new Thread(() -> executeUnits(units, dispatcher, cancellationToken),
+				"junit-forked-jvm-worker-" + (i + 1));
+			thread.setDaemon(true);
+			thread.start();
+			threads.add(thread);
+		}
+		try {
+			for (Thread thread : threads) {
+				thread.join();
+			}
+		}
+		catch (InterruptedException e) {
+			threads.forEach(Thread::interrupt);
+			Thread.currentThread().interrupt();
+		}
+		dispatcher.finishSharedIdentifiers();
+	}
+
+	private void executeUnits(Queue<TestIdentifier> units, EventDispatcher dispatcher,
+			CancellationToken cancellationToken) {
+		WorkerProcess process = null;
+		try {
+			for (TestIdentifier unit = units.poll(); unit != null; unit = units.poll()) {
+				if (cancellationToken.isCancellationRequested()) {
+					dispatcher.skipUnit(unit, CancellationToken.SKIP_REASON);
+					continue;
+				}
+				UnitExecution execution = dispatcher.newUnitExecution(unit);
+				try {
+					if (process == null) {
+						process = WorkerProcess.start(jvmArgs, workerConfigurationParameters);
+					}
+					process.execute(unit, dispatcher.getIncludedIds(unit), execution);
+				}
+				catch (Exception e) {
+					JUnitException failure = new JUnitException(
+						"Forked JVM terminated unexpectedly while executing " + unit.getUniqueId(), e);
+					logger.debug(failure, failure::getMessage);
+					dispatcher.failUnfinished(execution, failure);
+					if (process != null) {
+						process.destroy();
+						process = null;
+					}
+				}
+			}
+		}
+		finally {
+			if (process != null) {
+				process.close();
+			}
+		}
+	}
+
+	/**
+	 * Translates the events of all workers to the {@link TestPlan} and
+	 * forwards them to the listener, one at a time.
+	 */
+	private static class EventDispatcher {
+
+		private final TestPlan testPlan;
+		private final TestExecutionListener listener;
+		private final List<TestIdentifier> units = new ArrayList<>();
+		private final List<TestIdentifier> sharedIdentifiers = new ArrayList<>();
+		private final Set<String> sharedIds = new HashSet<>();
+		private final Set<String> startedSharedIds = new HashSet<>();
+		private final Map<String, TestExecutionResult> sharedResults = new HashMap<>();
+
+		EventDispatcher(TestPlan testPlan, TestExecutionListener listener) {
+			this.testPlan = testPlan;
+			this.listener = listener;
+			testPlan.getRoots().forEach(this::collectUnits);
+		}
+
+		private void collectUnits(TestIdentifier identifier) {
+			Set<TestIdentifier> children = testPlan.getChildren(identifier);
+			boolean isRoot = !identifier.getParentId().isPresent();
+			boolean isClass = identifier.getSource().filter(ClassSource.class::isInstance).isPresent();
+			if (!isRoot && (isClass || children.isEmpty())) {
+				units.add(identifier);
+				return;
+			}
+			sharedIdentifiers.add(identifier);
+			sharedIds.add(identifier.getUniqueId());
+			children.forEach(this::collectUnits);
+		}
+
+		List<TestIdentifier> getUnits() {
+			return units;
+		}
+
+		Set<String> getIncludedIds(TestIdentifier unit) {
+			Set<String> includedIds = new HashSet<>();
+			includedIds.add(unit.getUniqueId());
+			testPlan.getDescendants(unit).forEach(descendant -> includedIds.add(descendant.getUniqueId()));
+			return includedIds;
+		}
+
+		UnitExecution newUnitExecution(TestIdentifier unit) {
+			return new UnitExecution(unit, this);
+		}
+
+		synchronized void dynamicTestRegistered(TestIdentifier testIdentifier) {
+			testPlan.add(testIdentifier);
+			listener.dynamicTestRegistered(testPlan.getTestIdentifier(testIdentifier.getUniqueId()));
+		}
+
+		synchronized void executionStarted(UnitExecution execution, String uniqueId) {
+			TestIdentifier testIdentifier = testPlan.getTestIdentifier(uniqueId);
+			if (sharedIds.contains(uniqueId)) {
+				ensureStarted(testIdentifier);
+				return;
+			}
+			ensureParentStarted(testIdentifier);
+			execution.openIdentifiers.add(testIdentifier);
+			listener.executionStarted(testIdentifier);
+		}
+
+		synchronized void executionSkipped(UnitExecution execution, String uniqueId, String reason) {
+			if (sharedIds.contains(uniqueId)) {
+				return;
+			}
+			TestIdentifier testIdentifier = testPlan.getTestIdentifier(uniqueId);
+			if (testIdentifier.equals(execution.unit)) {
+				execution.unitFinished = true;
+			}
+			ensureParentStarted(testIdentifier);
+			listener.executionSkipped(testIdentifier, reason);
+		}
+
+		synchronized void executionFinished(UnitExecution execution, String uniqueId, TestExecutionResult result) {
+			if (sharedIds.contains(uniqueId)) {
+				recordSharedResult(uniqueId, result);
+				return;
+			}
+			TestIdentifier testIdentifier = testPlan.getTestIdentifier(uniqueId);
+			execution.openIdentifiers.remove(testIdentifier);
+			if (testIdentifier.equals(execution.unit)) {
+				execution.unitFinished = true;
+			}
+			listener.executionFinished(testIdentifier, result);
+		}
+
+		synchronized void skipUnit(TestIdentifier unit, String reason) {
+			ensureParentStarted(unit);
+			listener.executionSkipped(unit, reason);
+		}
+
+		synchronized void reportingEntryPublished(String uniqueId, ReportEntry entry) {
+			TestIdentifier testIdentifier = testPlan.getTestIdentifier(uniqueId);
+			ensureStarted(testIdentifier);
+			listener.reportingEntryPublished(testIdentifier, entry);
+		}
+
+		/**
+		 * Report all identifiers of the supplied unit that have not been
+		 * reported as finished as failed.
+		 */
+		synchronized void failUnfinished(UnitExecution execution, Throwable throwable) {
+			TestExecutionResult result = TestExecutionResult.failed(throwable);
+			List<TestIdentifier> openIdentifiers = new ArrayList<>(execution.openIdentifiers);
+			Collections.reverse(openIdentifiers);
+			for (TestIdentifier testIdentifier : openIdentifiers) {
+				listener.executionFinished(testIdentifier, result);
+			}
+			execution.openIdentifiers.clear();
+			if (!execution.unitFinished && !openIdentifiers.contains(execution.unit)) {
+				ensureParentStarted(execution.unit);
+				listener.executionStarted(execution.unit);
+				listener.executionFinished(execution.unit, result);
+			}
+			execution.unitFinished = true;
+			execution.unit.getParentId().ifPresent(parentId -> recordSharedResult(parentId, result));
+		}
+
+		synchronized void finishSharedIdentifiers() {
+			List<TestIdentifier> identifiers = new ArrayList<>(sharedIdentifiers);
+			Collections.reverse(identifiers);
+			for (TestIdentifier identifier : identifiers) {
+				ensureStarted(identifier);
+			}
+			for (TestIdentifier identifier : identifiers) {
+				listener.executionFinished(identifier,
+					sharedResults.getOrDefault(identifier.getUniqueId(), TestExecutionResult.successful()));
+			}
+		}
+
+		private void recordSharedResult(String uniqueId, TestExecutionResult result) {
+			if (sharedIds.contains(uniqueId) && result.getStatus() != Status.SUCCESSFUL) {
+				sharedResults.putIfAbsent(uniqueId, result);
+			}
+		}
+
+		private void ensureParentStarted(TestIdentifier testIdentifier) {
+			testPlan.getParent(testIdentifier).ifPresent(this::ensureStarted);
+		}
+
+		private void ensureStarted(TestIdentifier testIdentifier) {
+			String uniqueId = testIdentifier.getUniqueId();
+			if (sharedIds.contains(uniqueId) && !startedSharedIds.contains(uniqueId)) {
+				ensureParentStarted(testIdentifier);
+				startedSharedIds.add(uniqueId);
+				listener.executionStarted(testIdentifier);
+			}
+		}
+
+	}
+
+	private static class UnitExecution {
+
+		final TestIdentifier unit;
+		final EventDispatcher dispatcher;
+		final Set<TestIdentifier> openIdentifiers = new LinkedHashSet<>();
+		boolean unitFinished;
+
+		UnitExecution(TestIdentifier unit, EventDispatcher dispatcher) {
+			this.unit = unit;
+			this.dispatcher = dispatcher;
+		}
+
+	}
+
+	/**
+	 * A forked JVM that executes units of work sent by this JVM.
+	 */
+	private static class WorkerProcess {
+
+		private final Process process;
+		private final Socket socket;
+		private final ObjectOutputStream out;
+		private final ObjectInputStream in;
+
+		static WorkerProcess start(List<String> jvmArgs, Map<String, String> configurationParameters)
+				throws IOException {
+			String token = new BigInteger(130, new SecureRandom()).toString(32);
+			try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+				List<String> command = new ArrayList<>();
+				command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+				command.addAll(jvmArgs);
+				command.add("-cp");
+				command.add(getClassPath());
+				command.add(ForkedJvmWorker.class.getName());
+				command.add(String.valueOf(serverSocket.getLocalPort()));
+				logger.debug(() -> "Starting forked JVM: " + command);
+				// The token is passed via standard input so that it cannot be
+				// read from the command line by other processes
+				Process process = new ProcessBuilder(command).redirectOutput(INHERIT).redirectError(INHERIT).start();
+				try {
+					try (Writer writer = new OutputStreamWriter(process.getOutputStream(), UTF_8)) {
+						writer.write(token);
+						writer.write('\n');
+					}
+					Socket socket = acceptWorker(serverSocket, token);
+					return new WorkerProcess(process, socket, configurationParameters);
+				}
+				catch (IOException e) {
+					process.destroyForcibly();
+					throw e;
+				}
+			}
+		}
+
+		/**
+		 * Accept the first connection that presents the supplied token and
+		 * close all others.
+		 */
+		private static Socket acceptWorker(ServerSocket serverSocket, String token) throws IOException {
+			long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CONNECT_TIMEOUT_MILLIS);
+			while (true) {
+				long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+				if (remainingMillis <= 0) {
+					throw new SocketTimeoutException("Forked JVM did not connect in time");
+				}
+				serverSocket.setSoTimeout((int) remainingMillis);
+				Socket socket = serverSocket.accept();
+				try {
+					socket.setSoTimeout(HANDSHAKE_TIMEOUT_MILLIS);
+					String receivedToken = new DataInputStream(socket.getInputStream()).readUTF();
+					if (MessageDigest.isEqual(token.getBytes(UTF_8), receivedToken.getBytes(UTF_8))) {
+						socket.setSoTimeout(0);
+						return socket;
+					}
+					logger.warn(() -> "Rejected connection with invalid token from " + socket.getRemoteSocketAddress());
+				}
+				catch (IOException e) {
+					logger.warn(e, () -> "Rejected connection without token from " + socket.getRemoteSocketAddress());
+				}
+				socket.close();
+			}
+		}
+
+		/**
+		 * Get the class path of the current JVM including the URLs of the
+		 * context class loader, e.g. those added via the console launcher's
+		 * {@code --class-path} option.
+		 */
+		private static String getClassPath() {
+			Set<String> entries = new LinkedHashSet<>();
+			ClassLoader systemClassLoader = ClassLoader.getSystemClassLoader();
+			for (ClassLoader classLoader = ClassLoaderUtils.getDefaultClassLoader(); classLoader != null
+					&& classLoader != systemClassLoader; classLoader = classLoader.getParent()) {
+				if (classLoader instanceof URLClassLoader) {
+					for (URL url : ((URLClassLoader) classLoader).getURLs()) {
+						toPath(url).ifPresent(entries::add);
+					}
+				}
+			}
+			entries.addAll(Arrays.asList(System.getProperty("java.class.path").split(File.pathSeparator)));
+			return String.join(File.pathSeparator, entries);
+		}
+
+		private static Optional<String> toPath(URL url) {
+			try {
+				return Optional.of(Paths.get(url.toURI()).toString());
+			}
+			catch (URISyntaxException | RuntimeException e) {
+				logger.warn(e, () -> "Ignoring class path entry that cannot be passed to forked JVM: " + url);
+				return Optional.empty();
+			}
+		}
+
+		private WorkerProcess(Process process, Socket socket, Map<String, String> configurationParameters)
+				throws IOException {
+			this.process = process;
+			this.socket = socket;
+			this.out = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			this.out.writeObject(new LinkedHashMap<>(configurationParameters));
+			this.out.flush();
+			this.in = new ForkedJvmWorker.FilteringObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+		}
+
+		void execute(TestIdentifier unit, Set<String> includedIds, UnitExecution execution)
+				throws IOException, ClassNotFoundException {
+			out.writeInt(ForkedJvmWorker.RUN);
+			out.writeObject(unit.getUniqueId());
+			out.writeObject(includedIds);
+			out.reset();
+			out.flush();
+			EventDispatcher dispatcher = execution.dispatcher;
+			while (true) {
+				int event = in.readInt();
+				switch (event) {
+					case ForkedJvmWorker.DYNAMIC_TEST_REGISTERED:
+						dispatcher.dynamicTestRegistered((TestIdentifier) in.readObject());
+						break;
+					case ForkedJvmWorker.EXECUTION_STARTED:
+						dispatcher.executionStarted(execution, (String) in.readObject());
+						break;
+					case ForkedJvmWorker.EXECUTION_SKIPPED:
+						dispatcher.executionSkipped(execution, (String) in.readObject(), (String) in.readObject());
+						break;
+					case ForkedJvmWorker.EXECUTION_FINISHED:
+						dispatcher.executionFinished(execution, (String) in.readObject(),
+							toTestExecutionResult((Status) in.readObject(), (Throwable) in.readObject()));
+						break;
+					case ForkedJvmWorker.REPORTING_ENTRY_PUBLISHED:
+						dispatcher.reportingEntryPublished((String) in.readObject(), toReportEntry(in.readObject()));
+						break;
+					case ForkedJvmWorker.UNIT_FINISHED:
+						if (!execution.unitFinished) {
+							dispatcher.failUnfinished(execution,
+								new JUnitException("Forked JVM did not report the execution of " + unit.getUniqueId()));
+						}
+						return;
+					default:
+						throw new JUnitException("Unexpected event received from forked JVM: " + event);
+				}
+			}
+		}
+
+		private static TestExecutionResult toTestExecutionResult(Status status, Throwable throwable) {
+			switch (status) {
+				case SUCCESSFUL:
+					return TestExecutionResult.successful();
+				case ABORTED:
+					return TestExecutionResult.aborted(throwable);
+				default:
+					return TestExecutionResult.failed(throwable);
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private static ReportEntry toReportEntry(Object keyValuePairs) {
+			return ReportEntry.from((Map<String, String>) keyValuePairs);
+		}
+
+		void close() {
+			try {
+				out.writeInt(ForkedJvmWorker.EXIT);
+				out.flush();
+				if (!process.waitFor(CONNECT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+					logger.warn(() -> "Forked JVM did not exit in time");
+				}
+			}
+			catch (IOException e) {
+				logger.warn(e, () -> "Failed to stop forked JVM");
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			finally {
+				destroy();
+			}
+		}
+
+		void destroy() {
+			try {
+				socket.close();
+			}
+			catch (IOException e) {
+				logger.debug(e, () -> "Failed to close connection to forked JVM");
+			}
+			process.destroyForcibly();
+		}
+
+	}
+
+}
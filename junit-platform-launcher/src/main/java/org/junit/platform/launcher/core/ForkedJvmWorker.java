@@ -0,0 +1,277 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectUniqueId;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InvalidClassException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.util.ClassLoaderUtils;
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.reporting.ReportEntry;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+
+/**
+ * Entry point of the JVMs forked by the {@link ForkedJvmExecutor}.
+ *
+ * <p>A worker reads a token from its standard input, connects to the port
+ * passed as its only argument and sends the token to authenticate itself.
+ * It then receives the configuration parameters to use and executes one
+ * unit of work after another until it is asked to exit. Execution events
+ * are written to the same connection.
+ *
+ * @since 1.4
+ * @see ForkedJvmExecutor
+ */
+class ForkedJvmWorker {
+
+	// commands sent by the parent JVM
+	static final int RUN = 1;
+	static final int EXIT = 2;
+
+	// events sent by the worker
+	static final int DYNAMIC_TEST_REGISTERED = 10;
+	static final int EXECUTION_STARTED = 11;
+	static final int EXECUTION_SKIPPED = 12;
+	static final int EXECUTION_FINISHED = 13;
+	static final int REPORTING_ENTRY_PUBLISHED = 14;
+	static final int UNIT_FINISHED = 15;
+
+	public static void main(String[] args) throws Exception {
+		int port = Integer.parseInt(args[0]);
+		String token = new BufferedReader(new InputStreamReader(System.in, UTF_8)).readLine();
+		if (token == null) {
+			throw new JUnitException("No token received via standard input");
+		}
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+			DataOutputStream tokenOut = new DataOutputStream(socket.getOutputStream());
+			tokenOut.writeUTF(token);
+			tokenOut.flush();
+			ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			out.flush();
+			ObjectInputStream in = new FilteringObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+			new ForkedJvmWorker().run(in, out);
+		}
+		// Don't wait for non-daemon threads started by tests
+		System.exit(0);
+	}
+
+	private void run(ObjectInputStream in, ObjectOutputStream out) throws IOException, ClassNotFoundException {
+		Map<String, String> configurationParameters = readMap(in);
+		Launcher launcher = LauncherFactory.create();
+		EventWriter eventWriter = new EventWriter(out);
+		while (in.readInt() == RUN) {
+			String unitId = (String) in.readObject();
+			Set<String> includedIds = readSet(in);
+			PostDiscoveryFilter filter = descriptor -> FilterResult.includedIf(
+				includedIds.contains(descriptor.getUniqueId().toString()));
+			// @formatter:off
+			launcher.execute(request()
+					.selectors(selectUniqueId(unitId))
+					.filters(filter)
+					.configurationParameters(configurationParameters)
+					.build(), eventWriter);
+			// @formatter:on
+			eventWriter.write(UNIT_FINISHED);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, String> readMap(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		return new HashMap<>((Map<String, String>) in.readObject());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Set<String> readSet(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		return (Set<String>) in.readObject();
+	}
+
+	/**
+	 * Determine whether instances of the supplied class may be exchanged
+	 * between the JVMs.
+	 *
+	 * <p>Only the types of commands, events, and their fields are allowed in
+	 * addition to exceptions thrown by tests and sources of dynamic tests.
+	 * The fields of the latter are checked as well.
+	 */
+	static boolean isAllowedOnConnection(Class<?> clazz) {
+		if (clazz.isArray()) {
+			return isAllowedOnConnection(clazz.getComponentType());
+		}
+		if (clazz.isPrimitive() || Throwable.class.isAssignableFrom(clazz)
+				|| TestSource.class.isAssignableFrom(clazz)) {
+			return true;
+		}
+		String name = clazz.getName();
+		String packageName = name.substring(0, Math.max(0, name.lastIndexOf('.')));
+		return packageName.equals("java.lang") || packageName.equals("java.util") || clazz == File.class
+				|| clazz == URI.class || name.startsWith("org.junit.platform.") || name.startsWith("org.opentest4j.");
+	}
+
+	/**
+	 * Replace the supplied throwable with a {@link JUnitException} that has
+	 * the same message and stack trace if it cannot be serialized or refers
+	 * to objects that may not be
+	 * {@linkplain #isAllowedOnConnection exchanged between the JVMs}.
+	 */
+	static Throwable toSerializableThrowable(Throwable throwable) {
+		try (ObjectOutputStream out = new FilteringObjectOutputStream(new ByteArrayOutputStream())) {
+			out.writeObject(throwable);
+			return throwable;
+		}
+		catch (IOException e) {
+			JUnitException replacement = new JUnitException(
+				throwable.getClass().getName() + ": " + throwable.getMessage());
+			replacement.setStackTrace(throwable.getStackTrace());
+			if (throwable.getCause() != null && throwable.getCause() != throwable) {
+				replacement.initCause(toSerializableThrowable(throwable.getCause()));
+			}
+			return replacement;
+		}
+	}
+
+	private static class EventWriter implements TestExecutionListener {
+
+		private final ObjectOutputStream out;
+
+		EventWriter(ObjectOutputStream out) {
+			this.out = out;
+		}
+
+		@Override
+		public void dynamicTestRegistered(TestIdentifier testIdentifier) {
+			write(DYNAMIC_TEST_REGISTERED, testIdentifier);
+		}
+
+		@Override
+		public void executionStarted(TestIdentifier testIdentifier) {
+			write(EXECUTION_STARTED, testIdentifier.getUniqueId());
+		}
+
+		@Override
+		public void executionSkipped(TestIdentifier testIdentifier, String reason) {
+			write(EXECUTION_SKIPPED, testIdentifier.getUniqueId(), reason);
+		}
+
+		@Override
+		public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+			Throwable throwable = testExecutionResult.getThrowable().map(ForkedJvmWorker::toSerializableThrowable).orElse(
+				null);
+			write(EXECUTION_FINISHED, testIdentifier.getUniqueId(), testExecutionResult.getStatus(), throwable);
+		}
+
+		@Override
+		public void reportingEntryPublished(TestIdentifier testIdentifier, ReportEntry entry) {
+			write(REPORTING_ENTRY_PUBLISHED, testIdentifier.getUniqueId(), new HashMap<>(entry.getKeyValuePairs()));
+		}
+
+		synchronized void write(int event, Object... payload) {
+			try {
+				out.writeInt(event);
+				for (Object object : payload) {
+					out.writeObject(object);
+				}
+				// Don't keep references to written objects
+				out.reset();
+				out.flush();
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+	}
+
+	/**
+	 * Fails to write objects that may not be
+	 * {@linkplain #isAllowedOnConnection exchanged between the JVMs}.
+	 */
+	private static class FilteringObjectOutputStream extends ObjectOutputStream {
+
+		FilteringObjectOutputStream(OutputStream out) throws IOException {
+			super(out);
+		}
+
+		@Override
+		protected void annotateClass(Class<?> clazz) throws IOException {
+			if (!isAllowedOnConnection(clazz)) {
+				throw new NotSerializableException(clazz.getName());
+			}
+		}
+
+	}
+
+	/**
+	 * Only deserializes objects that may be
+	 * {@linkplain #isAllowedOnConnection exchanged between the JVMs}.
+	 *
+	 * <p>Classes are resolved via the context class loader so that exceptions
+	 * thrown by tests can be deserialized even if their classes are not
+	 * visible to the class loader of the launcher.
+	 */
+	static class FilteringObjectInputStream extends ObjectInputStream {
+
+		FilteringObjectInputStream(InputStream in) throws IOException {
+			super(in);
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			Class<?> clazz;
+			try {
+				clazz = Class.forName(desc.getName(), false, ClassLoaderUtils.getDefaultClassLoader());
+			}
+			catch (ClassNotFoundException e) {
+				clazz = super.resolveClass(desc);
+			}
+			if (!isAllowedOnConnection(clazz)) {
+				throw new InvalidClassException(desc.getName(), "not allowed to be received from another JVM");
+			}
+			return clazz;
+		}
+
+		@Override
+		protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+			throw new InvalidClassException("Proxy classes are not allowed to be received from another JVM");
+		}
+
+	}
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.platform.commons.util.Preconditions;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestEngine;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * {@link TestPlan} created by the {@link DefaultLauncher} that retains the
+ * discovered {@link Root} and the {@link ConfigurationParameters} of its
+ * discovery request so that it can be executed without discovering its tests
+ * again.
+ *
+ * <p>The {@code Root} is handed over to the launcher once execution starts so
+ * that its test descriptors can be garbage collected after execution even if
+ * the test plan itself is still referenced, e.g. by a listener or an IDE.
+ *
+ * @since 1.4
+ */
+class InternalTestPlan extends TestPlan {
+
+	private final AtomicBoolean executionStarted = new AtomicBoolean();
+	private volatile Root root;
+	private final ConfigurationParameters configurationParameters;
+
+	static InternalTestPlan from(Root root, ConfigurationParameters configurationParameters) {
+		InternalTestPlan testPlan = new InternalTestPlan(root, configurationParameters);
+		TestDescriptor.Visitor visitor = descriptor -> testPlan.add(TestIdentifier.from(descriptor));
+		root.getEngineDescriptors().forEach(engineDescriptor -> engineDescriptor.accept(visitor));
+		return testPlan;
+	}
+
+	private InternalTestPlan(Root root, ConfigurationParameters configurationParameters) {
+		super(root.getEngineDescriptors().stream().anyMatch(TestDescriptor::containsTests));
+		this.root = root;
+		this.configurationParameters = configurationParameters;
+	}
+
+	ConfigurationParameters getConfigurationParameters() {
+		return this.configurationParameters;
+	}
+
+	/**
+	 * Mark this test plan as executed and release its {@link Root}.
+	 *
+	 * @return the discovered root; never {@code null}
+	 * @throws org.junit.platform.commons.util.PreconditionViolationException
+	 * if this test plan has already been executed
+	 */
+	Root markStarted() {
+		Preconditions.condition(this.executionStarted.compareAndSet(false, true),
+			"TestPlan must only be executed once");
+		Root discoveredRoot = this.root;
+		this.root = null;
+		return discoveredRoot;
+	}
+
+	/**
+	 * Create a new test plan that only contains the supplied identifiers,
+	 * their descendants, and their ancestors.
+	 *
+	 * <p>Since the excluded descriptors are removed from the discovered tree,
+	 * this test plan is {@linkplain #markStarted() marked as executed}.
+	 */
+	InternalTestPlan restrictTo(Collection<TestIdentifier> testIdentifiers) {
+		Set<String> retainedIds = new HashSet<>();
+		for (TestIdentifier testIdentifier : testIdentifiers) {
+			TestIdentifier identifier = getTestIdentifier(testIdentifier.getUniqueId());
+			retainedIds.add(identifier.getUniqueId());
+			getDescendants(identifier).forEach(descendant -> retainedIds.add(descendant.getUniqueId()));
+			Optional<TestIdentifier> parent = getParent(identifier);
+			while (parent.isPresent()) {
+				retainedIds.add(parent.get().getUniqueId());
+				parent = getParent(parent.get());
+			}
+		}
+		Root discoveredRoot = markStarted();
+		Root restrictedRoot = new Root();
+		for (TestEngine testEngine : discoveredRoot.getTestEngines()) {
+			TestDescriptor engineDescriptor = discoveredRoot.getTestDescriptorFor(testEngine);
+			if (retainedIds.contains(engineDescriptor.getUniqueId().toString())) {
+				Root.applyPostDiscoveryFilter(engineDescriptor,
+					descriptor -> FilterResult.includedIf(retainedIds.contains(descriptor.getUniqueId().toString())));
+				Root.prune(engineDescriptor);
+				restrictedRoot.add(testEngine, engineDescriptor);
+			}
+		}
+		return from(restrictedRoot, this.configurationParameters);
+	}
+
+}
@@ -10,8 +10,6 @@
 
 package org.junit.platform.launcher.core;
 
-import static org.junit.platform.engine.Filter.composeFilters;
-
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -19,7 +17,6 @@ import java.util.Map;
 import org.junit.platform.engine.Filter;
 import org.junit.platform.engine.TestDescriptor;
 import org.junit.platform.engine.TestEngine;
-import org.junit.platform.launcher.LauncherDiscoveryRequest;
 
 /**
  * Represents the root of all discovered {@link TestEngine TestEngines} and
@@ -50,14 +47,24 @@ class Root {
 		return this.testEngineDescriptors.get(testEngine);
 	}
 
-	void applyPostDiscoveryFilters(LauncherDiscoveryRequest discoveryRequest) {
-		Filter<TestDescriptor> postDiscoveryFilter = composeFilters(discoveryRequest.getPostDiscoveryFilters());
-		TestDescriptor.Visitor removeExcludedTestDescriptors = descriptor -> {
+	void applyPostDiscoveryFilter(Filter<TestDescriptor> postDiscoveryFilter) {
+		this.testEngineDescriptors.values().forEach(
+			engineDescriptor -> applyPostDiscoveryFilter(engineDescriptor, postDiscoveryFilter));
+	}
+
+	/**
+	 * Apply the supplied post-discovery filter to the tree of
+	 * {@link TestDescriptor TestDescriptors} of a single {@link TestEngine}.
+	 *
+	 * <p>Since the trees of different engines are independent of each other,
+	 * this method may be invoked for several engines concurrently.
+	 */
+	static void applyPostDiscoveryFilter(TestDescriptor engineDescriptor, Filter<TestDescriptor> postDiscoveryFilter) {
+		engineDescriptor.accept(descriptor -> {
 			if (!descriptor.isRoot() && isExcluded(descriptor, postDiscoveryFilter)) {
 				descriptor.removeFromHierarchy();
 			}
-		};
-		acceptInAllTestEngines(removeExcludedTestDescriptors);
+		});
 	}
 
 	/**
@@ -68,15 +75,21 @@ class Root {
 	 * pruning, it will <strong>not</strong> be removed.
 	 */
 	void prune() {
-		acceptInAllTestEngines(TestDescriptor::prune);
+		this.testEngineDescriptors.values().forEach(Root::prune);
 	}
 
-	private boolean isExcluded(TestDescriptor descriptor, Filter<TestDescriptor> postDiscoveryFilter) {
-		return descriptor.getChildren().isEmpty() && postDiscoveryFilter.apply(descriptor).excluded();
+	/**
+	 * Prune all branches in the tree of {@link TestDescriptor TestDescriptors}
+	 * of a single {@link TestEngine} that do not have executable tests.
+	 *
+	 * @see #prune()
+	 */
+	static void prune(TestDescriptor engineDescriptor) {
+		engineDescriptor.accept(TestDescriptor::prune);
 	}
 
-	private void acceptInAllTestEngines(TestDescriptor.Visitor visitor) {
-		this.testEngineDescriptors.values().forEach(descriptor -> descriptor.accept(visitor));
+	private static boolean isExcluded(TestDescriptor descriptor, Filter<TestDescriptor> postDiscoveryFilter) {
+		return descriptor.getChildren().isEmpty() && postDiscoveryFilter.apply(descriptor).excluded();
 	}
 
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.platform.engine.reporting.FileRegion;
+
+/**
+ * Append-only temporary file that is written via memory-mapped segments.
+ *
+ * @since 1.4
+ * @see SpillStorage
+ */
+class SpillFile extends OutputStream {
+
+	private static final int SEGMENT_SIZE = 1024 * 1024;
+
+	private final Path path;
+	private final FileChannel channel;
+
+	private MappedByteBuffer segment;
+	private long length;
+
+	SpillFile(Path path) throws IOException {
+		this.path = path;
+		this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		write(new byte[] { (byte) b }, 0, 1);
+	}
+
+	@Override
+	public void write(byte[] buf, int off, int len) throws IOException {
+		while (len > 0) {
+			if (this.segment == null || !this.segment.hasRemaining()) {
+				this.segment = this.channel.map(FileChannel.MapMode.READ_WRITE, this.length, SEGMENT_SIZE);
+			}
+			int count = Math.min(len, this.segment.remaining());
+			this.segment.put(buf, off, count);
+			this.length += count;
+			off += count;
+			len -= count;
+		}
+	}
+
+	long getLength() {
+		return this.length;
+	}
+
+	/**
+	 * Close this file and return the region that contains the bytes written
+	 * to it.
+	 */
+	FileRegion toFileRegion(Charset charset) throws IOException {
+		close();
+		return FileRegion.of(this.path, 0, this.length, charset);
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (!this.channel.isOpen()) {
+			return;
+		}
+		this.segment = null;
+		try {
+			this.channel.truncate(this.length);
+		}
+		catch (IOException e) {
+			// mapped files cannot be truncated on all platforms; readers only
+			// read up to the recorded length anyway
+		}
+		finally {
+			this.channel.close();
+		}
+	}
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.platform.launcher.LauncherConstants.OUTPUT_SPILL_DIR_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.OUTPUT_SPILL_THRESHOLD_PROPERTY_NAME;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.logging.Logger;
+import org.junit.platform.commons.logging.LoggerFactory;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.reporting.FileRegion;
+import org.junit.platform.engine.reporting.ReportEntry;
+
+/**
+ * Temporary directory that captured output and large values of
+ * {@link ReportEntry ReportEntries} are spilled to during an execution.
+ *
+ * <p>All files are deleted when the storage is closed.
+ *
+ * @since 1.4
+ * @see org.junit.platform.launcher.LauncherConstants#OUTPUT_SPILL_THRESHOLD_PROPERTY_NAME
+ */
+class SpillStorage implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(SpillStorage.class);
+
+	private final Path directory;
+	private final int threshold;
+	private final Queue<Path> files = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Create a {@code SpillStorage} if it has been enabled via the
+	 * {@value org.junit.platform.launcher.LauncherConstants#OUTPUT_SPILL_THRESHOLD_PROPERTY_NAME}
+	 * configuration parameter.
+	 */
+	static Optional<SpillStorage> create(ConfigurationParameters configurationParameters) {
+		// @formatter:off
+		Optional<Integer> threshold = configurationParameters.get(OUTPUT_SPILL_THRESHOLD_PROPERTY_NAME)
+				.map(String::trim)
+				.filter(value -> !value.isEmpty())
+				.map(SpillStorage::parseThreshold);
+		// @formatter:on
+		if (!threshold.isPresent()) {
+			return Optional.empty();
+		}
+		Optional<Path> parentDirectory = configurationParameters.get(OUTPUT_SPILL_DIR_PROPERTY_NAME).map(
+			String::trim).filter(value -> !value.isEmpty()).map(Paths::get);
+		try {
+			Path directory;
+			if (parentDirectory.isPresent()) {
+				Files.createDirectories(parentDirectory.get());
+				directory = Files.createTempDirectory(parentDirectory.get(), "junit-spill-");
+			}
+			else {
+				directory = Files.createTempDirectory("junit-spill-");
+			}
+			return Optional.of(new SpillStorage(directory, threshold.get()));
+		}
+		catch (IOException e) {
+			throw new JUnitException("Failed to create directory for spilled output", e);
+		}
+	}
+
+	private static int parseThreshold(String value) {
+		try {
+			int threshold = Integer.parseInt(value);
+			if (threshold > 0) {
+				return threshold;
+			}
+		}
+		catch (NumberFormatException e) {
+			// fall through
+		}
+		throw new JUnitException(String.format("Invalid value '%s' specified via configuration parameter '%s'",
+			value, OUTPUT_SPILL_THRESHOLD_PROPERTY_NAME));
+	}
+
+	SpillStorage(Path directory, int threshold) {
+		this.directory = directory;
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Get the number of bytes or characters a value must exceed to be
+	 * spilled.
+	 */
+	int getThreshold() {
+		return this.threshold;
+	}
+
+	SpillFile createFile() throws IOException {
+		Path file = Files.createTempFile(this.directory, "spill-", ".out");
+		this.files.add(file);
+		return new SpillFile(file);
+	}
+
+	/**
+	 * Spill all values of the supplied entry that exceed the threshold.
+	 *
+	 * <p>Values that cannot be written are kept in memory.
+	 *
+	 * @return an entry that refers to the spilled values or the supplied
+	 * entry if none were spilled
+	 */
+	ReportEntry spill(ReportEntry reportEntry) {
+		Map<String, String> keyValuePairs = reportEntry.getKeyValuePairs();
+		Map<String, FileRegion> fileRegions = new LinkedHashMap<>();
+		for (String key : keyValuePairs.keySet()) {
+			if (reportEntry.getFileRegions().containsKey(key)) {
+				continue;
+			}
+			String value = keyValuePairs.get(key);
+			if (value.length() > this.threshold) {
+				try {
+					fileRegions.put(key, write(value));
+				}
+				catch (IOException e) {
+					logger.warn(e, () -> "Failed to spill value of report entry to " + this.directory);
+				}
+			}
+		}
+		return reportEntry.withFileRegions(fileRegions);
+	}
+
+	private FileRegion write(String value) throws IOException {
+		SpillFile file = createFile();
+		try (Writer writer = new OutputStreamWriter(file, UTF_8)) {
+			writer.write(value);
+		}
+		return file.toFileRegion(UTF_8);
+	}
+
+	/**
+	 * Delete all spilled files.
+	 */
+	@Override
+	public void close() {
+		for (Path file = this.files.poll(); file != null; file = this.files.poll()) {
+			delete(file);
+		}
+		delete(this.directory);
+	}
+
+	private static void delete(Path path) {
+		try {
+			Files.deleteIfExists(path);
+		}
+		catch (IOException e) {
+			path.toFile().deleteOnExit();
+		}
+	}
+
+}
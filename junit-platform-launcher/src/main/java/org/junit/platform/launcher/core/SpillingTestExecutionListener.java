@@ -0,0 +1,71 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.reporting.ReportEntry;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * {@link TestExecutionListener} that {@linkplain SpillStorage#spill spills}
+ * large values of published {@link ReportEntry ReportEntries} before
+ * forwarding all events to its delegate.
+ *
+ * @since 1.4
+ */
+class SpillingTestExecutionListener implements TestExecutionListener {
+
+	private final TestExecutionListener delegate;
+	private final SpillStorage spillStorage;
+
+	SpillingTestExecutionListener(TestExecutionListener delegate, SpillStorage spillStorage) {
+		this.delegate = delegate;
+		this.spillStorage = spillStorage;
+	}
+
+	@Override
+	public void testPlanExecutionStarted(TestPlan testPlan) {
+		this.delegate.testPlanExecutionStarted(testPlan);
+	}
+
+	@Override
+	public void testPlanExecutionFinished(TestPlan testPlan) {
+		this.delegate.testPlanExecutionFinished(testPlan);
+	}
+
+	@Override
+	public void dynamicTestRegistered(TestIdentifier testIdentifier) {
+		this.delegate.dynamicTestRegistered(testIdentifier);
+	}
+
+	@Override
+	public void executionSkipped(TestIdentifier testIdentifier, String reason) {
+		this.delegate.executionSkipped(testIdentifier, reason);
+	}
+
+	@Override
+	public void executionStarted(TestIdentifier testIdentifier) {
+		this.delegate.executionStarted(testIdentifier);
+	}
+
+	@Override
+	public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+		this.delegate.executionFinished(testIdentifier, testExecutionResult);
+	}
+
+	@Override
+	public void reportingEntryPublished(TestIdentifier testIdentifier, ReportEntry entry) {
+		this.delegate.reportingEntryPublished(testIdentifier, this.spillStorage.spill(entry));
+	}
+
+}
@@ -12,24 +12,37 @@ package org.junit.platform.launcher.core;
 
 import static org.junit.platform.launcher.LauncherConstants.CAPTURE_MAX_BUFFER_DEFAULT;
 import static org.junit.platform.launcher.LauncherConstants.CAPTURE_MAX_BUFFER_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.CAPTURE_MAX_TOTAL_BUFFER_DEFAULT;
+import static org.junit.platform.launcher.LauncherConstants.CAPTURE_MAX_TOTAL_BUFFER_PROPERTY_NAME;
 import static org.junit.platform.launcher.LauncherConstants.CAPTURE_STDERR_PROPERTY_NAME;
 import static org.junit.platform.launcher.LauncherConstants.CAPTURE_STDOUT_PROPERTY_NAME;
 import static org.junit.platform.launcher.LauncherConstants.STDERR_REPORT_ENTRY_KEY;
 import static org.junit.platform.launcher.LauncherConstants.STDOUT_REPORT_ENTRY_KEY;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 
 import org.junit.platform.commons.util.StringUtils;
 import org.junit.platform.engine.ConfigurationParameters;
 import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.reporting.FileRegion;
 import org.junit.platform.engine.reporting.ReportEntry;
 import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.core.StreamInterceptor.Capture;
 import org.junit.platform.launcher.core.TestExecutionListenerRegistry.EagerTestExecutionListener;
 
 /**
+ * Captures output to {@link System#out} and {@link System#err} per test and
+ * container, including output written by threads they start, and publishes
+ * it as a {@link ReportEntry} once they have finished.
+ *
+ * <p>Output that has been spilled to a file is published as a
+ * {@linkplain ReportEntry#getFileRegions() file region}.
+ *
  * @since 1.3
  */
 class StreamInterceptingTestExecutionListener implements EagerTestExecutionListener {
@@ -37,9 +50,11 @@ class StreamInterceptingTestExecutionListener implements EagerTestExecutionListe
 	private final Optional<StreamInterceptor> stdoutInterceptor;
 	private final Optional<StreamInterceptor> stderrInterceptor;
 	private final BiConsumer<TestIdentifier, ReportEntry> reporter;
+	private final Map<TestIdentifier, Capture> stdoutCaptures = new ConcurrentHashMap<>();
+	private final Map<TestIdentifier, Capture> stderrCaptures = new ConcurrentHashMap<>();
 
 	static Optional<StreamInterceptingTestExecutionListener> create(ConfigurationParameters configurationParameters,
-			BiConsumer<TestIdentifier, ReportEntry> reporter) {
+			Optional<SpillStorage> spillStorage, BiConsumer<TestIdentifier, ReportEntry> reporter) {
 
 		boolean captureStdout = configurationParameters.getBoolean(CAPTURE_STDOUT_PROPERTY_NAME).orElse(false);
 		boolean captureStderr = configurationParameters.getBoolean(CAPTURE_STDERR_PROPERTY_NAME).orElse(false);
@@ -49,10 +64,13 @@ class StreamInterceptingTestExecutionListener implements EagerTestExecutionListe
 
 		int maxSize = configurationParameters.get(CAPTURE_MAX_BUFFER_PROPERTY_NAME, Integer::valueOf) //
 				.orElse(CAPTURE_MAX_BUFFER_DEFAULT);
+		long maxTotalSize = configurationParameters.get(CAPTURE_MAX_TOTAL_BUFFER_PROPERTY_NAME, Long::valueOf) //
+				.orElse(CAPTURE_MAX_TOTAL_BUFFER_DEFAULT);
+		CaptureBufferPool bufferPool = new CaptureBufferPool(maxSize, maxTotalSize, spillStorage);
 
-		Optional<StreamInterceptor> stdoutInterceptor = captureStdout ? StreamInterceptor.registerStdout(maxSize)
+		Optional<StreamInterceptor> stdoutInterceptor = captureStdout ? StreamInterceptor.registerStdout(bufferPool)
 				: Optional.empty();
-		Optional<StreamInterceptor> stderrInterceptor = captureStderr ? StreamInterceptor.registerStderr(maxSize)
+		Optional<StreamInterceptor> stderrInterceptor = captureStderr ? StreamInterceptor.registerStderr(bufferPool)
 				: Optional.empty();
 
 		if ((!stdoutInterceptor.isPresent() && captureStdout) || (!stderrInterceptor.isPresent() && captureStderr)) {
@@ -77,23 +95,31 @@ class StreamInterceptingTestExecutionListener implements EagerTestExecutionListe
 
 	@Override
 	public void executionJustStarted(TestIdentifier testIdentifier) {
-		stdoutInterceptor.ifPresent(StreamInterceptor::capture);
-		stderrInterceptor.ifPresent(StreamInterceptor::capture);
+		stdoutInterceptor.ifPresent(interceptor -> stdoutCaptures.put(testIdentifier, interceptor.capture()));
+		stderrInterceptor.ifPresent(interceptor -> stderrCaptures.put(testIdentifier, interceptor.capture()));
 	}
 
 	@Override
 	public void executionJustFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
 		Map<String, String> map = new HashMap<>();
-		String out = stdoutInterceptor.map(StreamInterceptor::consume).orElse("");
-		if (StringUtils.isNotBlank(out)) {
-			map.put(STDOUT_REPORT_ENTRY_KEY, out);
+		Map<String, FileRegion> fileRegions = new LinkedHashMap<>();
+		consume(stdoutInterceptor, stdoutCaptures.remove(testIdentifier), STDOUT_REPORT_ENTRY_KEY, map, fileRegions);
+		consume(stderrInterceptor, stderrCaptures.remove(testIdentifier), STDERR_REPORT_ENTRY_KEY, map, fileRegions);
+		if (!map.isEmpty() || !fileRegions.isEmpty()) {
+			reporter.accept(testIdentifier, ReportEntry.from(map).withFileRegions(fileRegions));
 		}
-		String err = stderrInterceptor.map(StreamInterceptor::consume).orElse("");
-		if (StringUtils.isNotBlank(err)) {
-			map.put(STDERR_REPORT_ENTRY_KEY, err);
+	}
+
+	private static void consume(Optional<StreamInterceptor> interceptor, Capture capture, String key,
+			Map<String, String> map, Map<String, FileRegion> fileRegions) {
+		if (!interceptor.isPresent() || capture == null) {
+			return;
 		}
-		if (!map.isEmpty()) {
-			reporter.accept(testIdentifier, ReportEntry.from(map));
+		String output = interceptor.get().consume(capture);
+		if (StringUtils.isNotBlank(output)) {
+			map.put(key, output);
 		}
+		capture.getFileRegion().ifPresent(fileRegion -> fileRegions.put(key, fileRegion));
 	}
+
 }
@@ -10,68 +10,165 @@
 
 package org.junit.platform.launcher.core;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
 
+import org.junit.platform.commons.logging.Logger;
+import org.junit.platform.commons.logging.LoggerFactory;
+import org.junit.platform.commons.util.ThreadContextPropagation;
+import org.junit.platform.commons.util.ThreadContextPropagation.Propagator;
+import org.junit.platform.engine.reporting.FileRegion;
+
 /**
+ * {@link PrintStream} that forwards all output to the original stream and
+ * additionally captures it for the innermost active {@link Capture} of the
+ * writing thread.
+ *
+ * <p>Captures are tracked in an {@link InheritableThreadLocal} so that output
+ * written by threads that are started while a capture is active is
+ * attributed to it as well. Once a capture has been consumed, such threads
+ * fall back to its closest enclosing capture that is still active. Tasks
+ * submitted to pooled threads whose executors {@linkplain
+ * ThreadContextPropagation#wrap wrap} them are attributed to the active
+ * capture of the submitting thread.
+ *
+ * <p>Captured bytes are stored in chunks borrowed from a shared
+ * {@link CaptureBufferPool} and are only decoded when a capture is consumed.
+ * Captures that exceed the threshold of the pool's {@link SpillStorage}, if
+ * any, are moved to a {@link SpillFile} and continue there.
+ *
  * @since 1.3
  */
 class StreamInterceptor extends PrintStream {
 
+	private static final Logger logger = LoggerFactory.getLogger(StreamInterceptor.class);
+
 	private final PrintStream originalStream;
 	private final Consumer<PrintStream> unregisterAction;
-	private final int maxNumberOfBytesPerThread;
+	private final CaptureBufferPool bufferPool;
 
-	private final ThreadLocal<RewindableByteArrayOutputStream> output = ThreadLocal.withInitial(
-		RewindableByteArrayOutputStream::new);
+	private final InheritableThreadLocal<Capture> currentCapture = new InheritableThreadLocal<>();
+	private final Propagator<Capture> capturePropagator = new Propagator<Capture>() {
 
-	static Optional<StreamInterceptor> registerStdout(int maxNumberOfBytesPerThread) {
-		return register(System.out, System::setOut, maxNumberOfBytesPerThread);
+		@Override
+		public Capture capture() {
+			return activeCapture();
+		}
+
+		@Override
+		public Capture apply(Capture capture) {
+			Capture previousCapture = currentCapture.get();
+			currentCapture.set(capture);
+			return previousCapture;
+		}
+	};
+
+	static Optional<StreamInterceptor> registerStdout(int maxNumberOfBytesPerCapture) {
+		return registerStdout(new CaptureBufferPool(maxNumberOfBytesPerCapture, Long.MAX_VALUE));
 	}
 
-	static Optional<StreamInterceptor> registerStderr(int maxNumberOfBytesPerThread) {
-		return register(System.err, System::setErr, maxNumberOfBytesPerThread);
+	static Optional<StreamInterceptor> registerStdout(CaptureBufferPool bufferPool) {
+		return register(System.out, System::setOut, bufferPool);
+	}
+
+	static Optional<StreamInterceptor> registerStderr(int maxNumberOfBytesPerCapture) {
+		return registerStderr(new CaptureBufferPool(maxNumberOfBytesPerCapture, Long.MAX_VALUE));
+	}
+
+	static Optional<StreamInterceptor> registerStderr(CaptureBufferPool bufferPool) {
+		return register(System.err, System::setErr, bufferPool);
 	}
 
 	static Optional<StreamInterceptor> register(PrintStream originalStream, Consumer<PrintStream> streamSetter,
-			int maxNumberOfBytesPerThread) {
+			int maxNumberOfBytesPerCapture) {
+		return register(originalStream, streamSetter,
+			new CaptureBufferPool(maxNumberOfBytesPerCapture, Long.MAX_VALUE));
+	}
+
+	static Optional<StreamInterceptor> register(PrintStream originalStream, Consumer<PrintStream> streamSetter,
+			CaptureBufferPool bufferPool) {
 		if (originalStream instanceof StreamInterceptor) {
 			return Optional.empty();
 		}
-		StreamInterceptor interceptor = new StreamInterceptor(originalStream, streamSetter, maxNumberOfBytesPerThread);
+		StreamInterceptor interceptor = new StreamInterceptor(originalStream, streamSetter, bufferPool);
 		streamSetter.accept(interceptor);
+		ThreadContextPropagation.register(interceptor.capturePropagator);
 		return Optional.of(interceptor);
 	}
 
 	private StreamInterceptor(PrintStream originalStream, Consumer<PrintStream> unregisterAction,
-			int maxNumberOfBytesPerThread) {
+			CaptureBufferPool bufferPool) {
 		super(originalStream);
 		this.originalStream = originalStream;
 		this.unregisterAction = unregisterAction;
-		this.maxNumberOfBytesPerThread = maxNumberOfBytesPerThread;
+		this.bufferPool = bufferPool;
 	}
 
-	void capture() {
-		output.get().mark();
+	/**
+	 * Start capturing output written by the current thread and by threads it
+	 * starts until the returned capture is {@linkplain #consume(Capture)
+	 * consumed}.
+	 *
+	 * <p>Output written while a nested capture is active is only captured
+	 * by the nested one.
+	 */
+	Capture capture() {
+		Capture capture = new Capture(activeCapture(), this.bufferPool);
+		this.currentCapture.set(capture);
+		return capture;
 	}
 
+	/**
+	 * Consume the innermost active capture of the current thread.
+	 *
+	 * @see #consume(Capture)
+	 */
 	String consume() {
-		return output.get().rewind();
+		Capture capture = activeCapture();
+		return capture == null ? "" : consume(capture);
+	}
+
+	/**
+	 * Stop the supplied capture, release its buffers, and return the decoded
+	 * output including a truncation marker if output had to be discarded.
+	 *
+	 * @return the captured output or an empty string if it is blank or has
+	 * been {@linkplain Capture#getFileRegion() spilled to a file}
+	 */
+	String consume(Capture capture) {
+		String output = capture.consume();
+		if (this.currentCapture.get() == capture) {
+			this.currentCapture.set(activeCapture(capture.parent));
+		}
+		return output;
 	}
 
 	void unregister() {
+		ThreadContextPropagation.unregister(this.capturePropagator);
 		unregisterAction.accept(originalStream);
 	}
 
+	private Capture activeCapture() {
+		return activeCapture(this.currentCapture.get());
+	}
+
+	private static Capture activeCapture(Capture capture) {
+		while (capture != null && capture.closed) {
+			capture = capture.parent;
+		}
+		return capture;
+	}
+
 	@Override
 	public void write(int b) {
-		RewindableByteArrayOutputStream out = output.get();
-		if (out.isMarked() && out.size() < maxNumberOfBytesPerThread) {
-			out.write(b);
+		Capture capture = activeCapture();
+		if (capture != null) {
+			capture.write(b);
 		}
 		super.write(b);
 	}
@@ -83,36 +180,246 @@ class StreamInterceptor extends PrintStream {
 
 	@Override
 	public void write(byte[] buf, int off, int len) {
-		RewindableByteArrayOutputStream out = output.get();
-		if (out.isMarked()) {
-			int actualLength = Math.max(0, Math.min(len, maxNumberOfBytesPerThread - out.size()));
-			if (actualLength > 0) {
-				out.write(buf, off, actualLength);
-			}
+		Capture capture = activeCapture();
+		if (capture != null) {
+			capture.write(buf, off, len);
 		}
 		super.write(buf, off, len);
 	}
 
-	class RewindableByteArrayOutputStream extends ByteArrayOutputStream {
+	/**
+	 * Output captured for a single test or container.
+	 */
+	static final class Capture {
+
+		private final Capture parent;
+		private final CaptureBufferPool bufferPool;
+		private final List<byte[]> chunks = new ArrayList<>(1);
+
+		private byte[] currentChunk;
+		private int positionInCurrentChunk;
+		private int size;
+		private long truncatedBytes;
+		private boolean bufferPoolExhausted;
+		private SpillFile spillFile;
+		private FileRegion fileRegion;
+		private volatile boolean closed;
+
+		private Capture(Capture parent, CaptureBufferPool bufferPool) {
+			this.parent = parent;
+			this.bufferPool = bufferPool;
+		}
+
+		void write(int b) {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		synchronized void write(byte[] buf, int off, int len) {
+			if (this.closed) {
+				return;
+			}
+			int remaining = Math.max(0, Math.min(len, this.bufferPool.getMaxBytesPerCapture() - this.size));
+			this.truncatedBytes += len - remaining;
+			if (remaining > 0 && exceedsSpillThreshold(remaining)) {
+				startSpilling();
+			}
+			while (remaining > 0) {
+				if (this.spillFile != null) {
+					writeToSpillFile(buf, off, remaining);
+					return;
+				}
+				if (!ensureCurrentChunkHasSpace()) {
+					if (!startSpilling()) {
+						this.truncatedBytes += remaining;
+						return;
+					}
+					this.bufferPoolExhausted = false;
+					continue;
+				}
+				int length = Math.min(remaining, this.currentChunk.length - this.positionInCurrentChunk);
+				System.arraycopy(buf, off, this.currentChunk, this.positionInCurrentChunk, length);
+				this.positionInCurrentChunk += length;
+				this.size += length;
+				off += length;
+				remaining -= length;
+			}
+		}
+
+		private boolean ensureCurrentChunkHasSpace() {
+			if (this.currentChunk != null && this.positionInCurrentChunk < this.currentChunk.length) {
+				return true;
+			}
+			byte[] chunk = this.bufferPool.acquire();
+			if (chunk == null) {
+				this.bufferPoolExhausted = true;
+				return false;
+			}
+			this.chunks.add(chunk);
+			this.currentChunk = chunk;
+			this.positionInCurrentChunk = 0;
+			return true;
+		}
+
+		private boolean exceedsSpillThreshold(int length) {
+			return this.spillFile == null && this.bufferPool.getSpillStorage().isPresent()
+					&& this.size + length > this.bufferPool.getSpillStorage().get().getThreshold();
+		}
+
+		/**
+		 * Move the bytes captured so far to a new {@link SpillFile} so that
+		 * subsequent output is written to it.
+		 *
+		 * @return {@code true} if output is now written to a spill file
+		 */
+		private boolean startSpilling() {
+			if (this.spillFile != null) {
+				return true;
+			}
+			if (!this.bufferPool.getSpillStorage().isPresent()) {
+				return false;
+			}
+			SpillFile file = null;
+			try {
+				file = this.bufferPool.getSpillStorage().get().createFile();
+				int remaining = this.size;
+				for (byte[] chunk : this.chunks) {
+					int length = Math.min(chunk.length, remaining);
+					file.write(chunk, 0, length);
+					remaining -= length;
+				}
+			}
+			catch (IOException e) {
+				logger.warn(e, () -> "Failed to spill captured output to file");
+				closeQuietly(file);
+				return false;
+			}
+			releaseChunks();
+			this.spillFile = file;
+			return true;
+		}
+
+		private void writeToSpillFile(byte[] buf, int off, int len) {
+			try {
+				this.spillFile.write(buf, off, len);
+				this.size += len;
+			}
+			catch (IOException e) {
+				logger.warn(e, () -> "Failed to spill captured output to file");
+				this.truncatedBytes += len;
+			}
+		}
+
+		/**
+		 * Get the region of the file the output has been spilled to once this
+		 * capture has been consumed.
+		 *
+		 * @return the file region or {@code Optional.empty()} if the output
+		 * has not been spilled
+		 */
+		synchronized Optional<FileRegion> getFileRegion() {
+			return Optional.ofNullable(this.fileRegion);
+		}
+
+		synchronized String consume() {
+			if (this.closed) {
+				return "";
+			}
+			this.closed = true;
+			if (this.spillFile != null) {
+				this.fileRegion = closeSpillFile();
+				return this.fileRegion == null ? decode() : "";
+			}
+			try {
+				return decode();
+			}
+			finally {
+				releaseChunks();
+			}
+		}
 
-		private final Deque<Integer> markedPositions = new ArrayDeque<>();
+		private FileRegion closeSpillFile() {
+			try {
+				if (this.truncatedBytes > 0) {
+					this.spillFile.write(truncationMarker().getBytes(Charset.defaultCharset()));
+				}
+				return this.spillFile.toFileRegion(Charset.defaultCharset());
+			}
+			catch (IOException e) {
+				logger.warn(e, () -> "Failed to close file containing spilled output");
+				closeQuietly(this.spillFile);
+				this.truncatedBytes += this.size;
+				this.size = 0;
+				return null;
+			}
+			finally {
+				this.spillFile = null;
+			}
+		}
 
-		boolean isMarked() {
-			return !markedPositions.isEmpty();
+		private void releaseChunks() {
+			this.chunks.forEach(this.bufferPool::release);
+			this.chunks.clear();
+			this.currentChunk = null;
 		}
 
-		void mark() {
-			markedPositions.addFirst(count);
+		private static void closeQuietly(SpillFile file) {
+			if (file != null) {
+				try {
+					file.close();
+				}
+				catch (IOException ignored) {
+					// already reported
+				}
+			}
 		}
 
-		String rewind() {
-			Integer position = markedPositions.pollFirst();
-			if (position == null || position == count) {
+		private String decode() {
+			if (this.truncatedBytes == 0 && isBlank()) {
 				return "";
 			}
-			int length = count - position;
-			count -= length;
-			return new String(buf, position, length);
+			String output;
+			if (this.chunks.size() == 1) {
+				output = new String(this.currentChunk, 0, this.size, Charset.defaultCharset());
+			}
+			else {
+				byte[] bytes = new byte[this.size];
+				int position = 0;
+				for (byte[] chunk : this.chunks) {
+					int length = Math.min(chunk.length, this.size - position);
+					System.arraycopy(chunk, 0, bytes, position, length);
+					position += length;
+				}
+				output = new String(bytes, Charset.defaultCharset());
+			}
+			if (this.truncatedBytes > 0) {
+				output += truncationMarker();
+			}
+			return output;
 		}
+
+		private String truncationMarker() {
+			return String.format("[... %d more bytes truncated%s ...]", this.truncatedBytes,
+				this.bufferPoolExhausted ? " (total capture buffer limit reached)" : "");
+		}
+
+		/**
+		 * Determine whether the captured bytes only consist of whitespace
+		 * and control characters without decoding them.
+		 */
+		private boolean isBlank() {
+			int remaining = this.size;
+			for (byte[] chunk : this.chunks) {
+				int length = Math.min(chunk.length, remaining);
+				for (int i = 0; i < length; i++) {
+					if ((chunk[i] & 0xFF) > ' ') {
+						return false;
+					}
+				}
+				remaining -= length;
+			}
+			return true;
+		}
+
 	}
+
 }
@@ -14,6 +14,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Consumer;
 
 import org.junit.platform.engine.TestExecutionResult;
@@ -55,20 +56,45 @@ class TestExecutionListenerRegistry {
 		// @formatter:on
 	}
 
-	private void notifyTestExecutionListeners(Consumer<TestExecutionListener> consumer) {
-		this.testExecutionListeners.forEach(consumer);
-	}
-
 	private void notifyEagerTestExecutionListeners(Consumer<EagerTestExecutionListener> consumer) {
 		this.eagerTestExecutionListeners.forEach(consumer);
 	}
 
 	TestExecutionListener getCompositeTestExecutionListener() {
-		return new CompositeTestExecutionListener();
+		return new CompositeTestExecutionListener(Optional.empty());
+	}
+
+	/**
+	 * Get a composite listener that notifies
+	 * {@link EagerTestExecutionListener EagerTestExecutionListeners}
+	 * synchronously and all registered listeners via the supplied
+	 * {@link AsyncNotificationDispatcher}.
+	 *
+	 * <p>{@link TestExecutionListener#testPlanExecutionFinished} of the
+	 * returned listener flushes the dispatcher.
+	 */
+	TestExecutionListener getCompositeTestExecutionListener(AsyncNotificationDispatcher dispatcher) {
+		return new CompositeTestExecutionListener(Optional.of(dispatcher));
 	}
 
 	private class CompositeTestExecutionListener implements TestExecutionListener {
 
+		private final Optional<AsyncNotificationDispatcher> dispatcher;
+
+		CompositeTestExecutionListener(Optional<AsyncNotificationDispatcher> dispatcher) {
+			this.dispatcher = dispatcher;
+		}
+
+		private void notifyTestExecutionListeners(Consumer<TestExecutionListener> consumer) {
+			Runnable notification = () -> testExecutionListeners.forEach(consumer);
+			if (this.dispatcher.isPresent()) {
+				this.dispatcher.get().execute(notification);
+			}
+			else {
+				notification.run();
+			}
+		}
+
 		@Override
 		public void dynamicTestRegistered(TestIdentifier testIdentifier) {
 			notifyTestExecutionListeners(listener -> listener.dynamicTestRegistered(testIdentifier));
@@ -100,6 +126,7 @@ class TestExecutionListenerRegistry {
 		@Override
 		public void testPlanExecutionFinished(TestPlan testPlan) {
 			notifyTestExecutionListeners(listener -> listener.testPlanExecutionFinished(testPlan));
+			this.dispatcher.ifPresent(AsyncNotificationDispatcher::flush);
 		}
 
 		@Override
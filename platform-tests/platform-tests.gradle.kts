@@ -35,6 +35,8 @@ dependencies {
 	}
 	jmhAnnotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:${Versions.jmh}")
 	jmh(project(":junit-jupiter-api"))
+	jmh(project(":junit-platform-engine"))
+	jmh(project(":junit-platform-launcher"))
 	jmh("junit:junit:${Versions.junit4}")
 }
 
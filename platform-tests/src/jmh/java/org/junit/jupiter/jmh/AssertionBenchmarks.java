@@ -10,9 +10,12 @@
 
 package org.junit.jupiter.jmh;
 
+import java.time.Duration;
+
 import org.junit.Assert;
 import org.junit.jupiter.api.Assertions;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Threads;
 
 /**
  * JMH benchmarks for assertions.
@@ -21,6 +24,8 @@ import org.openjdk.jmh.annotations.Benchmark;
  */
 public class AssertionBenchmarks {
 
+	private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
 	@Benchmark
 	public void junit4_assertTrue_boolean() {
 		Assert.assertTrue(true);
@@ -56,4 +61,32 @@ public class AssertionBenchmarks {
 		Assertions.assertTrue(() -> true, () -> "message");
 	}
 
+	@Benchmark
+	public void junitJupiter_assertTimeout_Duration_Executable() {
+		Assertions.assertTimeout(TIMEOUT, () -> {
+		});
+	}
+
+	@Benchmark
+	public Object junitJupiter_assertTimeout_Duration_ThrowingSupplier() {
+		return Assertions.assertTimeout(TIMEOUT, () -> "result");
+	}
+
+	@Benchmark
+	public void junitJupiter_assertTimeoutPreemptively_Duration_Executable() {
+		Assertions.assertTimeoutPreemptively(TIMEOUT, () -> {
+		});
+	}
+
+	@Benchmark
+	public Object junitJupiter_assertTimeoutPreemptively_Duration_ThrowingSupplier() {
+		return Assertions.assertTimeoutPreemptively(TIMEOUT, () -> "result");
+	}
+
+	@Benchmark
+	@Threads(4)
+	public Object junitJupiter_assertTimeoutPreemptively_Duration_ThrowingSupplier_concurrently() {
+		return Assertions.assertTimeoutPreemptively(TIMEOUT, () -> "result");
+	}
+
 }
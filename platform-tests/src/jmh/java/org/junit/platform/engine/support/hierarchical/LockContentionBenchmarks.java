@@ -0,0 +1,187 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.engine.support.hierarchical;
+
+import static java.util.Collections.singleton;
+import static org.junit.platform.engine.support.hierarchical.ExclusiveResource.LockMode.READ_WRITE;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.support.hierarchical.HierarchicalTestExecutorService.TestTask;
+import org.junit.platform.engine.support.hierarchical.Node.ExecutionMode;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks for the {@link ForkJoinPoolHierarchicalTestExecutorService}
+ * under heavy resource lock contention.
+ *
+ * <p>Each invocation executes a container with {@value #TASKS} concurrent
+ * children. A share of them contends for a small number of resource locks
+ * while the others do not require any lock. The {@code averageBusyWorkers}
+ * counter reports how many workers were executing tests on average; ideally,
+ * it approaches the configured parallelism.
+ *
+ * @since 1.4
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LockContentionBenchmarks {
+
+	private static final int TASKS = 256;
+
+	private static final long WORK_TOKENS = 10_000;
+
+	@Param({ "4", "8" })
+	public int parallelism;
+
+	@Param({ "1", "4" })
+	public int lockKeys;
+
+	@Param({ "50", "90" })
+	public int lockedPercentage;
+
+	private final AtomicLong busyNanos = new AtomicLong();
+
+	private ForkJoinPoolHierarchicalTestExecutorService executorService;
+
+	private TestTask rootTask;
+
+	@Setup
+	public void setUp() {
+		Map<String, String> configParams = new HashMap<>();
+		configParams.put(DefaultParallelExecutionConfigurationStrategy.CONFIG_STRATEGY_PROPERTY_NAME, "fixed");
+		configParams.put(DefaultParallelExecutionConfigurationStrategy.CONFIG_FIXED_PARALLELISM_PROPERTY_NAME,
+			String.valueOf(parallelism));
+		executorService = new ForkJoinPoolHierarchicalTestExecutorService(new MapConfigurationParameters(configParams));
+
+		LockManager lockManager = new LockManager();
+		List<TestTask> children = new ArrayList<>(TASKS);
+		for (int i = 0; i < TASKS; i++) {
+			ResourceLock resourceLock = NopLock.INSTANCE;
+			if (i % 100 < lockedPercentage) {
+				ExclusiveResource resource = new ExclusiveResource("resource-" + (i % lockKeys), READ_WRITE);
+				resourceLock = lockManager.getLockForResources(singleton(resource));
+			}
+			children.add(new BenchmarkTask(resourceLock, () -> {
+				long start = System.nanoTime();
+				Blackhole.consumeCPU(WORK_TOKENS);
+				busyNanos.addAndGet(System.nanoTime() - start);
+			}));
+		}
+		rootTask = new BenchmarkTask(NopLock.INSTANCE, () -> executorService.invokeAll(children));
+	}
+
+	@TearDown
+	public void tearDown() {
+		executorService.close();
+	}
+
+	@Benchmark
+	public void invokeAllUnderLockContention(Utilization utilization) throws Exception {
+		busyNanos.set(0);
+		long start = System.nanoTime();
+		executorService.submit(rootTask).get();
+		utilization.wallNanos += System.nanoTime() - start;
+		utilization.busyNanos += busyNanos.get();
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Utilization {
+
+		long wallNanos;
+
+		long busyNanos;
+
+		public double averageBusyWorkers() {
+			return wallNanos == 0 ? 0 : (double) busyNanos / wallNanos;
+		}
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			wallNanos = 0;
+			busyNanos = 0;
+		}
+
+	}
+
+	private static class BenchmarkTask implements TestTask {
+
+		private final ResourceLock resourceLock;
+		private final Runnable action;
+
+		BenchmarkTask(ResourceLock resourceLock, Runnable action) {
+			this.resourceLock = resourceLock;
+			this.action = action;
+		}
+
+		@Override
+		public ExecutionMode getExecutionMode() {
+			return ExecutionMode.CONCURRENT;
+		}
+
+		@Override
+		public ResourceLock getResourceLock() {
+			return resourceLock;
+		}
+
+		@Override
+		public void execute() {
+			action.run();
+		}
+
+	}
+
+	private static class MapConfigurationParameters implements ConfigurationParameters {
+
+		private final Map<String, String> map;
+
+		MapConfigurationParameters(Map<String, String> map) {
+			this.map = map;
+		}
+
+		@Override
+		public Optional<String> get(String key) {
+			return Optional.ofNullable(map.get(key));
+		}
+
+		@Override
+		public Optional<Boolean> getBoolean(String key) {
+			return get(key).map(Boolean::parseBoolean);
+		}
+
+		@Override
+		public int size() {
+			return map.size();
+		}
+
+	}
+
+}
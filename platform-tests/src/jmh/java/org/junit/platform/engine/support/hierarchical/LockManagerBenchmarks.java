@@ -0,0 +1,95 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.engine.support.hierarchical;
+
+import static org.junit.platform.engine.support.hierarchical.ExclusiveResource.LockMode.READ;
+import static org.junit.platform.engine.support.hierarchical.ExclusiveResource.LockMode.READ_WRITE;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks for resolving and using the {@linkplain ResourceLock resource
+ * locks} of {@value #NODES} nodes via the {@link LockManager}.
+ *
+ * <p>Each node declares a random set of resources drawn from a pool of
+ * {@code lockKeys} keys, so that large suites with many nodes sharing the
+ * same resources are simulated.
+ *
+ * @since 1.4
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LockManagerBenchmarks {
+
+	private static final int NODES = 10_000;
+
+	@Param({ "16", "256" })
+	public int lockKeys;
+
+	@Param({ "1", "3" })
+	public int resourcesPerNode;
+
+	private List<List<ExclusiveResource>> resourcesByNode;
+
+	private List<ResourceLock> resourceLocks;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		resourcesByNode = new ArrayList<>(NODES);
+		for (int i = 0; i < NODES; i++) {
+			List<ExclusiveResource> resources = new ArrayList<>(resourcesPerNode);
+			for (int j = 0; j < resourcesPerNode; j++) {
+				resources.add(new ExclusiveResource("resource-" + random.nextInt(lockKeys),
+					random.nextBoolean() ? READ : READ_WRITE));
+			}
+			resourcesByNode.add(resources);
+		}
+		LockManager lockManager = new LockManager();
+		resourceLocks = new ArrayList<>(NODES);
+		for (List<ExclusiveResource> resources : resourcesByNode) {
+			resourceLocks.add(lockManager.getLockForResources(resources));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NODES)
+	public void resolveLocks(Blackhole blackhole) {
+		LockManager lockManager = new LockManager();
+		for (List<ExclusiveResource> resources : resourcesByNode) {
+			blackhole.consume(lockManager.getLockForResources(resources));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NODES)
+	public void acquireAndReleaseLocks() throws InterruptedException {
+		for (ResourceLock resourceLock : resourceLocks) {
+			resourceLock.acquire().release();
+		}
+	}
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+
+package org.junit.platform.launcher;
+
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestTag;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.AbstractTestDescriptor;
+import org.junit.platform.engine.support.descriptor.EngineDescriptor;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JMH benchmarks for creating and querying {@linkplain TestPlan test plans}
+ * with {@code classes * methodsPerClass} tests and for the memory they retain.
+ *
+ * <p>The retained memory is reported as the {@code retainedBytesPerIdentifier}
+ * secondary result of {@link #retainedMemory}; run the benchmarks with
+ * {@code -prof gc} to also report the memory allocated while creating them.
+ *
+ * @since 1.4
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TestPlanBenchmarks {
+
+	@Param({ "100", "1000" })
+	public int classes;
+
+	@Param({ "100", "1000" })
+	public int methodsPerClass;
+
+	private TestDescriptor engineDescriptor;
+
+	private TestDescriptor lastTestDescriptor;
+
+	@Setup
+	public void setUp() {
+		Set<TestTag> tags = singleton(TestTag.create("generated"));
+		engineDescriptor = new EngineDescriptor(UniqueId.forEngine("engine"), "Engine");
+		for (int i = 0; i < classes; i++) {
+			TestDescriptor classDescriptor = new Descriptor(engineDescriptor.getUniqueId().append("class",
+				"org.example.generated.GeneratedTests" + i), "GeneratedTests" + i, emptySet());
+			engineDescriptor.addChild(classDescriptor);
+			for (int j = 0; j < methodsPerClass; j++) {
+				String methodName = "test" + j + "()";
+				lastTestDescriptor = new Descriptor(classDescriptor.getUniqueId().append("method", methodName),
+					methodName, tags);
+				classDescriptor.addChild(lastTestDescriptor);
+			}
+		}
+	}
+
+	@Benchmark
+	public TestPlan createTestPlan() {
+		return TestPlan.from(singleton(engineDescriptor));
+	}
+
+	@Benchmark
+	public long countTestsOfEachClass(TestPlanState state) {
+		long tests = 0;
+		for (TestIdentifier testClass : state.testPlan.getChildren(state.engine)) {
+			tests += state.testPlan.getDescendants(testClass).stream().filter(TestIdentifier::isTest).count();
+		}
+		return tests;
+	}
+
+	@Benchmark
+	public long countDescendantsOfEachClass(TestPlanState state) {
+		long descendants = 0;
+		for (TestIdentifier testClass : state.testPlan.getChildren(state.engine)) {
+			descendants += state.testPlan.getDescendants(testClass).size();
+		}
+		return descendants;
+	}
+
+	@Benchmark
+	public boolean containsDescendant(TestPlanState state) {
+		return state.testPlan.getDescendants(state.engine).contains(state.lastTest);
+	}
+
+	@Benchmark
+	public TestPlan retainedMemory(RetainedMemory retainedMemory) {
+		long usedBefore = retainedMemory.usedHeap();
+		TestPlan testPlan = TestPlan.from(singleton(engineDescriptor));
+		long identifiers = testPlan.countTestIdentifiers(identifier -> true);
+		retainedMemory.retainedBytesPerIdentifier = (retainedMemory.usedHeap() - usedBefore) / identifiers;
+		return testPlan;
+	}
+
+	@State(Scope.Benchmark)
+	public static class TestPlanState {
+
+		TestPlan testPlan;
+		TestIdentifier engine;
+		TestIdentifier lastTest;
+
+		@Setup
+		public void setUp(TestPlanBenchmarks benchmarks) {
+			testPlan = benchmarks.createTestPlan();
+			engine = testPlan.getRoots().iterator().next();
+			lastTest = testPlan.getTestIdentifier(benchmarks.lastTestDescriptor.getUniqueId().toString());
+		}
+
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class RetainedMemory {
+
+		private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+
+		public long retainedBytesPerIdentifier;
+
+		long usedHeap() {
+			for (int i = 0; i < 3; i++) {
+				memoryBean.gc();
+			}
+			return memoryBean.getHeapMemoryUsage().getUsed();
+		}
+
+	}
+
+	private static class Descriptor extends AbstractTestDescriptor {
+
+		private final Set<TestTag> tags;
+
+		Descriptor(UniqueId uniqueId, String displayName, Set<TestTag> tags) {
+			super(uniqueId, displayName);
+			this.tags = tags;
+		}
+
+		@Override
+		public Type getType() {
+			return getChildren().isEmpty() ? Type.TEST : Type.CONTAINER;
+		}
+
+		@Override
+		public Set<TestTag> getTags() {
+			return tags;
+		}
+
+	}
+
+}
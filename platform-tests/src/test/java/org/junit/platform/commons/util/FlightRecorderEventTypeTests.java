@@ -0,0 +1,88 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.commons.util;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.condition.JRE.JAVA_10;
+import static org.junit.jupiter.api.condition.JRE.JAVA_8;
+import static org.junit.jupiter.api.condition.JRE.JAVA_9;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnJre;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.extensions.TempDirectory;
+import org.junit.jupiter.extensions.TempDirectory.Root;
+
+/**
+ * Unit tests for {@link FlightRecorderEventType}.
+ *
+ * @since 1.4
+ */
+class FlightRecorderEventTypeTests {
+
+	private final FlightRecorderEventType eventType = FlightRecorderEventType.create(
+		"org.junit.platform.commons.util.TestEvent", "Test Event", "Event for testing", "first", "second");
+
+	@Test
+	void validatesArguments() {
+		assertThrows(PreconditionViolationException.class,
+			() -> FlightRecorderEventType.create(" ", "label", "description"));
+		assertThrows(PreconditionViolationException.class,
+			() -> FlightRecorderEventType.create("name", "label", "description", (String) null));
+	}
+
+	@Test
+	void isDisabledWithoutRecording() {
+		assertFalse(eventType.isEnabled());
+
+		// must not fail
+		eventType.begin().commit("a", "b");
+	}
+
+	@Test
+	@DisabledOnJre({ JAVA_8, JAVA_9, JAVA_10 })
+	@ExtendWith(TempDirectory.class)
+	void recordsEventsWhileRecording(@Root Path tempDirectory) throws Exception {
+		Path file = tempDirectory.resolve("recording.jfr");
+		try (Recording recording = new Recording()) {
+			recording.start();
+			assertTrue(eventType.isEnabled());
+
+			eventType.begin().commit("a", 42);
+
+			recording.stop();
+			recording.dump(file);
+		}
+
+		// @formatter:off
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+				.filter(event -> event.getEventType().getName().equals("org.junit.platform.commons.util.TestEvent"))
+				.collect(toList());
+		// @formatter:on
+		assertEquals(1, events.size());
+		assertEquals("a", events.get(0).getString("first"));
+		assertEquals("42", events.get(0).getString("second"));
+		assertEquals(Thread.currentThread().getName(), events.get(0).getThread().getJavaName());
+		assertFalse(eventType.isEnabled());
+	}
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.console;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.extensions.TempDirectory;
+import org.junit.jupiter.extensions.TempDirectory.Root;
+import org.junit.platform.console.options.PicocliCommandLineOptionsParser;
+import org.junit.platform.console.tasks.LauncherEnvironmentCache;
+
+/**
+ * @since 1.4
+ */
+@Timeout(30)
+@ExtendWith(TempDirectory.class)
+class ConsoleLauncherDaemonTests {
+
+	@Test
+	void executesRequestsOfClients(@Root Path tempDirectory) throws Exception {
+		Path daemonFile = tempDirectory.resolve("daemon.properties");
+		try (LauncherEnvironmentCache cache = new LauncherEnvironmentCache(emptyList());
+				ConsoleLauncherDaemon daemon = startDaemon(daemonFile, cache)) {
+
+			ConsoleLauncherWrapperResult result = executeClient(daemonFile);
+
+			assertAll(//
+				() -> assertTrue(result.out.contains("9 tests found"), result.out), //
+				() -> assertThrows(IllegalStateException.class, result::getTestsFoundCount,
+					"summary is only available when tests are executed by the client itself") //
+			);
+		}
+	}
+
+	@Test
+	void closesConnectionsOfClientsThatDoNotSendTokenInTime(@Root Path tempDirectory) throws Exception {
+		Path daemonFile = tempDirectory.resolve("daemon.properties");
+		try (LauncherEnvironmentCache cache = new LauncherEnvironmentCache(emptyList());
+				ConsoleLauncherDaemon daemon = startDaemon(daemonFile, cache, 100)) {
+			int port = Integer.parseInt(
+				ConsoleLauncherDaemon.readDaemonFile(daemonFile).get().getProperty(ConsoleLauncherDaemon.PORT_KEY));
+
+			try (Socket idleClient = new Socket(InetAddress.getLoopbackAddress(), port)) {
+				ConsoleLauncherWrapperResult result = executeClient(daemonFile);
+
+				assertAll(//
+					() -> assertTrue(result.out.contains("9 tests found"), result.out), //
+					() -> assertThrows(IllegalStateException.class, result::getTestsFoundCount,
+						"summary is only available when tests are executed by the client itself") //
+				);
+			}
+		}
+	}
+
+	@Test
+	void clientsExecuteTestsThemselvesIfNoDaemonIsRunning(@Root Path tempDirectory) {
+		ConsoleLauncherWrapperResult result = executeClient(tempDirectory.resolve("daemon.properties"));
+
+		assertEquals(9, result.getTestsFoundCount());
+	}
+
+	@Test
+	void clientsExecuteTestsThemselvesIfDaemonHasBeenStartedInDifferentWorkingDirectory(@Root Path tempDirectory)
+			throws Exception {
+		Path daemonFile = tempDirectory.resolve("daemon.properties");
+		try (LauncherEnvironmentCache cache = new LauncherEnvironmentCache(emptyList());
+				ConsoleLauncherDaemon daemon = startDaemon(daemonFile, cache)) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			PrintStream printStream = new PrintStream(out);
+
+			Optional<ConsoleLauncherExecutionResult> result = new ConsoleLauncherDaemonClient(daemonFile,
+				tempDirectory.toAbsolutePath()).execute(new String[] { "-e", "junit-jupiter" }, UTF_8, printStream,
+					printStream);
+
+			assertFalse(result.isPresent());
+			assertEquals(0, out.size());
+		}
+	}
+
+	@Test
+	void deletesDaemonFileWhenClosed(@Root Path tempDirectory) throws Exception {
+		Path daemonFile = tempDirectory.resolve("daemon.properties");
+		try (LauncherEnvironmentCache cache = new LauncherEnvironmentCache(emptyList())) {
+			startDaemon(daemonFile, cache).close();
+		}
+
+		assertFalse(Files.exists(daemonFile));
+	}
+
+	private static ConsoleLauncherDaemon startDaemon(Path daemonFile, LauncherEnvironmentCache cache)
+			throws Exception {
+		return startDaemon(daemonFile, cache, ConsoleLauncherDaemon.HANDSHAKE_TIMEOUT_MILLIS);
+	}
+
+	private static ConsoleLauncherDaemon startDaemon(Path daemonFile, LauncherEnvironmentCache cache,
+			int handshakeTimeoutMillis) throws Exception {
+		ConsoleLauncherDaemon daemon = new ConsoleLauncherDaemon(daemonFile, cache,
+			PicocliCommandLineOptionsParser::new, new PrintWriter(new StringWriter()), handshakeTimeoutMillis);
+		Thread thread = new Thread(() -> {
+			try {
+				daemon.run();
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		thread.setDaemon(true);
+		thread.start();
+		while (!Files.exists(daemonFile)) {
+			Thread.sleep(10);
+		}
+		return daemon;
+	}
+
+	private static ConsoleLauncherWrapperResult executeClient(Path daemonFile) {
+		return new ConsoleLauncherWrapper().execute("--use-daemon", "--daemon-file", daemonFile.toString(), "-e",
+			"junit-jupiter", "-p", "org.junit.platform.console.subpackage", "--details", "summary");
+	}
+
+}
@@ -67,6 +67,11 @@ class PicocliCommandLineOptionsParserTests {
 			() -> assertEquals(emptyList(), options.getExcludedTagExpressions()),
 			() -> assertEquals(emptyList(), options.getAdditionalClasspathEntries()),
 			() -> assertEquals(Optional.empty(), options.getReportsDir()),
+			() -> assertEquals(Optional.empty(), options.getShard()),
+			() -> assertEquals(Optional.empty(), options.getFailFast()),
+			() -> assertFalse(options.isDaemon()),
+			() -> assertFalse(options.isUseDaemon()),
+			() -> assertEquals(CommandLineOptions.DEFAULT_DAEMON_FILE, options.getDaemonFile()),
 			() -> assertEquals(emptyList(), options.getSelectedUris()),
 			() -> assertEquals(emptyList(), options.getSelectedFiles()),
 			() -> assertEquals(emptyList(), options.getSelectedDirectories()),
@@ -85,6 +90,8 @@ class PicocliCommandLineOptionsParserTests {
 		assertAll(
 			() -> assertParses("disable ansi", CommandLineOptions::isAnsiColorOutputDisabled, "--disable-ansi-colors"),
 			() -> assertParses("help", CommandLineOptions::isDisplayHelp, "-h", "--help"),
+			() -> assertParses("daemon", CommandLineOptions::isDaemon, "--daemon"),
+			() -> assertParses("use daemon", CommandLineOptions::isUseDaemon, "--use-daemon"),
 			() -> assertParses("scan class path", CommandLineOptions::isScanClasspath, "--scan-class-path")
 		);
 		// @formatter:on
@@ -294,6 +301,74 @@ class PicocliCommandLineOptionsParserTests {
 		assertOptionWithMissingRequiredArgumentThrowsException("-cp", "--classpath", "--class-path");
 	}
 
+	@ParameterizedTest
+	@EnumSource(ArgsType.class)
+	void parseValidShard(ArgsType type) {
+		// @formatter:off
+		assertAll(
+			() -> assertEquals(Optional.of("3/16"), type.parseArgLine("--shard 3/16").getShard()),
+			() -> assertEquals(Optional.of("3/16"), type.parseArgLine("--shard=3/16").getShard())
+		);
+		// @formatter:on
+	}
+
+	@Test
+	void parseInvalidShard() {
+		assertOptionWithMissingRequiredArgumentThrowsException("--shard");
+	}
+
+	@ParameterizedTest
+	@EnumSource(ArgsType.class)
+	void parseValidFailFast(ArgsType type) {
+		// @formatter:off
+		assertAll(
+			() -> assertEquals(Optional.of("5"), type.parseArgLine("--fail-fast 5").getFailFast()),
+			() -> assertEquals(Optional.of("5"), type.parseArgLine("--fail-fast=5").getFailFast())
+		);
+		// @formatter:on
+	}
+
+	@Test
+	void parseInvalidFailFast() {
+		assertOptionWithMissingRequiredArgumentThrowsException("--fail-fast");
+	}
+
+	@ParameterizedTest
+	@EnumSource(ArgsType.class)
+	void parseValidDaemonFile(ArgsType type) {
+		Path file = Paths.get("build", "daemon.properties");
+		// @formatter:off
+		assertAll(
+			() -> assertEquals(file, type.parseArgLine("--daemon-file build/daemon.properties").getDaemonFile()),
+			() -> assertEquals(file, type.parseArgLine("--daemon-file=build/daemon.properties").getDaemonFile())
+		);
+		// @formatter:on
+	}
+
+	@Test
+	void parseInvalidDaemonFile() {
+		assertOptionWithMissingRequiredArgumentThrowsException("--daemon-file");
+	}
+
+	@Test
+	void resolvesRelativePathsAgainstSuppliedWorkingDirectory() {
+		Path workingDirectory = Paths.get(".").toAbsolutePath().getParent();
+		String absoluteDirectory = workingDirectory.resolve("bar").toString();
+		CommandLineOptionsParser parser = new PicocliCommandLineOptionsParser(workingDirectory);
+
+		CommandLineOptions options = parser.parse("-cp", ".", "--reports-dir", "build/test-results", "--select-file",
+			"foo.txt", "--select-directory", absoluteDirectory);
+
+		// @formatter:off
+		assertAll(
+			() -> assertEquals(singletonList(workingDirectory.resolve(".")), options.getAdditionalClasspathEntries()),
+			() -> assertEquals(Optional.of(workingDirectory.resolve("build/test-results")), options.getReportsDir()),
+			() -> assertEquals(singletonList(workingDirectory.resolve("foo.txt").toString()), options.getSelectedFiles()),
+			() -> assertEquals(singletonList(absoluteDirectory), options.getSelectedDirectories())
+		);
+		// @formatter:on
+	}
+
 	@ParameterizedTest
 	@EnumSource(ArgsType.class)
 	void parseValidXmlReportsDirs(ArgsType type) {
@@ -277,6 +277,28 @@ class DiscoveryRequestCreatorTests {
 		assertThat(configurationParameters.getBoolean("baz")).contains(true);
 	}
 
+	@Test
+	void convertsShardOption() {
+		options.setScanClasspath(true);
+		options.setConfigurationParameters(mapOf(entry("junit.platform.shard", "1/2")));
+		options.setShard("3/16");
+
+		LauncherDiscoveryRequest request = convert();
+
+		assertThat(request.getConfigurationParameters().get("junit.platform.shard")).contains("3/16");
+	}
+
+	@Test
+	void convertsFailFastOption() {
+		options.setScanClasspath(true);
+		options.setFailFast("2");
+
+		LauncherDiscoveryRequest request = convert();
+
+		assertThat(request.getConfigurationParameters().get("junit.platform.execution.fail-fast.max-failures")).contains(
+			"2");
+	}
+
 	private LauncherDiscoveryRequest convert() {
 		DiscoveryRequestCreator creator = new DiscoveryRequestCreator();
 		return creator.toDiscoveryRequest(options);
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.console.tasks;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.platform.commons.util.ClassLoaderUtils.getDefaultClassLoader;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.extensions.TempDirectory;
+import org.junit.jupiter.extensions.TempDirectory.Root;
+
+/**
+ * @since 1.4
+ */
+@ExtendWith(TempDirectory.class)
+class LauncherEnvironmentCacheTests {
+
+	private final LauncherEnvironmentCache cache = new LauncherEnvironmentCache(emptyList());
+
+	@AfterEach
+	void closeCache() {
+		cache.close();
+	}
+
+	@Test
+	void usesParentClassLoaderWithoutAdditionalClasspathEntries() {
+		assertSame(getDefaultClassLoader(), cache.getClassLoader(emptyList()).orElse(null));
+	}
+
+	@Test
+	void reusesClassLoaderWhileClasspathEntriesAreUnchanged(@Root Path tempDirectory) throws Exception {
+		Files.write(tempDirectory.resolve("Foo.class"), "foo".getBytes(UTF_8));
+		List<Path> classpathEntries = singletonList(tempDirectory);
+
+		ClassLoader classLoader = cache.getClassLoader(classpathEntries).orElse(null);
+
+		assertEquals(getDefaultClassLoader(), classLoader.getParent());
+		assertSame(classLoader, cache.getClassLoader(classpathEntries).orElse(null));
+	}
+
+	@Test
+	void createsNewClassLoaderOnceClasspathEntryHasChanged(@Root Path tempDirectory) throws Exception {
+		Path classFile = Files.write(tempDirectory.resolve("Foo.class"), "foo".getBytes(UTF_8));
+		List<Path> classpathEntries = singletonList(tempDirectory);
+
+		ClassLoader classLoader = cache.getClassLoader(classpathEntries).orElse(null);
+		Files.write(classFile, "changed".getBytes(UTF_8));
+
+		assertNotSame(classLoader, cache.getClassLoader(classpathEntries).orElse(null));
+	}
+
+	@Test
+	void createsNewClassLoaderForDifferentClasspathEntries(@Root Path tempDirectory) throws Exception {
+		Path first = Files.createDirectory(tempDirectory.resolve("first"));
+		Path second = Files.createDirectory(tempDirectory.resolve("second"));
+
+		ClassLoader classLoader = cache.getClassLoader(singletonList(first)).orElse(null);
+
+		assertNotSame(classLoader, cache.getClassLoader(singletonList(second)).orElse(null));
+	}
+
+}
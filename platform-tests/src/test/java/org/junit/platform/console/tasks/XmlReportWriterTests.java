@@ -10,6 +10,7 @@
 
 package org.junit.platform.console.tasks;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.singleton;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.platform.commons.util.CollectionUtils.getOnlyElement;
@@ -20,11 +21,17 @@ import static org.junit.platform.launcher.LauncherConstants.STDERR_REPORT_ENTRY_
 import static org.junit.platform.launcher.LauncherConstants.STDOUT_REPORT_ENTRY_KEY;
 
 import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Clock;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.extensions.TempDirectory;
+import org.junit.jupiter.extensions.TempDirectory.Root;
 import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.reporting.FileRegion;
 import org.junit.platform.engine.reporting.ReportEntry;
 import org.junit.platform.engine.support.descriptor.EngineDescriptor;
 import org.junit.platform.launcher.TestIdentifier;
@@ -122,6 +129,42 @@ class XmlReportWriterTests {
 		//@formatter:on
 	}
 
+	@Test
+	@ExtendWith(TempDirectory.class)
+	void writesOutputSpilledToFileRegions(@Root Path tempDirectory) throws Exception {
+		UniqueId uniqueId = engineDescriptor.getUniqueId().append("test", "test");
+		TestDescriptorStub testDescriptor = new TestDescriptorStub(uniqueId, "successfulTest");
+		engineDescriptor.addChild(testDescriptor);
+		TestPlan testPlan = TestPlan.from(singleton(engineDescriptor));
+
+		Path file = Files.write(tempDirectory.resolve("spilled"), "-normal output-error output ]]> -".getBytes(UTF_8));
+		XmlReportData reportData = new XmlReportData(testPlan, Clock.systemDefaultZone());
+		ReportEntry reportEntry = ReportEntry.from("foo", "bar").withFileRegions(Map.of( //
+			STDOUT_REPORT_ENTRY_KEY, FileRegion.of(file, 1, 13, UTF_8), //
+			STDERR_REPORT_ENTRY_KEY, FileRegion.of(file, 15, 16, UTF_8)));
+		reportData.addReportEntry(TestIdentifier.from(testDescriptor), reportEntry);
+		reportData.markFinished(testPlan.getTestIdentifier(uniqueId.toString()), successful());
+
+		String content = writeXmlReport(testPlan, reportData);
+
+		assertValidAccordingToJenkinsSchema(content);
+		//@formatter:off
+		assertThat(content)
+			.containsSubsequence(
+				"<system-out>",
+					"Report Entry #1 (timestamp: ",
+					"- foo: bar",
+				"</system-out>",
+				"<system-out>",
+					"normal output",
+				"</system-out>",
+				"<system-err>",
+					"error output ]]]]><![CDATA[>",
+				"</system-err>")
+			.doesNotContain(STDOUT_REPORT_ENTRY_KEY, STDERR_REPORT_ENTRY_KEY);
+		//@formatter:on
+	}
+
 	@Test
 	void writesEmptySkippedElementForSkippedTestWithoutReason() throws Exception {
 		UniqueId uniqueId = engineDescriptor.getUniqueId().append("test", "test");
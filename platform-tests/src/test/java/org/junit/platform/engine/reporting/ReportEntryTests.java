@@ -0,0 +1,56 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.engine.reporting;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.extensions.TempDirectory;
+import org.junit.jupiter.extensions.TempDirectory.Root;
+
+/**
+ * @since 1.4
+ */
+@ExtendWith(TempDirectory.class)
+class ReportEntryTests {
+
+	@Test
+	void includesValuesStoredInFileRegionsInKeyValuePairs(@Root Path tempDirectory) throws Exception {
+		Path file = Files.write(tempDirectory.resolve("spilled"), "-spilled value-".getBytes(UTF_8));
+		ReportEntry reportEntry = ReportEntry.from("foo", "bar").withFileRegions(
+			singletonMap("baz", FileRegion.of(file, 1, 13, UTF_8)));
+
+		assertThat(reportEntry.getKeyValuePairs()).containsExactly(entry("foo", "bar"),
+			entry("baz", "spilled value"));
+		assertThat(reportEntry.getKeyValuePairs().get("baz")).isEqualTo("spilled value");
+	}
+
+	@Test
+	void replacesValuesOfFileRegionsWhoseFilesNoLongerExistWithPlaceholder(@Root Path tempDirectory)
+			throws Exception {
+		Path file = Files.write(tempDirectory.resolve("spilled"), "-spilled value-".getBytes(UTF_8));
+		FileRegion fileRegion = FileRegion.of(file, 1, 13, UTF_8);
+		ReportEntry reportEntry = ReportEntry.from("foo", "bar").withFileRegions(singletonMap("baz", fileRegion));
+		Files.delete(file);
+
+		assertThat(reportEntry.getKeyValuePairs()).containsExactly(entry("foo", "bar"),
+			entry("baz", "[file no longer exists: " + fileRegion + "]"));
+		assertThat(reportEntry.getKeyValuePairs().get("baz")).contains(fileRegion.toString());
+	}
+
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.engine.support.discovery;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.extensions.TempDirectory;
+import org.junit.jupiter.extensions.TempDirectory.Root;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestEngine;
+import org.junit.platform.engine.TestTag;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.DemoClassTestDescriptor;
+import org.junit.platform.engine.support.descriptor.DemoMethodTestDescriptor;
+
+/**
+ * @since 1.4
+ */
+@ExtendWith(TempDirectory.class)
+class DiscoveryCacheTests {
+
+	private final UniqueId engineId = UniqueId.forEngine("engine");
+
+	@Test
+	void returnsNoCacheIfDirectoryIsNotConfigured() {
+		ConfigurationParameters configParams = mock(ConfigurationParameters.class);
+		when(configParams.get(DiscoveryCache.CACHE_DIR_PROPERTY_NAME)).thenReturn(Optional.empty());
+
+		assertThat(DiscoveryCache.fromConfigurationParameters(configParams, mock(TestEngine.class))).isEmpty();
+	}
+
+	@Test
+	void returnsNoEntryForUnknownClass(@Root Path tempDirectory) {
+		DiscoveryCache cache = DiscoveryCache.load(tempDirectory.resolve("engine.cache"), "engine", "1.0");
+
+		assertThat(cache.lookup(SampleTestCase.class)).isEmpty();
+	}
+
+	@Test
+	void storedEntriesSurviveSaveAndLoad(@Root Path tempDirectory) throws Exception {
+		Path file = tempDirectory.resolve("engine.cache");
+		DiscoveryCache cache = DiscoveryCache.load(file, "engine", "1.0");
+		cache.store(SampleTestCase.class, singletonList(createClassDescriptor()));
+		cache.save();
+
+		DiscoveryCache reloaded = DiscoveryCache.load(file, "engine", "1.0");
+
+		Optional<List<TestDescriptorSnapshot>> snapshots = reloaded.lookup(SampleTestCase.class);
+		assertThat(snapshots).isPresent();
+		assertThat(snapshots.get()).hasSize(1);
+		TestDescriptorSnapshot classSnapshot = snapshots.get().get(0);
+		assertThat(classSnapshot.getUniqueId()).isEqualTo(engineId.append("class", "sample"));
+		assertThat(classSnapshot.getDisplayName()).isEqualTo("SampleTestCase");
+		assertThat(classSnapshot.getSource()).contains(ClassSource.from(SampleTestCase.class));
+		assertThat(classSnapshot.getTags()).containsExactly(TestTag.create("fast"));
+		assertThat(classSnapshot.getChildren()).extracting(TestDescriptorSnapshot::getType).containsExactly(
+			TestDescriptor.Type.TEST);
+	}
+
+	@Test
+	void storedSourcesMayReferenceClassesOfOtherPackages(@Root Path tempDirectory) {
+		Path file = tempDirectory.resolve("engine.cache");
+		DiscoveryCache cache = DiscoveryCache.load(file, "engine", "1.0");
+		TestDescriptor descriptor = new DemoClassTestDescriptor(engineId.append("class", "other"),
+			DemoClassTestDescriptor.class);
+		cache.store(SampleTestCase.class, singletonList(descriptor));
+		cache.save();
+
+		Optional<List<TestDescriptorSnapshot>> snapshots = DiscoveryCache.load(file, "engine", "1.0").lookup(
+			SampleTestCase.class);
+
+		assertThat(snapshots).isPresent();
+		assertThat(snapshots.get().get(0).getSource()).contains(ClassSource.from(DemoClassTestDescriptor.class));
+	}
+
+	@Test
+	void ignoresClassesWithoutClassFiles(@Root Path tempDirectory) {
+		DiscoveryCache cache = DiscoveryCache.load(tempDirectory.resolve("engine.cache"), "engine", "1.0");
+
+		cache.store(String.class, emptyList());
+
+		assertThat(cache.lookup(String.class)).isEmpty();
+	}
+
+	@Test
+	void fingerprintCoversAnnotationTypesIncludingMetaAnnotations() {
+		assertThat(DiscoveryCache.collectRelevantClasses(ComposedAnnotationTestCase.class)).contains(
+			ComposedAnnotationTestCase.class, ComposedTest.class, Test.class, Tag.class, ComposedTag.class);
+	}
+
+	@Test
+	void discardsCacheWrittenByDifferentEngineVersion(@Root Path tempDirectory) {
+		Path file = tempDirectory.resolve("engine.cache");
+		DiscoveryCache cache = DiscoveryCache.load(file, "engine", "1.0");
+		cache.store(SampleTestCase.class, emptyList());
+		cache.save();
+
+		assertThat(DiscoveryCache.load(file, "engine", "1.0").lookup(SampleTestCase.class)).contains(emptyList());
+		assertThat(DiscoveryCache.load(file, "engine", "2.0").lookup(SampleTestCase.class)).isEmpty();
+		assertThat(DiscoveryCache.load(file, "other", "1.0").lookup(SampleTestCase.class)).isEmpty();
+	}
+
+	@Test
+	void snapshotsCanBeWrittenToAndReadFromStreams() throws Exception {
+		TestDescriptorSnapshot snapshot = TestDescriptorSnapshot.from(createClassDescriptor());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		TestDescriptorSnapshot.writeTo(out, singletonList(snapshot));
+		List<TestDescriptorSnapshot> snapshots = TestDescriptorSnapshot.readFrom(
+			new ByteArrayInputStream(out.toByteArray()));
+
+		assertThat(snapshots).hasSize(1);
+		assertThat(snapshots.get(0).getUniqueId()).isEqualTo(snapshot.getUniqueId());
+		assertThat(snapshots.get(0).getChildren()).extracting(TestDescriptorSnapshot::getUniqueId).containsExactly(
+			engineId.append("class", "sample").append("method", "test"));
+	}
+
+	@Test
+	void discardsCacheContainingDisallowedClasses(@Root Path tempDirectory) throws Exception {
+		Path file = tempDirectory.resolve("engine.cache");
+		try (ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(file))) {
+			out.writeInt(DiscoveryCache.FORMAT_VERSION);
+			out.writeUTF("engine");
+			out.writeUTF("1.0");
+			out.writeObject(new HashMap<>(singletonMap(SampleTestCase.class.getName(), BigInteger.ONE)));
+		}
+
+		DiscoveryCache cache = DiscoveryCache.load(file, "engine", "1.0");
+
+		assertThat(cache.lookup(SampleTestCase.class)).isEmpty();
+	}
+
+	@Test
+	void readingSnapshotsFromStreamsRejectsDisallowedClasses() throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(new ArrayList<>(singletonList(BigInteger.ONE)));
+		}
+
+		assertThrows(InvalidClassException.class,
+			() -> TestDescriptorSnapshot.readFrom(new ByteArrayInputStream(bytes.toByteArray())));
+	}
+
+	private TestDescriptor createClassDescriptor() throws Exception {
+		UniqueId classId = engineId.append("class", "sample");
+		DemoClassTestDescriptor classDescriptor = new DemoClassTestDescriptor(classId, SampleTestCase.class);
+		classDescriptor.addChild(new DemoMethodTestDescriptor(classId.append("method", "test"),
+			SampleTestCase.class, SampleTestCase.class.getDeclaredMethod("test")));
+		return classDescriptor;
+	}
+
+	@Tag("fast")
+	static class SampleTestCase {
+
+		@Test
+		void test() {
+		}
+
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Tag("composed")
+	@interface ComposedTag {
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Test
+	@interface ComposedTest {
+	}
+
+	@ComposedTag
+	static class ComposedAnnotationTestCase {
+
+		@ComposedTest
+		void test() {
+		}
+
+	}
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.engine.support.hierarchical;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.support.hierarchical.AdaptiveParallelismController.Permit;
+
+/**
+ * @since 1.4
+ */
+class AdaptiveParallelismControllerTests {
+
+	private static final int PROCESSORS = 4;
+
+	@Test
+	void raisesParallelismWhileMostRunningTestsAreBlocked() {
+		AdaptiveParallelismController controller = new AdaptiveParallelismController(1, 16, PROCESSORS, PROCESSORS);
+
+		assertThat(controller.adjust(0.2, 0.9, true)).isEqualTo(5);
+		assertThat(controller.adjust(0.2, 0.9, true)).isEqualTo(6);
+		assertThat(controller.getTargetParallelism()).isEqualTo(6);
+	}
+
+	@Test
+	void raisesParallelismWhileProcessorsAreIdle() {
+		AdaptiveParallelismController controller = new AdaptiveParallelismController(1, 16, 2, PROCESSORS);
+
+		assertThat(controller.adjust(0.5, 0.0, true)).isEqualTo(3);
+		assertThat(controller.adjust(0.5, 0.0, true)).isEqualTo(4);
+		assertThat(controller.adjust(0.5, 0.0, true)).isEqualTo(4);
+	}
+
+	@Test
+	void keepsParallelismWhenNoTestsAreWaiting() {
+		AdaptiveParallelismController controller = new AdaptiveParallelismController(1, 16, PROCESSORS, PROCESSORS);
+
+		assertThat(controller.adjust(0.2, 0.9, false)).isEqualTo(PROCESSORS);
+	}
+
+	@Test
+	void doesNotExceedMaximum() {
+		AdaptiveParallelismController controller = new AdaptiveParallelismController(1, 5, PROCESSORS, PROCESSORS);
+
+		assertThat(controller.adjust(0.1, 1.0, true)).isEqualTo(5);
+		assertThat(controller.adjust(0.1, 1.0, true)).isEqualTo(5);
+	}
+
+	@Test
+	void lowersParallelismTowardsAvailableProcessorsWhenCpuIsSaturated() {
+		AdaptiveParallelismController controller = new AdaptiveParallelismController(1, 16, 12, PROCESSORS);
+
+		assertThat(controller.adjust(0.95, 0.9, true)).isEqualTo(9);
+		assertThat(controller.adjust(0.95, 0.9, true)).isEqualTo(7);
+		assertThat(controller.adjust(0.95, 0.9, true)).isEqualTo(6);
+		assertThat(controller.adjust(0.95, 0.9, true)).isEqualTo(5);
+		assertThat(controller.adjust(0.95, 0.9, true)).isEqualTo(PROCESSORS);
+		assertThat(controller.adjust(0.95, 0.9, true)).isEqualTo(PROCESSORS);
+	}
+
+	@Test
+	void recordsAdjustmentsInMetrics() {
+		AdaptiveParallelismController controller = new AdaptiveParallelismController(1, 16, PROCESSORS, PROCESSORS);
+		ParallelExecutionMetrics metrics = new ParallelExecutionMetrics();
+		controller.setMetrics(metrics);
+
+		controller.adjust(0.2, 0.9, true);
+
+		assertThat(metrics.getTargetParallelism()).isEqualTo(5);
+		assertThat(metrics.getMinTargetParallelism()).isEqualTo(PROCESSORS);
+		assertThat(metrics.getTargetParallelismAdjustmentCount()).isEqualTo(1);
+	}
+
+	@Test
+	void blocksAcquisitionOfPermitsBeyondTargetParallelismUntilRaised() throws Exception {
+		AdaptiveParallelismController controller = new AdaptiveParallelismController(1, 2, 1, PROCESSORS);
+		Permit permit = controller.acquire();
+
+		CountDownLatch acquired = new CountDownLatch(1);
+		AtomicReference<Permit> otherPermit = new AtomicReference<>();
+		Thread thread = new Thread(() -> {
+			try {
+				otherPermit.set(controller.acquire());
+				acquired.countDown();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		thread.start();
+
+		assertThat(acquired.await(100, TimeUnit.MILLISECONDS)).isFalse();
+		controller.adjust(0.1, 1.0, true);
+		assertThat(acquired.await(10, TimeUnit.SECONDS)).isTrue();
+
+		controller.release(otherPermit.get());
+		controller.release(permit);
+		thread.join();
+	}
+
+}
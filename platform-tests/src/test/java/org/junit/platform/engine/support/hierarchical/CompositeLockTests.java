@@ -90,6 +90,36 @@ class CompositeLockTests {
 		verify(unavailableLock, never()).unlock();
 	}
 
+	@Test
+	void tryAcquireAcquiresAllLocksInOrder() throws Exception {
+		ReentrantLock lock1 = spy(new ReentrantLock());
+		ReentrantLock lock2 = spy(new ReentrantLock());
+
+		assertTrue(new CompositeLock(asList(lock1, lock2)).tryAcquire());
+
+		InOrder inOrder = inOrder(lock1, lock2);
+		inOrder.verify(lock1).tryLock();
+		inOrder.verify(lock2).tryLock();
+		assertTrue(lock1.isLocked());
+		assertTrue(lock2.isLocked());
+	}
+
+	@Test
+	void tryAcquireReleasesAcquiredLocksInReverseOrderWhenLockIsUnavailable() throws Exception {
+		ReentrantLock firstLock = spy(new ReentrantLock());
+		ReentrantLock secondLock = spy(new ReentrantLock());
+		Lock unavailableLock = mock(Lock.class);
+
+		assertFalse(new CompositeLock(asList(firstLock, secondLock, unavailableLock)).tryAcquire());
+
+		InOrder inOrder = inOrder(firstLock, secondLock);
+		inOrder.verify(secondLock).unlock();
+		inOrder.verify(firstLock).unlock();
+		assertFalse(firstLock.isLocked());
+		assertFalse(secondLock.isLocked());
+		verify(unavailableLock, never()).unlock();
+	}
+
 	private Lock mockLock(String name, CountDownLatch countDownWhenLocked) throws InterruptedException {
 		Lock lock = mock(Lock.class, name);
 		doAnswer(invocation -> {
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.engine.support.hierarchical;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.engine.ConfigurationParameters;
+
+/**
+ * @since 1.4
+ */
+class ContainerAdmissionControlTests {
+
+	private final ConfigurationParameters configParams = mock(ConfigurationParameters.class);
+
+	@Test
+	void admissionControlIsDisabledByDefault() {
+		assertThat(ContainerAdmissionControl.fromConfigurationParameters(configParams)).isEmpty();
+	}
+
+	@Test
+	void readsMaxOpenContainersAndHeapThresholdFromConfigurationParameters() {
+		when(configParams.get("admission.max-open-containers")).thenReturn(Optional.of("4"));
+		when(configParams.get("admission.heap-threshold")).thenReturn(Optional.of("0.75"));
+
+		ContainerAdmissionControl admissionControl = ContainerAdmissionControl.fromConfigurationParameters(
+			configParams).get();
+
+		assertThat(admissionControl.getMaxOpenContainers()).isEqualTo(4);
+		assertThat(admissionControl.getHeapThreshold()).hasValue(0.75);
+	}
+
+	@Test
+	void doesNotLimitNumberOfOpenContainersIfOnlyHeapThresholdIsConfigured() {
+		when(configParams.get("admission.heap-threshold")).thenReturn(Optional.of("0.75"));
+
+		ContainerAdmissionControl admissionControl = ContainerAdmissionControl.fromConfigurationParameters(
+			configParams).get();
+
+		assertThat(admissionControl.getMaxOpenContainers()).isEqualTo(Integer.MAX_VALUE);
+	}
+
+	@Test
+	void rejectsInvalidMaxOpenContainers() {
+		when(configParams.get("admission.max-open-containers")).thenReturn(Optional.of("0"));
+
+		JUnitException exception = assertThrows(JUnitException.class,
+			() -> ContainerAdmissionControl.fromConfigurationParameters(configParams));
+
+		assertThat(exception).hasMessage(
+			"Invalid value '0' specified via configuration parameter 'admission.max-open-containers'");
+	}
+
+	@Test
+	void rejectsInvalidHeapThreshold() {
+		when(configParams.get("admission.heap-threshold")).thenReturn(Optional.of("80%"));
+
+		JUnitException exception = assertThrows(JUnitException.class,
+			() -> ContainerAdmissionControl.fromConfigurationParameters(configParams));
+
+		assertThat(exception).hasMessage(
+			"Invalid value '80%' specified via configuration parameter 'admission.heap-threshold'");
+	}
+
+	@Test
+	void admitsContainersUpToMaximum() {
+		ContainerAdmissionControl admissionControl = new ContainerAdmissionControl(2, null, () -> 0);
+
+		assertThat(admissionControl.tryAdmit()).isTrue();
+		assertThat(admissionControl.tryAdmit()).isTrue();
+		assertThat(admissionControl.tryAdmit()).isFalse();
+
+		admissionControl.release();
+
+		assertThat(admissionControl.tryAdmit()).isTrue();
+		assertThat(admissionControl.getOpenContainers()).isEqualTo(2);
+	}
+
+	@Test
+	void stopsAdmittingContainersWhileHeapThresholdIsExceeded() {
+		double[] heapUsage = { 0.5 };
+		ContainerAdmissionControl admissionControl = new ContainerAdmissionControl(10, 0.8, () -> heapUsage[0]);
+
+		assertThat(admissionControl.tryAdmit()).isTrue();
+		heapUsage[0] = 0.9;
+		assertThat(admissionControl.tryAdmit()).isFalse();
+		heapUsage[0] = 0.7;
+		assertThat(admissionControl.tryAdmit()).isTrue();
+	}
+
+	@Test
+	void alwaysAdmitsContainerIfNoneIsOpen() {
+		ContainerAdmissionControl admissionControl = new ContainerAdmissionControl(1, 0.8, () -> 1.0);
+
+		assertThat(admissionControl.tryAdmit()).isTrue();
+		assertThat(admissionControl.tryAdmit()).isFalse();
+	}
+
+	@Test
+	void blocksUntilOpenContainerIsReleased() throws Exception {
+		ContainerAdmissionControl admissionControl = new ContainerAdmissionControl(1, null, () -> 0);
+		admissionControl.admit();
+
+		CountDownLatch admitted = new CountDownLatch(1);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		Thread waiter = new Thread(() -> {
+			try {
+				admissionControl.admit();
+				admitted.countDown();
+			}
+			catch (Throwable t) {
+				failure.set(t);
+			}
+		});
+		waiter.start();
+
+		assertThat(admitted.await(50, TimeUnit.MILLISECONDS)).isFalse();
+		admissionControl.release();
+		assertThat(admitted.await(5, TimeUnit.SECONDS)).isTrue();
+		waiter.join();
+		assertThat(failure.get()).isNull();
+		assertThat(admissionControl.getOpenContainers()).isEqualTo(1);
+	}
+
+	@Test
+	void waitsAtMostTimeoutForOpenContainerToBeReleased() throws Exception {
+		ContainerAdmissionControl admissionControl = new ContainerAdmissionControl(1, null, () -> 0);
+		admissionControl.admit();
+
+		assertThat(admissionControl.tryAdmit(10)).isFalse();
+
+		Thread releaser = new Thread(() -> {
+			try {
+				Thread.sleep(50);
+			}
+			catch (InterruptedException ignore) {
+				// release immediately
+			}
+			admissionControl.release();
+		});
+		releaser.start();
+
+		assertThat(admissionControl.tryAdmit(5_000)).isTrue();
+		releaser.join();
+		assertThat(admissionControl.getOpenContainers()).isEqualTo(1);
+	}
+
+	@Test
+	void heapUsageIsFractionOfMaximumHeapSize() {
+		assertThat(ContainerAdmissionControl.currentHeapUsage()).isBetween(0.0, 1.0);
+	}
+
+}
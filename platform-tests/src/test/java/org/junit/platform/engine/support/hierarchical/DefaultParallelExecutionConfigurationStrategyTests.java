@@ -81,6 +81,59 @@ class DefaultParallelExecutionConfigurationStrategyTests {
 		assertThat(configuration.getKeepAliveSeconds()).isEqualTo(5);
 	}
 
+	@Test
+	void adaptiveStrategyCreatesValidConfiguration() {
+		when(configParams.get("adaptive.min-parallelism")).thenReturn(Optional.of("2"));
+		when(configParams.get("adaptive.max-parallelism")).thenReturn(Optional.of("42"));
+		when(configParams.get("adaptive.sample-interval")).thenReturn(Optional.of("100"));
+
+		ParallelExecutionConfigurationStrategy strategy = DefaultParallelExecutionConfigurationStrategy.ADAPTIVE;
+		ParallelExecutionConfiguration configuration = strategy.createConfiguration(configParams);
+
+		assertThat(configuration).isInstanceOf(AdaptiveParallelExecutionConfiguration.class);
+		AdaptiveParallelExecutionConfiguration adaptiveConfiguration = (AdaptiveParallelExecutionConfiguration) configuration;
+		int availableProcessors = Runtime.getRuntime().availableProcessors();
+		assertThat(adaptiveConfiguration.getMinParallelism()).isEqualTo(2);
+		assertThat(adaptiveConfiguration.getMaxParallelism()).isEqualTo(42);
+		assertThat(adaptiveConfiguration.getInitialParallelism()).isEqualTo(Math.min(42, Math.max(2, availableProcessors)));
+		assertThat(adaptiveConfiguration.getSampleIntervalMillis()).isEqualTo(100);
+		assertThat(configuration.getParallelism()).isEqualTo(42);
+		assertThat(configuration.getCorePoolSize()).isEqualTo(42);
+		assertThat(configuration.getMinimumRunnable()).isEqualTo(42);
+		assertThat(configuration.getMaxPoolSize()).isEqualTo(256 + 42);
+		assertThat(configuration.getKeepAliveSeconds()).isEqualTo(30);
+	}
+
+	@Test
+	void adaptiveStrategyUsesDefaultsWhenPropertiesAreNotPresent() {
+		ParallelExecutionConfigurationStrategy strategy = DefaultParallelExecutionConfigurationStrategy.ADAPTIVE;
+		AdaptiveParallelExecutionConfiguration configuration = (AdaptiveParallelExecutionConfiguration) strategy.createConfiguration(
+			configParams);
+
+		int availableProcessors = Runtime.getRuntime().availableProcessors();
+		assertThat(configuration.getMinParallelism()).isEqualTo(1);
+		assertThat(configuration.getMaxParallelism()).isEqualTo(4 * availableProcessors);
+		assertThat(configuration.getInitialParallelism()).isEqualTo(availableProcessors);
+		assertThat(configuration.getSampleIntervalMillis()).isEqualTo(500);
+	}
+
+	@Test
+	void adaptiveStrategyThrowsExceptionWhenMaximumIsLessThanMinimum() {
+		when(configParams.get("adaptive.min-parallelism")).thenReturn(Optional.of("4"));
+		when(configParams.get("adaptive.max-parallelism")).thenReturn(Optional.of("2"));
+
+		ParallelExecutionConfigurationStrategy strategy = DefaultParallelExecutionConfigurationStrategy.ADAPTIVE;
+		assertThrows(JUnitException.class, () -> strategy.createConfiguration(configParams));
+	}
+
+	@Test
+	void adaptiveStrategyThrowsExceptionWhenMinimumIsNotPositive() {
+		when(configParams.get("adaptive.min-parallelism")).thenReturn(Optional.of("0"));
+
+		ParallelExecutionConfigurationStrategy strategy = DefaultParallelExecutionConfigurationStrategy.ADAPTIVE;
+		assertThrows(JUnitException.class, () -> strategy.createConfiguration(configParams));
+	}
+
 	@ParameterizedTest
 	@EnumSource(DefaultParallelExecutionConfigurationStrategy.class)
 	void createsStrategyFromConfigParam(DefaultParallelExecutionConfigurationStrategy strategy) {
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.engine.support.hierarchical;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.platform.engine.support.hierarchical.Node.ExecutionMode.SAME_THREAD;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.extensions.TempDirectory;
+import org.junit.jupiter.extensions.TempDirectory.Root;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.UniqueId;
+
+/**
+ * @since 1.4
+ */
+@ExtendWith(TempDirectory.class)
+class ExecutionDurationHistoryTests {
+
+	private final UniqueId engineId = UniqueId.forEngine("engine");
+	private final DemoHierarchicalContainerDescriptor container = new DemoHierarchicalContainerDescriptor(
+		engineId.append("container", "c"), "c", null);
+
+	@Test
+	void returnsEmptyHistoryIfFileIsNotConfigured() {
+		ConfigurationParameters configParams = mock(ConfigurationParameters.class);
+		when(configParams.get("duration-history.file")).thenReturn(Optional.empty());
+
+		assertThat(ExecutionDurationHistory.fromConfigurationParameters(configParams)).isEmpty();
+	}
+
+	@Test
+	void loadsHistoryFromConfiguredFile(@Root Path tempDirectory) throws Exception {
+		Path file = tempDirectory.resolve("durations");
+		Files.write(file, asList("42 " + container.getUniqueId()), UTF_8);
+		ConfigurationParameters configParams = mock(ConfigurationParameters.class);
+		when(configParams.get("duration-history.file")).thenReturn(Optional.of(file.toString()));
+
+		Optional<ExecutionDurationHistory> history = ExecutionDurationHistory.fromConfigurationParameters(
+			configParams);
+
+		assertThat(history).isPresent();
+		assertThat(history.get().estimate(container)).isEqualTo(42);
+	}
+
+	@Test
+	void returnsNoEstimateForUnknownDescriptorsWithoutHistory(@Root Path tempDirectory) {
+		ExecutionDurationHistory history = ExecutionDurationHistory.load(tempDirectory.resolve("does-not-exist"));
+
+		assertThat(history.estimate(container)).isEqualTo(-1);
+	}
+
+	@Test
+	void storesRecordedDurations(@Root Path tempDirectory) throws Exception {
+		Path file = tempDirectory.resolve("durations");
+		ExecutionDurationHistory history = ExecutionDurationHistory.load(file);
+		history.record(container, TimeUnit.MILLISECONDS.toNanos(100));
+		history.store();
+
+		assertThat(ExecutionDurationHistory.load(file).estimate(container)).isEqualTo(100);
+		assertThat(Files.readAllLines(file, UTF_8)).containsExactly(
+			"100 " + LocalDate.now().toEpochDay() + " " + container.getUniqueId());
+	}
+
+	@Test
+	void retainsEntriesOfTestsThatWereNotExecutedInFilteredRun(@Root Path tempDirectory) throws Exception {
+		TestDescriptor executed = addTest("executed");
+		TestDescriptor filteredOut = addTest("filteredOut");
+		UniqueId otherClassId = engineId.append("container", "other");
+		Path file = tempDirectory.resolve("durations");
+		Files.write(file, asList("42 " + filteredOut.getUniqueId(), "17 " + otherClassId), UTF_8);
+
+		ExecutionDurationHistory history = ExecutionDurationHistory.load(file);
+		history.record(executed, TimeUnit.MILLISECONDS.toNanos(100));
+		history.store();
+
+		ExecutionDurationHistory storedHistory = ExecutionDurationHistory.load(file);
+		assertThat(storedHistory.estimate(executed)).isEqualTo(100);
+		assertThat(storedHistory.estimate(filteredOut)).isEqualTo(42);
+		assertThat(Files.readAllLines(file, UTF_8)).hasSize(3).anyMatch(line -> line.startsWith("17 ")
+				&& line.endsWith(" " + otherClassId));
+	}
+
+	@Test
+	void mergesRecordedDurationsIntoCurrentContentOfFile(@Root Path tempDirectory) throws Exception {
+		TestDescriptor first = addTest("first");
+		TestDescriptor second = addTest("second");
+		Path file = tempDirectory.resolve("durations");
+		ExecutionDurationHistory history = ExecutionDurationHistory.load(file);
+		ExecutionDurationHistory concurrentlyUsedHistory = ExecutionDurationHistory.load(file);
+
+		history.record(first, TimeUnit.MILLISECONDS.toNanos(100));
+		concurrentlyUsedHistory.record(second, TimeUnit.MILLISECONDS.toNanos(200));
+		concurrentlyUsedHistory.store();
+		history.store();
+
+		ExecutionDurationHistory storedHistory = ExecutionDurationHistory.load(file);
+		assertThat(storedHistory.estimate(first)).isEqualTo(100);
+		assertThat(storedHistory.estimate(second)).isEqualTo(200);
+	}
+
+	@Test
+	void dropsEntriesThatHaveNotBeenRecordedForMaxAge(@Root Path tempDirectory) throws Exception {
+		TestDescriptor recent = addTest("recent");
+		TestDescriptor stale = addTest("stale");
+		long oldestEpochDay = LocalDate.now().toEpochDay() - ExecutionDurationHistory.MAX_AGE_IN_DAYS;
+		Path file = tempDirectory.resolve("durations");
+		Files.write(file, asList("42 " + oldestEpochDay + " " + recent.getUniqueId(),
+			"17 " + (oldestEpochDay - 1) + " " + stale.getUniqueId()), UTF_8);
+
+		ExecutionDurationHistory history = ExecutionDurationHistory.load(file);
+		history.store();
+
+		assertThat(Files.readAllLines(file, UTF_8)).containsExactly(
+			"42 " + oldestEpochDay + " " + recent.getUniqueId());
+	}
+
+	@Test
+	void averagesRecordedDurationWithPreviousOne(@Root Path tempDirectory) {
+		ExecutionDurationHistory history = ExecutionDurationHistory.load(tempDirectory.resolve("durations"));
+		history.record(container, TimeUnit.MILLISECONDS.toNanos(100));
+		history.record(container, TimeUnit.MILLISECONDS.toNanos(200));
+
+		assertThat(history.estimate(container)).isEqualTo(150);
+	}
+
+	@Test
+	void ignoresMalformedLines(@Root Path tempDirectory) throws Exception {
+		Path file = tempDirectory.resolve("durations");
+		Files.write(file, asList("foo " + container.getUniqueId(), "", "17 " + engineId), UTF_8);
+
+		ExecutionDurationHistory history = ExecutionDurationHistory.load(file);
+
+		assertThat(history.estimate(container)).isEqualTo(17);
+	}
+
+	@Test
+	void estimatesUnknownTestsBasedOnTheirContainer(@Root Path tempDirectory) {
+		TestDescriptor first = addTest("first");
+		addTest("second");
+		ExecutionDurationHistory history = ExecutionDurationHistory.load(tempDirectory.resolve("durations"));
+		history.record(container, TimeUnit.MILLISECONDS.toNanos(100));
+
+		assertThat(history.estimate(first)).isEqualTo(50);
+	}
+
+	@Test
+	void ordersConcurrentTasksLongestFirst(@Root Path tempDirectory) {
+		TestDescriptor fast = addTest("fast");
+		TestDescriptor slow = addTest("slow");
+		TestDescriptor sameThread = addTest("sameThread");
+		TestDescriptor medium = addTest("medium");
+		ExecutionDurationHistory history = ExecutionDurationHistory.load(tempDirectory.resolve("durations"));
+		history.record(fast, TimeUnit.MILLISECONDS.toNanos(1));
+		history.record(slow, TimeUnit.MILLISECONDS.toNanos(300));
+		history.record(sameThread, TimeUnit.MILLISECONDS.toNanos(1000));
+		history.record(medium, TimeUnit.MILLISECONDS.toNanos(20));
+
+		NodeExecutionAdvisor advisor = new NodeExecutionAdvisor();
+		advisor.forceExecutionMode(sameThread, SAME_THREAD);
+		NodeTestTaskContext taskContext = new NodeTestTaskContext(null, new SameThreadHierarchicalTestExecutorService(),
+			OpenTest4JAwareThrowableCollector::new, advisor, history, ParallelExecutionMetrics.NONE);
+		List<NodeTestTask<DemoEngineExecutionContext>> tasks = new ArrayList<>();
+		container.getChildren().forEach(child -> tasks.add(new NodeTestTask<>(taskContext, child)));
+
+		history.orderLongestFirst(tasks);
+
+		List<TestDescriptor> orderedDescriptors = tasks.stream().map(NodeTestTask::getTestDescriptor).collect(toList());
+		assertThat(orderedDescriptors).containsExactly(slow, medium, sameThread, fast);
+	}
+
+	private TestDescriptor addTest(String name) {
+		DemoHierarchicalTestDescriptor test = new DemoHierarchicalTestDescriptor(
+			container.getUniqueId().append("test", name), name, () -> {
+			});
+		container.addChild(test);
+		return test;
+	}
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.engine.support.hierarchical;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.engine.ConfigurationParameters;
+
+/**
+ * @since 1.4
+ */
+class HierarchicalTestExecutorServiceFactoryTests {
+
+	private ConfigurationParameters configParams = mock(ConfigurationParameters.class);
+
+	@BeforeEach
+	void setUp() {
+		when(configParams.get(any(), any())).thenCallRealMethod();
+		when(configParams.getBoolean(any())).thenReturn(Optional.empty());
+		when(configParams.get("fixed.parallelism")).thenReturn(Optional.of("2"));
+		when(configParams.get("strategy")).thenReturn(Optional.of("fixed"));
+	}
+
+	@Test
+	void createsForkJoinPoolExecutorServiceByDefault() {
+		when(configParams.get("executor-service")).thenReturn(Optional.empty());
+
+		assertCreates(ForkJoinPoolHierarchicalTestExecutorService.class);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "fork_join_pool", "FORK_JOIN_POOL", " fork_join_pool " })
+	void createsForkJoinPoolExecutorServiceByName(String name) {
+		when(configParams.get("executor-service")).thenReturn(Optional.of(name));
+
+		assertCreates(ForkJoinPoolHierarchicalTestExecutorService.class);
+	}
+
+	@Test
+	void createsThreadPerTaskExecutorServiceByName() {
+		when(configParams.get("executor-service")).thenReturn(Optional.of("thread_per_task"));
+
+		assertCreates(ThreadPerTaskHierarchicalTestExecutorService.class);
+	}
+
+	@Test
+	void createsSameThreadExecutorServiceByName() {
+		when(configParams.get("executor-service")).thenReturn(Optional.of("same_thread"));
+
+		assertCreates(SameThreadHierarchicalTestExecutorService.class);
+	}
+
+	@Test
+	void createsCustomExecutorServiceWithConfigurationParametersConstructor() {
+		when(configParams.get("executor-service")).thenReturn(
+			Optional.of(ConfigurableCustomExecutorService.class.getName()));
+
+		try (HierarchicalTestExecutorService executorService = HierarchicalTestExecutorServiceFactory.create(
+			configParams)) {
+			assertThat(executorService).isInstanceOf(ConfigurableCustomExecutorService.class);
+			assertThat(((ConfigurableCustomExecutorService) executorService).configurationParameters).isSameAs(
+				configParams);
+		}
+	}
+
+	@Test
+	void createsCustomExecutorServiceWithDefaultConstructor() {
+		when(configParams.get("executor-service")).thenReturn(Optional.of(CustomExecutorService.class.getName()));
+
+		assertCreates(CustomExecutorService.class);
+	}
+
+	@Test
+	void throwsExceptionWhenClassDoesNotExist() {
+		when(configParams.get("executor-service")).thenReturn(Optional.of("com.acme.ClassDoesNotExist"));
+
+		assertThrows(JUnitException.class, () -> HierarchicalTestExecutorServiceFactory.create(configParams));
+	}
+
+	@Test
+	void throwsExceptionWhenClassDoesNotImplementExecutorService() {
+		when(configParams.get("executor-service")).thenReturn(Optional.of(String.class.getName()));
+
+		assertThrows(JUnitException.class, () -> HierarchicalTestExecutorServiceFactory.create(configParams));
+	}
+
+	private void assertCreates(Class<? extends HierarchicalTestExecutorService> expectedType) {
+		try (HierarchicalTestExecutorService executorService = HierarchicalTestExecutorServiceFactory.create(
+			configParams)) {
+			assertThat(executorService).isExactlyInstanceOf(expectedType);
+		}
+	}
+
+	static class CustomExecutorService extends SameThreadHierarchicalTestExecutorService {
+	}
+
+	static class ConfigurableCustomExecutorService implements HierarchicalTestExecutorService {
+
+		final ConfigurationParameters configurationParameters;
+
+		ConfigurableCustomExecutorService(ConfigurationParameters configurationParameters) {
+			this.configurationParameters = configurationParameters;
+		}
+
+		@Override
+		public Future<Void> submit(TestTask testTask) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void invokeAll(List<? extends TestTask> testTasks) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+}
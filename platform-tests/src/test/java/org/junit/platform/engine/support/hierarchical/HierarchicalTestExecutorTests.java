@@ -19,6 +19,7 @@ import static org.junit.platform.engine.TestExecutionResult.Status.FAILED;
 import static org.junit.platform.engine.TestExecutionResult.Status.SUCCESSFUL;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
@@ -29,6 +30,7 @@ import static org.mockito.Mockito.when;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.platform.engine.CancellationToken;
 import org.junit.platform.engine.EngineExecutionListener;
 import org.junit.platform.engine.ExecutionRequest;
 import org.junit.platform.engine.TestDescriptor;
@@ -153,6 +155,37 @@ class HierarchicalTestExecutorTests {
 		verify(listener, never()).executionFinished(eq(child), any(TestExecutionResult.class));
 	}
 
+	@Test
+	void skipsNodesThatHaveNotBeenStartedOnceCancellationHasBeenRequested() throws Exception {
+
+		CancellationToken cancellationToken = CancellationToken.create();
+		MyLeaf first = spy(new MyLeaf(UniqueId.root("leaf", "first")));
+		MyLeaf second = spy(new MyLeaf(UniqueId.root("leaf", "second")));
+		doAnswer(invocation -> {
+			cancellationToken.cancel();
+			return rootContext;
+		}).when(first).execute(eq(rootContext), any());
+		root.addChild(first);
+		root.addChild(second);
+		executor = new MyExecutor(new ExecutionRequest(root, listener, null, cancellationToken), rootContext);
+
+		InOrder inOrder = inOrder(listener, root, first, second);
+
+		executor.execute();
+
+		ArgumentCaptor<TestExecutionResult> firstExecutionResult = ArgumentCaptor.forClass(TestExecutionResult.class);
+		inOrder.verify(listener).executionStarted(root);
+		inOrder.verify(listener).executionStarted(first);
+		inOrder.verify(first).execute(eq(rootContext), any());
+		inOrder.verify(listener).executionFinished(eq(first), firstExecutionResult.capture());
+		inOrder.verify(listener).executionSkipped(second, CancellationToken.SKIP_REASON);
+		inOrder.verify(listener).executionFinished(eq(root), any(TestExecutionResult.class));
+
+		assertThat(firstExecutionResult.getValue().getStatus()).isEqualTo(SUCCESSFUL);
+		verify(second, never()).prepare(any());
+		verify(second, never()).execute(any(), any());
+	}
+
 	@Test
 	void skippingALeaf() throws Exception {
 
@@ -26,6 +26,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
 
 import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.ResourceLockRegistry;
 
 /**
  * @since 1.3
@@ -93,6 +94,49 @@ class LockManagerTests {
 		assertThat(locks.get(1)).isInstanceOf(WriteLock.class);
 	}
 
+	@Test
+	void reusesSameResourceLockForSameExclusiveResourcesInDifferentOrder() {
+		ResourceLock lock1 = lockManager.getLockForResources(asList( //
+			new ExclusiveResource("a", READ), //
+			new ExclusiveResource("b", READ_WRITE)));
+		ResourceLock lock2 = lockManager.getLockForResources(asList( //
+			new ExclusiveResource("b", READ_WRITE), //
+			new ExclusiveResource("a", READ), //
+			new ExclusiveResource("a", READ)));
+
+		assertThat(lock1).isInstanceOf(CompositeLock.class).isSameAs(lock2);
+	}
+
+	@Test
+	void acquiresLocksInOrderOfFirstUseOfTheirKeys() {
+		getLocks(singleton(new ExclusiveResource("b", READ)), SingleLock.class);
+
+		List<Lock> locks = getLocks(asList( //
+			new ExclusiveResource("a", READ), //
+			new ExclusiveResource("b", READ_WRITE)), CompositeLock.class);
+
+		assertThat(locks).hasSize(2);
+		assertThat(locks.get(0)).isInstanceOf(WriteLock.class);
+		assertThat(locks.get(1)).isInstanceOf(ReadLock.class);
+		assertThat(lockManager.getKeyId("b")).isLessThan(lockManager.getKeyId("a"));
+	}
+
+	@Test
+	void sharesLocksWithOtherLockManagersUsingTheSameRegistry() {
+		ResourceLockRegistry registry = ResourceLockRegistry.create();
+		LockManager first = new LockManager(ParallelExecutionMetrics.NONE, registry);
+		LockManager second = new LockManager(ParallelExecutionMetrics.NONE, registry);
+		Collection<ExclusiveResource> resources = singleton(new ExclusiveResource("foo", READ_WRITE));
+
+		List<Lock> locks1 = getLocks(first.getLockForResources(resources));
+		List<Lock> locks2 = getLocks(second.getLockForResources(resources));
+
+		assertThat(locks1).hasSize(1);
+		assertThat(locks2).hasSize(1);
+		assertThat(locks1.get(0)).isSameAs(locks2.get(0));
+		assertThat(getLocks(new LockManager().getLockForResources(resources)).get(0)).isNotSameAs(locks1.get(0));
+	}
+
 	private List<Lock> getLocks(Collection<ExclusiveResource> resources, Class<? extends ResourceLock> type) {
 		ResourceLock lock = lockManager.getLockForResources(resources);
 		assertThat(lock).isInstanceOf(type);
@@ -11,6 +11,7 @@
 package org.junit.platform.engine.support.hierarchical;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.parallel.ResourceAccessMode.READ;
 import static org.junit.platform.commons.util.CollectionUtils.getOnlyElement;
 import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
 import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
@@ -69,6 +70,69 @@ class NodeTreeWalkerIntegrationTests {
 		assertThat(advisor.getForcedExecutionMode(nestedTestMethodDescriptor)).contains(ExecutionMode.SAME_THREAD);
 	}
 
+	@Test
+	void fineGrainedPlacementKeepsReadLockAtTestClassAndAllowsConcurrentMethods() {
+		TestDescriptor engineDescriptor = discover(TestCaseWithReadLock.class);
+		NodeExecutionAdvisor advisor = new NodeTreeWalker(ResourceLockPlacement.FINE_GRAINED).walk(engineDescriptor);
+
+		TestDescriptor testClassDescriptor = getOnlyElement(engineDescriptor.getChildren());
+		assertThat(advisor.getResourceLock(testClassDescriptor)).isInstanceOf(SingleLock.class);
+		assertThat(advisor.getForcedExecutionMode(testClassDescriptor)).isEmpty();
+
+		assertThat(testClassDescriptor.getChildren()).hasSize(3);
+		TestDescriptor coveredTestMethodDescriptor = findChild(testClassDescriptor, "covered()");
+		assertThat(advisor.getResourceLock(coveredTestMethodDescriptor)).isInstanceOf(NopLock.class);
+		assertThat(advisor.getForcedExecutionMode(coveredTestMethodDescriptor)).isEmpty();
+
+		TestDescriptor readTestMethodDescriptor = findChild(testClassDescriptor, "read()");
+		assertThat(advisor.getResourceLock(readTestMethodDescriptor)).isInstanceOf(SingleLock.class);
+		assertThat(advisor.getForcedExecutionMode(readTestMethodDescriptor)).isEmpty();
+
+		TestDescriptor readWriteTestMethodDescriptor = findChild(testClassDescriptor, "readWrite()");
+		assertThat(advisor.getResourceLock(readWriteTestMethodDescriptor)).isInstanceOf(SingleLock.class);
+		assertThat(advisor.getForcedExecutionMode(readWriteTestMethodDescriptor)).isEmpty();
+	}
+
+	@Test
+	void fineGrainedPlacementForcesSameThreadExecutionBelowReadWriteLocks() {
+		TestDescriptor engineDescriptor = discover(TestCaseWithResourceLock.class);
+		NodeExecutionAdvisor advisor = new NodeTreeWalker(ResourceLockPlacement.FINE_GRAINED).walk(engineDescriptor);
+
+		TestDescriptor testClassDescriptor = getOnlyElement(engineDescriptor.getChildren());
+		assertThat(advisor.getResourceLock(testClassDescriptor)).isInstanceOf(CompositeLock.class);
+		assertThat(advisor.getForcedExecutionMode(testClassDescriptor)).isEmpty();
+
+		TestDescriptor testMethodDescriptor = getOnlyElement(testClassDescriptor.getChildren());
+		assertThat(advisor.getResourceLock(testMethodDescriptor)).isInstanceOf(NopLock.class);
+		assertThat(advisor.getForcedExecutionMode(testMethodDescriptor)).contains(ExecutionMode.SAME_THREAD);
+	}
+
+	@Test
+	void fineGrainedPlacementFallsBackToCoarseGrainedPlacementIfLockOrderWouldBeViolated() {
+		NodeTreeWalker nodeTreeWalker = new NodeTreeWalker(ResourceLockPlacement.FINE_GRAINED);
+		nodeTreeWalker.walk(discover(TestCaseWithOrderedReadLocks.class));
+
+		TestDescriptor engineDescriptor = discover(TestCaseWithUnorderedReadLocks.class);
+		NodeExecutionAdvisor advisor = nodeTreeWalker.walk(engineDescriptor);
+
+		TestDescriptor testClassDescriptor = getOnlyElement(engineDescriptor.getChildren());
+		assertThat(advisor.getResourceLock(testClassDescriptor)).isInstanceOf(CompositeLock.class);
+		assertThat(advisor.getForcedExecutionMode(testClassDescriptor)).isEmpty();
+
+		TestDescriptor testMethodDescriptor = getOnlyElement(testClassDescriptor.getChildren());
+		assertThat(advisor.getResourceLock(testMethodDescriptor)).isInstanceOf(NopLock.class);
+		assertThat(advisor.getForcedExecutionMode(testMethodDescriptor)).contains(ExecutionMode.SAME_THREAD);
+	}
+
+	private TestDescriptor findChild(TestDescriptor parent, String displayName) {
+		// @formatter:off
+		return parent.getChildren().stream()
+				.filter(child -> child.getDisplayName().equals(displayName))
+				.findFirst()
+				.orElseThrow(AssertionError::new);
+		// @formatter:on
+	}
+
 	private TestDescriptor discover(Class<?> testClass) {
 		LauncherDiscoveryRequest discoveryRequest = request().selectors(selectClass(testClass)).build();
 		return new JupiterTestEngine().discover(discoveryRequest, UniqueId.forEngine("junit-jupiter"));
@@ -97,4 +161,38 @@ class NodeTreeWalkerIntegrationTests {
 			}
 		}
 	}
+
+	@ResourceLock(value = "a", mode = READ)
+	static class TestCaseWithReadLock {
+		@Test
+		@ResourceLock(value = "a", mode = READ)
+		void covered() {
+		}
+
+		@Test
+		@ResourceLock(value = "b", mode = READ)
+		void read() {
+		}
+
+		@Test
+		@ResourceLock("c")
+		void readWrite() {
+		}
+	}
+
+	@ResourceLock(value = "a", mode = READ)
+	static class TestCaseWithOrderedReadLocks {
+		@Test
+		@ResourceLock(value = "b", mode = READ)
+		void test() {
+		}
+	}
+
+	@ResourceLock(value = "b", mode = READ)
+	static class TestCaseWithUnorderedReadLocks {
+		@Test
+		@ResourceLock(value = "a", mode = READ)
+		void test() {
+		}
+	}
 }
@@ -10,15 +10,23 @@
 
 package org.junit.platform.engine.support.hierarchical;
 
+import static java.time.Duration.ofSeconds;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.DynamicTest.dynamicTest;
 import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
 import static org.junit.jupiter.api.parallel.ExecutionMode.SAME_THREAD;
+import static org.junit.jupiter.engine.Constants.PARALLEL_CONFIG_ADMISSION_MAX_OPEN_CONTAINERS_PROPERTY_NAME;
+import static org.junit.jupiter.engine.Constants.PARALLEL_CONFIG_CUSTOM_CLASS_PROPERTY_NAME;
+import static org.junit.jupiter.engine.Constants.PARALLEL_CONFIG_DYNAMIC_TESTS_BACKPRESSURE_PROPERTY_NAME;
+import static org.junit.jupiter.engine.Constants.PARALLEL_CONFIG_DYNAMIC_TESTS_MAX_IN_FLIGHT_PROPERTY_NAME;
+import static org.junit.jupiter.engine.Constants.PARALLEL_CONFIG_EXECUTOR_SERVICE_PROPERTY_NAME;
 import static org.junit.jupiter.engine.Constants.PARALLEL_CONFIG_FIXED_PARALLELISM_PROPERTY_NAME;
+import static org.junit.jupiter.engine.Constants.PARALLEL_CONFIG_METRICS_ENABLED_PROPERTY_NAME;
 import static org.junit.jupiter.engine.Constants.PARALLEL_CONFIG_STRATEGY_PROPERTY_NAME;
 import static org.junit.jupiter.engine.Constants.PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME;
 import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
@@ -40,6 +48,7 @@ import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.assertj.core.api.Condition;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DynamicTest;
@@ -54,6 +63,7 @@ import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ResourceLock;
 import org.junit.jupiter.engine.JupiterTestEngine;
+import org.junit.platform.engine.ConfigurationParameters;
 import org.junit.platform.engine.discovery.DiscoverySelectors;
 import org.junit.platform.engine.reporting.ReportEntry;
 import org.junit.platform.launcher.LauncherDiscoveryRequest;
@@ -128,6 +138,102 @@ class ParallelExecutionIntegrationTests {
 		assertThat(ThreadReporter.getThreadNames(executionEvents)).hasSize(1);
 	}
 
+	@Test
+	void successfulParallelTestWithThreadPerTaskExecutorService() {
+		List<ExecutionEvent> executionEvents = executeWithThreadPerTask(SuccessfulParallelTestCase.class);
+
+		assertThat(executionEvents.stream().filter(event(test(), finishedSuccessfully())::matches)).hasSize(3);
+		assertThat(ThreadReporter.getThreadNames(executionEvents)).hasSize(3);
+	}
+
+	@Test
+	void successfulTestWithMethodLockWithThreadPerTaskExecutorService() {
+		List<ExecutionEvent> executionEvents = executeWithThreadPerTask(SuccessfulWithMethodLockTestCase.class);
+
+		assertThat(executionEvents.stream().filter(event(test(), finishedSuccessfully())::matches)).hasSize(3);
+	}
+
+	@Test
+	void successfulTestWithClassLockWithThreadPerTaskExecutorService() {
+		List<ExecutionEvent> executionEvents = executeWithThreadPerTask(SuccessfulWithClassLockTestCase.class);
+
+		assertThat(executionEvents.stream().filter(event(test(), finishedSuccessfully())::matches)).hasSize(3);
+		assertThat(ThreadReporter.getThreadNames(executionEvents)).hasSize(1);
+	}
+
+	@RepeatedTest(10)
+	void locksOnNestedTestsWithThreadPerTaskExecutorService() {
+		List<ExecutionEvent> executionEvents = executeWithThreadPerTask(TestCaseWithNestedLocks.class);
+
+		assertThat(executionEvents.stream().filter(event(test(), finishedSuccessfully())::matches)).hasSize(6);
+		assertThat(ThreadReporter.getThreadNames(executionEvents)).hasSize(1);
+	}
+
+	@Test
+	void limitsPendingDynamicTestsPerFactory() {
+		List<ExecutionEvent> executionEvents = executeWithBackpressure("per_factory", 2,
+			TestCaseWithLargeTestFactories.class);
+
+		assertThat(executionEvents.stream().filter(event(test(), finishedSuccessfully())::matches)).hasSize(200);
+		// at most two forked and one inline dynamic test per factory
+		assertThat(TestCaseWithLargeTestFactories.maxPendingTests.get()).isLessThanOrEqualTo(6);
+	}
+
+	@Test
+	void limitsPendingDynamicTestsGlobally() {
+		List<ExecutionEvent> executionEvents = executeWithBackpressure("global", 1,
+			TestCaseWithLargeTestFactories.class);
+
+		assertThat(executionEvents.stream().filter(event(test(), finishedSuccessfully())::matches)).hasSize(200);
+		// at most one forked dynamic test and one inline dynamic test per factory
+		assertThat(TestCaseWithLargeTestFactories.maxPendingTests.get()).isLessThanOrEqualTo(3);
+	}
+
+	@Test
+	void limitsNumberOfConcurrentlyOpenTestClasses() {
+		AdmittedTestCase.maxOpenClasses.set(0);
+
+		List<ExecutionEvent> executionEvents = executeWithAdmissionControl(1, FirstAdmittedTestCase.class,
+			SecondAdmittedTestCase.class, ThirdAdmittedTestCase.class);
+
+		// tests of the open class are executed concurrently, otherwise they would not pass
+		assertThat(executionEvents.stream().filter(event(test(), finishedSuccessfully())::matches)).hasSize(6);
+		assertThat(AdmittedTestCase.maxOpenClasses.get()).isEqualTo(1);
+	}
+
+	@Test
+	void admitsContainersOnSingleWorkerThread() {
+		SingleWorkerTestCase.maxOpenClasses.set(0);
+
+		List<ExecutionEvent> executionEvents = assertTimeoutPreemptively(ofSeconds(10),
+			() -> executeWithAdmissionControlOnSingleWorkerThread(1, FirstSingleWorkerTestCase.class,
+				SecondSingleWorkerTestCase.class, ThirdSingleWorkerTestCase.class));
+
+		assertThat(executionEvents.stream().filter(event(test(), finishedSuccessfully())::matches)).hasSize(6);
+		assertThat(SingleWorkerTestCase.maxOpenClasses.get()).isEqualTo(1);
+	}
+
+	@Test
+	void publishesMetricsForEngineDescriptorWhenEnabled() {
+		List<ExecutionEvent> executionEvents = executeWithMetrics(SuccessfulWithMethodLockTestCase.class);
+
+		// @formatter:off
+		List<ReportEntry> engineReportEntries = executionEvents.stream()
+				.filter(type(REPORTING_ENTRY_PUBLISHED)::matches)
+				.filter(event -> !event.getTestDescriptor().getParent().isPresent())
+				.map(event -> event.getPayload(ReportEntry.class).orElse(null))
+				.collect(toList());
+		// @formatter:on
+		assertThat(engineReportEntries).hasSize(1);
+		assertThat(engineReportEntries.get(0).getKeyValuePairs()) //
+				.containsKeys(ParallelExecutionMetrics.FORKED_TASKS_KEY, ParallelExecutionMetrics.INLINE_TASKS_KEY,
+					ParallelExecutionMetrics.MAX_ACTIVE_WORKERS_KEY,
+					ParallelExecutionMetrics.LOCK_WAIT_TIME_KEY_PREFIX + "sharedResource",
+					ParallelExecutionMetrics.LOCK_HOLD_TIME_KEY_PREFIX + "sharedResource") //
+				.hasEntrySatisfying(ParallelExecutionMetrics.CONTENTION_REPORT_KEY,
+					report -> assertThat(report).contains("1. sharedResource:", "of 3 acquisitions contended"));
+	}
+
 	private List<Instant> getTimestampsFor(List<ExecutionEvent> executionEvents, Condition<ExecutionEvent> condition) {
 		// @formatter:off
 		return executionEvents.stream()
@@ -266,6 +372,119 @@ class ParallelExecutionIntegrationTests {
 		}
 	}
 
+	@Execution(CONCURRENT)
+	static class TestCaseWithLargeTestFactories {
+
+		static final AtomicInteger pendingTests = new AtomicInteger();
+		static final AtomicInteger maxPendingTests = new AtomicInteger();
+
+		@BeforeAll
+		static void initialize() {
+			pendingTests.set(0);
+			maxPendingTests.set(0);
+		}
+
+		@TestFactory
+		Stream<DynamicTest> firstFactory() {
+			return dynamicTests();
+		}
+
+		@TestFactory
+		Stream<DynamicTest> secondFactory() {
+			return dynamicTests();
+		}
+
+		private static Stream<DynamicTest> dynamicTests() {
+			return IntStream.range(0, 100).mapToObj(i -> {
+				maxPendingTests.accumulateAndGet(pendingTests.incrementAndGet(), Math::max);
+				return dynamicTest("test " + i, () -> {
+					Thread.sleep(1);
+					pendingTests.decrementAndGet();
+				});
+			});
+		}
+	}
+
+	abstract static class AdmittedTestCase {
+
+		static final AtomicInteger openClasses = new AtomicInteger();
+		static final AtomicInteger maxOpenClasses = new AtomicInteger();
+		static CountDownLatch countDownLatch;
+
+		@BeforeAll
+		static void open() {
+			maxOpenClasses.accumulateAndGet(openClasses.incrementAndGet(), Math::max);
+			countDownLatch = new CountDownLatch(2);
+		}
+
+		@AfterAll
+		static void close() {
+			openClasses.decrementAndGet();
+		}
+
+		@Test
+		void firstTest() throws Exception {
+			countDownLatch.countDown();
+			assertTrue(countDownLatch.await(1, SECONDS));
+		}
+
+		@Test
+		void secondTest() throws Exception {
+			countDownLatch.countDown();
+			assertTrue(countDownLatch.await(1, SECONDS));
+		}
+	}
+
+	static class FirstAdmittedTestCase extends AdmittedTestCase {
+	}
+
+	static class SecondAdmittedTestCase extends AdmittedTestCase {
+	}
+
+	static class ThirdAdmittedTestCase extends AdmittedTestCase {
+	}
+
+	abstract static class SingleWorkerTestCase {
+
+		static final AtomicInteger openClasses = new AtomicInteger();
+		static final AtomicInteger maxOpenClasses = new AtomicInteger();
+
+		@BeforeAll
+		static void open() {
+			maxOpenClasses.accumulateAndGet(openClasses.incrementAndGet(), Math::max);
+		}
+
+		@AfterAll
+		static void close() {
+			openClasses.decrementAndGet();
+		}
+
+		@Test
+		void firstTest() {
+		}
+
+		@Test
+		void secondTest() {
+		}
+	}
+
+	static class FirstSingleWorkerTestCase extends SingleWorkerTestCase {
+	}
+
+	static class SecondSingleWorkerTestCase extends SingleWorkerTestCase {
+	}
+
+	static class ThirdSingleWorkerTestCase extends SingleWorkerTestCase {
+	}
+
+	static class SingleWorkerConfigurationStrategy implements ParallelExecutionConfigurationStrategy {
+
+		@Override
+		public ParallelExecutionConfiguration createConfiguration(ConfigurationParameters configurationParameters) {
+			return new DefaultParallelExecutionConfiguration(1, 1, 1, 1, 30);
+		}
+	}
+
 	private static final ReentrantLock A = new ReentrantLock();
 	private static final ReentrantLock B = new ReentrantLock();
 
@@ -416,6 +635,72 @@ class ParallelExecutionIntegrationTests {
 		return ExecutionRecorder.execute(new JupiterTestEngine(), discoveryRequest).getExecutionEvents();
 	}
 
+	private List<ExecutionEvent> executeWithThreadPerTask(Class<?>... testClasses) {
+		// @formatter:off
+		LauncherDiscoveryRequest discoveryRequest = request()
+				.selectors(Arrays.stream(testClasses).map(DiscoverySelectors::selectClass).collect(toList()))
+				.configurationParameter(PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME, String.valueOf(true))
+				.configurationParameter(PARALLEL_CONFIG_EXECUTOR_SERVICE_PROPERTY_NAME, "thread_per_task")
+				.build();
+		// @formatter:on
+		return ExecutionRecorder.execute(new JupiterTestEngine(), discoveryRequest).getExecutionEvents();
+	}
+
+	private List<ExecutionEvent> executeWithBackpressure(String backpressure, int maxInFlight,
+			Class<?>... testClasses) {
+		// @formatter:off
+		LauncherDiscoveryRequest discoveryRequest = request()
+				.selectors(Arrays.stream(testClasses).map(DiscoverySelectors::selectClass).collect(toList()))
+				.configurationParameter(PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME, String.valueOf(true))
+				.configurationParameter(PARALLEL_CONFIG_STRATEGY_PROPERTY_NAME, "fixed")
+				.configurationParameter(PARALLEL_CONFIG_FIXED_PARALLELISM_PROPERTY_NAME, String.valueOf(4))
+				.configurationParameter(PARALLEL_CONFIG_DYNAMIC_TESTS_BACKPRESSURE_PROPERTY_NAME, backpressure)
+				.configurationParameter(PARALLEL_CONFIG_DYNAMIC_TESTS_MAX_IN_FLIGHT_PROPERTY_NAME, String.valueOf(maxInFlight))
+				.build();
+		// @formatter:on
+		return ExecutionRecorder.execute(new JupiterTestEngine(), discoveryRequest).getExecutionEvents();
+	}
+
+	private List<ExecutionEvent> executeWithAdmissionControl(int maxOpenContainers, Class<?>... testClasses) {
+		// @formatter:off
+		LauncherDiscoveryRequest discoveryRequest = request()
+				.selectors(Arrays.stream(testClasses).map(DiscoverySelectors::selectClass).collect(toList()))
+				.configurationParameter(PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME, String.valueOf(true))
+				.configurationParameter(PARALLEL_CONFIG_STRATEGY_PROPERTY_NAME, "fixed")
+				.configurationParameter(PARALLEL_CONFIG_FIXED_PARALLELISM_PROPERTY_NAME, String.valueOf(4))
+				.configurationParameter(PARALLEL_CONFIG_ADMISSION_MAX_OPEN_CONTAINERS_PROPERTY_NAME, String.valueOf(maxOpenContainers))
+				.build();
+		// @formatter:on
+		return ExecutionRecorder.execute(new JupiterTestEngine(), discoveryRequest).getExecutionEvents();
+	}
+
+	private List<ExecutionEvent> executeWithAdmissionControlOnSingleWorkerThread(int maxOpenContainers,
+			Class<?>... testClasses) {
+		// @formatter:off
+		LauncherDiscoveryRequest discoveryRequest = request()
+				.selectors(Arrays.stream(testClasses).map(DiscoverySelectors::selectClass).collect(toList()))
+				.configurationParameter(PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME, String.valueOf(true))
+				.configurationParameter(PARALLEL_CONFIG_STRATEGY_PROPERTY_NAME, "custom")
+				.configurationParameter(PARALLEL_CONFIG_CUSTOM_CLASS_PROPERTY_NAME, SingleWorkerConfigurationStrategy.class.getName())
+				.configurationParameter(PARALLEL_CONFIG_ADMISSION_MAX_OPEN_CONTAINERS_PROPERTY_NAME, String.valueOf(maxOpenContainers))
+				.build();
+		// @formatter:on
+		return ExecutionRecorder.execute(new JupiterTestEngine(), discoveryRequest).getExecutionEvents();
+	}
+
+	private List<ExecutionEvent> executeWithMetrics(Class<?>... testClasses) {
+		// @formatter:off
+		LauncherDiscoveryRequest discoveryRequest = request()
+				.selectors(Arrays.stream(testClasses).map(DiscoverySelectors::selectClass).collect(toList()))
+				.configurationParameter(PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME, String.valueOf(true))
+				.configurationParameter(PARALLEL_CONFIG_STRATEGY_PROPERTY_NAME, "fixed")
+				.configurationParameter(PARALLEL_CONFIG_FIXED_PARALLELISM_PROPERTY_NAME, String.valueOf(3))
+				.configurationParameter(PARALLEL_CONFIG_METRICS_ENABLED_PROPERTY_NAME, String.valueOf(true))
+				.build();
+		// @formatter:on
+		return ExecutionRecorder.execute(new JupiterTestEngine(), discoveryRequest).getExecutionEvents();
+	}
+
 	static class ThreadReporter implements AfterTestExecutionCallback {
 
 		public static final String KEY = "thread";
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.engine.support.hierarchical;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.platform.engine.support.hierarchical.ExclusiveResource.LockMode.READ_WRITE;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionMetrics.ResourceKeyStatistics;
+
+/**
+ * @since 1.4
+ */
+class ParallelExecutionMetricsTests {
+
+	private final ParallelExecutionMetrics metrics = new ParallelExecutionMetrics();
+
+	@Test
+	void metricsAreDisabledByDefault() {
+		ConfigurationParameters configParams = mock(ConfigurationParameters.class);
+		when(configParams.getBoolean("metrics.enabled")).thenReturn(Optional.empty());
+
+		assertThat(ParallelExecutionMetrics.fromConfigurationParameters(configParams)).isEmpty();
+	}
+
+	@Test
+	void metricsCanBeEnabledViaConfigurationParameter() {
+		ConfigurationParameters configParams = mock(ConfigurationParameters.class);
+		when(configParams.getBoolean("metrics.enabled")).thenReturn(Optional.of(true));
+
+		assertThat(ParallelExecutionMetrics.fromConfigurationParameters(configParams)).isPresent();
+	}
+
+	@Test
+	void recordsUncontendedAcquisition() throws Exception {
+		ResourceLock resourceLock = metrics.instrument(new SingleLock(new ReentrantLock()), singletonList("a"));
+
+		resourceLock.acquire().release();
+
+		ResourceKeyStatistics statistics = getOnlyStatistics();
+		assertThat(statistics.getKey()).isEqualTo("a");
+		assertThat(statistics.getAcquisitionCount()).isEqualTo(1);
+		assertThat(statistics.getContendedAcquisitionCount()).isZero();
+		assertThat(statistics.getTotalWaitTime()).isEqualTo(Duration.ZERO);
+	}
+
+	@Test
+	void recordsWaitTimeOfContendedAcquisitionSinceFirstFailedAttempt() throws Exception {
+		ReentrantLock lock = new ReentrantLock();
+		ResourceLock resourceLock = metrics.instrument(new SingleLock(lock), singletonList("a"));
+
+		Thread owner = holdLockInOtherThreadFor(lock, 50);
+		assertThat(resourceLock.tryAcquire()).isFalse();
+		resourceLock.acquire().release();
+		owner.join();
+
+		ResourceKeyStatistics statistics = getOnlyStatistics();
+		assertThat(statistics.getAcquisitionCount()).isEqualTo(1);
+		assertThat(statistics.getContendedAcquisitionCount()).isEqualTo(1);
+		assertThat(statistics.getTotalWaitTime()).isGreaterThanOrEqualTo(Duration.ofMillis(20));
+		assertThat(statistics.getMaxWaitTime()).isEqualTo(statistics.getTotalWaitTime());
+	}
+
+	@Test
+	void ranksResourceKeysByWaitTime() throws Exception {
+		LockManager lockManager = new LockManager(metrics);
+		ResourceLock uncontendedLock = lockManager.getLockForResources(
+			singletonList(new ExclusiveResource("uncontended", READ_WRITE)));
+		ResourceLock contendedLock = lockManager.getLockForResources(
+			singletonList(new ExclusiveResource("contended", READ_WRITE)));
+
+		uncontendedLock.acquire().release();
+		Thread owner = holdLockInOtherThreadFor(contendedLock, 50);
+		contendedLock.acquire().release();
+		owner.join();
+
+		assertThat(metrics.getResourceKeyStatistics()).extracting(ResourceKeyStatistics::getKey).containsExactly(
+			"contended", "uncontended");
+		assertThat(metrics.createContentionReport()).contains("1. contended:", "2. uncontended:");
+
+		Map<String, String> reportEntry = metrics.toReportEntry().getKeyValuePairs();
+		assertThat(reportEntry).containsKeys(ParallelExecutionMetrics.LOCK_WAIT_TIME_KEY_PREFIX + "contended",
+			ParallelExecutionMetrics.LOCK_HOLD_TIME_KEY_PREFIX + "uncontended",
+			ParallelExecutionMetrics.CONTENTION_REPORT_KEY);
+		assertThat(reportEntry).doesNotContainKey(ParallelExecutionMetrics.FORKED_TASKS_KEY);
+	}
+
+	@Test
+	void recordsAdjustmentsOfTargetParallelism() {
+		assertThat(metrics.toReportEntry().getKeyValuePairs()).doesNotContainKey(
+			ParallelExecutionMetrics.TARGET_PARALLELISM_KEY);
+
+		metrics.recordTargetParallelism(4);
+		metrics.recordTargetParallelism(5);
+		metrics.recordTargetParallelism(3);
+
+		assertThat(metrics.getTargetParallelism()).isEqualTo(3);
+		assertThat(metrics.getMinTargetParallelism()).isEqualTo(3);
+		assertThat(metrics.getMaxTargetParallelism()).isEqualTo(5);
+		assertThat(metrics.getTargetParallelismAdjustmentCount()).isEqualTo(2);
+		assertThat(metrics.toReportEntry().getKeyValuePairs()) //
+				.containsEntry(ParallelExecutionMetrics.TARGET_PARALLELISM_KEY, "3") //
+				.containsEntry(ParallelExecutionMetrics.MIN_TARGET_PARALLELISM_KEY, "3") //
+				.containsEntry(ParallelExecutionMetrics.MAX_TARGET_PARALLELISM_KEY, "5") //
+				.containsEntry(ParallelExecutionMetrics.TARGET_PARALLELISM_ADJUSTMENTS_KEY, "2");
+	}
+
+	private Thread holdLockInOtherThreadFor(ReentrantLock lock, long millis) throws InterruptedException {
+		return holdLockInOtherThreadFor(new SingleLock(lock), millis);
+	}
+
+	private Thread holdLockInOtherThreadFor(ResourceLock resourceLock, long millis) throws InterruptedException {
+		CountDownLatch acquired = new CountDownLatch(1);
+		Thread owner = new Thread(() -> {
+			try {
+				resourceLock.acquire();
+				try {
+					acquired.countDown();
+					Thread.sleep(millis);
+				}
+				finally {
+					resourceLock.release();
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		owner.start();
+		acquired.await();
+		return owner;
+	}
+
+	private ResourceKeyStatistics getOnlyStatistics() {
+		List<ResourceKeyStatistics> statistics = metrics.getResourceKeyStatistics();
+		assertThat(statistics).hasSize(1);
+		return statistics.get(0);
+	}
+
+}
@@ -42,4 +42,25 @@ class SingleLockTests {
 		assertFalse(lock.isLocked());
 	}
 
+	@Test
+	void tryAcquireAvailableLock() throws Exception {
+		ReentrantLock lock = new ReentrantLock();
+
+		assertTrue(new SingleLock(lock).tryAcquire());
+
+		assertTrue(lock.isLocked());
+	}
+
+	@Test
+	void tryAcquireUnavailableLock() throws Exception {
+		ReentrantLock lock = new ReentrantLock();
+		Thread thread = new Thread(lock::lock);
+		thread.start();
+		thread.join();
+
+		assertFalse(new SingleLock(lock).tryAcquire());
+
+		assertFalse(lock.isHeldByCurrentThread());
+	}
+
 }
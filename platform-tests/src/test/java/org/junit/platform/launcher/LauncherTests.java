@@ -0,0 +1,91 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+
+package org.junit.platform.launcher;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.CancellationToken;
+
+/**
+ * Unit tests for the default methods of {@link Launcher}.
+ *
+ * @since 1.4
+ */
+class LauncherTests {
+
+	private final LauncherDiscoveryRequest request = request().build();
+
+	private final RecordingLauncher launcher = new RecordingLauncher();
+
+	@Test
+	void executesRequestWithDisabledCancellationToken() {
+		launcher.execute(request, CancellationToken.disabled());
+
+		assertThat(launcher.executedRequests).containsExactly(request);
+	}
+
+	@Test
+	void doesNotSupportCancellationByDefault() {
+		UnsupportedOperationException exception = assertThrows(UnsupportedOperationException.class,
+			() -> launcher.execute(request, CancellationToken.create()));
+
+		assertThat(exception).hasMessage(RecordingLauncher.class.getName()
+				+ " does not support cancellation of test execution");
+		assertThat(launcher.executedRequests).isEmpty();
+	}
+
+	@Test
+	void doesNotSupportExecutingDiscoveredTestPlansByDefault() {
+		TestPlan testPlan = TestPlan.from(emptyList());
+
+		UnsupportedOperationException exception = assertThrows(UnsupportedOperationException.class,
+			() -> launcher.execute(testPlan));
+		assertThat(exception).hasMessage(RecordingLauncher.class.getName()
+				+ " does not support executing a discovered TestPlan");
+
+		assertThrows(UnsupportedOperationException.class,
+			() -> launcher.execute(testPlan, emptyList(), CancellationToken.disabled()));
+		assertThat(launcher.executedRequests).isEmpty();
+	}
+
+	/**
+	 * Implements only the abstract methods of {@link Launcher} like
+	 * implementations written against previous versions.
+	 */
+	private static class RecordingLauncher implements Launcher {
+
+		final List<LauncherDiscoveryRequest> executedRequests = new ArrayList<>();
+
+		@Override
+		public void registerTestExecutionListeners(TestExecutionListener... listeners) {
+		}
+
+		@Override
+		public TestPlan discover(LauncherDiscoveryRequest launcherDiscoveryRequest) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void execute(LauncherDiscoveryRequest launcherDiscoveryRequest, TestExecutionListener... listeners) {
+			executedRequests.add(launcherDiscoveryRequest);
+		}
+
+	}
+
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.launcher;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.platform.launcher.LauncherConstants.SHARD_DURATION_HISTORY_FILE_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.SHARD_PROPERTY_NAME;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.extensions.TempDirectory;
+import org.junit.jupiter.extensions.TempDirectory.Root;
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.util.PreconditionViolationException;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.DemoClassTestDescriptor;
+import org.junit.platform.engine.support.descriptor.DemoMethodTestDescriptor;
+import org.junit.platform.engine.support.descriptor.EngineDescriptor;
+import org.junit.platform.engine.support.hierarchical.ExecutionDurationHistory;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+
+/**
+ * Unit tests for {@link ShardFilter}.
+ *
+ * @since 1.4
+ */
+class ShardFilterTests {
+
+	@Test
+	void rejectsInvalidShards() {
+		assertThrows(PreconditionViolationException.class, () -> ShardFilter.shard(1, 0));
+		assertThrows(PreconditionViolationException.class, () -> ShardFilter.shard(0, 2));
+		assertThrows(PreconditionViolationException.class, () -> ShardFilter.shard(3, 2));
+	}
+
+	@Test
+	void includesEveryTestInExactlyOneShardAcrossEngines() {
+		List<TestDescriptor> tests = leaves(engine("first", 20, 3), engine("second", 15, 2));
+
+		assertEachTestIncludedExactlyOnce(tests, 4, index -> ShardFilter.shard(index, 4));
+	}
+
+	@Test
+	void assignsAllTestsOfTopLevelClassToSameShard() {
+		EngineDescriptor engine = engine("demo", 10, 3);
+		TestDescriptor firstClass = engine.getChildren().iterator().next();
+		TestDescriptor nestedClass = classDescriptor(firstClass.getUniqueId().append("nested-class", "Nested"), 2);
+		firstClass.addChild(nestedClass);
+
+		for (int shardIndex = 1; shardIndex <= 3; shardIndex++) {
+			ShardFilter filter = ShardFilter.shard(shardIndex, 3);
+			boolean included = filter.apply(firstClass.getChildren().iterator().next()).included();
+			assertThat(leaves(firstClass)).allMatch(test -> filter.apply(test).included() == included);
+		}
+	}
+
+	@Test
+	void assignsTestsToSameShardAcrossFilterInstances() {
+		List<TestDescriptor> tests = leaves(engine("demo", 10, 2));
+
+		List<Boolean> first = tests.stream().map(test -> ShardFilter.shard(2, 3).apply(test).included()).collect(
+			toList());
+		List<Boolean> second = tests.stream().map(test -> ShardFilter.shard(2, 3).apply(test).included()).collect(
+			toList());
+
+		assertThat(first).isEqualTo(second).contains(true, false);
+	}
+
+	@Test
+	@ExtendWith(TempDirectory.class)
+	void balancesShardsBasedOnRecordedDurations(@Root Path tempDirectory) throws Exception {
+		EngineDescriptor engine = engine("demo", 4, 1);
+		List<TestDescriptor> classes = Arrays.asList(engine.getChildren().toArray(new TestDescriptor[0]));
+		Path file = tempDirectory.resolve("durations.txt");
+		Files.write(file, Arrays.asList( //
+			"100 " + classes.get(0).getUniqueId(), //
+			"60 " + classes.get(1).getUniqueId(), //
+			"50 " + classes.get(2).getUniqueId(), //
+			"40 " + classes.get(3).getUniqueId()), UTF_8);
+		ExecutionDurationHistory history = ExecutionDurationHistory.load(file);
+
+		ShardFilter firstShard = ShardFilter.shard(1, 2, history);
+
+		assertThat(classes.stream().map(testClass -> firstShard.apply(leaves(testClass).get(0)).included())) //
+				.containsExactly(true, false, false, true);
+		assertEachTestIncludedExactlyOnce(leaves(engine), 2, index -> ShardFilter.shard(index, 2, history));
+	}
+
+	@Test
+	void isCreatedFromConfigurationParameters() {
+		assertThat(ShardFilter.fromConfigurationParameters(configurationParameters())).isEmpty();
+		assertThat(ShardFilter.fromConfigurationParameters(
+			configurationParameters(SHARD_PROPERTY_NAME, " 3/16 "))).hasValueSatisfying(
+				filter -> assertThat(filter).hasToString("ShardFilter that includes shard 3/16 based on unique ID hashes"));
+	}
+
+	@Test
+	@ExtendWith(TempDirectory.class)
+	void usesDurationHistoryConfiguredViaConfigurationParameter(@Root Path tempDirectory) {
+		ConfigurationParameters configurationParameters = configurationParameters(SHARD_PROPERTY_NAME, "1/2",
+			SHARD_DURATION_HISTORY_FILE_PROPERTY_NAME, tempDirectory.resolve("durations.txt").toString());
+
+		assertThat(ShardFilter.fromConfigurationParameters(configurationParameters)).hasValueSatisfying(
+			filter -> assertThat(filter).hasToString("ShardFilter that includes shard 1/2 based on recorded durations"));
+	}
+
+	@Test
+	void rejectsInvalidConfigurationParameters() {
+		for (String value : Arrays.asList("3", "a/b", "0/2", "3/2", "/2")) {
+			JUnitException exception = assertThrows(JUnitException.class,
+				() -> ShardFilter.fromConfigurationParameters(configurationParameters(SHARD_PROPERTY_NAME, value)));
+			assertThat(exception).hasMessage("Invalid value '" + value
+					+ "' specified via configuration parameter 'junit.platform.shard'; expected <index>/<count>");
+		}
+	}
+
+	private static void assertEachTestIncludedExactlyOnce(List<TestDescriptor> tests, int shardCount,
+			IntFunction<ShardFilter> filterFactory) {
+		List<ShardFilter> filters = IntStream.rangeClosed(1, shardCount).mapToObj(filterFactory).collect(toList());
+		for (TestDescriptor test : tests) {
+			assertThat(filters.stream().filter(filter -> filter.apply(test).included())).as(
+				test.getUniqueId().toString()).hasSize(1);
+		}
+		for (ShardFilter filter : filters) {
+			assertThat(tests.stream().filter(test -> filter.apply(test).included())).as(filter.toString()).isNotEmpty();
+		}
+	}
+
+	private static EngineDescriptor engine(String engineId, int classCount, int methodCount) {
+		EngineDescriptor engine = new EngineDescriptor(UniqueId.forEngine(engineId), engineId);
+		for (int i = 0; i < classCount; i++) {
+			engine.addChild(classDescriptor(engine.getUniqueId().append("class", "com.example.Test" + i), methodCount));
+		}
+		return engine;
+	}
+
+	private static TestDescriptor classDescriptor(UniqueId uniqueId, int methodCount) {
+		TestDescriptor classDescriptor = new DemoClassTestDescriptor(uniqueId, ShardFilterTests.class);
+		Method method = getTestMethod();
+		for (int i = 0; i < methodCount; i++) {
+			classDescriptor.addChild(
+				new DemoMethodTestDescriptor(uniqueId.append("method", "test" + i), ShardFilterTests.class, method));
+		}
+		return classDescriptor;
+	}
+
+	private static Method getTestMethod() {
+		try {
+			return ShardFilterTests.class.getDeclaredMethod("rejectsInvalidShards");
+		}
+		catch (NoSuchMethodException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	private static List<TestDescriptor> leaves(TestDescriptor... roots) {
+		// @formatter:off
+		return Arrays.stream(roots)
+				.flatMap(root -> root.getDescendants().stream())
+				.filter(descriptor -> descriptor.getChildren().isEmpty())
+				.collect(toList());
+		// @formatter:on
+	}
+
+	private static ConfigurationParameters configurationParameters(String... keysAndValues) {
+		LauncherDiscoveryRequestBuilder builder = request();
+		for (int i = 0; i < keysAndValues.length; i += 2) {
+			builder.configurationParameter(keysAndValues[i], keysAndValues[i + 1]);
+		}
+		return builder.build().getConfigurationParameters();
+	}
+
+}
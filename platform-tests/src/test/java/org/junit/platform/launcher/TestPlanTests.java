@@ -10,10 +10,19 @@
 
 package org.junit.platform.launcher;
 
+import static java.util.Collections.emptySet;
 import static java.util.Collections.singleton;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.platform.commons.util.CollectionUtils.getOnlyElement;
+
+import java.util.HashSet;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.util.PreconditionViolationException;
+import org.junit.platform.engine.TestDescriptor.Type;
+import org.junit.platform.engine.TestTag;
 import org.junit.platform.engine.UniqueId;
 import org.junit.platform.engine.support.descriptor.AbstractTestDescriptor;
 import org.junit.platform.engine.support.descriptor.EngineDescriptor;
@@ -71,4 +80,128 @@ class TestPlanTests {
 
 		assertThat(testPlan.containsTests()).as("contains tests").isTrue();
 	}
+
+	@Test
+	void sharesUniqueIdsOfParentsAndTagsAmongIdentifiers() {
+		TestPlan testPlan = TestPlan.from(singleton(engineDescriptor));
+		Set<TestTag> tags = singleton(TestTag.create("fast"));
+		testPlan.add(identifier("[engine:foo]/[test:bar]", new String("[engine:foo]"), tags));
+		testPlan.add(identifier("[engine:foo]/[test:baz]", new String("[engine:foo]"), new HashSet<>(tags)));
+
+		TestIdentifier engine = testPlan.getTestIdentifier("[engine:foo]");
+		TestIdentifier bar = testPlan.getTestIdentifier("[engine:foo]/[test:bar]");
+		TestIdentifier baz = testPlan.getTestIdentifier("[engine:foo]/[test:baz]");
+
+		assertThat(bar.getParentId().get()).isSameAs(engine.getUniqueId());
+		assertThat(baz.getParentId().get()).isSameAs(engine.getUniqueId());
+		assertThat(bar.getTags()).isSameAs(baz.getTags()).isEqualTo(tags);
+	}
+
+	@Test
+	void retainsOrderOfChildrenAndDescendants() {
+		TestPlan testPlan = TestPlan.from(singleton(engineDescriptor));
+		testPlan.add(identifier("[engine:foo]/[container:a]", "[engine:foo]", emptySet()));
+		testPlan.add(identifier("[engine:foo]/[container:b]", "[engine:foo]", emptySet()));
+		testPlan.add(identifier("[engine:foo]/[container:a]/[test:c]", "[engine:foo]/[container:a]", emptySet()));
+		testPlan.add(identifier("[engine:foo]/[container:b]/[test:d]", "[engine:foo]/[container:b]", emptySet()));
+
+		TestIdentifier engine = getOnlyElement(testPlan.getRoots());
+
+		assertThat(testPlan.getChildren(engine)).extracting(TestIdentifier::getUniqueId).containsExactly(
+			"[engine:foo]/[container:a]", "[engine:foo]/[container:b]");
+		assertThat(testPlan.getDescendants(engine)).extracting(TestIdentifier::getUniqueId).containsExactly(
+			"[engine:foo]/[container:a]", "[engine:foo]/[container:b]", "[engine:foo]/[container:a]/[test:c]",
+			"[engine:foo]/[container:b]/[test:d]");
+		assertThat(testPlan.getDescendants(engine)).contains(
+			testPlan.getTestIdentifier("[engine:foo]/[container:b]/[test:d]"));
+	}
+
+	@Test
+	void returnsChildrenOfParentsAddedAfterTheirChildren() {
+		TestPlan testPlan = TestPlan.from(singleton(engineDescriptor));
+		TestIdentifier child = identifier("[engine:foo]/[container:a]/[test:b]", "[engine:foo]/[container:a]",
+			emptySet());
+		testPlan.add(child);
+
+		assertThat(testPlan.getChildren("[engine:foo]/[container:a]")).containsExactly(child);
+
+		testPlan.add(identifier("[engine:foo]/[container:a]", "[engine:foo]", emptySet()));
+
+		assertThat(testPlan.getChildren("[engine:foo]/[container:a]")).containsExactly(child);
+		assertThat(testPlan.getDescendants(getOnlyElement(testPlan.getRoots()))).hasSize(2);
+	}
+
+	@Test
+	void determinesDescendantsOfIdentifiersAddedDuringExecution() {
+		TestPlan testPlan = TestPlan.from(singleton(engineDescriptor));
+		String parentId = "[engine:foo]";
+		for (int i = 0; i < 20; i++) {
+			String containerId = parentId + "/[container:" + i + "]";
+			testPlan.add(identifier(containerId, parentId, emptySet()));
+			parentId = containerId;
+		}
+		TestIdentifier deepestContainer = testPlan.getTestIdentifier(parentId);
+		for (int i = 0; i < 1000; i++) {
+			testPlan.add(identifier(parentId + "/[test:" + i + "]", parentId, emptySet()));
+		}
+
+		TestIdentifier engine = getOnlyElement(testPlan.getRoots());
+		TestIdentifier firstContainer = testPlan.getTestIdentifier("[engine:foo]/[container:0]");
+		TestIdentifier lastTest = testPlan.getTestIdentifier(parentId + "/[test:999]");
+
+		assertThat(testPlan.getDescendants(engine)).hasSize(1020).contains(lastTest);
+		assertThat(testPlan.getDescendants(firstContainer)).hasSize(1019).contains(lastTest).doesNotContain(engine);
+		assertThat(testPlan.getDescendants(deepestContainer)).hasSize(1000).contains(lastTest).doesNotContain(
+			deepestContainer);
+		assertThat(testPlan.getDescendants(lastTest)).isEmpty();
+	}
+
+	@Test
+	void descendantsDoNotIncludeIdentifiersAddedAfterwards() {
+		TestPlan testPlan = TestPlan.from(singleton(engineDescriptor));
+		testPlan.add(identifier("[engine:foo]/[test:a]", "[engine:foo]", emptySet()));
+		TestIdentifier engine = getOnlyElement(testPlan.getRoots());
+		Set<TestIdentifier> descendants = testPlan.getDescendants(engine);
+
+		testPlan.add(identifier("[engine:foo]/[test:b]", "[engine:foo]", emptySet()));
+
+		assertThat(descendants).extracting(TestIdentifier::getUniqueId).containsExactly("[engine:foo]/[test:a]");
+		assertThat(descendants).doesNotContain(testPlan.getTestIdentifier("[engine:foo]/[test:b]"));
+		assertThat(testPlan.getDescendants(engine)).hasSize(2);
+	}
+
+	@Test
+	void replacesIdentifierAddedAgainWithSameParent() {
+		TestPlan testPlan = TestPlan.from(singleton(engineDescriptor));
+		testPlan.add(identifier("[engine:foo]/[test:a]", "[engine:foo]", emptySet()));
+		TestIdentifier replacement = new TestIdentifier("[engine:foo]/[test:a]", "Replacement", null, emptySet(),
+			Type.TEST, "[engine:foo]", "[engine:foo]/[test:a]");
+
+		testPlan.add(replacement);
+
+		assertThat(testPlan.getChildren("[engine:foo]")).extracting(TestIdentifier::getDisplayName).containsExactly(
+			"Replacement");
+	}
+
+	@Test
+	void rejectsIdentifierAddedAgainWithDifferentParent() {
+		TestPlan testPlan = TestPlan.from(singleton(engineDescriptor));
+		testPlan.add(identifier("[engine:foo]/[container:a]", "[engine:foo]", emptySet()));
+		testPlan.add(identifier("[engine:foo]/[container:b]", "[engine:foo]", emptySet()));
+		TestIdentifier test = identifier("[engine:foo]/[test:c]", "[engine:foo]/[container:a]", emptySet());
+		testPlan.add(test);
+
+		PreconditionViolationException exception = assertThrows(PreconditionViolationException.class,
+			() -> testPlan.add(identifier("[engine:foo]/[test:c]", "[engine:foo]/[container:b]", emptySet())));
+
+		assertThat(exception).hasMessageContaining("[engine:foo]/[test:c]");
+		assertThat(testPlan.getChildren("[engine:foo]/[container:a]")).containsExactly(test);
+		assertThat(testPlan.getChildren("[engine:foo]/[container:b]")).isEmpty();
+		assertThat(testPlan.getParent(test)).contains(testPlan.getTestIdentifier("[engine:foo]/[container:a]"));
+	}
+
+	private static TestIdentifier identifier(String uniqueId, String parentId, Set<TestTag> tags) {
+		return new TestIdentifier(uniqueId, uniqueId, null, tags, Type.TEST, parentId, uniqueId);
+	}
+
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @since 1.4
+ */
+class AsyncNotificationDispatcherTests {
+
+	@Test
+	void roundsBufferSizeUpToNextPowerOfTwo() {
+		assertEquals(1, new AsyncNotificationDispatcher(1).getCapacity());
+		assertEquals(8, new AsyncNotificationDispatcher(5).getCapacity());
+		assertEquals(1024, new AsyncNotificationDispatcher(1024).getCapacity());
+	}
+
+	@Test
+	void executesNotificationsOfEachThreadInOrderInDispatcherThread() throws Exception {
+		int threads = 4;
+		int notificationsPerThread = 10_000;
+		int[] nextExpected = new int[threads];
+		List<String> outOfOrder = new ArrayList<>();
+		Set<String> threadNames = ConcurrentHashMap.newKeySet();
+		ExecutorService executorService = Executors.newFixedThreadPool(threads);
+
+		try (AsyncNotificationDispatcher dispatcher = new AsyncNotificationDispatcher(8)) {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int thread = 0; thread < threads; thread++) {
+				int currentThread = thread;
+				futures.add(executorService.submit(() -> {
+					for (int i = 0; i < notificationsPerThread; i++) {
+						int current = i;
+						dispatcher.execute(() -> {
+							threadNames.add(Thread.currentThread().getName());
+							if (nextExpected[currentThread]++ != current) {
+								outOfOrder.add(currentThread + ":" + current);
+							}
+						});
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+			dispatcher.flush();
+
+			assertThat(outOfOrder).isEmpty();
+			assertThat(nextExpected).containsOnly(notificationsPerThread);
+			assertThat(threadNames).containsExactly("junit-listener-notification-dispatcher");
+		}
+		finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	@Test
+	void continuesWithSubsequentNotificationsIfOneThrowsAnException() {
+		AtomicBoolean executed = new AtomicBoolean();
+
+		try (AsyncNotificationDispatcher dispatcher = new AsyncNotificationDispatcher(2)) {
+			dispatcher.execute(() -> {
+				throw new IllegalStateException("listener failure");
+			});
+			dispatcher.execute(() -> executed.set(true));
+			dispatcher.flush();
+		}
+
+		assertThat(executed).isTrue();
+	}
+
+	@Test
+	void executesNotificationsSubmittedFromDispatcherThreadImmediately() {
+		List<String> events = new ArrayList<>();
+
+		try (AsyncNotificationDispatcher dispatcher = new AsyncNotificationDispatcher(1)) {
+			dispatcher.execute(() -> {
+				events.add("outer");
+				dispatcher.execute(() -> events.add("inner"));
+				dispatcher.flush();
+				events.add("after inner");
+			});
+			dispatcher.flush();
+		}
+
+		assertThat(events).containsExactly("outer", "inner", "after inner");
+	}
+
+}
@@ -10,12 +10,15 @@
 
 package org.junit.platform.launcher.core;
 
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.platform.commons.util.CollectionUtils.getOnlyElement;
 import static org.junit.platform.engine.TestExecutionResult.successful;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
 import static org.junit.platform.engine.discovery.DiscoverySelectors.selectPackage;
 import static org.junit.platform.engine.discovery.DiscoverySelectors.selectUniqueId;
 import static org.junit.platform.launcher.EngineFilter.excludeEngines;
@@ -26,25 +29,39 @@ import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.engine.JupiterTestEngine;
 import org.junit.jupiter.engine.TrackLogRecords;
 import org.junit.platform.commons.JUnitException;
 import org.junit.platform.commons.logging.LogRecordListener;
 import org.junit.platform.commons.util.PreconditionViolationException;
+import org.junit.platform.engine.CancellationToken;
 import org.junit.platform.engine.ConfigurationParameters;
 import org.junit.platform.engine.EngineDiscoveryRequest;
 import org.junit.platform.engine.EngineExecutionListener;
 import org.junit.platform.engine.ExecutionRequest;
 import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.ResourceLockRegistry;
 import org.junit.platform.engine.TestDescriptor;
 import org.junit.platform.engine.TestEngine;
+import org.junit.platform.engine.TestExecutionResult;
 import org.junit.platform.engine.UniqueId;
 import org.junit.platform.engine.support.hierarchical.DemoHierarchicalTestDescriptor;
 import org.junit.platform.engine.support.hierarchical.DemoHierarchicalTestEngine;
+import org.junit.platform.launcher.LauncherConstants;
 import org.junit.platform.launcher.PostDiscoveryFilter;
 import org.junit.platform.launcher.PostDiscoveryFilterStub;
 import org.junit.platform.launcher.TestExecutionListener;
@@ -199,6 +216,95 @@ class DefaultLauncherTests {
 		assertThat(testPlan.getChildren(UniqueId.forEngine("engine2").toString())).hasSize(1);
 	}
 
+	@Test
+	void discoverTestPlanForMultipleEnginesInParallel() {
+		CyclicBarrier barrier = new CyclicBarrier(3);
+		Set<Thread> discoveryThreads = ConcurrentHashMap.newKeySet();
+		Set<ClassLoader> contextClassLoaders = ConcurrentHashMap.newKeySet();
+		List<TestEngine> engines = new ArrayList<>();
+		for (int i = 1; i <= 3; i++) {
+			engines.add(new TestEngineStub("engine" + i) {
+
+				@Override
+				public TestDescriptor discover(EngineDiscoveryRequest discoveryRequest, UniqueId uniqueId) {
+					discoveryThreads.add(Thread.currentThread());
+					contextClassLoaders.add(Thread.currentThread().getContextClassLoader());
+					try {
+						barrier.await(10, TimeUnit.SECONDS);
+					}
+					catch (Exception e) {
+						throw new AssertionError("engines were not discovered in parallel", e);
+					}
+					return super.discover(discoveryRequest, uniqueId);
+				}
+			});
+		}
+
+		TestPlan testPlan = createLauncher(engines.toArray(new TestEngine[0])).discover(
+			request().configurationParameter(LauncherConstants.PARALLEL_DISCOVERY_ENABLED_PROPERTY_NAME,
+				"true").build());
+
+		assertThat(testPlan.getRoots()).extracting(TestIdentifier::getUniqueId).containsExactly("[engine:engine1]",
+			"[engine:engine2]", "[engine:engine3]");
+		assertThat(discoveryThreads).hasSize(3).contains(Thread.currentThread());
+		assertThat(contextClassLoaders).containsExactly(Thread.currentThread().getContextClassLoader());
+	}
+
+	@Test
+	void parallelDiscoveryAppliesPostDiscoveryFiltersToAllEngines() {
+		DemoHierarchicalTestEngine firstEngine = new DemoHierarchicalTestEngine("engine1");
+		DemoHierarchicalTestDescriptor test1 = firstEngine.addTest("test1", noOp);
+		firstEngine.addTest("test2", noOp);
+		DemoHierarchicalTestEngine secondEngine = new DemoHierarchicalTestEngine("engine2");
+		secondEngine.addTest("test2", noOp);
+		TestEngine failingEngine = new TestEngineStub("engine3") {
+
+			@Override
+			public TestDescriptor discover(EngineDiscoveryRequest discoveryRequest, UniqueId uniqueId) {
+				throw new RuntimeException("ignored");
+			}
+		};
+
+		PostDiscoveryFilter includeWithUniqueIdContains1 = new PostDiscoveryFilterStub(
+			descriptor -> FilterResult.includedIf(descriptor.getUniqueId().toString().contains("1")), () -> "filter");
+
+		TestPlan testPlan = createLauncher(firstEngine, secondEngine, failingEngine).discover( //
+			request() //
+					.selectors(selectPackage("any")) //
+					.filters(includeWithUniqueIdContains1) //
+					.configurationParameter(LauncherConstants.PARALLEL_DISCOVERY_ENABLED_PROPERTY_NAME, "true") //
+					.build());
+
+		assertThat(testPlan.getRoots()).extracting(TestIdentifier::getUniqueId).containsExactly("[engine:engine1]",
+			"[engine:engine2]");
+		assertThat(testPlan.getChildren("[engine:engine1]")).extracting(TestIdentifier::getUniqueId).containsExactly(
+			test1.getUniqueId().toString());
+		assertThat(testPlan.getChildren("[engine:engine2]")).isEmpty();
+	}
+
+	@Test
+	void discoverTestPlanForConfiguredShardsIncludesEveryTestExactlyOnce() {
+		DemoHierarchicalTestEngine firstEngine = new DemoHierarchicalTestEngine("engine1");
+		DemoHierarchicalTestEngine secondEngine = new DemoHierarchicalTestEngine("engine2");
+		for (int i = 0; i < 10; i++) {
+			firstEngine.addTest("test" + i, noOp);
+			secondEngine.addTest("test" + i, noOp);
+		}
+
+		DefaultLauncher launcher = createLauncher(firstEngine, secondEngine);
+
+		List<String> uniqueIds = new ArrayList<>();
+		for (int shard = 1; shard <= 3; shard++) {
+			TestPlan testPlan = launcher.discover(request().selectors(selectPackage("any")).configurationParameter(
+				LauncherConstants.SHARD_PROPERTY_NAME, shard + "/3").build());
+			for (TestIdentifier root : testPlan.getRoots()) {
+				testPlan.getChildren(root).forEach(child -> uniqueIds.add(child.getUniqueId()));
+			}
+		}
+
+		assertThat(uniqueIds).hasSize(20).doesNotHaveDuplicates();
+	}
+
 	@Test
 	void launcherWillNotExecuteEnginesIfNotIncludedByAnEngineFilter() {
 		DemoHierarchicalTestEngine firstEngine = new DemoHierarchicalTestEngine("first");
@@ -393,6 +499,350 @@ class DefaultLauncherTests {
 		assertThat(listener.getSummary().getTestsFoundCount()).isEqualTo(1);
 	}
 
+	@Test
+	void executesEnginesInParallelWithSharedResourceLockRegistry() {
+		CyclicBarrier barrier = new CyclicBarrier(3);
+		Set<ResourceLockRegistry> registries = ConcurrentHashMap.newKeySet();
+		List<TestEngine> engines = new ArrayList<>();
+		for (int i = 1; i <= 3; i++) {
+			engines.add(new TestEngineStub("engine" + i) {
+
+				@Override
+				public void execute(ExecutionRequest request) {
+					registries.add(request.getResourceLockRegistry());
+					try {
+						barrier.await(10, TimeUnit.SECONDS);
+					}
+					catch (Exception e) {
+						throw new AssertionError("engines were not executed in parallel", e);
+					}
+					request.getEngineExecutionListener().executionStarted(request.getRootTestDescriptor());
+					request.getEngineExecutionListener().executionFinished(request.getRootTestDescriptor(),
+						successful());
+				}
+			});
+		}
+		SummaryGeneratingListener listener = new SummaryGeneratingListener();
+
+		createLauncher(engines.toArray(new TestEngine[0])).execute(
+			request().configurationParameter(LauncherConstants.PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME,
+				"true").build(), listener);
+
+		assertThat(barrier.isBroken()).isFalse();
+		assertThat(registries).hasSize(1);
+		assertThat(listener.getSummary().getTestsSucceededCount()).isEqualTo(3);
+	}
+
+	@Test
+	void executesEnginesThatDoNotUseResourceLockRegistryExclusivelyWhenExecutingEnginesInParallel() {
+		List<String> events = new CopyOnWriteArrayList<>();
+		DemoHierarchicalTestEngine hierarchicalEngine = new DemoHierarchicalTestEngine("hierarchical");
+		hierarchicalEngine.addTest("test", () -> {
+			events.add("hierarchical started");
+			try {
+				Thread.sleep(100);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			events.add("hierarchical finished");
+		});
+		TestEngineStub nonHierarchicalEngine = new TestEngineStub("non-hierarchical") {
+
+			@Override
+			public void execute(ExecutionRequest request) {
+				ResourceLockRegistry registry = request.getResourceLockRegistry();
+				ReentrantReadWriteLock globalLock = (ReentrantReadWriteLock) registry.getLock(
+					registry.getKeyId(ResourceLockRegistry.GLOBAL_KEY));
+				events.add("non-hierarchical holds global write lock: " + globalLock.isWriteLockedByCurrentThread());
+				request.getEngineExecutionListener().executionStarted(request.getRootTestDescriptor());
+				request.getEngineExecutionListener().executionFinished(request.getRootTestDescriptor(),
+					successful());
+			}
+		};
+		SummaryGeneratingListener listener = new SummaryGeneratingListener();
+
+		createLauncher(hierarchicalEngine, nonHierarchicalEngine).execute(
+			request().selectors(selectPackage("any")).configurationParameter(
+				LauncherConstants.PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME, "true").build(),
+			listener);
+
+		assertThat(listener.getSummary().getTestsSucceededCount()).isEqualTo(2);
+		assertThat(events).hasSize(3).containsSubsequence("hierarchical started", "hierarchical finished");
+		assertThat(events.indexOf("non-hierarchical holds global write lock: true")).isIn(0, 2);
+	}
+
+	@Test
+	void executesNonHierarchicalEnginesConcurrentlyWithJupiterIfConfigured() {
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		ConcurrentJupiterTestCase.barrier = barrier;
+		TestEngineStub nonHierarchicalEngine = new TestEngineStub("non-hierarchical") {
+
+			@Override
+			public void execute(ExecutionRequest request) {
+				request.getEngineExecutionListener().executionStarted(request.getRootTestDescriptor());
+				try {
+					barrier.await(10, TimeUnit.SECONDS);
+				}
+				catch (Exception e) {
+					throw new AssertionError("engines were not executed concurrently", e);
+				}
+				request.getEngineExecutionListener().executionFinished(request.getRootTestDescriptor(),
+					successful());
+			}
+		};
+		SummaryGeneratingListener listener = new SummaryGeneratingListener();
+
+		try {
+			createLauncher(new JupiterTestEngine(), nonHierarchicalEngine).execute(request() //
+					.selectors(selectClass(ConcurrentJupiterTestCase.class)) //
+					.configurationParameter(LauncherConstants.PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME, "true") //
+					.configurationParameter(LauncherConstants.PARALLEL_EXECUTION_CONCURRENT_ENGINES_PROPERTY_NAME,
+						"foo, non-hierarchical") //
+					.build(), listener);
+		}
+		finally {
+			ConcurrentJupiterTestCase.barrier = null;
+		}
+
+		assertThat(barrier.isBroken()).isFalse();
+		assertThat(listener.getSummary().getTestsSucceededCount()).isEqualTo(2);
+	}
+
+	@Test
+	void executesDiscoveredTestPlanWithoutDiscoveringItsTestsAgain() {
+		List<TestDescriptor> discoveredEngineDescriptors = new ArrayList<>();
+		TestEngineSpy engine = new TestEngineSpy() {
+
+			@Override
+			public TestDescriptor discover(EngineDiscoveryRequest discoveryRequest, UniqueId uniqueId) {
+				TestDescriptor engineDescriptor = super.discover(discoveryRequest, uniqueId);
+				discoveredEngineDescriptors.add(engineDescriptor);
+				return engineDescriptor;
+			}
+		};
+
+		DefaultLauncher launcher = createLauncher(engine);
+		TestPlan testPlan = launcher.discover(request().build());
+		launcher.execute(testPlan);
+
+		assertThat(discoveredEngineDescriptors).hasSize(1);
+		assertThat(engine.requestForExecution.getRootTestDescriptor()).isSameAs(
+			discoveredEngineDescriptors.get(0));
+	}
+
+	@Test
+	void releasesDiscoveredTestDescriptorsOnceTestPlanHasBeenExecuted() throws Exception {
+		List<WeakReference<TestDescriptor>> discoveredEngineDescriptors = new ArrayList<>();
+		TestEngineStub engine = new TestEngineStub() {
+
+			@Override
+			public TestDescriptor discover(EngineDiscoveryRequest discoveryRequest, UniqueId uniqueId) {
+				TestDescriptor engineDescriptor = super.discover(discoveryRequest, uniqueId);
+				discoveredEngineDescriptors.add(new WeakReference<>(engineDescriptor));
+				return engineDescriptor;
+			}
+		};
+
+		DefaultLauncher launcher = createLauncher(engine);
+		TestPlan testPlan = launcher.discover(request().build());
+		launcher.execute(testPlan);
+
+		WeakReference<TestDescriptor> engineDescriptor = getOnlyElement(discoveredEngineDescriptors);
+		for (int i = 0; i < 100 && engineDescriptor.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertThat(engineDescriptor.get()).isNull();
+		assertThat(testPlan.getRoots()).hasSize(1);
+	}
+
+	@Test
+	void rejectsExecutingTheSameTestPlanTwice() {
+		DemoHierarchicalTestEngine engine = new DemoHierarchicalTestEngine("engine");
+		engine.addTest("test", noOp);
+
+		DefaultLauncher launcher = createLauncher(engine);
+		TestPlan testPlan = launcher.discover(request().selectors(selectPackage("any")).build());
+		launcher.execute(testPlan);
+
+		Throwable exception = assertThrows(PreconditionViolationException.class, () -> launcher.execute(testPlan));
+		assertThat(exception).hasMessage("TestPlan must only be executed once");
+	}
+
+	@Test
+	void rejectsExecutingTestPlanThatWasNotDiscoveredByLauncher() {
+		DefaultLauncher launcher = createLauncher(new TestEngineSpy());
+		TestPlan testPlan = TestPlan.from(emptyList());
+
+		Throwable exception = assertThrows(PreconditionViolationException.class, () -> launcher.execute(testPlan));
+		assertThat(exception).hasMessage("TestPlan must have been returned by Launcher.discover()");
+	}
+
+	@Test
+	void executesOnlySelectedTestIdentifiersOfDiscoveredTestPlan() {
+		List<String> executedTests = new ArrayList<>();
+		DemoHierarchicalTestEngine engine = new DemoHierarchicalTestEngine("engine");
+		engine.addTest("test1", () -> executedTests.add("test1"));
+		engine.addTest("test2", () -> executedTests.add("test2"));
+		TestDescriptor test3 = engine.addTest("test3", () -> executedTests.add("test3"));
+		List<TestPlan> executedTestPlans = new ArrayList<>();
+
+		DefaultLauncher launcher = createLauncher(engine);
+		TestPlan testPlan = launcher.discover(request().selectors(selectPackage("any")).build());
+		launcher.execute(testPlan, singletonList(testPlan.getTestIdentifier(test3.getUniqueId().toString())),
+			CancellationToken.create(), new TestExecutionListener() {
+
+				@Override
+				public void testPlanExecutionStarted(TestPlan executedTestPlan) {
+					executedTestPlans.add(executedTestPlan);
+				}
+			});
+
+		assertThat(executedTests).containsExactly("test3");
+		assertThat(getOnlyElement(executedTestPlans).countTestIdentifiers(TestIdentifier::isTest)).isEqualTo(1);
+		assertThrows(PreconditionViolationException.class, () -> launcher.execute(testPlan));
+	}
+
+	@Test
+	void passesCancellationTokenIntoTheExecutionRequest() {
+		TestEngineSpy engine = new TestEngineSpy();
+		CancellationToken cancellationToken = CancellationToken.create();
+
+		DefaultLauncher launcher = createLauncher(engine);
+		launcher.execute(request().build(), cancellationToken);
+
+		assertThat(engine.requestForExecution.getCancellationToken()).isSameAs(cancellationToken);
+	}
+
+	@Test
+	void skipsEnginesOnceCancellationHasBeenRequested() {
+		TestEngineSpy engine = new TestEngineSpy();
+		SummaryGeneratingListener listener = new SummaryGeneratingListener();
+		CancellationToken cancellationToken = CancellationToken.create();
+		cancellationToken.cancel();
+
+		DefaultLauncher launcher = createLauncher(engine);
+		launcher.execute(request().build(), cancellationToken, listener);
+
+		assertThat(engine.requestForExecution).isNull();
+		assertThat(listener.getSummary().getContainersSkippedCount()).isEqualTo(1);
+		assertThat(listener.getSummary().getTestsSkippedCount()).isEqualTo(1);
+	}
+
+	@Test
+	void skipsRemainingTestsOnceConfiguredNumberOfTestsHaveFailed() {
+		DemoHierarchicalTestEngine engine = new DemoHierarchicalTestEngine("engine");
+		Runnable failing = () -> {
+			throw new AssertionError("failed");
+		};
+		engine.addTest("test1", failing);
+		engine.addTest("test2", failing);
+		engine.addTest("test3", noOp);
+		engine.addTest("test4", failing);
+		SummaryGeneratingListener listener = new SummaryGeneratingListener();
+
+		DefaultLauncher launcher = createLauncher(engine);
+		launcher.execute(request().selectors(selectPackage("any")).configurationParameter(
+			LauncherConstants.FAIL_FAST_MAX_FAILURES_PROPERTY_NAME, "2").build(), listener);
+
+		assertThat(listener.getSummary().getTestsFailedCount()).isEqualTo(2);
+		assertThat(listener.getSummary().getTestsSucceededCount()).isEqualTo(0);
+		assertThat(listener.getSummary().getTestsSkippedCount()).isEqualTo(2);
+	}
+
+	@Test
+	void rejectsInvalidMaximumNumberOfFailures() {
+		DefaultLauncher launcher = createLauncher(new TestEngineSpy());
+
+		JUnitException exception = assertThrows(JUnitException.class, () -> launcher.execute(
+			request().configurationParameter(LauncherConstants.FAIL_FAST_MAX_FAILURES_PROPERTY_NAME, "0").build()));
+
+		assertThat(exception).hasMessage(
+			"Invalid value '0' specified via configuration parameter 'junit.platform.execution.fail-fast.max-failures'");
+	}
+
+	@Test
+	void notifiesListenersAsynchronouslyInOrderOfEventsIfEnabled() {
+		DemoHierarchicalTestEngine engine = new DemoHierarchicalTestEngine("engine");
+		engine.addTest("test1", noOp);
+		engine.addTest("test2", () -> {
+			throw new AssertionError("failed");
+		});
+		List<String> events = new ArrayList<>();
+		Set<String> threadNames = ConcurrentHashMap.newKeySet();
+		TestExecutionListener listener = new TestExecutionListener() {
+
+			@Override
+			public void testPlanExecutionStarted(TestPlan testPlan) {
+				record("started plan");
+			}
+
+			@Override
+			public void executionStarted(TestIdentifier testIdentifier) {
+				record("started " + testIdentifier.getDisplayName());
+			}
+
+			@Override
+			public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+				record("finished " + testIdentifier.getDisplayName());
+			}
+
+			@Override
+			public void testPlanExecutionFinished(TestPlan testPlan) {
+				record("finished plan");
+			}
+
+			private void record(String event) {
+				threadNames.add(Thread.currentThread().getName());
+				events.add(event);
+			}
+		};
+
+		DefaultLauncher launcher = createLauncher(engine);
+		launcher.execute(request().selectors(selectPackage("any")).configurationParameter(
+			LauncherConstants.ASYNC_LISTENER_NOTIFICATION_ENABLED_PROPERTY_NAME, "true").configurationParameter(
+				LauncherConstants.ASYNC_LISTENER_NOTIFICATION_BUFFER_SIZE_PROPERTY_NAME, "2").build(),
+			listener);
+
+		assertThat(events).containsExactly("started plan", "started engine", "started test1", "finished test1",
+			"started test2", "finished test2", "finished engine", "finished plan");
+		assertThat(threadNames).containsExactly("junit-listener-notification-dispatcher");
+	}
+
+	@Test
+	void skipsRemainingTestsOnceConfiguredNumberOfTestsHaveFailedWhenNotifyingListenersAsynchronously() {
+		DemoHierarchicalTestEngine engine = new DemoHierarchicalTestEngine("engine");
+		Runnable failing = () -> {
+			throw new AssertionError("failed");
+		};
+		engine.addTest("test1", failing);
+		engine.addTest("test2", noOp);
+		SummaryGeneratingListener listener = new SummaryGeneratingListener();
+
+		DefaultLauncher launcher = createLauncher(engine);
+		launcher.execute(request().selectors(selectPackage("any")).configurationParameter(
+			LauncherConstants.FAIL_FAST_MAX_FAILURES_PROPERTY_NAME, "1").configurationParameter(
+				LauncherConstants.ASYNC_LISTENER_NOTIFICATION_ENABLED_PROPERTY_NAME, "true").build(),
+			listener);
+
+		assertThat(listener.getSummary().getTestsFailedCount()).isEqualTo(1);
+		assertThat(listener.getSummary().getTestsSkippedCount()).isEqualTo(1);
+	}
+
+	@Test
+	void rejectsInvalidAsyncListenerNotificationBufferSize() {
+		DefaultLauncher launcher = createLauncher(new TestEngineSpy());
+
+		JUnitException exception = assertThrows(JUnitException.class,
+			() -> launcher.execute(request().configurationParameter(
+				LauncherConstants.ASYNC_LISTENER_NOTIFICATION_ENABLED_PROPERTY_NAME, "true").configurationParameter(
+					LauncherConstants.ASYNC_LISTENER_NOTIFICATION_BUFFER_SIZE_PROPERTY_NAME, "-1").build()));
+
+		assertThat(exception).hasMessage(
+			"Invalid value '-1' specified via configuration parameter 'junit.platform.execution.listeners.async.buffer-size'");
+	}
+
 	@Test
 	void prunesTestDescriptorsAfterApplyingPostDiscoveryFilters() {
 		TestEngineSpy engine = new TestEngineSpy() {
@@ -521,4 +971,15 @@ class DefaultLauncherTests {
 			impostor.getClass().getName(), id);
 	}
 
+	static class ConcurrentJupiterTestCase {
+
+		static CyclicBarrier barrier;
+
+		@Test
+		void test() throws Exception {
+			barrier.await(10, TimeUnit.SECONDS);
+		}
+
+	}
+
 }
@@ -13,7 +13,13 @@ package org.junit.platform.launcher.core;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 import org.junit.platform.commons.util.ReflectionUtils;
@@ -51,6 +57,49 @@ class ExecutionListenerAdapterTests {
 		assertThat(testExecutionListener.testIdentifier).isEqualTo(testIdentifier);
 	}
 
+	@Test
+	void serializedAdapterDeliversEventsOneAtATime() throws Exception {
+		TestDescriptor testDescriptor = getSampleMethodTestDescriptor();
+		TestPlan testPlan = TestPlan.from(Collections.singleton(testDescriptor));
+		AtomicInteger activeInvocations = new AtomicInteger();
+		AtomicInteger maxActiveInvocations = new AtomicInteger();
+		AtomicInteger invocations = new AtomicInteger();
+		TestExecutionListener testExecutionListener = new TestExecutionListener() {
+
+			@Override
+			public void reportingEntryPublished(TestIdentifier testIdentifier, ReportEntry entry) {
+				maxActiveInvocations.accumulateAndGet(activeInvocations.incrementAndGet(), Math::max);
+				Thread.yield();
+				invocations.incrementAndGet();
+				activeInvocations.decrementAndGet();
+			}
+		};
+		ExecutionListenerAdapter executionListenerAdapter = ExecutionListenerAdapter.serialized(testPlan,
+			testExecutionListener);
+
+		ReportEntry entry = ReportEntry.from("key", "value");
+		ExecutorService executorService = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				futures.add(executorService.submit(() -> {
+					for (int j = 0; j < 1000; j++) {
+						executionListenerAdapter.reportingEntryPublished(testDescriptor, entry);
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+		finally {
+			executorService.shutdownNow();
+		}
+
+		assertThat(invocations).hasValue(4000);
+		assertThat(maxActiveInvocations).hasValue(1);
+	}
+
 	private TestDescriptor getSampleMethodTestDescriptor() {
 		Method localMethodNamedNothing = ReflectionUtils.findMethod(this.getClass(), "nothing", new Class<?>[0]).get();
 		return new DemoMethodTestDescriptor(UniqueId.root("method", "unique_id"), this.getClass(),
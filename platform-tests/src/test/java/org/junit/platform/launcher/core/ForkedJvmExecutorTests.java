@@ -0,0 +1,190 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.launcher.LauncherConstants.FORKED_JVM_ARGS_PROPERTY_NAME;
+import static org.junit.platform.launcher.LauncherConstants.FORKED_WORKERS_PROPERTY_NAME;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+import static org.junit.platform.launcher.core.LauncherFactoryForTestingPurposesOnly.createLauncher;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.engine.JupiterTestEngine;
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+import org.junit.platform.launcher.listeners.TestExecutionSummary.Failure;
+
+/**
+ * Integration tests for {@link ForkedJvmExecutor} that start real JVMs.
+ *
+ * @since 1.4
+ */
+class ForkedJvmExecutorTests {
+
+	private static final String FORKED_MARKER_PROPERTY_NAME = "forked.jvm.executor.tests";
+
+	@Test
+	void executesTestsInForkedJvms() {
+		TestExecutionSummary summary = execute("2", FirstForkedTestCase.class, SecondForkedTestCase.class);
+
+		assertEquals(4, summary.getTestsFoundCount());
+		assertEquals(2, summary.getTestsSucceededCount());
+		assertEquals(1, summary.getTestsFailedCount());
+		assertEquals(1, summary.getTestsSkippedCount());
+		assertEquals(0, summary.getContainersFailedCount());
+		// engine + 2 classes + nested class
+		assertEquals(4, summary.getContainersSucceededCount());
+		assertThat(summary.getFailures()).extracting(failure -> failure.getException().getMessage()).containsExactly(
+			"forked failure");
+	}
+
+	@Test
+	void replacesCrashedWorkerAndFailsItsTests() {
+		TestExecutionSummary summary = execute("1", CrashingTestCase.class, FirstForkedTestCase.class);
+
+		assertEquals(2, summary.getTestsSucceededCount());
+		assertEquals(1, summary.getTestsFailedCount());
+		List<Failure> failures = summary.getFailures();
+		assertThat(failures).extracting(failure -> failure.getTestIdentifier().getDisplayName()).containsExactly(
+			"crash()", CrashingTestCase.class.getSimpleName(), "JUnit Jupiter");
+		assertThat(failures.get(0).getException()).isInstanceOf(JUnitException.class).hasMessageContaining(
+			"Forked JVM terminated unexpectedly");
+	}
+
+	@Test
+	void rejectsInvalidNumberOfWorkers() {
+		JUnitException exception = assertThrows(JUnitException.class,
+			() -> ForkedJvmExecutor.create(new LauncherConfigurationParameters(
+				Collections.singletonMap(FORKED_WORKERS_PROPERTY_NAME, "many"))));
+
+		assertThat(exception).hasMessage("Invalid value 'many' specified via configuration parameter '"
+				+ FORKED_WORKERS_PROPERTY_NAME + "'");
+	}
+
+	@Test
+	void isDisabledByDefault() {
+		assertThat(ForkedJvmExecutor.create(new LauncherConfigurationParameters(Collections.emptyMap()))).isEmpty();
+	}
+
+	@Test
+	void rejectsObjectsThatMayNotBeExchangedBetweenJvms() throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(new HashMap<>(singletonMap("key", new AtomicInteger(42))));
+		}
+
+		try (ObjectInputStream in = new ForkedJvmWorker.FilteringObjectInputStream(
+			new ByteArrayInputStream(bytes.toByteArray()))) {
+			InvalidClassException exception = assertThrows(InvalidClassException.class, in::readObject);
+			assertThat(exception).hasMessageContaining(AtomicInteger.class.getName());
+		}
+	}
+
+	@Test
+	void replacesExceptionsThatReferToObjectsThatMayNotBeExchangedBetweenJvms() {
+		Throwable throwable = ForkedJvmWorker.toSerializableThrowable(new PayloadException(new AtomicInteger(42)));
+
+		assertThat(throwable).isInstanceOf(JUnitException.class).hasMessage(
+			PayloadException.class.getName() + ": payload");
+	}
+
+	private static TestExecutionSummary execute(String workers, Class<?>... testClasses) {
+		SummaryGeneratingListener listener = new SummaryGeneratingListener();
+		// @formatter:off
+		createLauncher(new JupiterTestEngine()).execute(request()
+				.selectors(selectClass(testClasses[0]), selectClass(testClasses[1]))
+				.configurationParameter(FORKED_WORKERS_PROPERTY_NAME, workers)
+				.configurationParameter(FORKED_JVM_ARGS_PROPERTY_NAME, "-D" + FORKED_MARKER_PROPERTY_NAME + "=true")
+				.build(), listener);
+		// @formatter:on
+		return listener.getSummary();
+	}
+
+	private static void assertForked() {
+		assertEquals("true", System.getProperty(FORKED_MARKER_PROPERTY_NAME));
+	}
+
+	static class FirstForkedTestCase {
+
+		@Test
+		void succeeds(TestReporter reporter) {
+			assertForked();
+			reporter.publishEntry("forked", "true");
+		}
+
+		@Nested
+		class NestedTestCase {
+
+			@Test
+			void succeeds() {
+				assertForked();
+			}
+
+		}
+
+	}
+
+	static class SecondForkedTestCase {
+
+		@Test
+		void fails() {
+			assertForked();
+			throw new AssertionError("forked failure");
+		}
+
+		@Test
+		@Disabled
+		void skipped() {
+		}
+
+	}
+
+	static class CrashingTestCase {
+
+		@Test
+		void crash() {
+			assertForked();
+			Runtime.getRuntime().halt(42);
+		}
+
+	}
+
+	@SuppressWarnings("serial")
+	static class PayloadException extends RuntimeException {
+
+		final AtomicInteger payload;
+
+		PayloadException(AtomicInteger payload) {
+			super("payload");
+			this.payload = payload;
+		}
+
+	}
+
+}
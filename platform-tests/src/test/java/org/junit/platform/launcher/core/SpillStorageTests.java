@@ -0,0 +1,77 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License v2.0 which
+ * accompanies this distribution and is available at
+ *
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+
+package org.junit.platform.launcher.core;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.extensions.TempDirectory;
+import org.junit.jupiter.extensions.TempDirectory.Root;
+import org.junit.platform.engine.reporting.FileRegion;
+import org.junit.platform.engine.reporting.ReportEntry;
+
+/**
+ * @since 1.4
+ */
+@ExtendWith(TempDirectory.class)
+class SpillStorageTests {
+
+	@Test
+	void keepsEntriesWithoutValuesExceedingThresholdInMemory(@Root Path tempDirectory) {
+		SpillStorage spillStorage = new SpillStorage(tempDirectory, 5);
+		ReportEntry reportEntry = ReportEntry.from("key", "12345");
+
+		assertSame(reportEntry, spillStorage.spill(reportEntry));
+	}
+
+	@Test
+	void spillsValuesExceedingThresholdToFiles(@Root Path tempDirectory) {
+		SpillStorage spillStorage = new SpillStorage(tempDirectory, 5);
+		Map<String, String> keyValuePairs = new LinkedHashMap<>();
+		keyValuePairs.put("small", "12345");
+		keyValuePairs.put("large", "123456 äöü");
+		ReportEntry reportEntry = ReportEntry.from(keyValuePairs);
+
+		ReportEntry spilledEntry = spillStorage.spill(reportEntry);
+
+		FileRegion fileRegion = spilledEntry.getFileRegions().get("large");
+		assertAll(//
+			() -> assertEquals(reportEntry.getTimestamp(), spilledEntry.getTimestamp()), //
+			() -> assertEquals(1, spilledEntry.getFileRegions().size()), //
+			() -> assertTrue(Files.isRegularFile(fileRegion.getPath())), //
+			() -> assertEquals(13, fileRegion.getLength()), //
+			() -> assertEquals(keyValuePairs, spilledEntry.getKeyValuePairs()) //
+		);
+	}
+
+	@Test
+	void deletesSpilledFilesWhenClosed(@Root Path tempDirectory) throws Exception {
+		Path directory = Files.createDirectory(tempDirectory.resolve("spill"));
+		SpillStorage spillStorage = new SpillStorage(directory, 1);
+		FileRegion fileRegion = spillStorage.spill(ReportEntry.from("key", "value")).getFileRegions().get("key");
+
+		spillStorage.close();
+
+		assertFalse(Files.exists(fileRegion.getPath()));
+		assertFalse(Files.exists(directory));
+	}
+
+}
@@ -10,8 +10,10 @@
 
 package org.junit.platform.launcher.core;
 
+import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.entry;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.junit.platform.engine.TestExecutionResult.successful;
 import static org.junit.platform.engine.discovery.DiscoverySelectors.selectUniqueId;
@@ -27,10 +29,12 @@ import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.time.Duration;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -92,7 +96,69 @@ class StreamInterceptingTestExecutionListenerIntegrationTests {
 		inOrder.verify(listener).executionFinished(testIdentifier, successful());
 		ReportEntry reportEntry = reportEntryArgumentCaptor.getValue();
 
-		assertThat(reportEntry.getKeyValuePairs()).containsExactly(entry(reportKey, "12345"));
+		assertThat(reportEntry.getKeyValuePairs()).containsExactly(
+			entry(reportKey, "12345[... 5 more bytes truncated ...]"));
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("systemStreams")
+	@ExtendWith(HiddenSystemOutAndErr.class)
+	void attributesOutputOfThreadsStartedByTestToIt(String configParam, Supplier<PrintStream> printStreamSupplier,
+			String reportKey) {
+		DemoHierarchicalTestEngine engine = new DemoHierarchicalTestEngine("engine");
+		TestDescriptor test = engine.addTest("test", () -> {
+			Thread thread = new Thread(() -> printStreamSupplier.get().print("child"));
+			thread.start();
+			try {
+				thread.join();
+			}
+			catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+			printStreamSupplier.get().print(" and parent");
+		});
+		TestExecutionListener listener = mock(TestExecutionListener.class);
+
+		DefaultLauncher launcher = createLauncher(engine);
+		LauncherDiscoveryRequest discoveryRequest = request()//
+				.selectors(selectUniqueId(test.getUniqueId()))//
+				.configurationParameter(configParam, String.valueOf(true))//
+				.build();
+		launcher.execute(discoveryRequest, listener);
+
+		ArgumentCaptor<ReportEntry> reportEntryArgumentCaptor = ArgumentCaptor.forClass(ReportEntry.class);
+		verify(listener).reportingEntryPublished(any(), reportEntryArgumentCaptor.capture());
+		assertThat(reportEntryArgumentCaptor.getValue().getKeyValuePairs()).containsExactly(
+			entry(reportKey, "child and parent"));
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("systemStreams")
+	@ExtendWith(HiddenSystemOutAndErr.class)
+	void attributesOutputOfCodeExecutedByAssertTimeoutPreemptivelyToCallingTest(String configParam,
+			Supplier<PrintStream> printStreamSupplier, String reportKey) {
+		DemoHierarchicalTestEngine engine = new DemoHierarchicalTestEngine("engine");
+		TestDescriptor test1 = engine.addTest("test1",
+			() -> assertTimeoutPreemptively(Duration.ofSeconds(10), () -> printStreamSupplier.get().print("first")));
+		TestDescriptor test2 = engine.addTest("test2",
+			() -> assertTimeoutPreemptively(Duration.ofSeconds(10), () -> printStreamSupplier.get().print("second")));
+		TestExecutionListener listener = mock(TestExecutionListener.class);
+
+		DefaultLauncher launcher = createLauncher(engine);
+		LauncherDiscoveryRequest discoveryRequest = request()//
+				.selectors(selectUniqueId(test1.getUniqueId()), selectUniqueId(test2.getUniqueId()))//
+				.configurationParameter(configParam, String.valueOf(true))//
+				.build();
+		launcher.execute(discoveryRequest, listener);
+
+		ArgumentCaptor<TestIdentifier> testIdentifierArgumentCaptor = ArgumentCaptor.forClass(TestIdentifier.class);
+		ArgumentCaptor<ReportEntry> reportEntryArgumentCaptor = ArgumentCaptor.forClass(ReportEntry.class);
+		verify(listener, times(2)).reportingEntryPublished(testIdentifierArgumentCaptor.capture(),
+			reportEntryArgumentCaptor.capture());
+		assertThat(testIdentifierArgumentCaptor.getAllValues()).extracting(TestIdentifier::getUniqueId).containsExactly(
+			test1.getUniqueId().toString(), test2.getUniqueId().toString());
+		assertThat(reportEntryArgumentCaptor.getAllValues()).extracting(ReportEntry::getKeyValuePairs).containsExactly(
+			singletonMap(reportKey, "first"), singletonMap(reportKey, "second"));
 	}
 
 	@ParameterizedTest(name = "{0}")
@@ -13,14 +13,23 @@ package org.junit.platform.launcher.core;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Optional;
 import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.extensions.TempDirectory;
+import org.junit.jupiter.extensions.TempDirectory.Root;
+import org.junit.platform.engine.reporting.FileRegion;
+import org.junit.platform.launcher.core.StreamInterceptor.Capture;
 
 /**
  * @since 1.3
@@ -33,7 +42,7 @@ class StreamInterceptorTests {
 	@Test
 	void interceptsWriteOperationsToStreamPerThread() {
 		StreamInterceptor streamInterceptor = StreamInterceptor.register(targetStream,
-			newStream -> this.targetStream = newStream, 3).orElseThrow(RuntimeException::new);
+			newStream -> this.targetStream = newStream, 10).orElseThrow(RuntimeException::new);
 		// @formatter:off
 		IntStream.range(0, 1000)
 				.parallel()
@@ -100,4 +109,100 @@ class StreamInterceptorTests {
 			() -> assertEquals("innermost", innermost) //
 		);
 	}
+
+	@Test
+	void appendsTruncationMarkerWhenMaximumNumberOfBytesPerCaptureIsExceeded() {
+		StreamInterceptor streamInterceptor = StreamInterceptor.register(targetStream,
+			newStream -> this.targetStream = newStream, 3).orElseThrow(RuntimeException::new);
+
+		streamInterceptor.capture();
+		streamInterceptor.print("12345");
+
+		assertEquals("123[... 2 more bytes truncated ...]", streamInterceptor.consume());
+	}
+
+	@Test
+	void capturesOutputOfThreadsStartedWhileCaptureIsActive() throws InterruptedException {
+		StreamInterceptor streamInterceptor = StreamInterceptor.register(targetStream,
+			newStream -> this.targetStream = newStream, 100).orElseThrow(RuntimeException::new);
+
+		Capture capture = streamInterceptor.capture();
+		Thread thread = new Thread(() -> streamInterceptor.print("child - "));
+		thread.start();
+		thread.join();
+		streamInterceptor.print("parent");
+
+		assertEquals("child - parent", streamInterceptor.consume(capture));
+	}
+
+	@Test
+	void attributesOutputOfThreadsOutlivingConsumedCaptureToEnclosingCapture() throws InterruptedException {
+		StreamInterceptor streamInterceptor = StreamInterceptor.register(targetStream,
+			newStream -> this.targetStream = newStream, 100).orElseThrow(RuntimeException::new);
+
+		Capture outer = streamInterceptor.capture();
+		Capture inner = streamInterceptor.capture();
+		Thread thread = new Thread(() -> streamInterceptor.print("late"));
+		assertEquals("", streamInterceptor.consume(inner));
+		thread.start();
+		thread.join();
+
+		assertEquals("late", streamInterceptor.consume(outer));
+	}
+
+	@Test
+	void discardsOutputOnceTotalNumberOfBufferedBytesIsExceeded() {
+		CaptureBufferPool bufferPool = new CaptureBufferPool(4, 4);
+		StreamInterceptor streamInterceptor = StreamInterceptor.register(targetStream,
+			newStream -> this.targetStream = newStream, bufferPool).orElseThrow(RuntimeException::new);
+
+		Capture first = streamInterceptor.capture();
+		streamInterceptor.print("1234");
+		Capture second = streamInterceptor.capture();
+		streamInterceptor.print("5678");
+
+		assertAll(//
+			() -> assertEquals("[... 4 more bytes truncated (total capture buffer limit reached) ...]",
+				streamInterceptor.consume(second)), //
+			() -> assertEquals("1234", streamInterceptor.consume(first)), //
+			() -> assertEquals(0, bufferPool.getBytesInUse()) //
+		);
+	}
+
+	@Test
+	@ExtendWith(TempDirectory.class)
+	void spillsOutputExceedingThresholdToFile(@Root Path tempDirectory) {
+		CaptureBufferPool bufferPool = new CaptureBufferPool(100, 100,
+			Optional.of(new SpillStorage(tempDirectory, 4)));
+		StreamInterceptor streamInterceptor = StreamInterceptor.register(targetStream,
+			newStream -> this.targetStream = newStream, bufferPool).orElseThrow(RuntimeException::new);
+
+		Capture small = streamInterceptor.capture();
+		streamInterceptor.print("1234");
+		assertEquals("1234", streamInterceptor.consume(small));
+		assertFalse(small.getFileRegion().isPresent());
+
+		Capture large = streamInterceptor.capture();
+		streamInterceptor.print("1234");
+		streamInterceptor.print("5678");
+
+		assertAll(//
+			() -> assertEquals("", streamInterceptor.consume(large)), //
+			() -> assertTrue(large.getFileRegion().isPresent()), //
+			() -> assertEquals("12345678", large.getFileRegion().map(FileRegion::readString).orElse(null)), //
+			() -> assertEquals(0, bufferPool.getBytesInUse()) //
+		);
+	}
+
+	@Test
+	void ignoresBlankOutput() {
+		StreamInterceptor streamInterceptor = StreamInterceptor.register(targetStream,
+			newStream -> this.targetStream = newStream, 100).orElseThrow(RuntimeException::new);
+
+		streamInterceptor.capture();
+		streamInterceptor.print(" \t\n");
+
+		assertEquals("", streamInterceptor.consume());
+	}
+
 }